@@ -26,6 +26,7 @@ import com.google.cloud.spring.autoconfigure.core.GcpContextAutoConfiguration;
 import com.google.cloud.spring.core.DefaultCredentialsProvider;
 import com.google.cloud.spring.core.GcpProjectIdProvider;
 import com.google.cloud.spring.core.UserAgentHeaderProvider;
+import com.google.cloud.spring.data.datastore.core.AsyncDatastoreTemplate;
 import com.google.cloud.spring.data.datastore.core.DatastoreOperations;
 import com.google.cloud.spring.data.datastore.core.DatastoreTemplate;
 import com.google.cloud.spring.data.datastore.core.convert.DatastoreCustomConversions;
@@ -74,6 +75,8 @@ public class GcpDatastoreAutoConfiguration {
 
   private final String host;
 
+  private final int idPoolSize;
+
   GcpDatastoreAutoConfiguration(
       GcpDatastoreProperties gcpDatastoreProperties,
       GcpProjectIdProvider projectIdProvider,
@@ -85,6 +88,7 @@ public class GcpDatastoreAutoConfiguration {
             ? gcpDatastoreProperties.getProjectId()
             : projectIdProvider.getProjectId();
     this.namespace = gcpDatastoreProperties.getNamespace();
+    this.idPoolSize = gcpDatastoreProperties.getIdPoolSize();
 
     String hostToConnect = gcpDatastoreProperties.getHost();
     if (gcpDatastoreProperties.getEmulator().isEnabled()) {
@@ -157,7 +161,10 @@ public class GcpDatastoreAutoConfiguration {
   @Bean
   @ConditionalOnMissingBean
   public ObjectToKeyFactory objectToKeyFactory(DatastoreProvider datastore) {
-    return new DatastoreServiceObjectToKeyFactory(datastore);
+    DatastoreServiceObjectToKeyFactory objectToKeyFactory =
+        new DatastoreServiceObjectToKeyFactory(datastore);
+    objectToKeyFactory.setIdPoolSize(this.idPoolSize);
+    return objectToKeyFactory;
   }
 
   @Bean
@@ -178,6 +185,12 @@ public class GcpDatastoreAutoConfiguration {
         datastore, datastoreEntityConverter, datastoreMappingContext, objectToKeyFactory);
   }
 
+  @Bean
+  @ConditionalOnMissingBean
+  public AsyncDatastoreTemplate asyncDatastoreTemplate(DatastoreTemplate datastoreTemplate) {
+    return new AsyncDatastoreTemplate(datastoreTemplate);
+  }
+
   private DatastoreProvider getDatastoreProvider(DatastoreNamespaceProvider keySupplier) {
     ConcurrentHashMap<String, Datastore> store = new ConcurrentHashMap<>();
     return () -> store.computeIfAbsent(keySupplier.get(), this::getDatastore);
@@ -44,6 +44,12 @@ public class GcpDatastoreProperties implements CredentialsSupplier {
 
   private String namespace;
 
+  /**
+   * Number of IDs pre-allocated per kind for new entities without ancestors. 0 disables the ID
+   * pool.
+   */
+  private int idPoolSize;
+
   @Override
   public Credentials getCredentials() {
     return this.credentials;
@@ -76,4 +82,12 @@ public class GcpDatastoreProperties implements CredentialsSupplier {
   public void setHost(String host) {
     this.host = host;
   }
+
+  public int getIdPoolSize() {
+    return this.idPoolSize;
+  }
+
+  public void setIdPoolSize(int idPoolSize) {
+    this.idPoolSize = idPoolSize;
+  }
 }
@@ -23,6 +23,7 @@ import com.google.cloud.spring.core.DefaultCredentialsProvider;
 import com.google.cloud.spring.core.DefaultGcpProjectIdProvider;
 import com.google.cloud.spring.core.GcpProjectIdProvider;
 import com.google.cloud.spring.core.UserAgentHeaderProvider;
+import com.google.cloud.spring.kms.KmsEnvelopeTemplate;
 import com.google.cloud.spring.kms.KmsTemplate;
 import java.io.IOException;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
@@ -72,4 +73,16 @@ public class GcpKmsAutoConfiguration {
   public KmsTemplate kmsTemplate(KeyManagementServiceClient client) {
     return new KmsTemplate(client, gcpProjectIdProvider);
   }
+
+  @Bean
+  @ConditionalOnMissingBean
+  @ConditionalOnProperty("spring.cloud.gcp.kms.envelope.enabled")
+  public KmsEnvelopeTemplate kmsEnvelopeTemplate(
+      KmsTemplate kmsTemplate, GcpKmsProperties properties) {
+    KmsEnvelopeTemplate envelopeTemplate = new KmsEnvelopeTemplate(kmsTemplate);
+    envelopeTemplate.setDataKeyTimeToLive(properties.getEnvelope().getDataKeyTimeToLive());
+    envelopeTemplate.setDataKeyMaxUsages(properties.getEnvelope().getDataKeyMaxUsages());
+    envelopeTemplate.setMaxCachedDataKeys(properties.getEnvelope().getMaxCachedDataKeys());
+    return envelopeTemplate;
+  }
 }
@@ -19,6 +19,7 @@ package com.google.cloud.spring.autoconfigure.kms;
 import com.google.cloud.spring.core.Credentials;
 import com.google.cloud.spring.core.CredentialsSupplier;
 import com.google.cloud.spring.core.GcpScope;
+import java.time.Duration;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.boot.context.properties.NestedConfigurationProperty;
 
@@ -32,6 +33,9 @@ public class GcpKmsProperties implements CredentialsSupplier {
   /** Overrides the GCP Project ID specified in the Core module. */
   private String projectId;
 
+  /** Settings for local envelope encryption with KMS-wrapped data keys. */
+  private final Envelope envelope = new Envelope();
+
   @Override
   public Credentials getCredentials() {
     return credentials;
@@ -44,4 +48,56 @@ public class GcpKmsProperties implements CredentialsSupplier {
   public void setProjectId(String projectId) {
     this.projectId = projectId;
   }
+
+  public Envelope getEnvelope() {
+    return envelope;
+  }
+
+  /** Envelope encryption settings. */
+  public static class Envelope {
+
+    /** Enables the {@code KmsEnvelopeTemplate} bean. */
+    private boolean enabled = false;
+
+    /** How long a data encryption key is used for encryption and kept for decryption. */
+    private Duration dataKeyTimeToLive = Duration.ofMinutes(10);
+
+    /** Number of encryptions after which a new data encryption key is generated. */
+    private long dataKeyMaxUsages = 1_000_000L;
+
+    /** Maximum number of unwrapped data encryption keys cached for decryption. */
+    private int maxCachedDataKeys = 1000;
+
+    public boolean isEnabled() {
+      return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+      this.enabled = enabled;
+    }
+
+    public Duration getDataKeyTimeToLive() {
+      return dataKeyTimeToLive;
+    }
+
+    public void setDataKeyTimeToLive(Duration dataKeyTimeToLive) {
+      this.dataKeyTimeToLive = dataKeyTimeToLive;
+    }
+
+    public long getDataKeyMaxUsages() {
+      return dataKeyMaxUsages;
+    }
+
+    public void setDataKeyMaxUsages(long dataKeyMaxUsages) {
+      this.dataKeyMaxUsages = dataKeyMaxUsages;
+    }
+
+    public int getMaxCachedDataKeys() {
+      return maxCachedDataKeys;
+    }
+
+    public void setMaxCachedDataKeys(int maxCachedDataKeys) {
+      this.maxCachedDataKeys = maxCachedDataKeys;
+    }
+  }
 }
@@ -31,6 +31,7 @@ import org.springframework.boot.autoconfigure.security.oauth2.resource.servlet.O
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
 import org.springframework.http.client.SimpleClientHttpRequestFactory;
 import org.springframework.security.oauth2.core.DelegatingOAuth2TokenValidator;
 import org.springframework.security.oauth2.core.OAuth2TokenValidator;
@@ -80,8 +81,15 @@ public class FirebaseAuthenticationAutoConfiguration {
   public JwtDecoder firebaseAuthenticationJwtDecoder(
       DelegatingOAuth2TokenValidator<Jwt> firebaseJwtDelegatingValidator,
       FirebaseAuthenticationProperties properties) {
+    SimpleAsyncTaskExecutor refreshExecutor = new SimpleAsyncTaskExecutor("firebase-key-refresh-");
+    refreshExecutor.setDaemon(true);
     return new FirebaseJwtTokenDecoder(
-        restOperations(), properties.getPublicKeysEndpoint(), firebaseJwtDelegatingValidator);
+        restOperations(),
+        properties.getPublicKeysEndpoint(),
+        firebaseJwtDelegatingValidator,
+        properties.getTokenCacheSize(),
+        properties.getKeyRefreshAheadTime(),
+        refreshExecutor);
   }
 
   @Bean
@@ -16,6 +16,8 @@
 
 package com.google.cloud.spring.autoconfigure.security;
 
+import com.google.cloud.spring.security.firebase.FirebaseJwtTokenDecoder;
+import java.time.Duration;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 
 /**
@@ -33,6 +35,12 @@ public class FirebaseAuthenticationProperties {
   /** Overrides the GCP project ID specified in the Core module. */
   private String projectId;
 
+  /** Maximum number of verified tokens to cache until their expiration. 0 disables the cache. */
+  private int tokenCacheSize = FirebaseJwtTokenDecoder.DEFAULT_TOKEN_CACHE_SIZE;
+
+  /** How long before the public keys expire a background refresh of the keys is started. */
+  private Duration keyRefreshAheadTime = FirebaseJwtTokenDecoder.DEFAULT_REFRESH_AHEAD_TIME;
+
   public String getPublicKeysEndpoint() {
     return publicKeysEndpoint;
   }
@@ -48,4 +56,20 @@ public class FirebaseAuthenticationProperties {
   public void setProjectId(String projectId) {
     this.projectId = projectId;
   }
+
+  public int getTokenCacheSize() {
+    return tokenCacheSize;
+  }
+
+  public void setTokenCacheSize(int tokenCacheSize) {
+    this.tokenCacheSize = tokenCacheSize;
+  }
+
+  public Duration getKeyRefreshAheadTime() {
+    return keyRefreshAheadTime;
+  }
+
+  public void setKeyRefreshAheadTime(Duration keyRefreshAheadTime) {
+    this.keyRefreshAheadTime = keyRefreshAheadTime;
+  }
 }
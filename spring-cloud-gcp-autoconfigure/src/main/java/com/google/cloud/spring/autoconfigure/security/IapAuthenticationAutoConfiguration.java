@@ -23,6 +23,12 @@ import com.google.cloud.spring.core.GcpProjectIdProvider;
 import com.google.cloud.spring.security.iap.AppEngineAudienceProvider;
 import com.google.cloud.spring.security.iap.AudienceProvider;
 import com.google.cloud.spring.security.iap.AudienceValidator;
+import com.google.cloud.spring.security.iap.CachingJwtDecoder;
+import com.google.cloud.spring.security.iap.RefreshingJwkSource;
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.proc.JWSVerificationKeySelector;
+import com.nimbusds.jose.proc.SecurityContext;
+import com.nimbusds.jwt.proc.DefaultJWTProcessor;
 import java.util.ArrayList;
 import java.util.List;
 import org.apache.commons.logging.Log;
@@ -37,16 +43,17 @@ import org.springframework.boot.autoconfigure.security.oauth2.resource.servlet.O
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
 import org.springframework.security.config.annotation.web.configuration.WebSecurityConfigurerAdapter;
 import org.springframework.security.oauth2.core.DelegatingOAuth2TokenValidator;
 import org.springframework.security.oauth2.core.OAuth2TokenValidator;
-import org.springframework.security.oauth2.jose.jws.SignatureAlgorithm;
 import org.springframework.security.oauth2.jwt.Jwt;
 import org.springframework.security.oauth2.jwt.JwtDecoder;
 import org.springframework.security.oauth2.jwt.JwtIssuerValidator;
 import org.springframework.security.oauth2.jwt.JwtTimestampValidator;
 import org.springframework.security.oauth2.jwt.NimbusJwtDecoder;
 import org.springframework.security.oauth2.server.resource.web.BearerTokenResolver;
+import org.springframework.web.client.RestTemplate;
 
 /**
  * Autoconfiguration for extracting pre-authenticated user identity from <a
@@ -65,6 +72,8 @@ import org.springframework.security.oauth2.server.resource.web.BearerTokenResolv
  *         <li>Audience (this validation is only enabled if running on AppEngine, or if a custom
  *             audience is provided through {@code spring.cloud.gcp.security.iap.audience} property)
  *       </ul>
+ *       The public keys are refreshed in the background, and verified tokens are cached until
+ *       their expiration unless {@code spring.cloud.gcp.security.iap.token-cache-size} is 0.
  * </ul>
  *
  * <p>If a custom {@link WebSecurityConfigurerAdapter} is present, it must add {@code
@@ -137,12 +146,27 @@ public class IapAuthenticationAutoConfiguration {
       IapAuthenticationProperties properties,
       @Qualifier("iapJwtDelegatingValidator") DelegatingOAuth2TokenValidator<Jwt> validator) {
 
-    NimbusJwtDecoder jwtDecoder =
-        NimbusJwtDecoder.withJwkSetUri(properties.getRegistry())
-            .jwsAlgorithm(SignatureAlgorithm.from(properties.getAlgorithm()))
-            .build();
+    SimpleAsyncTaskExecutor refreshExecutor = new SimpleAsyncTaskExecutor("iap-jwk-refresh-");
+    refreshExecutor.setDaemon(true);
+    RefreshingJwkSource jwkSource =
+        new RefreshingJwkSource(
+            new RestTemplate(),
+            properties.getRegistry(),
+            properties.getKeyRefreshInterval(),
+            refreshExecutor);
+
+    DefaultJWTProcessor<SecurityContext> jwtProcessor = new DefaultJWTProcessor<>();
+    jwtProcessor.setJWSKeySelector(
+        new JWSVerificationKeySelector<>(JWSAlgorithm.parse(properties.getAlgorithm()), jwkSource));
+    // Claims are verified by the Spring Security validators instead.
+    jwtProcessor.setJWTClaimsSetVerifier((claims, context) -> { });
+
+    NimbusJwtDecoder jwtDecoder = new NimbusJwtDecoder(jwtProcessor);
     jwtDecoder.setJwtValidator(validator);
 
-    return jwtDecoder;
+    if (properties.getTokenCacheSize() <= 0) {
+      return jwtDecoder;
+    }
+    return new CachingJwtDecoder(jwtDecoder, properties.getTokenCacheSize());
   }
 }
@@ -16,6 +16,7 @@
 
 package com.google.cloud.spring.autoconfigure.security;
 
+import java.time.Duration;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 
 /**
@@ -41,6 +42,12 @@ public class IapAuthenticationProperties {
   /** Non-dynamic audience string to validate. */
   private String audience;
 
+  /** Maximum number of verified tokens to cache until their expiration. 0 disables the cache. */
+  private int tokenCacheSize = 1000;
+
+  /** How often the JWK public key set is refreshed in the background. Minimum of 30 seconds. */
+  private Duration keyRefreshInterval = Duration.ofMinutes(5);
+
   public String getRegistry() {
     return this.registry;
   }
@@ -80,4 +87,20 @@ public class IapAuthenticationProperties {
   public void setAudience(String audience) {
     this.audience = audience;
   }
+
+  public int getTokenCacheSize() {
+    return this.tokenCacheSize;
+  }
+
+  public void setTokenCacheSize(int tokenCacheSize) {
+    this.tokenCacheSize = tokenCacheSize;
+  }
+
+  public Duration getKeyRefreshInterval() {
+    return this.keyRefreshInterval;
+  }
+
+  public void setKeyRefreshInterval(Duration keyRefreshInterval) {
+    this.keyRefreshInterval = keyRefreshInterval;
+  }
 }
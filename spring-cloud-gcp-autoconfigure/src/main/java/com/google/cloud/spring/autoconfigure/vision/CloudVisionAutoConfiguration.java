@@ -92,7 +92,11 @@ public class CloudVisionAutoConfiguration {
   @Bean
   @ConditionalOnMissingBean
   public CloudVisionTemplate cloudVisionTemplate(ImageAnnotatorClient imageAnnotatorClient) {
-    return new CloudVisionTemplate(imageAnnotatorClient);
+    CloudVisionTemplate cloudVisionTemplate = new CloudVisionTemplate(imageAnnotatorClient);
+    cloudVisionTemplate.setMaxBatchSize(this.cloudVisionProperties.getImageBatchSize());
+    cloudVisionTemplate.setMaxBatchDelay(this.cloudVisionProperties.getImageBatchDelay());
+    cloudVisionTemplate.setMaxBatchBytes(this.cloudVisionProperties.getImageBatchBytes());
+    return cloudVisionTemplate;
   }
 
   @Bean
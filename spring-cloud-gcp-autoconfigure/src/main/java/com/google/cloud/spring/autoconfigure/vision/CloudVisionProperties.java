@@ -19,6 +19,7 @@ package com.google.cloud.spring.autoconfigure.vision;
 import com.google.cloud.spring.core.Credentials;
 import com.google.cloud.spring.core.CredentialsSupplier;
 import com.google.cloud.spring.core.GcpScope;
+import java.time.Duration;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.boot.context.properties.NestedConfigurationProperty;
 
@@ -40,6 +41,15 @@ public class CloudVisionProperties implements CredentialsSupplier {
   /** Number of document pages to include in each JSON output file. */
   private int jsonOutputBatchSize = 20;
 
+  /** Maximum number of images sent in one batch request by the asynchronous image APIs. */
+  private int imageBatchSize = 16;
+
+  /** Maximum time an asynchronously submitted image waits for others to share its batch. */
+  private Duration imageBatchDelay = Duration.ofMillis(10);
+
+  /** Maximum size in bytes of the image requests sent in one batch request. */
+  private long imageBatchBytes = 8L * 1024 * 1024;
+
   public Credentials getCredentials() {
     return this.credentials;
   }
@@ -59,4 +69,28 @@ public class CloudVisionProperties implements CredentialsSupplier {
   public void setJsonOutputBatchSize(int jsonOutputBatchSize) {
     this.jsonOutputBatchSize = jsonOutputBatchSize;
   }
+
+  public int getImageBatchSize() {
+    return imageBatchSize;
+  }
+
+  public void setImageBatchSize(int imageBatchSize) {
+    this.imageBatchSize = imageBatchSize;
+  }
+
+  public Duration getImageBatchDelay() {
+    return imageBatchDelay;
+  }
+
+  public void setImageBatchDelay(Duration imageBatchDelay) {
+    this.imageBatchDelay = imageBatchDelay;
+  }
+
+  public long getImageBatchBytes() {
+    return imageBatchBytes;
+  }
+
+  public void setImageBatchBytes(long imageBatchBytes) {
+    this.imageBatchBytes = imageBatchBytes;
+  }
 }
@@ -22,6 +22,7 @@ import static org.mockito.Mockito.mock;
 import com.google.api.gax.core.CredentialsProvider;
 import com.google.auth.Credentials;
 import com.google.cloud.kms.v1.KeyManagementServiceClient;
+import com.google.cloud.spring.kms.KmsEnvelopeTemplate;
 import com.google.cloud.spring.kms.KmsTemplate;
 import org.junit.jupiter.api.Test;
 import org.springframework.boot.WebApplicationType;
@@ -62,6 +63,22 @@ class KmsAutoConfigurationTests {
     }
   }
 
+  @Test
+  void testKmsEnvelopeTemplateNotCreatedByDefault() {
+    try (ConfigurableApplicationContext c = applicationBuilder.run()) {
+      assertThat(c.getBeansOfType(KmsEnvelopeTemplate.class)).isEmpty();
+    }
+  }
+
+  @Test
+  void testKmsEnvelopeTemplateCreatedWhenEnabled() {
+    try (ConfigurableApplicationContext c =
+        applicationBuilder.properties("spring.cloud.gcp.kms.envelope.enabled=true").run()) {
+      KmsEnvelopeTemplate envelopeTemplate = c.getBean(KmsEnvelopeTemplate.class);
+      assertThat(envelopeTemplate).isNotNull();
+    }
+  }
+
   @Configuration
   static class TestBootstrapConfiguration {
 
@@ -29,6 +29,7 @@ import com.google.cloud.spring.core.MetadataProvider;
 import com.google.cloud.spring.security.iap.AppEngineAudienceProvider;
 import com.google.cloud.spring.security.iap.AudienceProvider;
 import com.google.cloud.spring.security.iap.AudienceValidator;
+import com.google.cloud.spring.security.iap.CachingJwtDecoder;
 import java.time.Instant;
 import java.util.Collections;
 import javax.servlet.http.HttpServletRequest;
@@ -212,10 +213,23 @@ class IapAuthenticationAutoConfigurationTests {
             });
   }
 
+  @Test
+  void testTokenCacheDisabled() {
+    this.contextRunner
+        .withPropertyValues(
+            "spring.cloud.gcp.security.iap.audience=unused",
+            "spring.cloud.gcp.security.iap.token-cache-size=0")
+        .run(
+            context ->
+                assertThat(context.getBean(JwtDecoder.class)).isInstanceOf(NimbusJwtDecoder.class));
+  }
+
   private void verifyJwtBeans(AssertableApplicationContext context) {
     JwtDecoder jwtDecoder = context.getBean(JwtDecoder.class);
     assertThat(jwtDecoder).isNotNull();
-    assertThat(jwtDecoder).isInstanceOf(NimbusJwtDecoder.class);
+    assertThat(jwtDecoder).isInstanceOf(CachingJwtDecoder.class);
+    assertThat(((CachingJwtDecoder) jwtDecoder).getDelegate())
+        .isInstanceOf(NimbusJwtDecoder.class);
 
     BearerTokenResolver resolver = context.getBean(BearerTokenResolver.class);
     assertThat(resolver).isNotNull();
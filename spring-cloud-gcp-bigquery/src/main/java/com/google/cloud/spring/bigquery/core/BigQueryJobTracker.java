@@ -0,0 +1,272 @@
+/*
+ * Copyright 2022-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.cloud.spring.bigquery.core;
+
+import com.google.cloud.bigquery.BigQuery;
+import com.google.cloud.bigquery.BigQuery.JobListOption;
+import com.google.cloud.bigquery.Job;
+import com.google.cloud.bigquery.JobStatus.State;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.util.concurrent.ListenableFuture;
+import org.springframework.util.concurrent.SettableListenableFuture;
+
+/**
+ * Tracks the completion of BigQuery jobs with a single polling task shared by all pending jobs.
+ *
+ * <p>Each job is first checked after {@code initialPollInterval}; the interval then doubles with
+ * every check up to {@code maxPollInterval}. When at least {@code batchThreshold} jobs are due, a
+ * single {@link BigQuery#listJobs} call for the unfinished jobs replaces the individual status
+ * checks, and only the jobs missing from that list are reloaded.
+ */
+final class BigQueryJobTracker {
+
+  private static final Duration DEFAULT_INITIAL_POLL_INTERVAL = Duration.ofMillis(250);
+
+  private static final int DEFAULT_BATCH_THRESHOLD = 5;
+
+  /** Jobs due this soon after a poll are checked with it rather than by a separate poll. */
+  private static final Duration COALESCING_WINDOW = Duration.ofMillis(50);
+
+  /** Margin for clock skew between this host and BigQuery when filtering by creation time. */
+  private static final long CREATION_TIME_MARGIN_MILLIS = Duration.ofMinutes(5).toMillis();
+
+  private final BigQuery bigQuery;
+
+  private final TaskScheduler taskScheduler;
+
+  private final Map<String, TrackedJob> pendingJobs = new ConcurrentHashMap<>();
+
+  private final AtomicBoolean polling = new AtomicBoolean();
+
+  private final AtomicLong statusCheckCount = new AtomicLong();
+
+  private final AtomicLong completedJobCount = new AtomicLong();
+
+  private final AtomicLong totalCompletionMillis = new AtomicLong();
+
+  private volatile Duration maxPollInterval;
+
+  private volatile int batchThreshold = DEFAULT_BATCH_THRESHOLD;
+
+  private ScheduledFuture<?> scheduledPoll;
+
+  private Instant scheduledPollTime;
+
+  BigQueryJobTracker(BigQuery bigQuery, TaskScheduler taskScheduler, Duration maxPollInterval) {
+    this.bigQuery = bigQuery;
+    this.taskScheduler = taskScheduler;
+    this.maxPollInterval = maxPollInterval;
+  }
+
+  void setMaxPollInterval(Duration maxPollInterval) {
+    this.maxPollInterval = maxPollInterval;
+  }
+
+  void setBatchThreshold(int batchThreshold) {
+    this.batchThreshold = batchThreshold;
+  }
+
+  ListenableFuture<Job> track(Job pendingJob) {
+    SettableListenableFuture<Job> result = new SettableListenableFuture<>();
+    String jobKey = pendingJob.getJobId().getJob();
+    Duration interval = initialPollInterval();
+    TrackedJob trackedJob = new TrackedJob(jobKey, pendingJob, result, interval);
+    this.pendingJobs.put(jobKey, trackedJob);
+
+    // Jobs completed by the tracker are removed before their result is set; this covers
+    // cancellation by the caller.
+    result.addCallback(
+        response -> this.pendingJobs.remove(jobKey, trackedJob),
+        response -> {
+          this.pendingJobs.remove(jobKey, trackedJob);
+          pendingJob.cancel();
+        });
+
+    schedulePoll(trackedJob.nextPollTime);
+    return result;
+  }
+
+  int getPendingJobCount() {
+    return this.pendingJobs.size();
+  }
+
+  long getCompletedJobCount() {
+    return this.completedJobCount.get();
+  }
+
+  long getStatusCheckCount() {
+    return this.statusCheckCount.get();
+  }
+
+  Duration getAverageCompletionTime() {
+    long completed = this.completedJobCount.get();
+    return completed == 0
+        ? Duration.ZERO
+        : Duration.ofMillis(this.totalCompletionMillis.get() / completed);
+  }
+
+  private Duration initialPollInterval() {
+    Duration max = this.maxPollInterval;
+    return max.compareTo(DEFAULT_INITIAL_POLL_INTERVAL) < 0 ? max : DEFAULT_INITIAL_POLL_INTERVAL;
+  }
+
+  private synchronized void schedulePoll(Instant pollTime) {
+    if (this.scheduledPoll != null && !pollTime.isBefore(this.scheduledPollTime)) {
+      return;
+    }
+    if (this.scheduledPoll != null) {
+      this.scheduledPoll.cancel(false);
+    }
+    this.scheduledPollTime = pollTime;
+    this.scheduledPoll = this.taskScheduler.schedule(this::poll, pollTime);
+  }
+
+  private void poll() {
+    synchronized (this) {
+      this.scheduledPoll = null;
+      this.scheduledPollTime = null;
+    }
+    if (!this.polling.compareAndSet(false, true)) {
+      return;
+    }
+
+    try {
+      Instant dueBy = Instant.now().plus(COALESCING_WINDOW);
+      List<TrackedJob> dueJobs = new ArrayList<>();
+      for (TrackedJob trackedJob : this.pendingJobs.values()) {
+        if (!trackedJob.nextPollTime.isAfter(dueBy)) {
+          dueJobs.add(trackedJob);
+        }
+      }
+
+      Set<String> unfinishedJobs =
+          dueJobs.size() >= this.batchThreshold ? listUnfinishedJobs(dueJobs) : null;
+      for (TrackedJob trackedJob : dueJobs) {
+        if (unfinishedJobs != null
+            && unfinishedJobs.contains(trackedJob.job.getJobId().getJob())) {
+          trackedJob.backOff(this.maxPollInterval);
+        } else {
+          checkStatus(trackedJob);
+        }
+      }
+    } finally {
+      this.polling.set(false);
+    }
+
+    this.pendingJobs.values().stream()
+        .map(trackedJob -> trackedJob.nextPollTime)
+        .min(Instant::compareTo)
+        .ifPresent(this::schedulePoll);
+  }
+
+  /**
+   * Lists the jobs that are still pending or running, or returns {@code null} if they could not
+   * be listed, in which case each job is checked individually.
+   */
+  private Set<String> listUnfinishedJobs(List<TrackedJob> dueJobs) {
+    long oldestTrackingTime =
+        dueJobs.stream().mapToLong(trackedJob -> trackedJob.startTimeMillis).min().orElse(0L);
+    try {
+      this.statusCheckCount.incrementAndGet();
+      Set<String> unfinishedJobs = new HashSet<>();
+      for (Job job :
+          this.bigQuery
+              .listJobs(
+                  JobListOption.stateFilter(State.PENDING, State.RUNNING),
+                  JobListOption.minCreationTime(oldestTrackingTime - CREATION_TIME_MARGIN_MILLIS))
+              .iterateAll()) {
+        unfinishedJobs.add(job.getJobId().getJob());
+      }
+      return unfinishedJobs;
+    } catch (RuntimeException e) {
+      return null;
+    }
+  }
+
+  private void checkStatus(TrackedJob trackedJob) {
+    SettableListenableFuture<Job> result = trackedJob.result;
+    try {
+      this.statusCheckCount.incrementAndGet();
+      Job job = trackedJob.job.reload();
+      if (job == null) {
+        this.pendingJobs.remove(trackedJob.key, trackedJob);
+        result.setException(
+            new BigQueryException("BigQuery job " + trackedJob.job.getJobId() + " not found."));
+      } else if (State.DONE.equals(job.getStatus().getState())) {
+        recordCompletion(trackedJob);
+        if (job.getStatus().getError() != null) {
+          result.setException(new BigQueryException(job.getStatus().getError().getMessage()));
+        } else {
+          result.set(job);
+        }
+      } else {
+        trackedJob.backOff(this.maxPollInterval);
+      }
+    } catch (Exception e) {
+      this.pendingJobs.remove(trackedJob.key, trackedJob);
+      result.setException(new BigQueryException(e.getMessage()));
+    }
+  }
+
+  private void recordCompletion(TrackedJob trackedJob) {
+    this.pendingJobs.remove(trackedJob.key, trackedJob);
+    this.completedJobCount.incrementAndGet();
+    this.totalCompletionMillis.addAndGet(
+        System.currentTimeMillis() - trackedJob.startTimeMillis);
+  }
+
+  private static final class TrackedJob {
+
+    private final String key;
+
+    private final Job job;
+
+    private final SettableListenableFuture<Job> result;
+
+    private final long startTimeMillis = System.currentTimeMillis();
+
+    private volatile Duration pollInterval;
+
+    private volatile Instant nextPollTime;
+
+    TrackedJob(
+        String key, Job job, SettableListenableFuture<Job> result, Duration pollInterval) {
+      this.key = key;
+      this.job = job;
+      this.result = result;
+      this.pollInterval = pollInterval;
+      this.nextPollTime = Instant.now().plus(pollInterval);
+    }
+
+    void backOff(Duration maxPollInterval) {
+      Duration doubled = this.pollInterval.multipliedBy(2);
+      this.pollInterval = doubled.compareTo(maxPollInterval) > 0 ? maxPollInterval : doubled;
+      this.nextPollTime = Instant.now().plus(this.pollInterval);
+    }
+  }
+}
@@ -0,0 +1,450 @@
+/*
+ * Copyright 2022-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.cloud.spring.bigquery.core;
+
+import com.google.cloud.bigquery.BigQuery;
+import com.google.cloud.bigquery.BigQueryError;
+import com.google.cloud.bigquery.InsertAllRequest;
+import com.google.cloud.bigquery.InsertAllRequest.RowToInsert;
+import com.google.cloud.bigquery.InsertAllResponse;
+import com.google.cloud.bigquery.TableId;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.util.Assert;
+import org.springframework.util.concurrent.ListenableFuture;
+import org.springframework.util.concurrent.SettableListenableFuture;
+
+/**
+ * A long-lived, thread-safe writer which streams rows into a BigQuery table.
+ *
+ * <p>Rows are buffered and appended to the table with the BigQuery streaming insert API
+ * ({@link BigQuery#insertAll}) in
+ * batches of up to {@code maxBatchRows} rows and about {@code maxBatchBytes} bytes; a partial
+ * batch is sent once its first row has waited for {@code maxBatchDelay}. The size of a row is
+ * estimated from the length of its JSON representation, and a row larger than {@code
+ * maxBatchBytes} is sent in a batch of its own. At most {@code maxInFlightRequests} insert requests are
+ * outstanding at any time. When that limit is reached and the current batch is full, {@link
+ * #write} blocks until a request completes, applying backpressure to producers.
+ *
+ * <p>Each write returns a {@link ListenableFuture} for the batch the row was added to. The future
+ * completes with the {@link InsertAllResponse} of the batch, or with a {@link BigQueryException}
+ * if the request failed or any row of the batch was rejected.
+ *
+ * <p>Instances are created with {@link BigQueryTemplate#newStreamWriter(String)}.
+ *
+ * @since 3.3.0
+ */
+public class BigQueryStreamWriter implements AutoCloseable {
+
+  private final BigQuery bigQuery;
+
+  private final TableId tableId;
+
+  private final TaskScheduler taskScheduler;
+
+  private final Executor executor;
+
+  private final ExecutorService ownedExecutor;
+
+  private final int maxBatchRows;
+
+  private final long maxBatchBytes;
+
+  private final Duration maxBatchDelay;
+
+  private final int maxInFlightRequests;
+
+  private final ReentrantLock lock = new ReentrantLock();
+
+  private final Condition stateChanged = this.lock.newCondition();
+
+  private Batch currentBatch;
+
+  private int inFlightRequests;
+
+  private boolean closed;
+
+  BigQueryStreamWriter(
+      BigQuery bigQuery,
+      TableId tableId,
+      TaskScheduler taskScheduler,
+      Executor executor,
+      int maxBatchRows,
+      long maxBatchBytes,
+      Duration maxBatchDelay,
+      int maxInFlightRequests) {
+    Assert.isTrue(maxBatchRows > 0, "Maximum batch rows must be positive.");
+    Assert.isTrue(maxBatchBytes > 0, "Maximum batch bytes must be positive.");
+    Assert.isTrue(
+        maxBatchDelay != null && !maxBatchDelay.isNegative(),
+        "Maximum batch delay must not be null or negative.");
+    Assert.isTrue(maxInFlightRequests > 0, "Maximum in-flight requests must be positive.");
+    this.bigQuery = bigQuery;
+    this.tableId = tableId;
+    this.taskScheduler = taskScheduler;
+    if (executor != null) {
+      this.executor = executor;
+      this.ownedExecutor = null;
+    } else {
+      this.ownedExecutor = Executors.newFixedThreadPool(maxInFlightRequests, this::newThread);
+      this.executor = this.ownedExecutor;
+    }
+    this.maxBatchRows = maxBatchRows;
+    this.maxBatchBytes = maxBatchBytes;
+    this.maxBatchDelay = maxBatchDelay;
+    this.maxInFlightRequests = maxInFlightRequests;
+  }
+
+  /**
+   * Appends a row, given as a map of column names to values, to the table.
+   *
+   * @param row the row content; nested records are represented as nested maps
+   * @return a future completed when the batch containing the row has been inserted
+   * @throws BigQueryException if the writer is closed or the calling thread was interrupted
+   *     while waiting for capacity
+   */
+  public ListenableFuture<InsertAllResponse> write(Map<String, ?> row) {
+    return write(RowToInsert.of(row));
+  }
+
+  /**
+   * Appends a row to the table. Rows created with an insert ID are de-duplicated by BigQuery on a
+   * best-effort basis.
+   *
+   * @param row the row to insert
+   * @return a future completed when the batch containing the row has been inserted
+   * @throws BigQueryException if the writer is closed or the calling thread was interrupted
+   *     while waiting for capacity
+   */
+  public ListenableFuture<InsertAllResponse> write(RowToInsert row) {
+    Assert.notNull(row, "Row must not be null.");
+    long rowBytes = estimateSize(row);
+    List<Batch> fullBatches = new ArrayList<>(2);
+    ListenableFuture<InsertAllResponse> result;
+
+    this.lock.lock();
+    try {
+      while (true) {
+        while (!this.closed && this.currentBatch != null && this.currentBatch.full) {
+          awaitStateChange();
+        }
+        if (this.closed) {
+          throw new BigQueryException("The stream writer for " + this.tableId + " is closed.");
+        }
+        if (this.currentBatch == null
+            || this.currentBatch.bytes + rowBytes <= this.maxBatchBytes) {
+          break;
+        }
+        // The row would make the batch too large, so it goes into the next batch.
+        this.currentBatch.full = true;
+        Batch fullBatch = takeBatchIfPossible();
+        if (fullBatch != null) {
+          fullBatches.add(fullBatch);
+        }
+      }
+
+      if (this.currentBatch == null) {
+        this.currentBatch = new Batch();
+        scheduleFlush(this.currentBatch);
+      }
+      Batch batch = this.currentBatch;
+      batch.rows.add(row);
+      batch.bytes += rowBytes;
+      result = batch.result;
+
+      if (batch.rows.size() >= this.maxBatchRows || batch.bytes >= this.maxBatchBytes) {
+        batch.full = true;
+        Batch fullBatch = takeBatchIfPossible();
+        if (fullBatch != null) {
+          fullBatches.add(fullBatch);
+        }
+      }
+    } finally {
+      this.lock.unlock();
+    }
+
+    fullBatches.forEach(this::send);
+    return result;
+  }
+
+  /**
+   * Sends the currently buffered rows without waiting for the batch to fill up, blocking while the
+   * maximum number of requests is in flight.
+   *
+   * @return a future for the batch that was sent, or a completed future if no rows were buffered
+   */
+  public ListenableFuture<InsertAllResponse> flush() {
+    Batch batch;
+    this.lock.lock();
+    try {
+      while (this.currentBatch != null && this.inFlightRequests >= this.maxInFlightRequests) {
+        awaitStateChange();
+      }
+      batch = takeBatchIfPossible();
+    } finally {
+      this.lock.unlock();
+    }
+
+    if (batch == null) {
+      SettableListenableFuture<InsertAllResponse> empty = new SettableListenableFuture<>();
+      empty.set(null);
+      return empty;
+    }
+    send(batch);
+    return batch.result;
+  }
+
+  /**
+   * Flushes the buffered rows and waits until all in-flight requests have completed. Further writes
+   * are rejected.
+   */
+  @Override
+  public void close() {
+    this.lock.lock();
+    try {
+      this.closed = true;
+      this.stateChanged.signalAll();
+    } finally {
+      this.lock.unlock();
+    }
+
+    flush();
+
+    this.lock.lock();
+    try {
+      while (this.inFlightRequests > 0) {
+        awaitStateChange();
+      }
+    } finally {
+      this.lock.unlock();
+    }
+
+    if (this.ownedExecutor != null) {
+      this.ownedExecutor.shutdown();
+    }
+  }
+
+  /**
+   * Returns the number of rows buffered and not yet sent to BigQuery.
+   *
+   * @return the number of buffered rows
+   */
+  public int getBufferedRowCount() {
+    this.lock.lock();
+    try {
+      return this.currentBatch != null ? this.currentBatch.rows.size() : 0;
+    } finally {
+      this.lock.unlock();
+    }
+  }
+
+  /**
+   * Returns the number of insert requests that have been sent and not yet completed.
+   *
+   * @return the number of in-flight requests
+   */
+  public int getInFlightRequestCount() {
+    this.lock.lock();
+    try {
+      return this.inFlightRequests;
+    } finally {
+      this.lock.unlock();
+    }
+  }
+
+  /**
+   * Returns the table this writer appends to.
+   *
+   * @return the table ID
+   */
+  public TableId getTableId() {
+    return this.tableId;
+  }
+
+  private void awaitStateChange() {
+    try {
+      this.stateChanged.await();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new BigQueryException("Interrupted while waiting to write to " + this.tableId, e);
+    }
+  }
+
+  /** Must be called with the lock held. */
+  private Batch takeBatchIfPossible() {
+    if (this.currentBatch == null || this.inFlightRequests >= this.maxInFlightRequests) {
+      return null;
+    }
+    Batch batch = this.currentBatch;
+    this.currentBatch = null;
+    if (batch.scheduledFlush != null) {
+      batch.scheduledFlush.cancel(false);
+    }
+    this.inFlightRequests++;
+    this.stateChanged.signalAll();
+    return batch;
+  }
+
+  private void scheduleFlush(Batch batch) {
+    batch.scheduledFlush =
+        this.taskScheduler.schedule(
+            () -> flushIfExpired(batch), Instant.now().plus(this.maxBatchDelay));
+  }
+
+  private void flushIfExpired(Batch batch) {
+    Batch expired = null;
+    this.lock.lock();
+    try {
+      if (this.currentBatch == batch) {
+        expired = takeBatchIfPossible();
+        // Otherwise the batch is sent as soon as an in-flight request completes.
+        batch.expired = expired == null;
+      }
+    } finally {
+      this.lock.unlock();
+    }
+    if (expired != null) {
+      send(expired);
+    }
+  }
+
+  private void send(Batch batch) {
+    try {
+      this.executor.execute(() -> insert(batch));
+    } catch (RuntimeException e) {
+      batch.result.setException(
+          new BigQueryException("Failed to stream rows into " + this.tableId, e));
+      onRequestCompleted();
+    }
+  }
+
+  private void insert(Batch batch) {
+    try {
+      InsertAllResponse response =
+          this.bigQuery.insertAll(InsertAllRequest.newBuilder(this.tableId, batch.rows).build());
+      if (response.hasErrors()) {
+        batch.result.setException(new BigQueryException(describeErrors(response)));
+      } else {
+        batch.result.set(response);
+      }
+    } catch (RuntimeException e) {
+      batch.result.setException(
+          new BigQueryException("Failed to stream rows into " + this.tableId, e));
+    } finally {
+      onRequestCompleted();
+    }
+  }
+
+  private void onRequestCompleted() {
+    Batch next = null;
+    this.lock.lock();
+    try {
+      this.inFlightRequests--;
+      this.stateChanged.signalAll();
+      if (this.currentBatch != null
+          && (this.currentBatch.expired || this.closed || this.currentBatch.full)) {
+        next = takeBatchIfPossible();
+      }
+    } finally {
+      this.lock.unlock();
+    }
+    if (next != null) {
+      send(next);
+    }
+  }
+
+  private Thread newThread(Runnable runnable) {
+    Thread thread = new Thread(runnable, "bigquery-stream-writer-" + this.tableId.getTable());
+    thread.setDaemon(true);
+    return thread;
+  }
+
+  private String describeErrors(InsertAllResponse response) {
+    Map<Long, List<BigQueryError>> insertErrors = response.getInsertErrors();
+    Map.Entry<Long, List<BigQueryError>> first = insertErrors.entrySet().iterator().next();
+    return String.format(
+        "Failed to insert %d rows into %s; first error at row %d: %s",
+        insertErrors.size(), this.tableId, first.getKey(), first.getValue());
+  }
+
+  /**
+   * Estimates the size of a row in the JSON body of an insert request: the insert ID and the
+   * names and values of all fields, plus the quotes and separators around them.
+   */
+  static long estimateSize(RowToInsert row) {
+    long size = 16 + estimateValueSize(row.getContent());
+    if (row.getId() != null) {
+      size += 14 + row.getId().length();
+    }
+    return size;
+  }
+
+  private static long estimateValueSize(Object value) {
+    if (value == null) {
+      return 4;
+    }
+    if (value instanceof Map) {
+      long size = 2;
+      for (Map.Entry<?, ?> field : ((Map<?, ?>) value).entrySet()) {
+        size += 4 + String.valueOf(field.getKey()).length() + estimateValueSize(field.getValue());
+      }
+      return size;
+    }
+    if (value instanceof Iterable) {
+      long size = 2;
+      for (Object element : (Iterable<?>) value) {
+        size += 1 + estimateValueSize(element);
+      }
+      return size;
+    }
+    if (value instanceof byte[]) {
+      // Base64-encoded.
+      return 2 + 4 * ((((byte[]) value).length + 2) / 3);
+    }
+    if (value instanceof CharSequence) {
+      return 2 + ((CharSequence) value).length();
+    }
+    return String.valueOf(value).length();
+  }
+
+  private static final class Batch {
+
+    private final List<RowToInsert> rows = new ArrayList<>();
+
+    private long bytes;
+
+    // Set once no more rows may be added to the batch.
+    private boolean full;
+
+    private final SettableListenableFuture<InsertAllResponse> result =
+        new SettableListenableFuture<>();
+
+    private ScheduledFuture<?> scheduledFlush;
+
+    private boolean expired;
+  }
+}
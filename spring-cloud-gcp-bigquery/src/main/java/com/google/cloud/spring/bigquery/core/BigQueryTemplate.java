@@ -20,7 +20,6 @@ import com.google.cloud.bigquery.BigQuery;
 import com.google.cloud.bigquery.FormatOptions;
 import com.google.cloud.bigquery.Job;
 import com.google.cloud.bigquery.JobInfo.WriteDisposition;
-import com.google.cloud.bigquery.JobStatus.State;
 import com.google.cloud.bigquery.Schema;
 import com.google.cloud.bigquery.TableDataWriteChannel;
 import com.google.cloud.bigquery.TableId;
@@ -30,13 +29,12 @@ import java.io.InputStream;
 import java.io.OutputStream;
 import java.nio.channels.Channels;
 import java.time.Duration;
-import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.Executor;
 import org.springframework.scheduling.TaskScheduler;
 import org.springframework.scheduling.concurrent.DefaultManagedTaskScheduler;
 import org.springframework.util.Assert;
 import org.springframework.util.StreamUtils;
 import org.springframework.util.concurrent.ListenableFuture;
-import org.springframework.util.concurrent.SettableListenableFuture;
 
 /**
  * Helper class which simplifies common operations done in BigQuery.
@@ -51,12 +49,24 @@ public class BigQueryTemplate implements BigQueryOperations {
 
   private final TaskScheduler taskScheduler;
 
+  private final BigQueryJobTracker jobTracker;
+
   private boolean autoDetectSchema = true;
 
   private WriteDisposition writeDisposition = WriteDisposition.WRITE_APPEND;
 
   private Duration jobPollInterval = Duration.ofSeconds(2);
 
+  private int streamWriterMaxBatchRows = 500;
+
+  private long streamWriterMaxBatchBytes = 5 * 1024 * 1024;
+
+  private Duration streamWriterMaxBatchDelay = Duration.ofMillis(100);
+
+  private int streamWriterMaxInFlightRequests = 4;
+
+  private Executor streamWriterExecutor;
+
   /**
    * Creates the {@link BigQuery} template.
    *
@@ -83,6 +93,7 @@ public class BigQueryTemplate implements BigQueryOperations {
     this.bigQuery = bigQuery;
     this.datasetName = datasetName;
     this.taskScheduler = taskScheduler;
+    this.jobTracker = new BigQueryJobTracker(bigQuery, taskScheduler, this.jobPollInterval);
   }
 
   /**
@@ -110,14 +121,103 @@ public class BigQueryTemplate implements BigQueryOperations {
   }
 
   /**
-   * Sets the {@link Duration} amount of time to wait between successive polls on the status of a
-   * BigQuery job.
+   * Sets the maximum {@link Duration} amount of time to wait between successive polls on the
+   * status of a BigQuery job. Pending jobs are first polled after 250 milliseconds, and the
+   * interval doubles after each poll until it reaches this value.
    *
-   * @param jobPollInterval the {@link Duration} poll interval for BigQuery job status polling
+   * <p>All pending jobs of this template are tracked by a single polling task; when several jobs
+   * are due at once their status is fetched with one job listing request.
+   *
+   * @param jobPollInterval the maximum {@link Duration} poll interval for BigQuery job status
+   *     polling. Default is 2 seconds.
    */
   public void setJobPollInterval(Duration jobPollInterval) {
     Assert.notNull(jobPollInterval, "BigQuery job polling interval must not be null");
     this.jobPollInterval = jobPollInterval;
+    this.jobTracker.setMaxPollInterval(jobPollInterval);
+  }
+
+  /**
+   * Sets the maximum number of rows a {@link BigQueryStreamWriter} sends in one insert request.
+   *
+   * @param streamWriterMaxBatchRows the maximum rows per request. Default is 500.
+   * @since 3.3.0
+   */
+  public void setStreamWriterMaxBatchRows(int streamWriterMaxBatchRows) {
+    Assert.isTrue(streamWriterMaxBatchRows > 0, "Maximum batch rows must be positive.");
+    this.streamWriterMaxBatchRows = streamWriterMaxBatchRows;
+  }
+
+  /**
+   * Sets the approximate maximum size of the rows a {@link BigQueryStreamWriter} sends in one
+   * insert request, estimated from their JSON representation. BigQuery rejects requests larger
+   * than 10 MB.
+   *
+   * @param streamWriterMaxBatchBytes the maximum bytes per request. Default is 5 MB.
+   * @since 3.3.0
+   */
+  public void setStreamWriterMaxBatchBytes(long streamWriterMaxBatchBytes) {
+    Assert.isTrue(streamWriterMaxBatchBytes > 0, "Maximum batch bytes must be positive.");
+    this.streamWriterMaxBatchBytes = streamWriterMaxBatchBytes;
+  }
+
+  /**
+   * Sets how long a row written to a {@link BigQueryStreamWriter} may wait for its batch to fill
+   * up before the batch is sent.
+   *
+   * @param streamWriterMaxBatchDelay the maximum batching delay. Default is 100 milliseconds.
+   * @since 3.3.0
+   */
+  public void setStreamWriterMaxBatchDelay(Duration streamWriterMaxBatchDelay) {
+    Assert.notNull(streamWriterMaxBatchDelay, "Maximum batch delay must not be null.");
+    this.streamWriterMaxBatchDelay = streamWriterMaxBatchDelay;
+  }
+
+  /**
+   * Sets the maximum number of concurrent insert requests of a {@link BigQueryStreamWriter}.
+   * Writers block once this many requests are in flight and their current batch is full.
+   *
+   * @param streamWriterMaxInFlightRequests the maximum in-flight requests. Default is 4.
+   * @since 3.3.0
+   */
+  public void setStreamWriterMaxInFlightRequests(int streamWriterMaxInFlightRequests) {
+    Assert.isTrue(
+        streamWriterMaxInFlightRequests > 0, "Maximum in-flight requests must be positive.");
+    this.streamWriterMaxInFlightRequests = streamWriterMaxInFlightRequests;
+  }
+
+  /**
+   * Sets the {@link Executor} on which {@link BigQueryStreamWriter}s send insert requests. By
+   * default each writer uses its own thread pool sized to the maximum number of in-flight
+   * requests, which is shut down when the writer is closed.
+   *
+   * @param streamWriterExecutor the executor for insert requests
+   * @since 3.3.0
+   */
+  public void setStreamWriterExecutor(Executor streamWriterExecutor) {
+    this.streamWriterExecutor = streamWriterExecutor;
+  }
+
+  /**
+   * Creates a {@link BigQueryStreamWriter} which appends rows to the given table using the
+   * BigQuery streaming insert API. The writer is thread-safe and meant to be long-lived; close it
+   * to flush buffered rows and release its resources.
+   *
+   * @param tableName name of the table in the template's dataset to write to
+   * @return a new stream writer
+   * @since 3.3.0
+   */
+  public BigQueryStreamWriter newStreamWriter(String tableName) {
+    Assert.hasText(tableName, "Table name must not be empty.");
+    return new BigQueryStreamWriter(
+        this.bigQuery,
+        TableId.of(this.datasetName, tableName),
+        this.taskScheduler,
+        this.streamWriterExecutor,
+        this.streamWriterMaxBatchRows,
+        this.streamWriterMaxBatchBytes,
+        this.streamWriterMaxBatchDelay,
+        this.streamWriterMaxInFlightRequests);
   }
 
   @Override
@@ -155,7 +255,7 @@ public class BigQueryTemplate implements BigQueryOperations {
       throw new BigQueryException("Failed to initialize the BigQuery write job.");
     }
 
-    return createJobFuture(writer.getJob());
+    return this.jobTracker.track(writer.getJob());
   }
 
   /**
@@ -165,36 +265,47 @@ public class BigQueryTemplate implements BigQueryOperations {
     return this.datasetName;
   }
 
-  private SettableListenableFuture<Job> createJobFuture(Job pendingJob) {
-    // Prepare the polling task for the ListenableFuture result returned to end-user
-    SettableListenableFuture<Job> result = new SettableListenableFuture<>();
-
-    ScheduledFuture<?> scheduledFuture =
-        taskScheduler.scheduleAtFixedRate(
-            () -> {
-              try {
-                Job job = pendingJob.reload();
-                if (State.DONE.equals(job.getStatus().getState())) {
-                  if (job.getStatus().getError() != null) {
-                    result.setException(
-                        new BigQueryException(job.getStatus().getError().getMessage()));
-                  } else {
-                    result.set(job);
-                  }
-                }
-              } catch (Exception e) {
-                result.setException(new BigQueryException(e.getMessage()));
-              }
-            },
-            this.jobPollInterval);
-
-    result.addCallback(
-        response -> scheduledFuture.cancel(true),
-        response -> {
-          pendingJob.cancel();
-          scheduledFuture.cancel(true);
-        });
-
-    return result;
+  /**
+   * Returns the number of jobs started by this template whose completion is being tracked.
+   *
+   * @return the number of pending jobs
+   * @since 3.3.0
+   */
+  public int getPendingJobCount() {
+    return this.jobTracker.getPendingJobCount();
+  }
+
+  /**
+   * Returns the number of tracked jobs that have completed, successfully or not.
+   *
+   * @return the number of completed jobs
+   * @since 3.3.0
+   */
+  public long getCompletedJobCount() {
+    return this.jobTracker.getCompletedJobCount();
+  }
+
+  /**
+   * Returns the number of requests made to BigQuery to check the status of tracked jobs.
+   *
+   * @return the number of job status requests
+   * @since 3.3.0
+   */
+  public long getJobStatusCheckCount() {
+    return this.jobTracker.getStatusCheckCount();
+  }
+
+  /**
+   * Returns the average time from the start of tracking until completion of the completed jobs.
+   *
+   * @return the average job completion latency, or {@link Duration#ZERO} if no job completed yet
+   * @since 3.3.0
+   */
+  public Duration getAverageJobCompletionTime() {
+    return this.jobTracker.getAverageCompletionTime();
+  }
+
+  BigQueryJobTracker getJobTracker() {
+    return this.jobTracker;
   }
 }
@@ -29,6 +29,11 @@ import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.io.InputStream;
 import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
@@ -36,6 +41,9 @@ import org.springframework.core.io.Resource;
 import org.springframework.expression.EvaluationContext;
 import org.springframework.expression.Expression;
 import org.springframework.expression.common.LiteralExpression;
+import org.springframework.integration.StaticMessageHeaderAccessor;
+import org.springframework.integration.acks.AcknowledgmentCallback;
+import org.springframework.integration.acks.AcknowledgmentCallback.Status;
 import org.springframework.integration.expression.ExpressionUtils;
 import org.springframework.integration.expression.FunctionExpression;
 import org.springframework.integration.expression.ValueExpression;
@@ -44,6 +52,7 @@ import org.springframework.messaging.Message;
 import org.springframework.messaging.MessageHandlingException;
 import org.springframework.util.Assert;
 import org.springframework.util.concurrent.ListenableFuture;
+import org.springframework.util.concurrent.SettableListenableFuture;
 
 /**
  * A {@link org.springframework.messaging.MessageHandler} which handles sending and loading files to
@@ -55,6 +64,8 @@ public class BigQueryFileMessageHandler extends AbstractReplyProducingMessageHan
 
   private final BigQueryTemplate bigQueryTemplate;
 
+  private final Map<LoadBatch.Key, LoadBatch> loadBatches = new HashMap<>();
+
   private EvaluationContext evaluationContext;
 
   private Expression tableNameExpression;
@@ -67,6 +78,16 @@ public class BigQueryFileMessageHandler extends AbstractReplyProducingMessageHan
 
   private boolean sync = false;
 
+  private boolean aggregate = false;
+
+  private int aggregationMaxMessages = 10_000;
+
+  private long aggregationMaxBytes = 256L * 1024 * 1024;
+
+  private Duration aggregationMaxDelay = Duration.ofSeconds(10);
+
+  private File aggregationDirectory;
+
   public BigQueryFileMessageHandler(BigQueryTemplate bigQueryTemplate) {
     Assert.notNull(bigQueryTemplate, "BigQueryTemplate must not be null.");
     this.bigQueryTemplate = bigQueryTemplate;
@@ -169,13 +190,104 @@ public class BigQueryFileMessageHandler extends AbstractReplyProducingMessageHan
    * org.springframework.util.concurrent.ListenableFuture} of the Job as the response for each
    * message.
    *
+   * <p>Waiting synchronously cannot be combined with {@link #setAggregate aggregation}, since
+   * each message would then wait for its whole batch to be loaded.
+   *
    * @param sync whether {@link BigQueryFileMessageHandler} should wait synchronously for jobs to
    *     complete. Default is false (async).
    */
   public void setSync(boolean sync) {
+    Assert.isTrue(!sync || !this.aggregate, "Aggregated messages cannot be handled synchronously.");
     this.sync = sync;
   }
 
+  /**
+   * A {@code boolean} indicating if the {@link BigQueryFileMessageHandler} should aggregate the
+   * payloads of several messages into a single load job.
+   *
+   * <p>When aggregating, payloads are spooled to a temporary file per table name, format options
+   * and schema, separated by newlines, so this mode suits newline-delimited formats such as
+   * newline-delimited JSON and CSV without header rows. A load job is submitted for the file once
+   * it holds {@link #setAggregationMaxMessages max messages} or {@link #setAggregationMaxBytes max
+   * bytes}, or {@link #setAggregationMaxDelay max delay} after its first message was added. The
+   * reply for each message is the future of the {@link Job} of its batch, so aggregation cannot
+   * be combined with {@link #setSync synchronous} handling.
+   *
+   * <p>Messages carrying an {@link AcknowledgmentCallback} are not auto-acknowledged; they are
+   * accepted once the load job of their batch succeeded and requeued if it failed.
+   *
+   * @param aggregate whether message payloads should be aggregated. Default is false.
+   * @since 3.3.0
+   */
+  public void setAggregate(boolean aggregate) {
+    Assert.isTrue(!aggregate || !this.sync, "Aggregated messages cannot be handled synchronously.");
+    this.aggregate = aggregate;
+  }
+
+  /**
+   * Sets the maximum number of messages aggregated into one load job.
+   *
+   * @param aggregationMaxMessages the maximum number of messages per load job. Default is 10000.
+   * @since 3.3.0
+   */
+  public void setAggregationMaxMessages(int aggregationMaxMessages) {
+    Assert.isTrue(aggregationMaxMessages > 0, "Maximum messages must be positive.");
+    this.aggregationMaxMessages = aggregationMaxMessages;
+  }
+
+  /**
+   * Sets the size in bytes after which aggregated payloads are loaded.
+   *
+   * @param aggregationMaxBytes the maximum payload bytes per load job. Default is 256 MiB.
+   * @since 3.3.0
+   */
+  public void setAggregationMaxBytes(long aggregationMaxBytes) {
+    Assert.isTrue(aggregationMaxBytes > 0, "Maximum bytes must be positive.");
+    this.aggregationMaxBytes = aggregationMaxBytes;
+  }
+
+  /**
+   * Sets how long the first message of a batch may wait for the batch to fill up before it is
+   * loaded.
+   *
+   * @param aggregationMaxDelay the maximum batching delay. Default is 10 seconds.
+   * @since 3.3.0
+   */
+  public void setAggregationMaxDelay(Duration aggregationMaxDelay) {
+    Assert.notNull(aggregationMaxDelay, "Maximum delay must not be null.");
+    this.aggregationMaxDelay = aggregationMaxDelay;
+  }
+
+  /**
+   * Sets the directory in which aggregated payloads are spooled.
+   *
+   * @param aggregationDirectory the spool directory. Default is the system temporary directory.
+   * @since 3.3.0
+   */
+  public void setAggregationDirectory(File aggregationDirectory) {
+    this.aggregationDirectory = aggregationDirectory;
+  }
+
+  /**
+   * Submits load jobs for all the payloads aggregated so far.
+   *
+   * @since 3.3.0
+   */
+  public void flush() {
+    List<LoadBatch> batches;
+    synchronized (this.loadBatches) {
+      batches = new ArrayList<>(this.loadBatches.values());
+      this.loadBatches.clear();
+    }
+    batches.forEach(this::load);
+  }
+
+  @Override
+  public void destroy() {
+    flush();
+    super.destroy();
+  }
+
   @Override
   protected Object handleRequestMessage(Message<?> message) {
     String tableName =
@@ -188,6 +300,10 @@ public class BigQueryFileMessageHandler extends AbstractReplyProducingMessageHan
     Assert.notNull(tableName, "BigQuery table name must not be null.");
     Assert.notNull(formatOptions, "Data file formatOptions must not be null.");
 
+    if (this.aggregate) {
+      return aggregate(message, new LoadBatch.Key(tableName, formatOptions, schema));
+    }
+
     try (InputStream inputStream = convertToInputStream(message.getPayload())) {
       ListenableFuture<Job> jobFuture =
           this.bigQueryTemplate.writeDataToTable(tableName, inputStream, formatOptions, schema);
@@ -213,6 +329,122 @@ public class BigQueryFileMessageHandler extends AbstractReplyProducingMessageHan
     }
   }
 
+  private Object aggregate(Message<?> message, LoadBatch.Key key) {
+    AcknowledgmentCallback acknowledgmentCallback =
+        StaticMessageHeaderAccessor.getAcknowledgmentCallback(message);
+    ListenableFuture<Job> jobFuture;
+    boolean full;
+
+    try (InputStream inputStream = convertToInputStream(message.getPayload())) {
+      while (true) {
+        LoadBatch batch = getOrCreateBatch(key);
+        // Payloads are copied under the lock of their batch only, so that messages for other
+        // tables and the flushes of other batches do not wait for the copy.
+        synchronized (batch) {
+          if (batch.isClosed()) {
+            // The batch was loaded after it was looked up; aggregate into a new one.
+            continue;
+          }
+          if (acknowledgmentCallback != null) {
+            acknowledgmentCallback.noAutoAck();
+          }
+          try {
+            batch.append(inputStream, acknowledgmentCallback);
+          } catch (IOException e) {
+            // The spool file may hold a partial payload now, so the whole batch is abandoned.
+            removeBatch(batch);
+            fail(batch, e);
+            throw e;
+          }
+          jobFuture = batch.getResult();
+          full =
+              (batch.getMessageCount() >= this.aggregationMaxMessages
+                      || batch.getSize() >= this.aggregationMaxBytes)
+                  && removeBatch(batch);
+        }
+        if (full) {
+          load(batch);
+        }
+        return jobFuture;
+      }
+    } catch (FileNotFoundException e) {
+      throw new MessageHandlingException(
+          message, "Failed to find file to write to BigQuery in message handler: " + this, e);
+    } catch (IOException e) {
+      throw new MessageHandlingException(
+          message, "Failed to aggregate data for BigQuery in message handler: " + this, e);
+    }
+  }
+
+  private LoadBatch getOrCreateBatch(LoadBatch.Key key) throws IOException {
+    synchronized (this.loadBatches) {
+      LoadBatch batch = this.loadBatches.get(key);
+      if (batch == null) {
+        batch = new LoadBatch(key, this.aggregationDirectory);
+        this.loadBatches.put(key, batch);
+        scheduleFlush(batch);
+      }
+      return batch;
+    }
+  }
+
+  private boolean removeBatch(LoadBatch batch) {
+    synchronized (this.loadBatches) {
+      return this.loadBatches.remove(batch.getKey(), batch);
+    }
+  }
+
+  private void scheduleFlush(LoadBatch batch) {
+    batch.setScheduledFlush(
+        getTaskScheduler()
+            .schedule(
+                () -> {
+                  if (removeBatch(batch)) {
+                    load(batch);
+                  }
+                },
+                Instant.now().plus(this.aggregationMaxDelay)));
+  }
+
+  private void load(LoadBatch batch) {
+    SettableListenableFuture<Job> result = batch.getResult();
+    LoadBatch.Key key = batch.getKey();
+    try {
+      File file;
+      // Waits for a payload being appended to the batch to be fully copied.
+      synchronized (batch) {
+        file = batch.close();
+      }
+      try (InputStream inputStream = new BufferedInputStream(new FileInputStream(file))) {
+        this.bigQueryTemplate
+            .writeDataToTable(
+                key.getTableName(), inputStream, key.getFormatOptions(), key.getSchema())
+            .addCallback(result::set, result::setException);
+      }
+    } catch (IOException | RuntimeException e) {
+      result.setException(e);
+    } finally {
+      batch.discard();
+    }
+
+    result.addCallback(
+        job -> acknowledge(batch, Status.ACCEPT), ex -> acknowledge(batch, Status.REQUEUE));
+  }
+
+  private static void fail(LoadBatch batch, Exception cause) {
+    batch.discard();
+    batch.getResult().setException(cause);
+    acknowledge(batch, Status.REQUEUE);
+  }
+
+  private static void acknowledge(LoadBatch batch, Status status) {
+    for (AcknowledgmentCallback acknowledgmentCallback : batch.getAcknowledgmentCallbacks()) {
+      if (!acknowledgmentCallback.isAcknowledged()) {
+        acknowledgmentCallback.acknowledge(status);
+      }
+    }
+  }
+
   private static InputStream convertToInputStream(Object payload) throws IOException {
     InputStream result;
 
@@ -0,0 +1,198 @@
+/*
+ * Copyright 2022-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.cloud.spring.bigquery.integration.outbound;
+
+import com.google.cloud.bigquery.FormatOptions;
+import com.google.cloud.bigquery.Job;
+import com.google.cloud.bigquery.Schema;
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ScheduledFuture;
+import org.springframework.integration.acks.AcknowledgmentCallback;
+import org.springframework.util.concurrent.SettableListenableFuture;
+
+/**
+ * The payloads of several messages bound for the same table, spooled to a temporary file until
+ * they are loaded into BigQuery with a single load job. Instances are not thread-safe; callers
+ * synchronize on the batch.
+ */
+final class LoadBatch {
+
+  private static final int NEWLINE = '\n';
+
+  private static final String FILE_PREFIX = "bigquery-load-";
+
+  private static final String FILE_SUFFIX = ".batch";
+
+  private final Key key;
+
+  private final File file;
+
+  private final OutputStream outputStream;
+
+  private final List<AcknowledgmentCallback> acknowledgmentCallbacks = new ArrayList<>();
+
+  private final SettableListenableFuture<Job> result = new SettableListenableFuture<>();
+
+  private final byte[] buffer = new byte[8192];
+
+  private long size;
+
+  private int messageCount;
+
+  private ScheduledFuture<?> scheduledFlush;
+
+  private boolean closed;
+
+  LoadBatch(Key key, File directory) throws IOException {
+    this.key = key;
+    this.file =
+        (directory != null
+                ? Files.createTempFile(directory.toPath(), FILE_PREFIX, FILE_SUFFIX)
+                : Files.createTempFile(FILE_PREFIX, FILE_SUFFIX))
+            .toFile();
+    this.outputStream = new BufferedOutputStream(Files.newOutputStream(this.file.toPath()));
+  }
+
+  /**
+   * Appends a payload to the batch, followed by a newline unless it already ends with one, so that
+   * records of newline-delimited formats stay separated. The acknowledgment callback is registered
+   * first, so that it is acknowledged with the batch even if the payload cannot be copied.
+   */
+  void append(InputStream payload, AcknowledgmentCallback acknowledgmentCallback)
+      throws IOException {
+    if (acknowledgmentCallback != null) {
+      this.acknowledgmentCallbacks.add(acknowledgmentCallback);
+    }
+    int lastByte = NEWLINE;
+    int read;
+    while ((read = payload.read(this.buffer)) != -1) {
+      if (read > 0) {
+        this.outputStream.write(this.buffer, 0, read);
+        this.size += read;
+        lastByte = this.buffer[read - 1];
+      }
+    }
+    if (lastByte != NEWLINE) {
+      this.outputStream.write(NEWLINE);
+      this.size++;
+    }
+    this.messageCount++;
+  }
+
+  /** Closes the spool file for writing; the batch must not be appended to afterwards. */
+  File close() throws IOException {
+    this.closed = true;
+    if (this.scheduledFlush != null) {
+      this.scheduledFlush.cancel(false);
+    }
+    this.outputStream.close();
+    return this.file;
+  }
+
+  void discard() {
+    this.closed = true;
+    try {
+      this.outputStream.close();
+    } catch (IOException e) {
+      // The file is deleted anyway.
+    }
+    this.file.delete();
+  }
+
+  boolean isClosed() {
+    return this.closed;
+  }
+
+  Key getKey() {
+    return this.key;
+  }
+
+  long getSize() {
+    return this.size;
+  }
+
+  int getMessageCount() {
+    return this.messageCount;
+  }
+
+  List<AcknowledgmentCallback> getAcknowledgmentCallbacks() {
+    return this.acknowledgmentCallbacks;
+  }
+
+  SettableListenableFuture<Job> getResult() {
+    return this.result;
+  }
+
+  void setScheduledFlush(ScheduledFuture<?> scheduledFlush) {
+    this.scheduledFlush = scheduledFlush;
+  }
+
+  /** Identifies the load job parameters that messages must share to be loaded together. */
+  static final class Key {
+
+    private final String tableName;
+
+    private final FormatOptions formatOptions;
+
+    private final Schema schema;
+
+    Key(String tableName, FormatOptions formatOptions, Schema schema) {
+      this.tableName = tableName;
+      this.formatOptions = formatOptions;
+      this.schema = schema;
+    }
+
+    String getTableName() {
+      return this.tableName;
+    }
+
+    FormatOptions getFormatOptions() {
+      return this.formatOptions;
+    }
+
+    Schema getSchema() {
+      return this.schema;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (o == null || getClass() != o.getClass()) {
+        return false;
+      }
+      Key that = (Key) o;
+      return this.tableName.equals(that.tableName)
+          && this.formatOptions.equals(that.formatOptions)
+          && Objects.equals(this.schema, that.schema);
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hash(this.tableName, this.formatOptions, this.schema);
+    }
+  }
+}
@@ -0,0 +1,197 @@
+/*
+ * Copyright 2022-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.cloud.spring.bigquery.core;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.google.api.gax.paging.Page;
+import com.google.cloud.bigquery.BigQuery;
+import com.google.cloud.bigquery.BigQuery.JobListOption;
+import com.google.cloud.bigquery.BigQueryError;
+import com.google.cloud.bigquery.Job;
+import com.google.cloud.bigquery.JobId;
+import com.google.cloud.bigquery.JobStatus;
+import com.google.cloud.bigquery.JobStatus.State;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+import org.springframework.util.concurrent.ListenableFuture;
+
+/** Unit tests for {@link BigQueryJobTracker}. */
+class BigQueryJobTrackerTests {
+
+  private BigQuery bigQuery;
+
+  private ThreadPoolTaskScheduler taskScheduler;
+
+  private BigQueryJobTracker jobTracker;
+
+  @BeforeEach
+  void setup() {
+    this.bigQuery = mock(BigQuery.class);
+    this.taskScheduler = new ThreadPoolTaskScheduler();
+    this.taskScheduler.initialize();
+    this.jobTracker =
+        new BigQueryJobTracker(this.bigQuery, this.taskScheduler, Duration.ofMillis(50));
+  }
+
+  @AfterEach
+  void tearDown() {
+    this.taskScheduler.shutdown();
+  }
+
+  @Test
+  void testJobPolledUntilDone() throws Exception {
+    Job job = job("job");
+    Job running = job("job", State.RUNNING, null);
+    Job done = job("job", State.DONE, null);
+    when(job.reload()).thenReturn(running, running, done);
+
+    ListenableFuture<Job> result = this.jobTracker.track(job);
+
+    assertThat(result.get(5, TimeUnit.SECONDS)).isSameAs(done);
+    verify(job, times(3)).reload();
+    assertThat(this.jobTracker.getPendingJobCount()).isZero();
+    assertThat(this.jobTracker.getCompletedJobCount()).isEqualTo(1);
+    assertThat(this.jobTracker.getStatusCheckCount()).isEqualTo(3);
+  }
+
+  @Test
+  void testFailedJob() {
+    Job job = job("job");
+    Job failed = job("job", State.DONE, new BigQueryError("invalid", "here", "Bad data"));
+    when(job.reload()).thenReturn(failed);
+
+    ListenableFuture<Job> result = this.jobTracker.track(job);
+
+    assertThatThrownBy(() -> result.get(5, TimeUnit.SECONDS))
+        .isInstanceOf(ExecutionException.class)
+        .hasCauseInstanceOf(BigQueryException.class)
+        .hasMessageContaining("Bad data");
+    // The failure callback runs on the polling thread after the result is set.
+    verify(job, timeout(5000)).cancel();
+  }
+
+  @Test
+  void testDueJobsAreCheckedWithOneListing() throws Exception {
+    this.jobTracker.setBatchThreshold(2);
+
+    List<Job> jobs = new ArrayList<>();
+    List<ListenableFuture<Job>> results = new ArrayList<>();
+    for (int i = 0; i < 4; i++) {
+      Job job = job("job-" + i);
+      Job done = job("job-" + i, State.DONE, null);
+      when(job.reload()).thenReturn(done);
+      jobs.add(job);
+    }
+
+    // The first two jobs are still running at the first listing, then finish.
+    Page<Job> firstListing = page(jobs.get(0), jobs.get(1));
+    Page<Job> emptyListing = page();
+    when(this.bigQuery.listJobs(any(JobListOption.class), any(JobListOption.class)))
+        .thenReturn(firstListing, emptyListing);
+
+    for (Job job : jobs) {
+      results.add(this.jobTracker.track(job));
+    }
+    for (ListenableFuture<Job> result : results) {
+      result.get(5, TimeUnit.SECONDS);
+    }
+
+    verify(this.bigQuery, atLeastOnce())
+        .listJobs(any(JobListOption.class), any(JobListOption.class));
+    for (Job job : jobs) {
+      verify(job, times(1)).reload();
+    }
+    assertThat(this.jobTracker.getCompletedJobCount()).isEqualTo(4);
+  }
+
+  @Test
+  void testListingFailureFallsBackToIndividualChecks() throws Exception {
+    this.jobTracker.setBatchThreshold(1);
+    when(this.bigQuery.listJobs(any(JobListOption.class), any(JobListOption.class)))
+        .thenThrow(new com.google.cloud.bigquery.BigQueryException(403, "Access denied"));
+
+    Job job = job("job");
+    Job done = job("job", State.DONE, null);
+    when(job.reload()).thenReturn(done);
+
+    assertThat(this.jobTracker.track(job).get(5, TimeUnit.SECONDS)).isNotNull();
+    verify(job).reload();
+  }
+
+  @Test
+  void testCancelledJobIsNoLongerPolled() throws Exception {
+    Job job = job("job");
+    Job running = job("job", State.RUNNING, null);
+    when(job.reload()).thenReturn(running);
+
+    ListenableFuture<Job> result = this.jobTracker.track(job);
+    result.cancel(true);
+    assertThat(this.jobTracker.getPendingJobCount()).isZero();
+    verify(job).cancel();
+
+    // a job tracked afterwards completes on a later poll, which must skip the cancelled job
+    Job other = job("other");
+    Job otherDone = job("other", State.DONE, null);
+    when(other.reload()).thenReturn(otherDone);
+    assertThat(this.jobTracker.track(other).get(5, TimeUnit.SECONDS)).isNotNull();
+
+    assertThat(this.jobTracker.getPendingJobCount()).isZero();
+    verify(job, never()).reload();
+  }
+
+  private static Job job(String name) {
+    Job job = mock(Job.class);
+    when(job.getJobId()).thenReturn(JobId.of(name));
+    return job;
+  }
+
+  private static Job job(String name, State state, BigQueryError error) {
+    Job job = job(name);
+    JobStatus status = mock(JobStatus.class);
+    when(status.getState()).thenReturn(state);
+    when(status.getError()).thenReturn(error);
+    when(job.getStatus()).thenReturn(status);
+    return job;
+  }
+
+  @SuppressWarnings("unchecked")
+  private static Page<Job> page(Job... jobs) {
+    Page<Job> page = mock(Page.class);
+    List<Job> values = new ArrayList<>();
+    Collections.addAll(values, jobs);
+    when(page.iterateAll()).thenReturn(values);
+    return page;
+  }
+}
@@ -0,0 +1,242 @@
+/*
+ * Copyright 2022-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.cloud.spring.bigquery.core;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.google.cloud.bigquery.BigQuery;
+import com.google.cloud.bigquery.BigQueryError;
+import com.google.cloud.bigquery.InsertAllRequest;
+import com.google.cloud.bigquery.InsertAllRequest.RowToInsert;
+import com.google.cloud.bigquery.InsertAllResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+import org.springframework.util.concurrent.ListenableFuture;
+
+/** Unit tests for {@link BigQueryStreamWriter}. */
+class BigQueryStreamWriterTests {
+
+  private BigQuery bigQuery;
+
+  private ThreadPoolTaskScheduler taskScheduler;
+
+  private BigQueryTemplate bigQueryTemplate;
+
+  @BeforeEach
+  void setup() {
+    this.bigQuery = mock(BigQuery.class);
+    when(this.bigQuery.insertAll(any())).thenReturn(mock(InsertAllResponse.class));
+
+    this.taskScheduler = new ThreadPoolTaskScheduler();
+    this.taskScheduler.initialize();
+
+    this.bigQueryTemplate = new BigQueryTemplate(this.bigQuery, "dataset", this.taskScheduler);
+  }
+
+  @AfterEach
+  void tearDown() {
+    this.taskScheduler.shutdown();
+  }
+
+  @Test
+  void testWritesAreBatchedBySize() throws Exception {
+    this.bigQueryTemplate.setStreamWriterMaxBatchRows(3);
+    this.bigQueryTemplate.setStreamWriterMaxBatchDelay(Duration.ofMinutes(1));
+
+    try (BigQueryStreamWriter writer = this.bigQueryTemplate.newStreamWriter("table")) {
+      ListenableFuture<InsertAllResponse> first = writer.write(row(1));
+      writer.write(row(2));
+      ListenableFuture<InsertAllResponse> third = writer.write(row(3));
+      writer.write(row(4));
+
+      assertThat(first).isSameAs(third);
+      first.get(5, TimeUnit.SECONDS);
+      assertThat(writer.getBufferedRowCount()).isEqualTo(1);
+    }
+
+    ArgumentCaptor<InsertAllRequest> requests = ArgumentCaptor.forClass(InsertAllRequest.class);
+    verify(this.bigQuery, times(2)).insertAll(requests.capture());
+    assertThat(requests.getAllValues().get(0).getTable().getDataset()).isEqualTo("dataset");
+    assertThat(requests.getAllValues().get(0).getTable().getTable()).isEqualTo("table");
+    assertThat(requests.getAllValues())
+        .extracting(request -> request.getRows().size())
+        .containsExactly(3, 1);
+  }
+
+  @Test
+  void testWritesAreBatchedByEstimatedBytes() {
+    long rowBytes = BigQueryStreamWriter.estimateSize(RowToInsert.of(row(1)));
+    this.bigQueryTemplate.setStreamWriterMaxBatchBytes(rowBytes * 5 / 2);
+    this.bigQueryTemplate.setStreamWriterMaxBatchDelay(Duration.ofMinutes(1));
+
+    try (BigQueryStreamWriter writer = this.bigQueryTemplate.newStreamWriter("table")) {
+      ListenableFuture<InsertAllResponse> first = writer.write(row(1));
+      writer.write(row(2));
+      ListenableFuture<InsertAllResponse> third = writer.write(row(3));
+
+      assertThat(first).isNotSameAs(third);
+      assertThat(writer.getBufferedRowCount()).isEqualTo(1);
+    }
+
+    ArgumentCaptor<InsertAllRequest> requests = ArgumentCaptor.forClass(InsertAllRequest.class);
+    verify(this.bigQuery, times(2)).insertAll(requests.capture());
+    assertThat(requests.getAllValues())
+        .extracting(request -> request.getRows().size())
+        .containsExactly(2, 1);
+  }
+
+  @Test
+  void testRowLargerThanMaxBatchBytesIsSentAlone() throws Exception {
+    this.bigQueryTemplate.setStreamWriterMaxBatchBytes(1);
+    this.bigQueryTemplate.setStreamWriterMaxBatchDelay(Duration.ofMinutes(1));
+
+    try (BigQueryStreamWriter writer = this.bigQueryTemplate.newStreamWriter("table")) {
+      writer.write(row(1)).get(5, TimeUnit.SECONDS);
+      writer.write(row(2)).get(5, TimeUnit.SECONDS);
+      assertThat(writer.getBufferedRowCount()).isZero();
+    }
+
+    verify(this.bigQuery, times(2)).insertAll(any());
+  }
+
+  @Test
+  void testEstimateSize() {
+    Map<String, Object> content = new HashMap<>();
+    content.put("name", "abc");
+    content.put("tags", Arrays.asList("x", "y"));
+    content.put("data", new byte[] {1, 2, 3, 4});
+
+    // {"insertId":"id1","json":{"name":"abc","tags":["x","y"],"data":"AQIDBA=="}}
+    assertThat(BigQueryStreamWriter.estimateSize(RowToInsert.of("id1", content)))
+        .isEqualTo(16 + 17 + 2 + (4 + 4 + 5) + (4 + 4 + 2 + 4 + 4) + (4 + 4 + 10));
+  }
+
+  @Test
+  void testPartialBatchIsSentAfterDelay() throws Exception {
+    this.bigQueryTemplate.setStreamWriterMaxBatchDelay(Duration.ofMillis(50));
+
+    BigQueryStreamWriter writer = this.bigQueryTemplate.newStreamWriter("table");
+    ListenableFuture<InsertAllResponse> result = writer.write(row(1));
+
+    assertThat(result.get(5, TimeUnit.SECONDS)).isNotNull();
+    verify(this.bigQuery).insertAll(any());
+    writer.close();
+  }
+
+  @Test
+  void testInFlightRequestsAreBounded() throws Exception {
+    CountDownLatch release = new CountDownLatch(1);
+    when(this.bigQuery.insertAll(any()))
+        .thenAnswer(
+            invocation -> {
+              release.await();
+              return mock(InsertAllResponse.class);
+            });
+    this.bigQueryTemplate.setStreamWriterMaxBatchRows(1);
+    this.bigQueryTemplate.setStreamWriterMaxInFlightRequests(2);
+    this.bigQueryTemplate.setStreamWriterMaxBatchDelay(Duration.ofMinutes(1));
+
+    BigQueryStreamWriter writer = this.bigQueryTemplate.newStreamWriter("table");
+    writer.write(row(1));
+    writer.write(row(2));
+    // Buffered: both in-flight slots are taken.
+    ListenableFuture<InsertAllResponse> third = writer.write(row(3));
+    assertThat(writer.getInFlightRequestCount()).isEqualTo(2);
+    assertThat(writer.getBufferedRowCount()).isEqualTo(1);
+
+    List<Throwable> producerErrors = Collections.synchronizedList(new ArrayList<>());
+    Thread producer =
+        new Thread(
+            () -> {
+              try {
+                writer.write(row(4));
+              } catch (RuntimeException e) {
+                producerErrors.add(e);
+              }
+            });
+    producer.start();
+    producer.join(200);
+    assertThat(producer.isAlive()).as("producer should be blocked by backpressure").isTrue();
+
+    release.countDown();
+    producer.join(5000);
+    assertThat(producer.isAlive()).isFalse();
+    assertThat(producerErrors).isEmpty();
+    third.get(5, TimeUnit.SECONDS);
+
+    writer.close();
+    verify(this.bigQuery, times(4)).insertAll(any());
+    assertThat(writer.getInFlightRequestCount()).isZero();
+  }
+
+  @Test
+  void testInsertErrorsFailTheBatch() {
+    InsertAllResponse response = mock(InsertAllResponse.class);
+    when(response.hasErrors()).thenReturn(true);
+    when(response.getInsertErrors())
+        .thenReturn(
+            Collections.singletonMap(
+                0L,
+                Collections.singletonList(new BigQueryError("invalid", "col", "bad value"))));
+    when(this.bigQuery.insertAll(any())).thenReturn(response);
+
+    BigQueryStreamWriter writer = this.bigQueryTemplate.newStreamWriter("table");
+    ListenableFuture<InsertAllResponse> result = writer.write(row(1));
+    writer.flush();
+
+    assertThatThrownBy(() -> result.get(5, TimeUnit.SECONDS))
+        .isInstanceOf(ExecutionException.class)
+        .hasCauseInstanceOf(BigQueryException.class)
+        .hasMessageContaining("Failed to insert 1 rows");
+    writer.close();
+  }
+
+  @Test
+  void testWriteAfterCloseIsRejected() {
+    BigQueryStreamWriter writer = this.bigQueryTemplate.newStreamWriter("table");
+    writer.close();
+
+    assertThatThrownBy(() -> writer.write(row(1)))
+        .isInstanceOf(BigQueryException.class)
+        .hasMessageContaining("closed");
+    verify(this.bigQuery, never()).insertAll(any());
+  }
+
+  private static Map<String, Object> row(int id) {
+    return Collections.singletonMap("id", id);
+  }
+}
@@ -17,8 +17,13 @@
 package com.google.cloud.spring.bigquery.integration.outbound;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.inOrder;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -26,14 +31,32 @@ import com.google.cloud.bigquery.FormatOptions;
 import com.google.cloud.bigquery.Job;
 import com.google.cloud.bigquery.Schema;
 import com.google.cloud.spring.bigquery.core.BigQueryTemplate;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
 import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+import org.springframework.integration.IntegrationMessageHeaderAccessor;
+import org.springframework.integration.acks.AcknowledgmentCallback;
+import org.springframework.integration.acks.AcknowledgmentCallback.Status;
+import org.springframework.integration.expression.FunctionExpression;
 import org.springframework.integration.expression.ValueExpression;
 import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageHandlingException;
 import org.springframework.messaging.MessageHeaders;
 import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+import org.springframework.util.StreamUtils;
 import org.springframework.util.concurrent.ListenableFuture;
 import org.springframework.util.concurrent.SettableListenableFuture;
 
@@ -43,8 +66,13 @@ class BigQueryFileMessageHandlerTests {
 
   private BigQueryFileMessageHandler messageHandler;
 
+  private ThreadPoolTaskScheduler taskScheduler;
+
   @BeforeEach
   void setup() {
+    taskScheduler = new ThreadPoolTaskScheduler();
+    taskScheduler.initialize();
+
     bigQueryTemplate = mock(BigQueryTemplate.class);
     SettableListenableFuture<Job> result = new SettableListenableFuture<>();
     result.set(mock(Job.class));
@@ -53,6 +81,11 @@ class BigQueryFileMessageHandlerTests {
     messageHandler = new BigQueryFileMessageHandler(bigQueryTemplate);
   }
 
+  @AfterEach
+  void tearDown() {
+    taskScheduler.shutdown();
+  }
+
   @Test
   void testHandleMessage_async() {
     messageHandler.setTableName("testTable");
@@ -88,4 +121,182 @@ class BigQueryFileMessageHandlerTests {
         .writeDataToTable("testTable", payload, FormatOptions.csv(), Schema.of());
     assertThat(result).isNotNull().isInstanceOf(Job.class);
   }
+
+  @Test
+  void testAggregateBySize() {
+    List<String> loadedData = captureLoadedData();
+    messageHandler.setTableName("testTable");
+    messageHandler.setFormatOptions(FormatOptions.json());
+    messageHandler.setAggregate(true);
+    messageHandler.setAggregationMaxMessages(3);
+    messageHandler.setAggregationMaxDelay(Duration.ofMinutes(1));
+    messageHandler.setTaskScheduler(taskScheduler);
+
+    AcknowledgmentCallback callback = mock(AcknowledgmentCallback.class);
+    Object first = messageHandler.handleRequestMessage(jsonMessage("{\"id\":1}\n", callback));
+    messageHandler.handleRequestMessage(jsonMessage("{\"id\":2}", callback));
+    verify(bigQueryTemplate, never()).writeDataToTable(any(), any(), any(), any());
+
+    Object third = messageHandler.handleRequestMessage(jsonMessage("{\"id\":3}", callback));
+
+    assertThat(first).isSameAs(third).isInstanceOf(ListenableFuture.class);
+    assertThat(loadedData).containsExactly("{\"id\":1}\n{\"id\":2}\n{\"id\":3}\n");
+    verify(bigQueryTemplate)
+        .writeDataToTable(eq("testTable"), any(), eq(FormatOptions.json()), any());
+    verify(callback, times(3)).noAutoAck();
+    verify(callback, times(3)).acknowledge(Status.ACCEPT);
+  }
+
+  @Test
+  void testAggregateByTimeAndTable() throws Exception {
+    List<String> loadedData = captureLoadedData();
+    messageHandler.setTableNameExpression(
+        new FunctionExpression<Message<?>>(message -> message.getHeaders().get("table")));
+    messageHandler.setFormatOptions(FormatOptions.json());
+    messageHandler.setAggregate(true);
+    messageHandler.setAggregationMaxDelay(Duration.ofMillis(50));
+    messageHandler.setTaskScheduler(taskScheduler);
+
+    ListenableFuture<?> tableA =
+        (ListenableFuture<?>) messageHandler.handleRequestMessage(tableMessage("a", "1"));
+    ListenableFuture<?> tableB =
+        (ListenableFuture<?>) messageHandler.handleRequestMessage(tableMessage("b", "2"));
+    messageHandler.handleRequestMessage(tableMessage("a", "3"));
+
+    tableA.get(5, TimeUnit.SECONDS);
+    tableB.get(5, TimeUnit.SECONDS);
+    assertThat(tableA).isNotSameAs(tableB);
+    assertThat(loadedData).containsExactlyInAnyOrder("1\n3\n", "2\n");
+  }
+
+  @Test
+  void testAggregateRequeuesOnFailure() {
+    SettableListenableFuture<Job> failed = new SettableListenableFuture<>();
+    failed.setException(new IllegalStateException("load failed"));
+    when(bigQueryTemplate.writeDataToTable(any(), any(), any(), any())).thenReturn(failed);
+    messageHandler.setTableName("testTable");
+    messageHandler.setFormatOptions(FormatOptions.json());
+    messageHandler.setAggregate(true);
+    messageHandler.setTaskScheduler(taskScheduler);
+
+    AcknowledgmentCallback callback = mock(AcknowledgmentCallback.class);
+    messageHandler.handleRequestMessage(jsonMessage("{}", callback));
+    messageHandler.flush();
+
+    verify(callback).acknowledge(Status.REQUEUE);
+    verify(callback, never()).acknowledge(Status.ACCEPT);
+  }
+
+  @Test
+  void testAggregateCopiesPayloadsOutsideHandlerLock() throws Exception {
+    List<String> loadedData = captureLoadedData();
+    messageHandler.setTableNameExpression(
+        new FunctionExpression<Message<?>>(message -> message.getHeaders().get("table")));
+    messageHandler.setFormatOptions(FormatOptions.json());
+    messageHandler.setAggregate(true);
+    messageHandler.setAggregationMaxMessages(1);
+    messageHandler.setTaskScheduler(taskScheduler);
+
+    CountDownLatch reading = new CountDownLatch(1);
+    CountDownLatch release = new CountDownLatch(1);
+    InputStream slowPayload =
+        new ByteArrayInputStream("1".getBytes(StandardCharsets.UTF_8)) {
+          @Override
+          public synchronized int read(byte[] b, int off, int len) {
+            reading.countDown();
+            try {
+              release.await();
+            } catch (InterruptedException e) {
+              Thread.currentThread().interrupt();
+            }
+            return super.read(b, off, len);
+          }
+        };
+    CompletableFuture<Object> slow =
+        CompletableFuture.supplyAsync(
+            () ->
+                messageHandler.handleRequestMessage(
+                    MessageBuilder.withPayload(slowPayload).setHeader("table", "a").build()));
+    assertThat(reading.await(5, TimeUnit.SECONDS)).isTrue();
+
+    try {
+      // The batch of another table is aggregated and loaded while the payload is being copied.
+      ListenableFuture<?> other =
+          (ListenableFuture<?>)
+              CompletableFuture.supplyAsync(
+                      () -> messageHandler.handleRequestMessage(tableMessage("b", "2")))
+                  .get(5, TimeUnit.SECONDS);
+      other.get(5, TimeUnit.SECONDS);
+      assertThat(loadedData).containsExactly("2\n");
+    } finally {
+      release.countDown();
+    }
+
+    ((ListenableFuture<?>) slow.get(5, TimeUnit.SECONDS)).get(5, TimeUnit.SECONDS);
+    assertThat(loadedData).containsExactly("2\n", "1\n");
+  }
+
+  @Test
+  void testAggregateRequeuesPayloadThatCannotBeRead() throws Exception {
+    messageHandler.setTableName("testTable");
+    messageHandler.setFormatOptions(FormatOptions.json());
+    messageHandler.setAggregate(true);
+    messageHandler.setTaskScheduler(taskScheduler);
+
+    InputStream payload = mock(InputStream.class);
+    when(payload.read(any())).thenThrow(new IOException("read failed"));
+    AcknowledgmentCallback callback = mock(AcknowledgmentCallback.class);
+    Message<InputStream> message =
+        MessageBuilder.withPayload(payload)
+            .setHeader(IntegrationMessageHeaderAccessor.ACKNOWLEDGMENT_CALLBACK, callback)
+            .build();
+
+    assertThatThrownBy(() -> messageHandler.handleRequestMessage(message))
+        .isInstanceOf(MessageHandlingException.class)
+        .hasRootCauseMessage("read failed");
+
+    InOrder inOrder = inOrder(callback);
+    inOrder.verify(callback).noAutoAck();
+    inOrder.verify(callback).acknowledge(Status.REQUEUE);
+  }
+
+  @Test
+  void testAggregateRejectsSync() {
+    messageHandler.setSync(true);
+    assertThatThrownBy(() -> messageHandler.setAggregate(true))
+        .isInstanceOf(IllegalArgumentException.class)
+        .hasMessage("Aggregated messages cannot be handled synchronously.");
+
+    messageHandler.setSync(false);
+    messageHandler.setAggregate(true);
+    assertThatThrownBy(() -> messageHandler.setSync(true))
+        .isInstanceOf(IllegalArgumentException.class)
+        .hasMessage("Aggregated messages cannot be handled synchronously.");
+  }
+
+  private List<String> captureLoadedData() {
+    List<String> loadedData = Collections.synchronizedList(new ArrayList<>());
+    when(bigQueryTemplate.writeDataToTable(any(), any(), any(), any()))
+        .thenAnswer(
+            invocation -> {
+              InputStream inputStream = invocation.getArgument(1);
+              loadedData.add(StreamUtils.copyToString(inputStream, StandardCharsets.UTF_8));
+              SettableListenableFuture<Job> result = new SettableListenableFuture<>();
+              result.set(mock(Job.class));
+              return result;
+            });
+    return loadedData;
+  }
+
+  private static Message<byte[]> jsonMessage(String json, AcknowledgmentCallback callback) {
+    return MessageBuilder.withPayload(json.getBytes(StandardCharsets.UTF_8))
+        .setHeader(IntegrationMessageHeaderAccessor.ACKNOWLEDGMENT_CALLBACK, callback)
+        .build();
+  }
+
+  private static Message<byte[]> tableMessage(String table, String data) {
+    return MessageBuilder.withPayload(data.getBytes(StandardCharsets.UTF_8))
+        .setHeader("table", table)
+        .build();
+  }
 }
@@ -0,0 +1,132 @@
+/*
+ * Copyright 2022-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.cloud.spring.core.util;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import org.springframework.util.Assert;
+
+/**
+ * Bounded LRU cache of the results of verifying tokens, such as decoded JWTs, so that a token
+ * presented again is not verified again.
+ *
+ * <p>Entries are keyed by the SHA-256 digest of the token rather than the token itself and are
+ * only served until the expiration reported for the verified value. Values without an expiration
+ * are never cached, and tokens that fail verification are not remembered.
+ *
+ * @param <T> the type of the verified value
+ * @since 3.3.0
+ */
+public final class VerifiedTokenCache<T> {
+
+  // MessageDigest instances are not thread-safe, so each thread reuses its own.
+  private static final ThreadLocal<MessageDigest> SHA_256 =
+      ThreadLocal.withInitial(VerifiedTokenCache::newSha256);
+
+  private final Function<T, Instant> expiration;
+
+  private final Map<String, T> entries;
+
+  private final AtomicLong hits = new AtomicLong();
+
+  private final AtomicLong misses = new AtomicLong();
+
+  /**
+   * Creates a cache.
+   *
+   * @param maxSize the maximum number of verified tokens to keep
+   * @param expiration returns when a verified value expires, or {@code null} if it does not
+   */
+  public VerifiedTokenCache(int maxSize, Function<T, Instant> expiration) {
+    Assert.isTrue(maxSize > 0, "Cache size must be positive.");
+    Assert.notNull(expiration, "Expiration function cannot be null.");
+    this.expiration = expiration;
+    this.entries =
+        new LinkedHashMap<String, T>(16, 0.75f, true) {
+          @Override
+          protected boolean removeEldestEntry(Map.Entry<String, T> eldest) {
+            return size() > maxSize;
+          }
+        };
+  }
+
+  /**
+   * Returns the cached value for a token, verifying and caching it if it is not cached or has
+   * expired. Exceptions thrown by the verifier are propagated.
+   *
+   * @param token the token
+   * @param verifier verifies the token and returns the resulting value
+   * @return the verified value
+   */
+  public T get(String token, Function<String, T> verifier) {
+    String key = digest(token);
+    synchronized (this.entries) {
+      T cached = this.entries.get(key);
+      if (cached != null) {
+        if (Instant.now().isBefore(this.expiration.apply(cached))) {
+          this.hits.incrementAndGet();
+          return cached;
+        }
+        this.entries.remove(key);
+      }
+    }
+    this.misses.incrementAndGet();
+    T verified = verifier.apply(token);
+    Instant expiresAt = verified != null ? this.expiration.apply(verified) : null;
+    if (expiresAt != null && Instant.now().isBefore(expiresAt)) {
+      synchronized (this.entries) {
+        this.entries.put(key, verified);
+      }
+    }
+    return verified;
+  }
+
+  public long getHitCount() {
+    return this.hits.get();
+  }
+
+  public long getMissCount() {
+    return this.misses.get();
+  }
+
+  public int size() {
+    synchronized (this.entries) {
+      return this.entries.size();
+    }
+  }
+
+  private static String digest(String token) {
+    MessageDigest messageDigest = SHA_256.get();
+    return Base64.getEncoder()
+        .encodeToString(messageDigest.digest(token.getBytes(StandardCharsets.UTF_8)));
+  }
+
+  private static MessageDigest newSha256() {
+    try {
+      return MessageDigest.getInstance("SHA-256");
+    } catch (NoSuchAlgorithmException ex) {
+      throw new IllegalStateException("SHA-256 is not available", ex);
+    }
+  }
+}
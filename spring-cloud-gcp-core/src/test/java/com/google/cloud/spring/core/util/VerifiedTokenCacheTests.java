@@ -0,0 +1,111 @@
+/*
+ * Copyright 2022-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.cloud.spring.core.util;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import org.junit.jupiter.api.Test;
+
+/** Tests for {@link VerifiedTokenCache}. */
+class VerifiedTokenCacheTests {
+
+  private final AtomicInteger verifications = new AtomicInteger();
+
+  @Test
+  void verifiedTokenIsServedFromCache() {
+    VerifiedTokenCache<Instant> cache = new VerifiedTokenCache<>(10, Function.identity());
+    Instant expiresAt = Instant.now().plusSeconds(60);
+
+    assertThat(cache.get("token", verifier(expiresAt))).isEqualTo(expiresAt);
+    assertThat(cache.get("token", verifier(expiresAt))).isEqualTo(expiresAt);
+
+    assertThat(this.verifications).hasValue(1);
+    assertThat(cache.getHitCount()).isEqualTo(1L);
+    assertThat(cache.getMissCount()).isEqualTo(1L);
+    assertThat(cache.size()).isEqualTo(1);
+  }
+
+  @Test
+  void expiredTokenIsNotCached() {
+    VerifiedTokenCache<Instant> cache = new VerifiedTokenCache<>(10, Function.identity());
+    Instant expiresAt = Instant.now().minusSeconds(1);
+
+    cache.get("token", verifier(expiresAt));
+    cache.get("token", verifier(expiresAt));
+
+    assertThat(this.verifications).hasValue(2);
+    assertThat(cache.size()).isZero();
+  }
+
+  @Test
+  void tokenWithoutExpirationIsNotCached() {
+    VerifiedTokenCache<String> cache = new VerifiedTokenCache<>(10, value -> null);
+
+    cache.get("token", token -> token + this.verifications.incrementAndGet());
+    cache.get("token", token -> token + this.verifications.incrementAndGet());
+
+    assertThat(this.verifications).hasValue(2);
+    assertThat(cache.size()).isZero();
+  }
+
+  @Test
+  void rejectedTokenIsNotCached() {
+    VerifiedTokenCache<Instant> cache = new VerifiedTokenCache<>(10, Function.identity());
+    Function<String, Instant> rejecting =
+        token -> {
+          throw new IllegalArgumentException("invalid token");
+        };
+
+    assertThatThrownBy(() -> cache.get("token", rejecting))
+        .isInstanceOf(IllegalArgumentException.class);
+    assertThat(cache.size()).isZero();
+  }
+
+  @Test
+  void leastRecentlyUsedTokenIsEvicted() {
+    VerifiedTokenCache<Instant> cache = new VerifiedTokenCache<>(2, Function.identity());
+    Instant expiresAt = Instant.now().plusSeconds(60);
+
+    cache.get("token1", verifier(expiresAt));
+    cache.get("token2", verifier(expiresAt));
+    cache.get("token1", verifier(expiresAt));
+    cache.get("token3", verifier(expiresAt));
+    assertThat(cache.size()).isEqualTo(2);
+
+    cache.get("token1", verifier(expiresAt));
+    cache.get("token2", verifier(expiresAt));
+    assertThat(this.verifications).hasValue(4);
+  }
+
+  @Test
+  void maxSizeMustBePositive() {
+    assertThatThrownBy(() -> new VerifiedTokenCache<Instant>(0, Function.identity()))
+        .isInstanceOf(IllegalArgumentException.class)
+        .hasMessage("Cache size must be positive.");
+  }
+
+  private Function<String, Instant> verifier(Instant expiresAt) {
+    return token -> {
+      this.verifications.incrementAndGet();
+      return expiresAt;
+    };
+  }
+}
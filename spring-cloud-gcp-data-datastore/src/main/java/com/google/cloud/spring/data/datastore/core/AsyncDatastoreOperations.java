@@ -0,0 +1,195 @@
+/*
+ * Copyright 2022-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.cloud.spring.data.datastore.core;
+
+import com.google.cloud.datastore.BaseEntity;
+import com.google.cloud.datastore.Key;
+import com.google.cloud.datastore.Query;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+
+/**
+ * An interface of operations that run against Cloud Datastore without blocking the caller. Each
+ * operation completes its future with the result of the corresponding {@link DatastoreOperations}
+ * method, or exceptionally with the exception it threw.
+ *
+ * @since 3.3.0
+ */
+public interface AsyncDatastoreOperations {
+
+  /**
+   * Get the blocking operations the asynchronous operations are run with.
+   *
+   * @return the blocking operations.
+   */
+  DatastoreOperations getDatastoreOperations();
+
+  /**
+   * Get an entity based on a id.
+   *
+   * @param id the id of the entity. If this is actually a {@link
+   *     com.google.cloud.datastore.Key} then it will be used. Otherwise it will be attempted to be
+   *     converted to an integer or string value and it will be assumed to be a root key value with
+   *     the Kind determined by the entityClass.
+   * @param entityClass the type of the entity to get.
+   * @param <T> the class type of the entity.
+   * @return a future of the entity that was found, completed with {@code null} if none was found.
+   */
+  <T> CompletableFuture<T> findById(Object id, Class<T> entityClass);
+
+  /**
+   * Get entities based on the given ids.
+   *
+   * @param ids the ids of the entities.
+   * @param entityClass the type of the entities to get.
+   * @param <T> the class type of the entities.
+   * @return a future of the entities that were found.
+   */
+  <T> CompletableFuture<List<T>> findAllById(Iterable<?> ids, Class<T> entityClass);
+
+  /**
+   * Get all the entities of the given domain type.
+   *
+   * @param entityClass the domain type to get.
+   * @param <T> the type param of the domain type.
+   * @return a future of the entities that were found.
+   */
+  <T> CompletableFuture<List<T>> findAll(Class<T> entityClass);
+
+  /**
+   * Get all the entities of the given domain type applying limit, offset and sort.
+   *
+   * @param entityClass the domain type to get.
+   * @param queryOptions query options
+   * @param <T> the type param of the domain type.
+   * @return a future of the entities that were found.
+   */
+  <T> CompletableFuture<List<T>> findAll(Class<T> entityClass, DatastoreQueryOptions queryOptions);
+
+  /**
+   * Run a query and convert all of its results.
+   *
+   * @param query the query to run.
+   * @param entityClass the type of object to convert the results to.
+   * @param <T> the type of the results.
+   * @return a future of the converted results.
+   */
+  <T> CompletableFuture<List<T>> query(Query<? extends BaseEntity> query, Class<T> entityClass);
+
+  /**
+   * Run a key query.
+   *
+   * @param query the key query to run.
+   * @return a future of the keys found.
+   */
+  CompletableFuture<List<Key>> queryKeys(Query<Key> query);
+
+  /**
+   * Count all occurrences of entities of the given domain type.
+   *
+   * @param entityClass the domain type to count.
+   * @return a future of the number of entities.
+   */
+  CompletableFuture<Long> count(Class<?> entityClass);
+
+  /**
+   * Check if the given ID belongs to an entity in Cloud Datastore.
+   *
+   * @param id the ID to check.
+   * @param entityClass the domain type of the entity.
+   * @param <T> the type param of the domain type.
+   * @return a future completed with {@code true} if the entity exists.
+   */
+  <T> CompletableFuture<Boolean> existsById(Object id, Class<T> entityClass);
+
+  /**
+   * Saves an instance of an object to Cloud Datastore.
+   *
+   * @param instance the instance to save.
+   * @param ancestors ancestors that should be added to the entity
+   * @param <T> the type of the object to save.
+   * @return a future of the instance that was saved.
+   */
+  <T> CompletableFuture<T> save(T instance, Key... ancestors);
+
+  /**
+   * Saves multiple instances of objects to Cloud Datastore.
+   *
+   * @param entities the objects to save.
+   * @param ancestors ancestors that should be added to each entity
+   * @param <T> the type of entities to save
+   * @return a future of the entities that were saved.
+   */
+  <T> CompletableFuture<List<T>> saveAll(Iterable<T> entities, Key... ancestors);
+
+  /**
+   * Delete an entity from Cloud Datastore.
+   *
+   * @param id the ID of the entity to delete.
+   * @param entityClass the type of the entity to delete.
+   * @param <T> the type of the entity to delete.
+   * @return a future completed once the entity is deleted.
+   */
+  <T> CompletableFuture<Void> deleteById(Object id, Class<T> entityClass);
+
+  /**
+   * Delete multiple IDs from a Cloud Datastore.
+   *
+   * @param ids the IDs to delete.
+   * @param entityClass the type of the entities to delete.
+   * @param <T> the type of the entities to delete.
+   * @return a future completed once the entities are deleted.
+   */
+  <T> CompletableFuture<Void> deleteAllById(Iterable<?> ids, Class<T> entityClass);
+
+  /**
+   * Delete an entity from Cloud Datastore.
+   *
+   * @param entity the entity to delete.
+   * @param <T> the entity type
+   * @return a future completed once the entity is deleted.
+   */
+  <T> CompletableFuture<Void> delete(T entity);
+
+  /**
+   * Delete multiple entities from Cloud Datastore.
+   *
+   * @param entities the entities to delete.
+   * @param <T> the entity type.
+   * @return a future completed once the entities are deleted.
+   */
+  <T> CompletableFuture<Void> deleteAll(Iterable<T> entities);
+
+  /**
+   * Delete all entities of a given domain type.
+   *
+   * @param entityClass the domain type to delete from Cloud Datastore.
+   * @return a future of the number of entities that were deleted.
+   */
+  CompletableFuture<Long> deleteAll(Class<?> entityClass);
+
+  /**
+   * Performs multiple read and write operations in a single transaction.
+   *
+   * @param operations the function that uses {@link DatastoreOperations} to perform operations in
+   *     a transaction.
+   * @param <A> the final return type of the operations.
+   * @return a future of the final result of the transaction.
+   */
+  <A> CompletableFuture<A> performTransaction(Function<DatastoreOperations, A> operations);
+}
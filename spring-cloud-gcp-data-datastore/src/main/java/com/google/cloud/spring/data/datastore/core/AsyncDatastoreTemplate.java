@@ -0,0 +1,197 @@
+/*
+ * Copyright 2022-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.cloud.spring.data.datastore.core;
+
+import com.google.cloud.datastore.BaseEntity;
+import com.google.cloud.datastore.Key;
+import com.google.cloud.datastore.Query;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.lang.Nullable;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.util.Assert;
+
+/**
+ * An implementation of {@link AsyncDatastoreOperations} that runs the operations of a {@link
+ * DatastoreOperations} on an executor. Lazily loaded query results are read on the executor too,
+ * so the futures complete with fully converted lists.
+ *
+ * <p>Operations run outside of any transaction of the calling thread; use {@link
+ * #performTransaction(Function)} to run operations in a transaction.
+ *
+ * @since 3.3.0
+ */
+public class AsyncDatastoreTemplate implements AsyncDatastoreOperations, DisposableBean {
+
+  private static final int DEFAULT_POOL_SIZE = 8;
+
+  private final DatastoreOperations datastoreOperations;
+
+  private final Executor executor;
+
+  @Nullable private final ExecutorService ownedExecutor;
+
+  /**
+   * Constructor that runs operations on a pool of 8 daemon threads, which is shut down when the
+   * template is destroyed.
+   *
+   * @param datastoreOperations the blocking operations to run.
+   */
+  public AsyncDatastoreTemplate(DatastoreOperations datastoreOperations) {
+    Assert.notNull(datastoreOperations, "A non-null DatastoreOperations is required.");
+    CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("datastore-async-");
+    threadFactory.setDaemon(true);
+    this.ownedExecutor = Executors.newFixedThreadPool(DEFAULT_POOL_SIZE, threadFactory);
+    this.executor = this.ownedExecutor;
+    this.datastoreOperations = datastoreOperations;
+  }
+
+  /**
+   * Constructor.
+   *
+   * @param datastoreOperations the blocking operations to run.
+   * @param executor the executor the operations run on. Its size bounds the number of concurrent
+   *     requests.
+   */
+  public AsyncDatastoreTemplate(DatastoreOperations datastoreOperations, Executor executor) {
+    Assert.notNull(datastoreOperations, "A non-null DatastoreOperations is required.");
+    Assert.notNull(executor, "A non-null executor is required.");
+    this.ownedExecutor = null;
+    this.executor = executor;
+    this.datastoreOperations = datastoreOperations;
+  }
+
+  @Override
+  public DatastoreOperations getDatastoreOperations() {
+    return this.datastoreOperations;
+  }
+
+  @Override
+  public <T> CompletableFuture<T> findById(Object id, Class<T> entityClass) {
+    return supply(() -> this.datastoreOperations.findById(id, entityClass));
+  }
+
+  @Override
+  public <T> CompletableFuture<List<T>> findAllById(Iterable<?> ids, Class<T> entityClass) {
+    return supply(() -> toList(this.datastoreOperations.findAllById(ids, entityClass)));
+  }
+
+  @Override
+  public <T> CompletableFuture<List<T>> findAll(Class<T> entityClass) {
+    return supply(() -> toList(this.datastoreOperations.findAll(entityClass)));
+  }
+
+  @Override
+  public <T> CompletableFuture<List<T>> findAll(
+      Class<T> entityClass, DatastoreQueryOptions queryOptions) {
+    return supply(() -> toList(this.datastoreOperations.findAll(entityClass, queryOptions)));
+  }
+
+  @Override
+  public <T> CompletableFuture<List<T>> query(
+      Query<? extends BaseEntity> query, Class<T> entityClass) {
+    return supply(() -> toList(this.datastoreOperations.query(query, entityClass)));
+  }
+
+  @Override
+  public CompletableFuture<List<Key>> queryKeys(Query<Key> query) {
+    return supply(() -> toList(this.datastoreOperations.queryKeys(query)));
+  }
+
+  @Override
+  public CompletableFuture<Long> count(Class<?> entityClass) {
+    return supply(() -> this.datastoreOperations.count(entityClass));
+  }
+
+  @Override
+  public <T> CompletableFuture<Boolean> existsById(Object id, Class<T> entityClass) {
+    return supply(() -> this.datastoreOperations.existsById(id, entityClass));
+  }
+
+  @Override
+  public <T> CompletableFuture<T> save(T instance, Key... ancestors) {
+    return supply(() -> this.datastoreOperations.save(instance, ancestors));
+  }
+
+  @Override
+  public <T> CompletableFuture<List<T>> saveAll(Iterable<T> entities, Key... ancestors) {
+    return supply(() -> toList(this.datastoreOperations.saveAll(entities, ancestors)));
+  }
+
+  @Override
+  public <T> CompletableFuture<Void> deleteById(Object id, Class<T> entityClass) {
+    return run(() -> this.datastoreOperations.deleteById(id, entityClass));
+  }
+
+  @Override
+  public <T> CompletableFuture<Void> deleteAllById(Iterable<?> ids, Class<T> entityClass) {
+    return run(() -> this.datastoreOperations.deleteAllById(ids, entityClass));
+  }
+
+  @Override
+  public <T> CompletableFuture<Void> delete(T entity) {
+    return run(() -> this.datastoreOperations.delete(entity));
+  }
+
+  @Override
+  public <T> CompletableFuture<Void> deleteAll(Iterable<T> entities) {
+    return run(() -> this.datastoreOperations.deleteAll(entities));
+  }
+
+  @Override
+  public CompletableFuture<Long> deleteAll(Class<?> entityClass) {
+    return supply(() -> this.datastoreOperations.deleteAll(entityClass));
+  }
+
+  @Override
+  public <A> CompletableFuture<A> performTransaction(Function<DatastoreOperations, A> operations) {
+    return supply(() -> this.datastoreOperations.performTransaction(operations));
+  }
+
+  @Override
+  public void destroy() {
+    if (this.ownedExecutor != null) {
+      this.ownedExecutor.shutdown();
+    }
+  }
+
+  private <R> CompletableFuture<R> supply(Supplier<R> operation) {
+    return CompletableFuture.supplyAsync(operation, this.executor);
+  }
+
+  private CompletableFuture<Void> run(Runnable operation) {
+    return CompletableFuture.runAsync(operation, this.executor);
+  }
+
+  private static <T> List<T> toList(Iterable<T> iterable) {
+    if (iterable instanceof List) {
+      return (List<T>) iterable;
+    }
+    List<T> list = new ArrayList<>();
+    if (iterable != null) {
+      iterable.forEach(list::add);
+    }
+    return list;
+  }
+}
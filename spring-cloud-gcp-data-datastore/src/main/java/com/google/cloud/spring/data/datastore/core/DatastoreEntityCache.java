@@ -0,0 +1,286 @@
+/*
+ * Copyright 2022-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.cloud.spring.data.datastore.core;
+
+import com.google.cloud.datastore.Entity;
+import com.google.cloud.datastore.Key;
+import com.google.cloud.spring.data.datastore.core.mapping.event.AfterSaveEvent;
+import com.google.cloud.spring.data.datastore.core.mapping.event.DeleteEvent;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+import org.springframework.context.ApplicationEvent;
+import org.springframework.context.ApplicationListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.util.Assert;
+
+/**
+ * A bounded cache of Datastore entities shared by the lookups of a {@link DatastoreTemplate},
+ * meant for read-mostly kinds. Entries expire after a fixed time to live, and the least recently
+ * used entries are evicted when the cache is full.
+ *
+ * <p>Entities written or deleted through a template using this cache are evicted from it. When
+ * registered as a bean, the cache also evicts entities on the {@link AfterSaveEvent} and {@link
+ * DeleteEvent} events of other templates. Changes made outside the application are only seen once
+ * the cached entry expires.
+ *
+ * <p>An entity read from Datastore is only cached if its key was not evicted while it was being
+ * read. Readers get the current {@link #getEvictionGeneration() eviction generation} before the
+ * read and pass it to {@link #put(Entity, long)}.
+ *
+ * @since 3.3.0
+ */
+public class DatastoreEntityCache implements ApplicationListener<ApplicationEvent> {
+
+  private final int maximumSize;
+
+  private final long timeToLiveNanos;
+
+  private final Set<String> kinds;
+
+  private final LongSupplier nanoClock;
+
+  private final Map<Key, CachedEntity> entries;
+
+  // The eviction generation of the most recently evicted keys, oldest first, bounded like the
+  // entries. Guarded by the entries.
+  private final Map<Key, Long> evictions;
+
+  private long evictionGeneration;
+
+  // The newest generation of the evictions that are no longer tracked per key.
+  private long untrackedEvictionGeneration;
+
+  private final LongAdder hitCount = new LongAdder();
+
+  private final LongAdder missCount = new LongAdder();
+
+  /**
+   * Constructor.
+   *
+   * @param maximumSize the maximum number of cached entities.
+   * @param timeToLive how long an entity is cached after it was read.
+   * @param kinds the Datastore kinds to cache. All kinds are cached if none are given.
+   */
+  public DatastoreEntityCache(int maximumSize, Duration timeToLive, String... kinds) {
+    this(maximumSize, timeToLive, System::nanoTime, kinds);
+  }
+
+  DatastoreEntityCache(
+      int maximumSize, Duration timeToLive, LongSupplier nanoClock, String... kinds) {
+    Assert.isTrue(maximumSize > 0, "The maximum size must be positive.");
+    Assert.isTrue(
+        timeToLive != null && !timeToLive.isNegative() && !timeToLive.isZero(),
+        "The time to live must be positive.");
+    this.maximumSize = maximumSize;
+    this.timeToLiveNanos = timeToLive.toNanos();
+    this.kinds = Collections.unmodifiableSet(new HashSet<>(Arrays.asList(kinds)));
+    this.nanoClock = nanoClock;
+    this.entries =
+        new LinkedHashMap<Key, CachedEntity>(16, 0.75f, true) {
+          @Override
+          protected boolean removeEldestEntry(Map.Entry<Key, CachedEntity> eldest) {
+            return size() > DatastoreEntityCache.this.maximumSize;
+          }
+        };
+    this.evictions =
+        new LinkedHashMap<Key, Long>() {
+          @Override
+          protected boolean removeEldestEntry(Map.Entry<Key, Long> eldest) {
+            if (size() > DatastoreEntityCache.this.maximumSize) {
+              DatastoreEntityCache.this.untrackedEvictionGeneration = eldest.getValue();
+              return true;
+            }
+            return false;
+          }
+        };
+  }
+
+  /**
+   * Whether entities with the given key are cached.
+   *
+   * @param key the key of the entity.
+   * @return {@code true} if the kind of the key is cached.
+   */
+  public boolean isCacheable(Key key) {
+    return this.kinds.isEmpty() || this.kinds.contains(key.getKind());
+  }
+
+  /**
+   * Get a cached entity.
+   *
+   * @param key the key of the entity.
+   * @return the entity, or {@code null} if it is not cached or has expired.
+   */
+  public Entity get(Key key) {
+    synchronized (this.entries) {
+      CachedEntity cached = this.entries.get(key);
+      if (cached != null && cached.expiresAt - this.nanoClock.getAsLong() <= 0) {
+        this.entries.remove(key);
+        cached = null;
+      }
+      if (cached == null) {
+        this.missCount.increment();
+        return null;
+      }
+      this.hitCount.increment();
+      return cached.entity;
+    }
+  }
+
+  /**
+   * Get the current eviction generation, which increases with every eviction.
+   *
+   * @return the generation to pass to {@link #put(Entity, long)} for entities read afterwards.
+   */
+  public long getEvictionGeneration() {
+    synchronized (this.entries) {
+      return this.evictionGeneration;
+    }
+  }
+
+  /**
+   * Cache an entity read from Datastore if its kind is cached.
+   *
+   * @param entity the entity.
+   */
+  public void put(Entity entity) {
+    put(entity, Long.MAX_VALUE);
+  }
+
+  /**
+   * Cache an entity read from Datastore if its kind is cached and its key was not evicted since
+   * the given generation. Keys evicted so long ago that they are no longer tracked are treated as
+   * evicted after the generation.
+   *
+   * @param entity the entity.
+   * @param generation the {@link #getEvictionGeneration() eviction generation} before the entity
+   *     was read.
+   */
+  public void put(Entity entity, long generation) {
+    if (entity == null || !isCacheable(entity.getKey())) {
+      return;
+    }
+    long expiresAt = this.nanoClock.getAsLong() + this.timeToLiveNanos;
+    synchronized (this.entries) {
+      Long evictedAt = this.evictions.get(entity.getKey());
+      if ((evictedAt != null && evictedAt > generation)
+          || this.untrackedEvictionGeneration > generation) {
+        return;
+      }
+      this.entries.put(entity.getKey(), new CachedEntity(entity, expiresAt));
+    }
+  }
+
+  /**
+   * Evict entities from the cache. If a transaction is active, the entities are evicted again
+   * once it completes, so that values read before the commit are not kept.
+   *
+   * @param keys the keys of the entities.
+   */
+  public void evict(Collection<Key> keys) {
+    if (keys.isEmpty()) {
+      return;
+    }
+    removeAll(keys);
+    if (TransactionSynchronizationManager.isSynchronizationActive()) {
+      List<Key> evicted = new ArrayList<>(keys);
+      TransactionSynchronizationManager.registerSynchronization(
+          new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+              removeAll(evicted);
+            }
+          });
+    }
+  }
+
+  /** Remove all entities from the cache. */
+  public void clear() {
+    synchronized (this.entries) {
+      this.entries.clear();
+      this.evictions.clear();
+      this.untrackedEvictionGeneration = ++this.evictionGeneration;
+    }
+  }
+
+  /**
+   * Get the number of cached entities, including expired ones that were not evicted yet.
+   *
+   * @return the number of entries.
+   */
+  public int size() {
+    synchronized (this.entries) {
+      return this.entries.size();
+    }
+  }
+
+  public long getHitCount() {
+    return this.hitCount.sum();
+  }
+
+  public long getMissCount() {
+    return this.missCount.sum();
+  }
+
+  @Override
+  public void onApplicationEvent(ApplicationEvent event) {
+    if (event instanceof AfterSaveEvent) {
+      List<Key> keys = new ArrayList<>();
+      for (Entity entity : ((AfterSaveEvent) event).getDatastoreEntities()) {
+        keys.add(entity.getKey());
+      }
+      evict(keys);
+    } else if (event instanceof DeleteEvent) {
+      evict(Arrays.asList(((DeleteEvent) event).getKeys()));
+    }
+  }
+
+  private void removeAll(Collection<Key> keys) {
+    synchronized (this.entries) {
+      long generation = ++this.evictionGeneration;
+      for (Key key : keys) {
+        this.entries.remove(key);
+        // Re-inserted so that the evictions stay ordered by generation.
+        this.evictions.remove(key);
+        this.evictions.put(key, generation);
+      }
+    }
+  }
+
+  private static final class CachedEntity {
+
+    private final Entity entity;
+
+    private final long expiresAt;
+
+    CachedEntity(Entity entity, long expiresAt) {
+      this.entity = entity;
+      this.expiresAt = expiresAt;
+    }
+  }
+}
@@ -25,6 +25,8 @@ import com.google.cloud.spring.data.datastore.core.convert.DatastoreEntityConver
 import java.util.Collection;
 import java.util.Map;
 import java.util.function.Function;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 import org.springframework.data.domain.Example;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Slice;
@@ -154,6 +156,34 @@ public interface DatastoreOperations {
    */
   <T> Iterable<T> query(Query<? extends BaseEntity> query, Class<T> entityClass);
 
+  /**
+   * Finds objects by using a Cloud Datastore query, converting them lazily while the returned
+   * stream is consumed. Results are fetched batch by batch, so only the current batch is held in
+   * memory. If a structured query fails with a retryable error, it is resumed from the cursor
+   * after the last result that was read.
+   *
+   * <p>A stream opened inside a transaction managed by {@code DatastoreTransactionManager} reads
+   * through that transaction. If it is consumed after the transaction has ended, the remaining
+   * results of a structured query are read outside of the transaction, resuming from the cursor;
+   * a GQL query fails instead. Streams opened inside {@code performTransaction} must be consumed
+   * within the callback.
+   *
+   * <p>The default implementation streams the results of {@link #query(Query, Class)}, which are
+   * all converted before the stream is returned.
+   *
+   * @param query the query to execute.
+   * @param entityClass the type of object to retrieve.
+   * @param <T> the type of object to retrieve.
+   * @return a sequential stream of the found objects.
+   * @since 3.3.0
+   */
+  default <T> Stream<T> queryStream(Query<? extends BaseEntity> query, Class<T> entityClass) {
+    Iterable<T> results = query(query, entityClass);
+    return results != null
+        ? StreamSupport.stream(results.spliterator(), false)
+        : Stream.empty();
+  }
+
   /**
    * Runs given query and applies given function to each entity in the result.
    *
@@ -20,6 +20,7 @@ import com.google.cloud.datastore.BaseEntity;
 import com.google.cloud.datastore.BaseKey;
 import com.google.cloud.datastore.Cursor;
 import com.google.cloud.datastore.Datastore;
+import com.google.cloud.datastore.DatastoreException;
 import com.google.cloud.datastore.DatastoreReaderWriter;
 import com.google.cloud.datastore.Entity;
 import com.google.cloud.datastore.Entity.Builder;
@@ -38,6 +39,7 @@ import com.google.cloud.datastore.QueryResults;
 import com.google.cloud.datastore.StructuredQuery;
 import com.google.cloud.datastore.StructuredQuery.Filter;
 import com.google.cloud.datastore.StructuredQuery.PropertyFilter;
+import com.google.cloud.datastore.Transaction;
 import com.google.cloud.datastore.Value;
 import com.google.cloud.spring.data.datastore.core.convert.DatastoreEntityConverter;
 import com.google.cloud.spring.data.datastore.core.convert.ObjectToKeyFactory;
@@ -56,20 +58,34 @@ import com.google.cloud.spring.data.datastore.core.util.SliceUtil;
 import com.google.cloud.spring.data.datastore.core.util.ValueUtil;
 import com.google.cloud.spring.data.datastore.repository.query.DatastorePageable;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.IdentityHashMap;
 import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
+import java.util.NoSuchElementException;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Function;
 import java.util.function.Supplier;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 import java.util.stream.StreamSupport;
 import org.springframework.context.ApplicationEvent;
 import org.springframework.context.ApplicationEventPublisher;
@@ -87,6 +103,7 @@ import org.springframework.data.mapping.PersistentPropertyAccessor;
 import org.springframework.data.util.ClassTypeInformation;
 import org.springframework.lang.NonNull;
 import org.springframework.lang.Nullable;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
 import org.springframework.transaction.support.TransactionSynchronizationManager;
 import org.springframework.util.Assert;
 import org.springframework.util.TypeUtils;
@@ -100,6 +117,20 @@ public class DatastoreTemplate implements DatastoreOperations, ApplicationEventP
 
   private int maxWriteSize = 500;
 
+  private int maxReadSize = 1000;
+
+  private int sliceParallelism = 1;
+
+  private int sliceRetryAttempts;
+
+  private int queryResumeAttempts = 3;
+
+  private @Nullable Executor sliceExecutor;
+
+  private volatile @Nullable ThreadPoolExecutor defaultSliceExecutor;
+
+  private @Nullable DatastoreEntityCache entityCache;
+
   private final Supplier<? extends DatastoreReaderWriter> datastore;
 
   private final DatastoreEntityConverter datastoreEntityConverter;
@@ -135,6 +166,81 @@ public class DatastoreTemplate implements DatastoreOperations, ApplicationEventP
     this.eventPublisher = applicationEventPublisher;
   }
 
+  /**
+   * Sets the maximum number of keys fetched by a single lookup request. Reads of more keys are
+   * split into slices of this size. The default is 1000.
+   *
+   * @param maxReadSize the maximum number of keys per lookup request.
+   * @since 3.3.0
+   */
+  public void setMaxReadSize(int maxReadSize) {
+    Assert.isTrue(maxReadSize > 0, "The maximum read size must be positive.");
+    this.maxReadSize = maxReadSize;
+  }
+
+  /**
+   * Sets the maximum number of slices of a bulk read, write or delete executed concurrently
+   * outside of transactions. The default, 1, executes slices one after another.
+   *
+   * @param sliceParallelism the maximum number of concurrent slice requests.
+   * @since 3.3.0
+   */
+  public void setSliceParallelism(int sliceParallelism) {
+    Assert.isTrue(sliceParallelism > 0, "The slice parallelism must be positive.");
+    this.sliceParallelism = sliceParallelism;
+    // The default executor is re-created with the new size; idle threads of the old one time out.
+    this.defaultSliceExecutor = null;
+  }
+
+  /**
+   * Sets how many times a slice of a bulk read, write or delete is retried after a retryable
+   * {@link DatastoreException}, in addition to the retries of the client library. Slices are
+   * idempotent because they read, write or delete entities by key. The default is 0.
+   *
+   * @param sliceRetryAttempts the number of retries per slice.
+   * @since 3.3.0
+   */
+  public void setSliceRetryAttempts(int sliceRetryAttempts) {
+    Assert.isTrue(sliceRetryAttempts >= 0, "The slice retry attempts must not be negative.");
+    this.sliceRetryAttempts = sliceRetryAttempts;
+  }
+
+  /**
+   * Sets how many times in a row a streamed structured query is resumed from its last cursor after
+   * a retryable {@link DatastoreException}. The default is 3.
+   *
+   * @param queryResumeAttempts the number of consecutive resume attempts.
+   * @since 3.3.0
+   */
+  public void setQueryResumeAttempts(int queryResumeAttempts) {
+    Assert.isTrue(queryResumeAttempts >= 0, "The query resume attempts must not be negative.");
+    this.queryResumeAttempts = queryResumeAttempts;
+  }
+
+  /**
+   * Sets the executor concurrent slices are executed on. By default, slices are executed on a pool
+   * of {@code sliceParallelism} daemon threads, shared by the operations of this template, whose
+   * threads stop after being idle for a minute.
+   *
+   * @param sliceExecutor the executor.
+   * @since 3.3.0
+   */
+  public void setSliceExecutor(Executor sliceExecutor) {
+    Assert.notNull(sliceExecutor, "A non-null executor is required.");
+    this.sliceExecutor = sliceExecutor;
+  }
+
+  /**
+   * Sets the cache shared by lookups by key outside of transactions. Entities written or deleted
+   * through this template are evicted from it. Lookups are not cached by default.
+   *
+   * @param entityCache the cache, or {@code null} to disable caching.
+   * @since 3.3.0
+   */
+  public void setEntityCache(@Nullable DatastoreEntityCache entityCache) {
+    this.entityCache = entityCache;
+  }
+
   @Override
   public <T> T findById(Object id, Class<T> entityClass) {
     Iterator<T> results = performFindByKey(Collections.singleton(id), entityClass).iterator();
@@ -163,6 +269,7 @@ public class DatastoreTemplate implements DatastoreOperations, ApplicationEventP
 
   private <T> List<Entity> getEntitiesForSave(
       Iterable<T> entities, Set<Key> persisted, Key... ancestors) {
+    allocateKeys(entities, ancestors);
     List<Entity> entitiesForSave = new LinkedList<>();
     for (T entity : entities) {
       Key key = getKey(entity, true, ancestors);
@@ -174,12 +281,46 @@ public class DatastoreTemplate implements DatastoreOperations, ApplicationEventP
     return entitiesForSave;
   }
 
+  /**
+   * Allocates the keys of the entities without ID values with one call per entity type, instead
+   * of one call per entity.
+   */
+  private <T> void allocateKeys(Iterable<T> entities, Key... ancestors) {
+    Map<DatastorePersistentEntity<?>, List<Object>> entitiesWithoutId = new HashMap<>();
+    Set<Object> seen = Collections.newSetFromMap(new IdentityHashMap<>());
+    for (T entity : entities) {
+      DatastorePersistentEntity<?> persistentEntity = getPersistentEntity(entity.getClass());
+      if (seen.add(entity)
+          && persistentEntity
+                  .getPropertyAccessor(entity)
+                  .getProperty(persistentEntity.getIdPropertyOrFail())
+              == null) {
+        entitiesWithoutId.computeIfAbsent(persistentEntity, x -> new ArrayList<>()).add(entity);
+      }
+    }
+    entitiesWithoutId.forEach(
+        (persistentEntity, entitiesOfType) -> {
+          // Single entities are allocated while they are converted.
+          if (entitiesOfType.size() > 1) {
+            this.objectToKeyFactory.allocateKeysForObjects(
+                entitiesOfType, persistentEntity, ancestors);
+          }
+        });
+  }
+
   private <T> void saveEntities(List<T> instances, Key[] ancestors) {
     if (!instances.isEmpty()) {
       maybeEmitEvent(new BeforeSaveEvent(instances));
       List<Entity> entities = getEntitiesForSave(instances, new HashSet<>(), ancestors);
-      SliceUtil.sliceAndExecute(
-          entities.toArray(new Entity[0]), this.maxWriteSize, getDatastoreReadWriter()::put);
+      DatastoreReaderWriter datastoreReaderWriter = getDatastoreReadWriter();
+      executeSlices(
+          entities.toArray(new Entity[0]),
+          this.maxWriteSize,
+          slice -> {
+            datastoreReaderWriter.put(slice);
+            return Collections.emptyList();
+          });
+      evictCachedEntities(entities.stream().map(Entity::getKey).collect(Collectors.toList()));
       maybeEmitEvent(new AfterSaveEvent(entities, instances));
     }
   }
@@ -227,7 +368,15 @@ public class DatastoreTemplate implements DatastoreOperations, ApplicationEventP
 
   private void performDelete(Key[] keys, Iterable ids, Iterable entities, Class entityClass) {
     maybeEmitEvent(new BeforeDeleteEvent(keys, entityClass, ids, entities));
-    SliceUtil.sliceAndExecute(keys, this.maxWriteSize, getDatastoreReadWriter()::delete);
+    DatastoreReaderWriter datastoreReaderWriter = getDatastoreReadWriter();
+    executeSlices(
+        keys,
+        this.maxWriteSize,
+        slice -> {
+          datastoreReaderWriter.delete(slice);
+          return Collections.emptyList();
+        });
+    evictCachedEntities(Arrays.asList(keys));
     maybeEmitEvent(new AfterDeleteEvent(keys, entityClass, ids, entities));
   }
 
@@ -252,7 +401,7 @@ public class DatastoreTemplate implements DatastoreOperations, ApplicationEventP
     List<Key> missingKeys = keys.stream().filter(context::notCached).collect(Collectors.toList());
 
     if (!missingKeys.isEmpty()) {
-      List<Entity> entities = getDatastoreReadWriter().fetch(missingKeys.toArray(new Key[] {}));
+      List<Entity> entities = fetchEntities(missingKeys);
       Assert.isTrue(missingKeys.size() == entities.size(), "Fetched incorrect number of entities");
 
       for (int i = 0; i < missingKeys.size(); i++) {
@@ -275,6 +424,19 @@ public class DatastoreTemplate implements DatastoreOperations, ApplicationEventP
         : null;
   }
 
+  @Override
+  public <T> Stream<T> queryStream(Query<? extends BaseEntity> query, Class<T> entityClass) {
+    Assert.notNull(query, "A non-null query is required.");
+    Assert.notNull(entityClass, "A non-null entity class is required.");
+    QueryStreamIterator<T> iterator =
+        new QueryStreamIterator<>(query, entityClass, getDatastoreReadWriter());
+    return StreamSupport.stream(
+            Spliterators.spliteratorUnknownSize(
+                iterator, Spliterator.ORDERED | Spliterator.NONNULL),
+            false)
+        .onClose(iterator::publishAfterQueryEvent);
+  }
+
   @Override
   public <T> Slice<Key> queryKeysSlice(KeyQuery query, Class<T> entityClass, Pageable pageable) {
     return buildSlice(query, pageable, Key.class);
@@ -291,17 +453,34 @@ public class DatastoreTemplate implements DatastoreOperations, ApplicationEventP
 
   private <T> SliceImpl<T> buildSlice(
       StructuredQuery query, Pageable pageable, Class<T> entityClass) {
-    DatastoreResultsIterable<T> results =
-        (DatastoreResultsIterable<T>)
-            queryKeysOrEntities(applyPageable(query, pageable), entityClass);
-    return new SliceImpl<>(
-        results.toList(),
-        DatastorePageable.from(pageable, results.getCursor(), null),
-        nextPageExists(query, results.getCursor()));
+    if (pageable.isUnpaged()) {
+      DatastoreResultsIterable<T> results =
+          (DatastoreResultsIterable<T>) queryKeysOrEntities(query, entityClass);
+      return new SliceImpl<>(
+          results.toList(), DatastorePageable.from(pageable, results.getCursor(), null), false);
+    }
+    // One result more than the page size is requested to find out whether there is a next page,
+    // instead of running a second query from the cursor.
+    StructuredQuery pageQuery =
+        applyPageable(query, pageable).toBuilder().setLimit(pageable.getPageSize() + 1).build();
+    QueryResults results = getDatastoreReadWriter().run(pageQuery);
+    List page = new ArrayList<>();
+    Cursor cursor = results.getCursorAfter();
+    while (page.size() < pageable.getPageSize() && results.hasNext()) {
+      page.add(results.next());
+      cursor = results.getCursorAfter();
+    }
+    boolean hasNext = results.hasNext();
+    List<T> content =
+        results.getResultClass() == Key.class
+            ? (List<T>) page
+            : convertEntitiesForRead((Iterator<BaseEntity>) page.iterator(), entityClass);
+    maybeEmitEvent(new AfterQueryEvent(new DatastoreResultsIterable<>(content, cursor), pageQuery));
+    return new SliceImpl<>(content, DatastorePageable.from(pageable, cursor, null), hasNext);
   }
 
   private StructuredQuery applyPageable(StructuredQuery query, Pageable pageable) {
-    if (pageable == Pageable.unpaged()) {
+    if (pageable.isUnpaged()) {
       return query;
     }
     Cursor cursor = null;
@@ -332,14 +511,6 @@ public class DatastoreTemplate implements DatastoreOperations, ApplicationEventP
     return resultsIterable;
   }
 
-  private boolean nextPageExists(StructuredQuery query, Cursor cursorAfter) {
-    QueryResults results =
-        getDatastoreReadWriter()
-            .run(query.toBuilder().setStartCursor(cursorAfter).setLimit(1).setOffset(0).build());
-
-    return results.hasNext();
-  }
-
   @Override
   public <A, T> List<T> query(Query<A> query, Function<A, T> entityFunc) {
     return (List<T>) queryIterable(query, entityFunc).getIterable();
@@ -459,6 +630,7 @@ public class DatastoreTemplate implements DatastoreOperations, ApplicationEventP
                       DatastoreTemplate.this.datastoreMappingContext,
                       DatastoreTemplate.this.objectToKeyFactory);
               template.setApplicationEventPublisher(DatastoreTemplate.this.eventPublisher);
+              template.setEntityCache(DatastoreTemplate.this.entityCache);
               return operations.apply(template);
             });
   }
@@ -485,6 +657,7 @@ public class DatastoreTemplate implements DatastoreOperations, ApplicationEventP
                 key, this.datastoreEntityConverter.getConversions().convertOnWriteSingle(value)));
     Entity entity = builder.build();
     getDatastoreReadWriter().put(entity);
+    evictCachedEntities(Collections.singletonList(datastoreKey));
   }
 
   @Override
@@ -863,16 +1036,177 @@ public class DatastoreTemplate implements DatastoreOperations, ApplicationEventP
     return keys;
   }
 
-  private DatastoreReaderWriter getDatastoreReadWriter() {
+  /**
+   * Executes an operation on slices of the given elements and returns the concatenated results in
+   * the order of the slices. Outside of transactions, up to {@code sliceParallelism} slices are
+   * executed concurrently on the slice executor.
+   */
+  private <T, R> List<R> executeSlices(
+      T[] elements, int sliceSize, Function<T[], List<R>> operation) {
+    List<T[]> slices = new ArrayList<>();
+    SliceUtil.sliceAndExecute(elements, sliceSize, slices::add);
+    List<List<R>> sliceResults = new ArrayList<>(Collections.nCopies(slices.size(), null));
+    int workerCount = Math.min(this.sliceParallelism, slices.size());
+    if (workerCount <= 1 || isTransactionActive()) {
+      for (int i = 0; i < slices.size(); i++) {
+        sliceResults.set(i, executeSlice(slices.get(i), operation));
+      }
+    } else {
+      AtomicInteger nextSlice = new AtomicInteger();
+      AtomicBoolean failed = new AtomicBoolean();
+      Runnable worker =
+          () -> {
+            int i;
+            while (!failed.get() && (i = nextSlice.getAndIncrement()) < slices.size()) {
+              try {
+                sliceResults.set(i, executeSlice(slices.get(i), operation));
+              } catch (RuntimeException ex) {
+                failed.set(true);
+                throw ex;
+              }
+            }
+          };
+      CompletableFuture<?>[] workers = new CompletableFuture<?>[workerCount];
+      for (int i = 0; i < workerCount; i++) {
+        workers[i] = CompletableFuture.runAsync(worker, getSliceExecutor());
+      }
+      try {
+        CompletableFuture.allOf(workers).join();
+      } catch (CompletionException ex) {
+        if (ex.getCause() instanceof RuntimeException) {
+          throw (RuntimeException) ex.getCause();
+        }
+        throw ex;
+      }
+    }
+    List<R> results = new ArrayList<>(elements.length);
+    sliceResults.forEach(results::addAll);
+    return results;
+  }
+
+  private <T, R> List<R> executeSlice(T[] slice, Function<T[], List<R>> operation) {
+    for (int attempt = 0; ; attempt++) {
+      try {
+        return operation.apply(slice);
+      } catch (DatastoreException ex) {
+        if (!ex.isRetryable() || attempt >= this.sliceRetryAttempts) {
+          throw ex;
+        }
+      }
+    }
+  }
+
+  private boolean isTransactionActive() {
+    return !(getDatastoreReadWriter() instanceof Datastore);
+  }
+
+  private Executor getSliceExecutor() {
+    if (this.sliceExecutor != null) {
+      return this.sliceExecutor;
+    }
+    ThreadPoolExecutor executor = this.defaultSliceExecutor;
+    if (executor == null) {
+      synchronized (this) {
+        executor = this.defaultSliceExecutor;
+        if (executor == null) {
+          CustomizableThreadFactory threadFactory =
+              new CustomizableThreadFactory("datastore-slice-");
+          threadFactory.setDaemon(true);
+          executor =
+              new ThreadPoolExecutor(
+                  this.sliceParallelism,
+                  this.sliceParallelism,
+                  60L,
+                  TimeUnit.SECONDS,
+                  new LinkedBlockingQueue<>(),
+                  threadFactory);
+          executor.allowCoreThreadTimeOut(true);
+          this.defaultSliceExecutor = executor;
+        }
+      }
+    }
+    return executor;
+  }
+
+  // Looks entities up in the transaction's cache, or in the shared cache outside of transactions,
+  // and fetches the ones that are not cached.
+  private List<Entity> fetchEntities(List<Key> keys) {
+    DatastoreTransactionManager.Tx tx = getTransactionResource();
+    DatastoreReaderWriter datastoreReaderWriter =
+        tx != null ? tx.getTransaction() : this.datastore.get();
+    Map<Key, Entity> transactionCache = tx != null ? tx.getEntityCache() : null;
+    DatastoreEntityCache sharedCache =
+        datastoreReaderWriter instanceof Datastore ? this.entityCache : null;
+
+    if (transactionCache == null && sharedCache == null) {
+      return executeSlices(
+          keys.toArray(new Key[0]), this.maxReadSize, datastoreReaderWriter::fetch);
+    }
+
+    // Entities evicted while they are fetched are not put back into the shared cache.
+    long evictionGeneration = sharedCache != null ? sharedCache.getEvictionGeneration() : 0;
+    Entity[] entities = new Entity[keys.size()];
+    List<Key> keysToFetch = new ArrayList<>();
+    List<Integer> positions = new ArrayList<>();
+    for (int i = 0; i < keys.size(); i++) {
+      Key key = keys.get(i);
+      boolean cached;
+      if (transactionCache != null) {
+        cached = transactionCache.containsKey(key);
+        entities[i] = transactionCache.get(key);
+      } else {
+        entities[i] = sharedCache.isCacheable(key) ? sharedCache.get(key) : null;
+        cached = entities[i] != null;
+      }
+      if (!cached) {
+        keysToFetch.add(key);
+        positions.add(i);
+      }
+    }
+
+    if (!keysToFetch.isEmpty()) {
+      List<Entity> fetched =
+          executeSlices(
+              keysToFetch.toArray(new Key[0]), this.maxReadSize, datastoreReaderWriter::fetch);
+      Assert.isTrue(keysToFetch.size() == fetched.size(), "Fetched incorrect number of entities");
+      for (int i = 0; i < fetched.size(); i++) {
+        Entity entity = fetched.get(i);
+        entities[positions.get(i)] = entity;
+        if (transactionCache != null) {
+          transactionCache.put(keysToFetch.get(i), entity);
+        } else {
+          sharedCache.put(entity, evictionGeneration);
+        }
+      }
+    }
+    return Arrays.asList(entities);
+  }
+
+  private void evictCachedEntities(Collection<Key> keys) {
+    DatastoreTransactionManager.Tx tx = getTransactionResource();
+    if (tx != null && tx.getEntityCache() != null) {
+      keys.forEach(tx.getEntityCache()::remove);
+    }
+    if (this.entityCache != null) {
+      this.entityCache.evict(keys);
+    }
+  }
+
+  private DatastoreTransactionManager.Tx getTransactionResource() {
     if (TransactionSynchronizationManager.isActualTransactionActive()) {
       DatastoreTransactionManager.Tx tx =
           (DatastoreTransactionManager.Tx)
               TransactionSynchronizationManager.getResource(this.datastore.get());
       if (tx != null && tx.getTransaction() != null) {
-        return tx.getTransaction();
+        return tx;
       }
     }
-    return this.datastore.get();
+    return null;
+  }
+
+  private DatastoreReaderWriter getDatastoreReadWriter() {
+    DatastoreTransactionManager.Tx tx = getTransactionResource();
+    return tx != null ? tx.getTransaction() : this.datastore.get();
   }
 
   private <T> StructuredQuery exampleToQuery(
@@ -1005,10 +1339,171 @@ public class DatastoreTemplate implements DatastoreOperations, ApplicationEventP
     return this.datastoreMappingContext.getDatastorePersistentEntity(entityClass);
   }
 
-  void setMaxWriteSize(int maxWriteSize) {
+  /**
+   * Sets the maximum number of entities written or deleted by a single commit. Writes and deletes
+   * of more entities are split into slices of this size. The default is 500.
+   *
+   * @param maxWriteSize the maximum number of entities per commit.
+   * @since 3.3.0
+   */
+  public void setMaxWriteSize(int maxWriteSize) {
+    Assert.isTrue(maxWriteSize > 0, "The maximum write size must be positive.");
     this.maxWriteSize = maxWriteSize;
   }
 
+  /**
+   * Iterates over the results of a query while they are read from Cloud Datastore, converting
+   * each entity on demand. Structured queries are resumed from the cursor after the last result
+   * read when they fail with a retryable error. A stream opened in a transaction that is consumed
+   * after the transaction has ended reads its remaining results outside of the transaction, again
+   * resuming from the cursor; this is only possible for structured queries.
+   *
+   * @param <T> the type the entities are converted to.
+   */
+  private class QueryStreamIterator<T> implements Iterator<T> {
+
+    private final Query<? extends BaseEntity> query;
+
+    private final Class<T> entityClass;
+
+    private DatastoreReaderWriter datastoreReaderWriter;
+
+    private @Nullable QueryResults<? extends BaseEntity> results;
+
+    private @Nullable Cursor cursorAfter;
+
+    private int readCount;
+
+    private int failedAttempts;
+
+    private ReadContext context = new ReadContext();
+
+    private int convertedInContext;
+
+    private @Nullable T next;
+
+    private boolean afterQueryEventPublished;
+
+    QueryStreamIterator(
+        Query<? extends BaseEntity> query,
+        Class<T> entityClass,
+        DatastoreReaderWriter datastoreReaderWriter) {
+      this.query = query;
+      this.entityClass = entityClass;
+      this.datastoreReaderWriter = datastoreReaderWriter;
+    }
+
+    @Override
+    public boolean hasNext() {
+      while (this.next == null) {
+        BaseEntity entity = nextEntity();
+        if (entity == null) {
+          publishAfterQueryEvent();
+          return false;
+        }
+        // the conversion context caches converted references and descendants; it is renewed
+        // periodically so that memory use does not grow with the number of results
+        if (this.convertedInContext++ == DatastoreTemplate.this.maxReadSize) {
+          this.context = new ReadContext();
+          this.convertedInContext = 1;
+        }
+        List<T> converted =
+            convertEntitiesForRead(
+                Collections.singletonList(entity).iterator(), this.entityClass, this.context);
+        this.next = converted.isEmpty() ? null : converted.get(0);
+      }
+      return true;
+    }
+
+    @Override
+    public T next() {
+      if (!hasNext()) {
+        throw new NoSuchElementException();
+      }
+      T result = this.next;
+      this.next = null;
+      return result;
+    }
+
+    // The results are not retained, so the event published for a stream carries none.
+    void publishAfterQueryEvent() {
+      if (!this.afterQueryEventPublished) {
+        this.afterQueryEventPublished = true;
+        maybeEmitEvent(new AfterQueryEvent(Collections.emptyList(), this.query));
+      }
+    }
+
+    private BaseEntity nextEntity() {
+      while (true) {
+        try {
+          if (this.results == null) {
+            leaveEndedTransaction();
+            Query<? extends BaseEntity> resumedQuery = resumedQuery();
+            if (resumedQuery == null) {
+              return null;
+            }
+            this.results = this.datastoreReaderWriter.run(resumedQuery);
+          }
+          if (!this.results.hasNext()) {
+            return null;
+          }
+          BaseEntity entity = this.results.next();
+          this.cursorAfter = this.results.getCursorAfter();
+          this.readCount++;
+          this.failedAttempts = 0;
+          return entity;
+        } catch (DatastoreException ex) {
+          if (leaveEndedTransaction()) {
+            this.results = null;
+            continue;
+          }
+          if (!ex.isRetryable()
+              || !(this.query instanceof StructuredQuery)
+              || this.failedAttempts >= DatastoreTemplate.this.queryResumeAttempts) {
+            throw ex;
+          }
+          this.failedAttempts++;
+          this.results = null;
+        }
+      }
+    }
+
+    // Switches to the Datastore client once the transaction the stream was opened in has ended.
+    // Inside performTransaction the template's client is the transaction itself, so there is
+    // nothing to switch to.
+    private boolean leaveEndedTransaction() {
+      if (!(this.datastoreReaderWriter instanceof Transaction)
+          || ((Transaction) this.datastoreReaderWriter).isActive()
+          || !(this.query instanceof StructuredQuery)) {
+        return false;
+      }
+      DatastoreReaderWriter datastoreClient = DatastoreTemplate.this.datastore.get();
+      if (!(datastoreClient instanceof Datastore)) {
+        return false;
+      }
+      this.datastoreReaderWriter = datastoreClient;
+      return true;
+    }
+
+    private Query<? extends BaseEntity> resumedQuery() {
+      if (this.cursorAfter == null) {
+        return this.query;
+      }
+      StructuredQuery<? extends BaseEntity> structuredQuery =
+          (StructuredQuery<? extends BaseEntity>) this.query;
+      StructuredQuery.Builder<? extends BaseEntity> builder =
+          structuredQuery.toBuilder().setStartCursor(this.cursorAfter).setOffset(0);
+      Integer limit = structuredQuery.getLimit();
+      if (limit != null) {
+        if (this.readCount >= limit) {
+          return null;
+        }
+        builder.setLimit(limit - this.readCount);
+      }
+      return builder.build();
+    }
+  }
+
   /**
    * Class to hold caches for read and conversion.
    *
@@ -18,8 +18,12 @@ package com.google.cloud.spring.data.datastore.core;
 
 import com.google.cloud.datastore.Datastore;
 import com.google.cloud.datastore.DatastoreException;
+import com.google.cloud.datastore.Entity;
+import com.google.cloud.datastore.Key;
 import com.google.cloud.datastore.Transaction;
 import com.google.datastore.v1.TransactionOptions;
+import java.util.HashMap;
+import java.util.Map;
 import java.util.function.Supplier;
 import org.springframework.transaction.TransactionDefinition;
 import org.springframework.transaction.TransactionException;
@@ -41,10 +45,24 @@ public class DatastoreTransactionManager extends AbstractPlatformTransactionMana
 
   private final Supplier<Datastore> datastore;
 
+  private boolean entityCacheEnabled;
+
   public DatastoreTransactionManager(final Supplier<Datastore> datastore) {
     this.datastore = datastore;
   }
 
+  /**
+   * Sets whether entities looked up by key are cached for the duration of a transaction, so that
+   * references and repeated lookups of the same keys are only fetched once. Entities written or
+   * deleted in the transaction are evicted. Disabled by default.
+   *
+   * @param entityCacheEnabled whether to cache entities per transaction.
+   * @since 3.3.0
+   */
+  public void setEntityCacheEnabled(boolean entityCacheEnabled) {
+    this.entityCacheEnabled = entityCacheEnabled;
+  }
+
   @Override
   protected Object doGetTransaction() throws TransactionException {
     Tx tx = (Tx) TransactionSynchronizationManager.getResource(datastore.get());
@@ -77,6 +95,7 @@ public class DatastoreTransactionManager extends AbstractPlatformTransactionMana
     } else {
       tx.transaction = tx.datastore.newTransaction();
     }
+    tx.entityCache = this.entityCacheEnabled ? new HashMap<>() : null;
 
     TransactionSynchronizationManager.bindResource(tx.datastore, tx);
   }
@@ -119,6 +138,7 @@ public class DatastoreTransactionManager extends AbstractPlatformTransactionMana
   @Override
   protected void doCleanupAfterCompletion(Object transaction) {
     Tx tx = (Tx) transaction;
+    tx.entityCache = null;
     TransactionSynchronizationManager.unbindResource(tx.datastore);
   }
 
@@ -126,6 +146,7 @@ public class DatastoreTransactionManager extends AbstractPlatformTransactionMana
   public static class Tx {
     private Transaction transaction;
     private Datastore datastore;
+    private Map<Key, Entity> entityCache;
 
     public Tx(Datastore datastore) {
       this.datastore = datastore;
@@ -142,5 +163,16 @@ public class DatastoreTransactionManager extends AbstractPlatformTransactionMana
     public Datastore getDatastore() {
       return datastore;
     }
+
+    /**
+     * Get the entities looked up in this transaction by key. A {@code null} value means that the
+     * entity does not exist.
+     *
+     * @return the cached entities, or {@code null} if the entity cache is disabled.
+     * @since 3.3.0
+     */
+    public Map<Key, Entity> getEntityCache() {
+      return this.entityCache;
+    }
   }
 }
@@ -23,25 +23,82 @@ import com.google.cloud.datastore.KeyFactory;
 import com.google.cloud.spring.data.datastore.core.DatastoreTemplate;
 import com.google.cloud.spring.data.datastore.core.mapping.DatastoreDataException;
 import com.google.cloud.spring.data.datastore.core.mapping.DatastorePersistentEntity;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Supplier;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
 import org.springframework.data.mapping.PersistentProperty;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
 import org.springframework.util.Assert;
 
 /**
  * Implementation of {@link ObjectToKeyFactory} where the key factories are provided by the
  * Datastore Service.
  *
+ * <p>Keys of several objects are allocated with one {@code allocateId} call per slice of up to
+ * 500 keys. An ID pool can also be enabled with {@link #setIdPoolSize(int)}: keys of root
+ * entities are then taken from a per-kind pool of pre-allocated keys, which is refilled in the
+ * background once it is half empty.
+ *
  * @since 1.1
  */
 public class DatastoreServiceObjectToKeyFactory implements ObjectToKeyFactory {
 
+  private static final Log LOGGER = LogFactory.getLog(DatastoreServiceObjectToKeyFactory.class);
+
+  private static final int MAX_ALLOCATE_SIZE = 500;
+
   private final Supplier<Datastore> datastore;
 
+  private final Map<IncompleteKey, IdPool> idPools = new ConcurrentHashMap<>();
+
+  private int idPoolSize;
+
+  private Executor idPoolExecutor = defaultIdPoolExecutor();
+
   public DatastoreServiceObjectToKeyFactory(Supplier<Datastore> datastore) {
     Assert.notNull(datastore, "A non-null Datastore service is required.");
     this.datastore = datastore;
   }
 
+  /**
+   * Sets the number of keys pre-allocated per kind for entities without ancestors. The default, 0,
+   * disables the pool and keys are allocated when entities are saved. IDs left in the pool when
+   * the application stops are never used.
+   *
+   * @param idPoolSize the number of keys allocated per pool refill, or 0 to disable the pool.
+   * @since 3.3.0
+   */
+  public void setIdPoolSize(int idPoolSize) {
+    Assert.isTrue(idPoolSize >= 0, "The ID pool size must not be negative.");
+    this.idPoolSize = idPoolSize;
+  }
+
+  /**
+   * Sets the executor ID pools are refilled on. By default, refills run on up to two daemon
+   * threads, which stop after being idle for a minute.
+   *
+   * @param idPoolExecutor the executor.
+   * @since 3.3.0
+   */
+  public void setIdPoolExecutor(Executor idPoolExecutor) {
+    Assert.notNull(idPoolExecutor, "A non-null executor is required.");
+    this.idPoolExecutor = idPoolExecutor;
+  }
+
   @Override
   public IncompleteKey getIncompleteKey(String kindName) {
     return this.datastore.get().newKeyFactory().setKind(kindName).newKey();
@@ -86,6 +143,15 @@ public class DatastoreServiceObjectToKeyFactory implements ObjectToKeyFactory {
   public Key allocateKeyForObject(
       Object entity, DatastorePersistentEntity datastorePersistentEntity, Key... ancestors) {
     Assert.notNull(entity, "Cannot get key for null entity object.");
+    return allocateKeysForObjects(
+            Collections.singletonList(entity), datastorePersistentEntity, ancestors)
+        .get(0);
+  }
+
+  @Override
+  public List<Key> allocateKeysForObjects(
+      List<?> entities, DatastorePersistentEntity datastorePersistentEntity, Key... ancestors) {
+    Assert.notNull(entities, "Cannot get keys for a null list of entity objects.");
     Assert.notNull(datastorePersistentEntity, "Persistent entity must not be null.");
     PersistentProperty idProp = datastorePersistentEntity.getIdPropertyOrFail();
 
@@ -107,22 +173,109 @@ public class DatastoreServiceObjectToKeyFactory implements ObjectToKeyFactory {
         keyFactory.addAncestor(DatastoreTemplate.keyToPathElement(ancestor));
       }
     }
-    Key allocatedKey = this.datastore.get().allocateId(keyFactory.newKey());
+    if (entities.isEmpty()) {
+      return Collections.emptyList();
+    }
+    List<Key> allocatedKeys = allocateKeys(keyFactory.newKey(), entities.size());
 
-    Object value;
-    if (idPropType.equals(Key.class)) {
-      value = allocatedKey;
-    } else if (idPropType.equals(Long.class)) {
-      value = allocatedKey.getId();
-    } else {
-      value = allocatedKey.getId().toString();
+    for (int i = 0; i < entities.size(); i++) {
+      Key allocatedKey = allocatedKeys.get(i);
+      Object value = idPropType.equals(Key.class) ? allocatedKey : allocatedKey.getId();
+      datastorePersistentEntity.getPropertyAccessor(entities.get(i)).setProperty(idProp, value);
     }
+    return allocatedKeys;
+  }
 
-    datastorePersistentEntity.getPropertyAccessor(entity).setProperty(idProp, value);
-    return allocatedKey;
+  private List<Key> allocateKeys(IncompleteKey incompleteKey, int count) {
+    Datastore datastoreService = this.datastore.get();
+    if (this.idPoolSize > 0 && incompleteKey.getAncestors().isEmpty()) {
+      return this.idPools
+          .computeIfAbsent(incompleteKey, IdPool::new)
+          .take(datastoreService, count);
+    }
+    return allocateIds(datastoreService, incompleteKey, count);
+  }
+
+  private static List<Key> allocateIds(
+      Datastore datastoreService, IncompleteKey incompleteKey, int count) {
+    if (count == 1) {
+      return Collections.singletonList(datastoreService.allocateId(incompleteKey));
+    }
+    List<Key> keys = new ArrayList<>(count);
+    for (int start = 0; start < count; start += MAX_ALLOCATE_SIZE) {
+      IncompleteKey[] slice = new IncompleteKey[Math.min(MAX_ALLOCATE_SIZE, count - start)];
+      Arrays.fill(slice, incompleteKey);
+      keys.addAll(datastoreService.allocateId(slice));
+    }
+    return keys;
+  }
+
+  private static Executor defaultIdPoolExecutor() {
+    CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("datastore-id-pool-");
+    threadFactory.setDaemon(true);
+    // At most one refill per pool is pending, so the queue is bounded by the number of pools.
+    ThreadPoolExecutor executor =
+        new ThreadPoolExecutor(
+            2, 2, 60L, TimeUnit.SECONDS, new LinkedBlockingQueue<>(), threadFactory);
+    executor.allowCoreThreadTimeOut(true);
+    return executor;
   }
 
   private KeyFactory getKeyFactory() {
     return this.datastore.get().newKeyFactory();
   }
+
+  /** Pre-allocated keys of one incomplete key, refilled in the background. */
+  private final class IdPool {
+
+    private final IncompleteKey incompleteKey;
+
+    private final Queue<Key> keys = new ConcurrentLinkedQueue<>();
+
+    private final AtomicInteger available = new AtomicInteger();
+
+    private final AtomicBoolean refilling = new AtomicBoolean();
+
+    IdPool(IncompleteKey incompleteKey) {
+      this.incompleteKey = incompleteKey;
+    }
+
+    List<Key> take(Datastore datastoreService, int count) {
+      List<Key> taken = new ArrayList<>(count);
+      Key key;
+      while (taken.size() < count && (key = this.keys.poll()) != null) {
+        this.available.decrementAndGet();
+        taken.add(key);
+      }
+      if (taken.size() < count) {
+        taken.addAll(allocateIds(datastoreService, this.incompleteKey, count - taken.size()));
+      }
+      maybeRefill(datastoreService);
+      return taken;
+    }
+
+    private void maybeRefill(Datastore datastoreService) {
+      int poolSize = DatastoreServiceObjectToKeyFactory.this.idPoolSize;
+      if (this.available.get() >= poolSize / 2 || !this.refilling.compareAndSet(false, true)) {
+        return;
+      }
+      try {
+        DatastoreServiceObjectToKeyFactory.this.idPoolExecutor.execute(
+            () -> {
+              try {
+                List<Key> allocated = allocateIds(datastoreService, this.incompleteKey, poolSize);
+                this.keys.addAll(allocated);
+                this.available.addAndGet(allocated.size());
+              } catch (RuntimeException ex) {
+                LOGGER.warn("Failed to refill the ID pool of " + this.incompleteKey, ex);
+              } finally {
+                this.refilling.set(false);
+              }
+            });
+      } catch (RuntimeException ex) {
+        this.refilling.set(false);
+        LOGGER.warn("Failed to schedule the refill of the ID pool of " + this.incompleteKey, ex);
+      }
+    }
+  }
 }
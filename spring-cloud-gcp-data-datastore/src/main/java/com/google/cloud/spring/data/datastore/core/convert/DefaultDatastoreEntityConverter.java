@@ -26,6 +26,7 @@ import com.google.cloud.datastore.ListValue;
 import com.google.cloud.datastore.StringValue;
 import com.google.cloud.datastore.Value;
 import com.google.cloud.spring.data.datastore.core.mapping.DatastoreDataException;
+import com.google.cloud.spring.data.datastore.core.mapping.DatastoreEntityPlan;
 import com.google.cloud.spring.data.datastore.core.mapping.DatastoreMappingContext;
 import com.google.cloud.spring.data.datastore.core.mapping.DatastorePersistentEntity;
 import com.google.cloud.spring.data.datastore.core.mapping.DatastorePersistentProperty;
@@ -34,10 +35,10 @@ import java.lang.reflect.Constructor;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.Optional;
 import java.util.Set;
 import java.util.stream.Collectors;
 import org.springframework.data.mapping.PersistentPropertyAccessor;
+import org.springframework.data.mapping.PreferredConstructor.Parameter;
 import org.springframework.data.mapping.model.EntityInstantiator;
 import org.springframework.data.mapping.model.EntityInstantiators;
 import org.springframework.data.mapping.model.ParameterValueProvider;
@@ -52,6 +53,14 @@ import org.springframework.util.Assert;
  * @since 1.1
  */
 public class DefaultDatastoreEntityConverter implements DatastoreEntityConverter {
+  private static final ParameterValueProvider<DatastorePersistentProperty> NO_PARAMETERS =
+      new ParameterValueProvider<DatastorePersistentProperty>() {
+        @Override
+        public <T> T getParameterValue(Parameter<T, DatastorePersistentProperty> parameter) {
+          return null;
+        }
+      };
+
   private DatastoreMappingContext mappingContext;
 
   private final EntityInstantiators instantiators = new EntityInstantiators();
@@ -126,19 +135,20 @@ public class DefaultDatastoreEntityConverter implements DatastoreEntityConverter
     return readAsMap(entity, ClassTypeInformation.from(HashMap.class));
   }
 
+  @SuppressWarnings("unchecked")
   public <T> DatastorePersistentEntity<T> getDiscriminationPersistentEntity(
       Class<T> entityClass, BaseEntity<?> entity) {
-    DatastorePersistentEntity ostensiblePersistentEntity =
-        this.mappingContext.getPersistentEntity(entityClass);
+    DatastoreEntityPlan<T> ostensiblePlan = this.mappingContext.getEntityPlan(entityClass);
 
-    if (ostensiblePersistentEntity == null) {
+    if (ostensiblePlan == null) {
       throw new DatastoreDataException("Unable to convert Datastore Entity to " + entityClass);
     }
 
     EntityPropertyValueProvider propertyValueProvider =
         new EntityPropertyValueProvider(entity, this.conversions);
 
-    return getDiscriminationPersistentEntity(ostensiblePersistentEntity, propertyValueProvider);
+    return (DatastorePersistentEntity<T>)
+        getDiscriminationPlan(ostensiblePlan, propertyValueProvider).getPersistentEntity();
   }
 
   @Override
@@ -147,21 +157,24 @@ public class DefaultDatastoreEntityConverter implements DatastoreEntityConverter
     if (entity == null) {
       return null;
     }
-    DatastorePersistentEntity<R> ostensiblePersistentEntity =
-        (DatastorePersistentEntity<R>) this.mappingContext.getPersistentEntity(clazz);
+    DatastoreEntityPlan<R> ostensiblePlan = this.mappingContext.getEntityPlan(clazz);
 
-    if (ostensiblePersistentEntity == null) {
+    if (ostensiblePlan == null) {
       throw new DatastoreDataException("Unable to convert Datastore Entity to " + clazz);
     }
 
     EntityPropertyValueProvider propertyValueProvider =
         new EntityPropertyValueProvider(entity, this.conversions);
 
-    DatastorePersistentEntity<?> persistentEntity =
-        getDiscriminationPersistentEntity(ostensiblePersistentEntity, propertyValueProvider);
+    DatastoreEntityPlan<?> plan = getDiscriminationPlan(ostensiblePlan, propertyValueProvider);
+    DatastorePersistentEntity<?> persistentEntity = plan.getPersistentEntity();
 
+    // entities with a no-args constructor never ask for parameter values
     ParameterValueProvider<DatastorePersistentProperty> parameterValueProvider =
-        new PersistentEntityParameterValueProvider<>(persistentEntity, propertyValueProvider, null);
+        plan.hasConstructorParameters()
+            ? new PersistentEntityParameterValueProvider<>(
+                persistentEntity, propertyValueProvider, null)
+            : NO_PARAMETERS;
 
     EntityInstantiator instantiator = this.instantiators.getInstantiatorFor(persistentEntity);
     Object instance;
@@ -169,16 +182,12 @@ public class DefaultDatastoreEntityConverter implements DatastoreEntityConverter
       instance = instantiator.createInstance(persistentEntity, parameterValueProvider);
       PersistentPropertyAccessor accessor = persistentEntity.getPropertyAccessor(instance);
 
-      persistentEntity.doWithColumnBackedProperties(
-          datastorePersistentProperty -> {
-            // if a property is a constructor argument, it was already computed on instantiation
-            if (!persistentEntity.isConstructorArgument(datastorePersistentProperty)) {
-              Object value = propertyValueProvider.getPropertyValue(datastorePersistentProperty);
-              if (value != null) {
-                accessor.setProperty(datastorePersistentProperty, value);
-              }
-            }
-          });
+      for (DatastorePersistentProperty datastorePersistentProperty : plan.getReadProperties()) {
+        Object value = propertyValueProvider.getPropertyValue(datastorePersistentProperty);
+        if (value != null) {
+          accessor.setProperty(datastorePersistentProperty, value);
+        }
+      }
     } catch (DatastoreDataException ex) {
       throw new DatastoreDataException(
           "Unable to read " + persistentEntity.getName() + " entity", ex);
@@ -187,24 +196,18 @@ public class DefaultDatastoreEntityConverter implements DatastoreEntityConverter
     return (R) instance;
   }
 
-  private DatastorePersistentEntity getDiscriminationPersistentEntity(
-      DatastorePersistentEntity ostensibleEntity,
-      EntityPropertyValueProvider propertyValueProvider) {
-    if (ostensibleEntity.getDiscriminationFieldName() == null) {
-      return ostensibleEntity;
+  private DatastoreEntityPlan<?> getDiscriminationPlan(
+      DatastoreEntityPlan<?> ostensiblePlan, EntityPropertyValueProvider propertyValueProvider) {
+    if (ostensiblePlan.getPersistentEntity().getDiscriminationFieldName() == null) {
+      return ostensiblePlan;
     }
 
-    Set<Class> members =
-        DatastoreMappingContext.getDiscriminationFamily(ostensibleEntity.getType());
-    Optional<DatastorePersistentEntity> persistentEntity =
-        members == null
-            ? Optional.empty()
-            : members.stream()
-                .map(x -> (DatastorePersistentEntity) this.mappingContext.getPersistentEntity(x))
-                .filter(x -> x != null && isDiscriminationFieldMatch(x, propertyValueProvider))
-                .findFirst();
-
-    return persistentEntity.orElse(ostensibleEntity);
+    for (DatastorePersistentEntity<?> candidate : ostensiblePlan.getDiscriminationCandidates()) {
+      if (isDiscriminationFieldMatch(candidate, propertyValueProvider)) {
+        return this.mappingContext.getEntityPlan(candidate.getType());
+      }
+    }
+    return ostensiblePlan;
   }
 
   private boolean isDiscriminationFieldMatch(
@@ -220,40 +223,39 @@ public class DefaultDatastoreEntityConverter implements DatastoreEntityConverter
   @Override
   @SuppressWarnings("unchecked")
   public void write(Object source, BaseEntity.Builder sink) {
-    DatastorePersistentEntity<?> persistentEntity =
-        this.mappingContext.getDatastorePersistentEntity(source.getClass());
+    DatastoreEntityPlan<?> plan = this.mappingContext.getEntityPlan(source.getClass());
+    if (plan == null) {
+      throw new DatastoreDataException(
+          "Unable to find a DatastorePersistentEntity for: " + source.getClass());
+    }
+    DatastorePersistentEntity<?> persistentEntity = plan.getPersistentEntity();
 
     String discriminationFieldName = persistentEntity.getDiscriminationFieldName();
-    List<String> discriminationValues = persistentEntity.getCompatibleDiscriminationValues();
+    List<String> discriminationValues = plan.getDiscriminationValues();
     if (!discriminationValues.isEmpty() || discriminationFieldName != null) {
       sink.set(
           discriminationFieldName,
           discriminationValues.stream().map(StringValue::of).collect(Collectors.toList()));
     }
     PersistentPropertyAccessor accessor = persistentEntity.getPropertyAccessor(source);
-    persistentEntity.doWithColumnBackedProperties(
-        (DatastorePersistentProperty persistentProperty) -> {
-          // Datastore doesn't store its Key as a regular field.
-          if (persistentProperty.isIdProperty()) {
-            return;
-          }
-          try {
-            Object val = accessor.getProperty(persistentProperty);
-            Value convertedVal = this.conversions.convertOnWrite(val, persistentProperty);
-
-            if (persistentProperty.isUnindexed()) {
-              convertedVal = setExcludeFromIndexes(convertedVal);
-            }
-            sink.set(persistentProperty.getFieldName(), convertedVal);
-          } catch (DatastoreDataException ex) {
-            throw new DatastoreDataException(
-                "Unable to write "
-                    + persistentEntity.kindName()
-                    + "."
-                    + persistentProperty.getFieldName(),
-                ex);
-          }
-        });
+    for (DatastorePersistentProperty persistentProperty : plan.getWriteProperties()) {
+      try {
+        Object val = accessor.getProperty(persistentProperty);
+        Value convertedVal = this.conversions.convertOnWrite(val, persistentProperty);
+
+        if (persistentProperty.isUnindexed()) {
+          convertedVal = setExcludeFromIndexes(convertedVal);
+        }
+        sink.set(persistentProperty.getFieldName(), convertedVal);
+      } catch (DatastoreDataException ex) {
+        throw new DatastoreDataException(
+            "Unable to write "
+                + persistentEntity.kindName()
+                + "."
+                + persistentProperty.getFieldName(),
+            ex);
+      }
+    }
   }
 
   private Value setExcludeFromIndexes(Value convertedVal) {
@@ -19,6 +19,8 @@ package com.google.cloud.spring.data.datastore.core.convert;
 import com.google.cloud.datastore.IncompleteKey;
 import com.google.cloud.datastore.Key;
 import com.google.cloud.spring.data.datastore.core.mapping.DatastorePersistentEntity;
+import java.util.ArrayList;
+import java.util.List;
 
 /**
  * An interface for creating Datastore Keys from objects and ID values.
@@ -66,4 +68,24 @@ public interface ObjectToKeyFactory {
    */
   Key allocateKeyForObject(
       Object entity, DatastorePersistentEntity datastorePersistentEntity, Key... ancestors);
+
+  /**
+   * Allocates new ID {@link Key}s for the given entity objects of the same type and sets the
+   * allocated ID values in the objects. Implementations should allocate the keys with as few calls
+   * to Cloud Datastore as possible; by default, they are allocated one at a time.
+   *
+   * @param entities the objects for which to get and set the ID values.
+   * @param datastorePersistentEntity the persistent entity metadata for the entity objects.
+   * @param ancestors ancestors that should be added to the entities
+   * @return the newly allocated Keys, in the order of the objects.
+   * @since 3.3.0
+   */
+  default List<Key> allocateKeysForObjects(
+      List<?> entities, DatastorePersistentEntity datastorePersistentEntity, Key... ancestors) {
+    List<Key> keys = new ArrayList<>(entities.size());
+    for (Object entity : entities) {
+      keys.add(allocateKeyForObject(entity, datastorePersistentEntity, ancestors));
+    }
+    return keys;
+  }
 }
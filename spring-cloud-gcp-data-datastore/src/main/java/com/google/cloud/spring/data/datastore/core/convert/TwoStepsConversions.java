@@ -91,6 +91,8 @@ public class TwoStepsConversions implements ReadWriteConversions {
 
   private final Map<Class, Optional<Class<?>>> writeConverters = new ConcurrentHashMap<>();
 
+  private final Map<Class<?>, TypeTargets> typeTargets = new ConcurrentHashMap<>();
+
   public TwoStepsConversions(
       CustomConversions customConversions,
       ObjectToKeyFactory objectToKeyFactory,
@@ -376,6 +378,16 @@ public class TwoStepsConversions implements ReadWriteConversions {
   }
 
   private TypeTargets computeTypeTargets(Class<?> firstStepSource) {
+    // the custom conversions are fixed at construction, so the targets of a type never change
+    TypeTargets cached = this.typeTargets.get(firstStepSource);
+    if (cached == null) {
+      cached = resolveTypeTargets(firstStepSource);
+      this.typeTargets.putIfAbsent(firstStepSource, cached);
+    }
+    return cached;
+  }
+
+  private TypeTargets resolveTypeTargets(Class<?> firstStepSource) {
     Class<?> firstStepTarget = null;
     Class<?> secondStepTarget = null;
 
@@ -0,0 +1,163 @@
+/*
+ * Copyright 2022-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.cloud.spring.data.datastore.core.mapping;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import org.springframework.data.mapping.PreferredConstructor;
+
+/**
+ * The metadata needed to read and write the entities of one {@link DatastorePersistentEntity},
+ * computed once so that converters do not walk the persistent entity for every entity. Plans are
+ * cached by {@link DatastoreMappingContext#getEntityPlan(Class)}.
+ *
+ * @param <T> the type of the persistent entity.
+ * @since 3.3.0
+ */
+public final class DatastoreEntityPlan<T> {
+
+  private final DatastorePersistentEntity<T> persistentEntity;
+
+  private final DatastoreMappingContext mappingContext;
+
+  private final List<DatastorePersistentProperty> readProperties;
+
+  private final List<DatastorePersistentProperty> writeProperties;
+
+  private final boolean constructorParameters;
+
+  private final List<String> discriminationValues;
+
+  private volatile DiscriminationCandidates discriminationCandidates;
+
+  DatastoreEntityPlan(
+      DatastorePersistentEntity<T> persistentEntity, DatastoreMappingContext mappingContext) {
+    this.persistentEntity = persistentEntity;
+    this.mappingContext = mappingContext;
+
+    List<DatastorePersistentProperty> read = new ArrayList<>();
+    List<DatastorePersistentProperty> write = new ArrayList<>();
+    persistentEntity.doWithColumnBackedProperties(
+        property -> {
+          // constructor arguments are already set when the entity is instantiated
+          if (!persistentEntity.isConstructorArgument(property)) {
+            read.add(property);
+          }
+          // Datastore doesn't store its Key as a regular field.
+          if (!property.isIdProperty()) {
+            write.add(property);
+          }
+        });
+    this.readProperties = Collections.unmodifiableList(read);
+    this.writeProperties = Collections.unmodifiableList(write);
+
+    PreferredConstructor<T, DatastorePersistentProperty> constructor =
+        persistentEntity.getPersistenceConstructor();
+    this.constructorParameters = constructor != null && constructor.hasParameters();
+    this.discriminationValues =
+        Collections.unmodifiableList(
+            new ArrayList<>(persistentEntity.getCompatibleDiscriminationValues()));
+  }
+
+  /**
+   * Get the persistent entity this plan was computed for.
+   *
+   * @return the persistent entity.
+   */
+  public DatastorePersistentEntity<T> getPersistentEntity() {
+    return this.persistentEntity;
+  }
+
+  /**
+   * Get the column-backed properties that are set after the entity is instantiated.
+   *
+   * @return the column-backed properties that are not constructor arguments.
+   */
+  public List<DatastorePersistentProperty> getReadProperties() {
+    return this.readProperties;
+  }
+
+  /**
+   * Get the properties that are stored as fields of the Datastore entity.
+   *
+   * @return the column-backed properties other than the ID property.
+   */
+  public List<DatastorePersistentProperty> getWriteProperties() {
+    return this.writeProperties;
+  }
+
+  /**
+   * Whether the persistence constructor of the entity takes arguments.
+   *
+   * @return {@code true} if property values have to be provided to instantiate the entity.
+   */
+  public boolean hasConstructorParameters() {
+    return this.constructorParameters;
+  }
+
+  /**
+   * Get the discrimination values of the entity and its supertypes.
+   *
+   * @return the values, where the first item is this entity's discrimination value.
+   */
+  public List<String> getDiscriminationValues() {
+    return this.discriminationValues;
+  }
+
+  /**
+   * Get the persistent entities that share the Datastore Kind of this entity and that are its
+   * subclasses. The list is recomputed when new members of the family are registered.
+   *
+   * @return the candidate entities for discrimination; empty if the entity is not discriminated.
+   */
+  public List<DatastorePersistentEntity<?>> getDiscriminationCandidates() {
+    Set<Class> members =
+        DatastoreMappingContext.getDiscriminationFamily(this.persistentEntity.getType());
+    if (members == null) {
+      return Collections.emptyList();
+    }
+    DiscriminationCandidates candidates = this.discriminationCandidates;
+    int familySize = members.size();
+    if (candidates == null || candidates.familySize != familySize) {
+      List<DatastorePersistentEntity<?>> entities = new ArrayList<>();
+      for (Class member : new ArrayList<>(members)) {
+        DatastorePersistentEntity<?> entity = this.mappingContext.getPersistentEntity(member);
+        if (entity != null) {
+          entities.add(entity);
+        }
+      }
+      candidates =
+          new DiscriminationCandidates(familySize, Collections.unmodifiableList(entities));
+      this.discriminationCandidates = candidates;
+    }
+    return candidates.entities;
+  }
+
+  private static final class DiscriminationCandidates {
+
+    private final int familySize;
+
+    private final List<DatastorePersistentEntity<?>> entities;
+
+    DiscriminationCandidates(int familySize, List<DatastorePersistentEntity<?>> entities) {
+      this.familySize = familySize;
+      this.entities = entities;
+    }
+  }
+}
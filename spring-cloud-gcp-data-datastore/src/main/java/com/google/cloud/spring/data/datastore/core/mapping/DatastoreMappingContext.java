@@ -48,6 +48,8 @@ public class DatastoreMappingContext
 
   private ApplicationContext applicationContext;
 
+  private final Map<Class<?>, DatastoreEntityPlan<?>> entityPlans = new ConcurrentHashMap<>();
+
   // Maps a given class to the set of other classes with which it shares the same Datastore
   // Kind and that are subclasses of the given class.
   private static final Map<Class, Set<Class>> discriminationFamilies = new ConcurrentHashMap<>();
@@ -139,4 +141,30 @@ public class DatastoreMappingContext
           "Unable to find a DatastorePersistentEntity for: " + entityClass);
     }
   }
+
+  /**
+   * Get the read and write plan of an entity type. Plans are computed on first use and cached.
+   *
+   * @param entityClass the entity type.
+   * @param <T> the entity type.
+   * @return the plan, or {@code null} if the type is not a persistent entity.
+   * @since 3.3.0
+   */
+  @SuppressWarnings("unchecked")
+  public <T> DatastoreEntityPlan<T> getEntityPlan(Class<T> entityClass) {
+    DatastoreEntityPlan<?> plan = this.entityPlans.get(entityClass);
+    if (plan == null) {
+      DatastorePersistentEntity<T> persistentEntity =
+          (DatastorePersistentEntity<T>) getPersistentEntity(entityClass);
+      if (persistentEntity == null) {
+        return null;
+      }
+      plan = new DatastoreEntityPlan<>(persistentEntity, this);
+      DatastoreEntityPlan<?> existing = this.entityPlans.putIfAbsent(entityClass, plan);
+      if (existing != null) {
+        plan = existing;
+      }
+    }
+    return (DatastoreEntityPlan<T>) plan;
+  }
 }
@@ -24,6 +24,7 @@ import org.springframework.data.mapping.model.FieldNamingStrategy;
 import org.springframework.data.mapping.model.Property;
 import org.springframework.data.mapping.model.PropertyNameFieldNamingStrategy;
 import org.springframework.data.mapping.model.SimpleTypeHolder;
+import org.springframework.data.util.Lazy;
 import org.springframework.data.util.StreamUtils;
 import org.springframework.data.util.TypeInformation;
 import org.springframework.util.StringUtils;
@@ -41,6 +42,17 @@ public class DatastorePersistentPropertyImpl
 
   private final FieldNamingStrategy fieldNamingStrategy;
 
+  // Read for every property of every converted entity, so they are resolved only once.
+  private final Lazy<String> fieldName = Lazy.of(this::resolveFieldName);
+
+  private final Lazy<EmbeddedType> embeddedType =
+      Lazy.of(() -> EmbeddedType.of(getTypeInformation()));
+
+  private final Lazy<Boolean> unindexed = Lazy.of(() -> findAnnotation(Unindexed.class) != null);
+
+  private final Lazy<Boolean> columnBacked =
+      Lazy.of(() -> !isDescendants() && !isAssociation());
+
   /**
    * Constructor.
    *
@@ -81,6 +93,10 @@ public class DatastorePersistentPropertyImpl
 
   @Override
   public String getFieldName() {
+    return this.fieldName.get();
+  }
+
+  private String resolveFieldName() {
     if (isIdProperty()) {
       return KEY_FIELD_NAME;
     }
@@ -101,17 +117,17 @@ public class DatastorePersistentPropertyImpl
 
   @Override
   public boolean isUnindexed() {
-    return findAnnotation(Unindexed.class) != null;
+    return this.unindexed.get();
   }
 
   @Override
   public boolean isColumnBacked() {
-    return !isDescendants() && !isAssociation();
+    return this.columnBacked.get();
   }
 
   @Override
   public EmbeddedType getEmbeddedType() {
-    return EmbeddedType.of(getTypeInformation());
+    return this.embeddedType.get();
   }
 
   @Override
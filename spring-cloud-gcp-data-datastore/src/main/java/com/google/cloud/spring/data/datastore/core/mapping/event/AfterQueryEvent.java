@@ -19,7 +19,11 @@ package com.google.cloud.spring.data.datastore.core.mapping.event;
 import com.google.cloud.datastore.Query;
 import java.util.Objects;
 
-/** An event published immediately after a read-by-query request. */
+/**
+ * An event published immediately after a read-by-query request. For queries streamed with {@code
+ * DatastoreOperations.queryStream}, it is published once the stream is exhausted or closed, and
+ * carries no results because streamed results are not retained.
+ */
 public class AfterQueryEvent extends ReadEvent {
 
   private final Query query;
@@ -140,6 +140,11 @@ public class GqlDatastoreQuery<T> extends AbstractDatastoreQuery<T> {
 
     boolean isNonEntityReturnType = isNonEntityReturnedType(returnedItemType);
 
+    if (this.queryMethod.isStreamQuery() && !isNonEntityReturnType) {
+      // entities are read and converted while the stream is consumed
+      return this.datastoreOperations.queryStream(query, this.entityType);
+    }
+
     DatastoreResultsIterable found =
         isNonEntityReturnType
             ? this.datastoreOperations.queryIterable(
@@ -196,16 +196,21 @@ public class PartTreeDatastoreQuery<T> extends AbstractDatastoreQuery<T> {
         new ExecutionOptions(
             returnedElementType, collectionType, requiresCount, getQueryMethod().isStreamQuery());
 
+    StructuredQuery query =
+        applyQueryBody(
+            parameters,
+            options.getQueryBuilder(),
+            requiresCount,
+            options.isSingularResult(),
+            null);
+
+    if (getQueryMethod().isStreamQuery() && !(query instanceof KeyQuery)) {
+      // entities are read and converted while the stream is consumed
+      return getDatastoreOperations().queryStream(query, this.entityType);
+    }
+
     DatastoreResultsIterable rawResults =
-        getDatastoreOperations()
-            .queryKeysOrEntities(
-                applyQueryBody(
-                    parameters,
-                    options.getQueryBuilder(),
-                    requiresCount,
-                    options.isSingularResult(),
-                    null),
-                this.entityType);
+        getDatastoreOperations().queryKeysOrEntities(query, this.entityType);
 
     if (getQueryMethod().isStreamQuery()) {
       return StreamSupport.stream(rawResults.spliterator(), false);
@@ -0,0 +1,86 @@
+/*
+ * Copyright 2022-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.cloud.spring.data.datastore.repository.support;
+
+import com.google.cloud.spring.data.datastore.core.AsyncDatastoreOperations;
+import com.google.cloud.spring.data.datastore.core.mapping.DatastoreMappingContext;
+import com.google.cloud.spring.data.datastore.core.mapping.DatastorePersistentEntity;
+import com.google.cloud.spring.data.datastore.core.mapping.DatastorePersistentEntityInformation;
+import com.google.cloud.spring.data.datastore.repository.ReactiveDatastoreRepository;
+import org.springframework.data.mapping.MappingException;
+import org.springframework.data.repository.core.EntityInformation;
+import org.springframework.data.repository.core.RepositoryInformation;
+import org.springframework.data.repository.core.RepositoryMetadata;
+import org.springframework.data.repository.core.support.ReactiveRepositoryFactorySupport;
+import org.springframework.util.Assert;
+
+/**
+ * Repository factory for {@link ReactiveDatastoreRepository} interfaces, backed by {@link
+ * SimpleReactiveDatastoreRepository}. Query methods are not supported, so the interfaces may only
+ * declare the methods of {@link ReactiveDatastoreRepository}. There is no annotation to enable
+ * reactive repositories; create them with {@link #getRepository(Class)}.
+ *
+ * @since 3.3.0
+ */
+public class ReactiveDatastoreRepositoryFactory extends ReactiveRepositoryFactorySupport {
+
+  private final DatastoreMappingContext datastoreMappingContext;
+
+  private final AsyncDatastoreOperations datastoreOperations;
+
+  /**
+   * Constructor.
+   *
+   * @param datastoreMappingContext the mapping context used to get mapping metadata for entity
+   *     types.
+   * @param datastoreOperations the asynchronous Datastore operations object used by the
+   *     repositories.
+   */
+  public ReactiveDatastoreRepositoryFactory(
+      DatastoreMappingContext datastoreMappingContext,
+      AsyncDatastoreOperations datastoreOperations) {
+    Assert.notNull(datastoreMappingContext, "A non-null Datastore mapping context is required.");
+    Assert.notNull(datastoreOperations, "A non-null AsyncDatastoreOperations is required.");
+    this.datastoreMappingContext = datastoreMappingContext;
+    this.datastoreOperations = datastoreOperations;
+  }
+
+  @Override
+  @SuppressWarnings("unchecked")
+  public <T, I> EntityInformation<T, I> getEntityInformation(Class<T> domainClass) {
+    DatastorePersistentEntity entity =
+        this.datastoreMappingContext.getPersistentEntity(domainClass);
+
+    if (entity == null) {
+      throw new MappingException(
+          "Could not lookup mapping metadata for domain class: " + domainClass.getName());
+    }
+
+    return new DatastorePersistentEntityInformation<>(entity);
+  }
+
+  @Override
+  protected Object getTargetRepository(RepositoryInformation metadata) {
+    return getTargetRepositoryViaReflection(
+        metadata, this.datastoreOperations, metadata.getDomainType());
+  }
+
+  @Override
+  protected Class<?> getRepositoryBaseClass(RepositoryMetadata metadata) {
+    return SimpleReactiveDatastoreRepository.class;
+  }
+}
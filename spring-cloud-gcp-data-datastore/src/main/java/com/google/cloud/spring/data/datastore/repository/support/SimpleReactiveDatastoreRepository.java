@@ -0,0 +1,168 @@
+/*
+ * Copyright 2022-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.cloud.spring.data.datastore.repository.support;
+
+import com.google.cloud.spring.data.datastore.core.AsyncDatastoreOperations;
+import com.google.cloud.spring.data.datastore.repository.ReactiveDatastoreRepository;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+import org.reactivestreams.Publisher;
+import org.springframework.util.Assert;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Implementation of {@link ReactiveDatastoreRepository} on top of {@link
+ * AsyncDatastoreOperations}. Operations start when they are subscribed to, and entities or IDs
+ * emitted by publishers are saved, looked up and deleted in batches.
+ *
+ * @param <T> the type of the entities
+ * @param <I> the id type of the entities
+ * @since 3.3.0
+ */
+public class SimpleReactiveDatastoreRepository<T, I> implements ReactiveDatastoreRepository<T, I> {
+
+  private static final int BATCH_SIZE = 500;
+
+  private static final String NON_NULL_ID_REQUIRED = "A non-null ID is required.";
+
+  private final AsyncDatastoreOperations datastoreOperations;
+
+  private final Class<T> entityType;
+
+  public SimpleReactiveDatastoreRepository(
+      AsyncDatastoreOperations datastoreOperations, Class<T> entityType) {
+    Assert.notNull(datastoreOperations, "A non-null AsyncDatastoreOperations is required.");
+    Assert.notNull(entityType, "A non-null entity type is required.");
+    this.datastoreOperations = datastoreOperations;
+    this.entityType = entityType;
+  }
+
+  @Override
+  public <S extends T> Mono<S> save(S entity) {
+    Assert.notNull(entity, "A non-null entity is required for saving.");
+    return mono(() -> this.datastoreOperations.save(entity));
+  }
+
+  @Override
+  public <S extends T> Flux<S> saveAll(Iterable<S> entities) {
+    Assert.notNull(entities, "A non-null list of entities is required for saving.");
+    return flux(() -> this.datastoreOperations.saveAll(entities));
+  }
+
+  @Override
+  public <S extends T> Flux<S> saveAll(Publisher<S> entityStream) {
+    Assert.notNull(entityStream, "A non-null publisher of entities is required for saving.");
+    return Flux.from(entityStream).buffer(BATCH_SIZE).concatMap(batch -> saveAll(batch));
+  }
+
+  @Override
+  public Mono<T> findById(I id) {
+    Assert.notNull(id, NON_NULL_ID_REQUIRED);
+    return mono(() -> this.datastoreOperations.findById(id, this.entityType));
+  }
+
+  @Override
+  public Mono<T> findById(Publisher<I> id) {
+    Assert.notNull(id, NON_NULL_ID_REQUIRED);
+    return Mono.from(id).flatMap(value -> findById(value));
+  }
+
+  @Override
+  public Mono<Boolean> existsById(I id) {
+    Assert.notNull(id, NON_NULL_ID_REQUIRED);
+    return mono(() -> this.datastoreOperations.existsById(id, this.entityType));
+  }
+
+  @Override
+  public Mono<Boolean> existsById(Publisher<I> id) {
+    Assert.notNull(id, NON_NULL_ID_REQUIRED);
+    return Mono.from(id).flatMap(value -> existsById(value));
+  }
+
+  @Override
+  public Flux<T> findAll() {
+    return flux(() -> this.datastoreOperations.findAll(this.entityType));
+  }
+
+  @Override
+  public Flux<T> findAllById(Iterable<I> ids) {
+    Assert.notNull(ids, "IDs must not be null");
+    return flux(() -> this.datastoreOperations.findAllById(ids, this.entityType));
+  }
+
+  @Override
+  public Flux<T> findAllById(Publisher<I> idStream) {
+    Assert.notNull(idStream, "IDs must not be null");
+    return Flux.from(idStream).buffer(BATCH_SIZE).concatMap(batch -> findAllById(batch));
+  }
+
+  @Override
+  public Mono<Long> count() {
+    return mono(() -> this.datastoreOperations.count(this.entityType));
+  }
+
+  @Override
+  public Mono<Void> deleteById(I id) {
+    Assert.notNull(id, NON_NULL_ID_REQUIRED);
+    return mono(() -> this.datastoreOperations.deleteById(id, this.entityType));
+  }
+
+  @Override
+  public Mono<Void> deleteById(Publisher<I> id) {
+    Assert.notNull(id, NON_NULL_ID_REQUIRED);
+    return Mono.from(id).flatMap(value -> deleteById(value));
+  }
+
+  @Override
+  public Mono<Void> delete(T entity) {
+    Assert.notNull(entity, "A non-null entity is required.");
+    return mono(() -> this.datastoreOperations.delete(entity));
+  }
+
+  @Override
+  public Mono<Void> deleteAllById(Iterable<? extends I> ids) {
+    Assert.notNull(ids, "IDs must not be null");
+    return mono(() -> this.datastoreOperations.deleteAllById(ids, this.entityType));
+  }
+
+  @Override
+  public Mono<Void> deleteAll(Iterable<? extends T> entities) {
+    Assert.notNull(entities, "A non-null list of entities is required.");
+    return mono(() -> this.datastoreOperations.deleteAll(entities));
+  }
+
+  @Override
+  public Mono<Void> deleteAll(Publisher<? extends T> entityStream) {
+    Assert.notNull(entityStream, "A non-null publisher of entities is required.");
+    return Flux.from(entityStream).buffer(BATCH_SIZE).concatMap(batch -> deleteAll(batch)).then();
+  }
+
+  @Override
+  public Mono<Void> deleteAll() {
+    return mono(() -> this.datastoreOperations.deleteAll(this.entityType)).then();
+  }
+
+  private static <R> Mono<R> mono(Supplier<CompletableFuture<R>> operation) {
+    return Mono.defer(() -> Mono.fromFuture(operation.get()));
+  }
+
+  private static <R> Flux<R> flux(Supplier<CompletableFuture<List<R>>> operation) {
+    return mono(operation).flatMapIterable(list -> list);
+  }
+}
@@ -0,0 +1,127 @@
+/*
+ * Copyright 2022-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.cloud.spring.data.datastore.core;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.google.cloud.datastore.Key;
+import com.google.cloud.spring.data.datastore.core.mapping.DatastoreDataException;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import org.junit.jupiter.api.Test;
+
+/** Tests for the asynchronous Datastore template. */
+class AsyncDatastoreTemplateTests {
+
+  private final DatastoreOperations datastoreOperations = mock(DatastoreOperations.class);
+
+  private final QueuedExecutor executor = new QueuedExecutor();
+
+  private final AsyncDatastoreTemplate asyncTemplate =
+      new AsyncDatastoreTemplate(this.datastoreOperations, this.executor);
+
+  @Test
+  void findByIdRunsOnExecutorTest() {
+    when(this.datastoreOperations.findById("a", String.class)).thenReturn("result");
+
+    CompletableFuture<String> future = this.asyncTemplate.findById("a", String.class);
+    verify(this.datastoreOperations, never()).findById(any(), any());
+    assertThat(future).isNotDone();
+
+    this.executor.runAll();
+    assertThat(future.join()).isEqualTo("result");
+  }
+
+  @Test
+  void queryResultsAreReadOnExecutorTest() {
+    Iterable<String> results = () -> Arrays.asList("a", "b").iterator();
+    when(this.datastoreOperations.findAll(String.class)).thenReturn(results);
+
+    CompletableFuture<List<String>> future = this.asyncTemplate.findAll(String.class);
+    this.executor.runAll();
+
+    assertThat(future.join()).containsExactly("a", "b");
+  }
+
+  @Test
+  void saveAllTest() {
+    List<String> entities = Arrays.asList("a", "b");
+    Key[] ancestors = new Key[0];
+    when(this.datastoreOperations.saveAll(entities, ancestors)).thenReturn(entities);
+
+    CompletableFuture<List<String>> future = this.asyncTemplate.saveAll(entities, ancestors);
+    this.executor.runAll();
+
+    assertThat(future.join()).containsExactly("a", "b");
+  }
+
+  @Test
+  void deleteFailureTest() {
+    doThrow(new DatastoreDataException("failed"))
+        .when(this.datastoreOperations)
+        .deleteAll(Collections.singletonList("a"));
+
+    CompletableFuture<Void> future = this.asyncTemplate.deleteAll(Collections.singletonList("a"));
+    this.executor.runAll();
+
+    assertThatThrownBy(future::join)
+        .isInstanceOf(CompletionException.class)
+        .hasCauseInstanceOf(DatastoreDataException.class);
+  }
+
+  @Test
+  void ownedExecutorTest() throws Exception {
+    when(this.datastoreOperations.count(String.class)).thenReturn(3L);
+    AsyncDatastoreTemplate template = new AsyncDatastoreTemplate(this.datastoreOperations);
+    try {
+      assertThat(template.count(String.class).get()).isEqualTo(3L);
+    } finally {
+      template.destroy();
+    }
+  }
+
+  /** Runs submitted tasks only when asked to, so that tests can check they are deferred. */
+  private static class QueuedExecutor implements Executor {
+
+    private final Queue<Runnable> tasks = new ArrayDeque<>();
+
+    @Override
+    public void execute(Runnable command) {
+      this.tasks.add(command);
+    }
+
+    void runAll() {
+      Runnable task;
+      while ((task = this.tasks.poll()) != null) {
+        task.run();
+      }
+    }
+  }
+}
@@ -0,0 +1,144 @@
+/*
+ * Copyright 2022-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.cloud.spring.data.datastore.core;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.google.cloud.datastore.Entity;
+import com.google.cloud.datastore.Key;
+import com.google.cloud.spring.data.datastore.core.mapping.event.AfterDeleteEvent;
+import com.google.cloud.spring.data.datastore.core.mapping.event.AfterSaveEvent;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.Test;
+
+/** Tests for the shared Datastore entity cache. */
+class DatastoreEntityCacheTests {
+
+  private final AtomicLong clock = new AtomicLong();
+
+  private final Entity entity1 = Entity.newBuilder(createKey("kind1", "a")).build();
+
+  private final Entity entity2 = Entity.newBuilder(createKey("kind1", "b")).build();
+
+  private final Entity otherKindEntity = Entity.newBuilder(createKey("kind2", "a")).build();
+
+  @Test
+  void getCachedEntityTest() {
+    DatastoreEntityCache cache = createCache(10);
+
+    assertThat(cache.get(this.entity1.getKey())).isNull();
+    cache.put(this.entity1);
+
+    assertThat(cache.get(this.entity1.getKey())).isSameAs(this.entity1);
+    assertThat(cache.getHitCount()).isEqualTo(1);
+    assertThat(cache.getMissCount()).isEqualTo(1);
+  }
+
+  @Test
+  void entriesExpireTest() {
+    DatastoreEntityCache cache = createCache(10);
+    cache.put(this.entity1);
+
+    this.clock.addAndGet(Duration.ofSeconds(59).toNanos());
+    assertThat(cache.get(this.entity1.getKey())).isSameAs(this.entity1);
+
+    this.clock.addAndGet(Duration.ofSeconds(1).toNanos());
+    assertThat(cache.get(this.entity1.getKey())).isNull();
+    assertThat(cache.size()).isZero();
+  }
+
+  @Test
+  void leastRecentlyUsedEntriesEvictedTest() {
+    DatastoreEntityCache cache = createCache(1);
+    cache.put(this.entity1);
+    cache.put(this.entity2);
+
+    assertThat(cache.size()).isEqualTo(1);
+    assertThat(cache.get(this.entity1.getKey())).isNull();
+    assertThat(cache.get(this.entity2.getKey())).isSameAs(this.entity2);
+  }
+
+  @Test
+  void onlyConfiguredKindsCachedTest() {
+    DatastoreEntityCache cache = createCache(10);
+    cache.put(this.otherKindEntity);
+
+    assertThat(cache.isCacheable(this.otherKindEntity.getKey())).isFalse();
+    assertThat(cache.size()).isZero();
+  }
+
+  @Test
+  void evictOnSaveAndDeleteEventsTest() {
+    DatastoreEntityCache cache = createCache(10);
+    cache.put(this.entity1);
+    cache.put(this.entity2);
+
+    cache.onApplicationEvent(
+        new AfterSaveEvent(Collections.singletonList(this.entity1), Collections.emptyList()));
+    assertThat(cache.get(this.entity1.getKey())).isNull();
+
+    cache.onApplicationEvent(
+        new AfterDeleteEvent(new Key[] {this.entity2.getKey()}, null, null, null));
+    assertThat(cache.get(this.entity2.getKey())).isNull();
+  }
+
+  @Test
+  void entitiesEvictedDuringReadNotCachedTest() {
+    DatastoreEntityCache cache = createCache(10);
+    long generation = cache.getEvictionGeneration();
+
+    cache.evict(Collections.singletonList(this.entity1.getKey()));
+    cache.put(this.entity1, generation);
+    cache.put(this.entity2, generation);
+
+    assertThat(cache.get(this.entity1.getKey())).isNull();
+    assertThat(cache.get(this.entity2.getKey())).isSameAs(this.entity2);
+
+    cache.put(this.entity1, cache.getEvictionGeneration());
+    assertThat(cache.get(this.entity1.getKey())).isSameAs(this.entity1);
+  }
+
+  @Test
+  void untrackedEvictionsTreatedAsEvictedDuringReadTest() {
+    DatastoreEntityCache cache = createCache(1);
+    long generation = cache.getEvictionGeneration();
+
+    cache.evict(Collections.singletonList(this.entity1.getKey()));
+    cache.evict(Collections.singletonList(this.entity2.getKey()));
+    cache.put(this.entity1, generation);
+
+    assertThat(cache.size()).isZero();
+  }
+
+  @Test
+  void invalidTimeToLiveTest() {
+    assertThatThrownBy(() -> new DatastoreEntityCache(10, Duration.ZERO))
+        .isInstanceOf(IllegalArgumentException.class)
+        .hasMessage("The time to live must be positive.");
+  }
+
+  private DatastoreEntityCache createCache(int maximumSize) {
+    return new DatastoreEntityCache(maximumSize, Duration.ofMinutes(1), this.clock::get, "kind1");
+  }
+
+  private static Key createKey(String kind, String name) {
+    return Key.newBuilder("project", kind, name).build();
+  }
+}
@@ -23,7 +23,9 @@ import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.ArgumentMatchers.notNull;
 import static org.mockito.ArgumentMatchers.same;
 import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -31,6 +33,7 @@ import static org.mockito.Mockito.when;
 import com.google.cloud.datastore.Cursor;
 import com.google.cloud.datastore.Datastore;
 import com.google.cloud.datastore.Datastore.TransactionCallable;
+import com.google.cloud.datastore.DatastoreException;
 import com.google.cloud.datastore.DatastoreReaderWriter;
 import com.google.cloud.datastore.Entity;
 import com.google.cloud.datastore.EntityQuery;
@@ -49,6 +52,7 @@ import com.google.cloud.datastore.Query.ResultType;
 import com.google.cloud.datastore.QueryResults;
 import com.google.cloud.datastore.StructuredQuery;
 import com.google.cloud.datastore.StructuredQuery.PropertyFilter;
+import com.google.cloud.datastore.Transaction;
 import com.google.cloud.spring.core.util.MapBuilder;
 import com.google.cloud.spring.data.datastore.core.convert.DatastoreEntityConverter;
 import com.google.cloud.spring.data.datastore.core.convert.ObjectToKeyFactory;
@@ -67,20 +71,25 @@ import com.google.cloud.spring.data.datastore.core.mapping.event.AfterQueryEvent
 import com.google.cloud.spring.data.datastore.core.mapping.event.AfterSaveEvent;
 import com.google.cloud.spring.data.datastore.core.mapping.event.BeforeDeleteEvent;
 import com.google.cloud.spring.data.datastore.core.mapping.event.BeforeSaveEvent;
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Consumer;
 import java.util.function.Supplier;
+import java.util.stream.Stream;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.ArgumentMatchers;
@@ -93,9 +102,11 @@ import org.springframework.data.annotation.Reference;
 import org.springframework.data.domain.Example;
 import org.springframework.data.domain.ExampleMatcher;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Slice;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.util.ClassTypeInformation;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 /** Tests for the Datastore Template. */
 class DatastoreTemplateTests {
@@ -439,6 +450,37 @@ class DatastoreTemplateTests {
         x -> {});
   }
 
+  @Test
+  void findByIdEntityCacheTest() {
+    DatastoreEntityCache entityCache = new DatastoreEntityCache(10, Duration.ofMinutes(1));
+    this.datastoreTemplate.setEntityCache(entityCache);
+
+    assertThat(this.datastoreTemplate.findById(this.key1, TestEntity.class)).isEqualTo(this.ob1);
+    assertThat(this.datastoreTemplate.findById(this.key1, TestEntity.class)).isEqualTo(this.ob1);
+    verify(this.datastore, times(1)).fetch(this.key1);
+    assertThat(entityCache.getHitCount()).isPositive();
+
+    this.datastoreTemplate.deleteById(this.key1, TestEntity.class);
+    this.datastoreTemplate.findById(this.key1, TestEntity.class);
+    verify(this.datastore, times(2)).fetch(this.key1);
+  }
+
+  @Test
+  void findByIdEntityCacheSkipsEntitiesEvictedDuringFetchTest() {
+    DatastoreEntityCache entityCache = new DatastoreEntityCache(10, Duration.ofMinutes(1));
+    this.datastoreTemplate.setEntityCache(entityCache);
+    when(this.datastore.fetch(this.key1))
+        .thenAnswer(
+            invocation -> {
+              // A concurrent save of the entity evicts it while the stale value is being read.
+              entityCache.evict(Collections.singletonList(this.key1));
+              return Collections.singletonList(this.e1);
+            });
+
+    assertThat(this.datastoreTemplate.findById(this.key1, TestEntity.class)).isEqualTo(this.ob1);
+    assertThat(entityCache.size()).isZero();
+  }
+
   @Test
   void findByIdNotFoundTest() {
     when(this.datastore.fetch(ArgumentMatchers.<Key[]>any()))
@@ -466,6 +508,52 @@ class DatastoreTemplateTests {
         x -> {});
   }
 
+  @Test
+  void findAllByIdParallelSlicesTest() {
+    ExecutorService executor = Executors.newFixedThreadPool(2);
+    try {
+      this.datastoreTemplate.setMaxReadSize(1);
+      this.datastoreTemplate.setSliceParallelism(2);
+      this.datastoreTemplate.setSliceExecutor(executor);
+      when(this.datastore.fetch(this.key1)).thenReturn(Collections.singletonList(this.e1));
+      when(this.datastore.fetch(this.key2)).thenReturn(Collections.singletonList(this.e2));
+
+      assertThat(
+              this.datastoreTemplate.findAllById(
+                  Arrays.asList(this.key1, this.key2), TestEntity.class))
+          .containsExactlyInAnyOrder(this.ob1, this.ob2);
+      verify(this.datastore).fetch(this.key1);
+      verify(this.datastore).fetch(this.key2);
+      verify(this.datastore, never()).fetch(this.key2, this.key1);
+    } finally {
+      executor.shutdown();
+    }
+  }
+
+  @Test
+  void deleteSliceRetryTest() {
+    doThrow(new DatastoreException(14, "unavailable", "UNAVAILABLE"))
+        .doNothing()
+        .when(this.datastore)
+        .delete(ArgumentMatchers.<Key[]>any());
+    this.datastoreTemplate.setSliceRetryAttempts(1);
+
+    this.datastoreTemplate.deleteById(this.key1, TestEntity.class);
+
+    verify(this.datastore, times(2)).delete(ArgumentMatchers.<Key[]>any());
+  }
+
+  @Test
+  void deleteSliceNoRetryTest() {
+    doThrow(new DatastoreException(14, "unavailable", "UNAVAILABLE"))
+        .when(this.datastore)
+        .delete(ArgumentMatchers.<Key[]>any());
+
+    assertThatThrownBy(() -> this.datastoreTemplate.deleteById(this.key1, TestEntity.class))
+        .isInstanceOf(DatastoreException.class);
+    verify(this.datastore, times(1)).delete(ArgumentMatchers.<Key[]>any());
+  }
+
   @Test
   void findAllByIdReferenceConsistencyTest() {
     when(this.objectToKeyFactory.getKeyFromObject(eq(this.childEntity1), any()))
@@ -859,6 +947,33 @@ class DatastoreTemplateTests {
     verify(this.datastore, times(1)).put(ArgumentMatchers.<FullEntity[]>any());
   }
 
+  @Test
+  void saveAllAllocatesKeysInBulkTest() {
+    ChildEntity newEntity1 = new ChildEntity();
+    ChildEntity newEntity2 = new ChildEntity();
+    doAnswer(
+            invocation -> {
+              newEntity1.id = this.childKey2;
+              newEntity2.id = this.childKey3;
+              return Arrays.asList(this.childKey2, this.childKey3);
+            })
+        .when(this.objectToKeyFactory)
+        .allocateKeysForObjects(
+            eq(Arrays.asList(newEntity1, newEntity2)), any(), ArgumentMatchers.<Key[]>any());
+    when(this.objectToKeyFactory.getKeyFromObject(same(newEntity1), any()))
+        .thenReturn(this.childKey2);
+    when(this.objectToKeyFactory.getKeyFromObject(same(newEntity2), any()))
+        .thenReturn(this.childKey3);
+
+    this.datastoreTemplate.saveAll(Arrays.asList(newEntity1, newEntity2));
+
+    verify(this.objectToKeyFactory, times(1))
+        .allocateKeysForObjects(any(), any(), ArgumentMatchers.<Key[]>any());
+    verify(this.objectToKeyFactory, never())
+        .allocateKeyForObject(any(), any(), ArgumentMatchers.<Key[]>any());
+    verify(this.datastore, times(1)).put(ArgumentMatchers.<FullEntity[]>any());
+  }
+
   @Test
   void saveAllMaxWriteSizeTest() {
     when(this.objectToKeyFactory.allocateKeyForObject(same(this.ob1), any())).thenReturn(this.key1);
@@ -973,32 +1088,158 @@ class DatastoreTemplateTests {
   private boolean nextPageTest(boolean hasNextPage) {
     QueryResults<Key> queryResults = mock(QueryResults.class);
     when(queryResults.getResultClass()).thenReturn((Class) Key.class);
-    doAnswer(
-            invocation -> {
-              Arrays.asList(this.key1, this.key2)
-                  .iterator()
-                  .forEachRemaining(invocation.getArgument(0));
-              return null;
-            })
-        .when(queryResults)
-        .forEachRemaining(any());
+    when(queryResults.hasNext()).thenReturn(true, hasNextPage);
+    when(queryResults.next()).thenReturn(this.key1);
     Cursor cursor = Cursor.copyFrom("abc".getBytes());
     when(queryResults.getCursorAfter()).thenReturn(cursor);
 
     KeyQuery query = Query.newKeyQueryBuilder().setKind("custom_test_kind").setLimit(1).build();
+    // one key more than the page size is requested to find out if there is a next page
+    KeyQuery pageQuery = query.toBuilder().setOffset(0).setLimit(2).build();
+    when(this.datastore.run(pageQuery)).thenReturn(queryResults);
+
+    Slice<Key> resultsSlice =
+        this.datastoreTemplate.queryKeysSlice(query, TestEntity.class, PageRequest.of(0, 1));
+    assertThat(resultsSlice.getContent()).containsExactly(this.key1);
+    verify(this.datastore, times(1)).run(any(Query.class));
+    Mockito.clearInvocations(this.datastore);
+    return resultsSlice.hasNext();
+  }
+
+  @Test
+  void unpagedSliceTest() {
+    QueryResults<Key> queryResults = mock(QueryResults.class);
+    when(queryResults.getResultClass()).thenReturn((Class) Key.class);
+    when(queryResults.hasNext()).thenReturn(true, false);
+    when(queryResults.next()).thenReturn(this.key1);
+    KeyQuery query = Query.newKeyQueryBuilder().setKind("custom_test_kind").build();
     when(this.datastore.run(query)).thenReturn(queryResults);
+    // an unpaged request that is not the Pageable.unpaged() instance
+    Pageable pageable = mock(Pageable.class);
+    when(pageable.isUnpaged()).thenReturn(true);
 
-    QueryResults<Key> nextPageQueryResults = mock(QueryResults.class);
-    when(nextPageQueryResults.hasNext()).thenReturn(hasNextPage);
+    Slice<Key> resultsSlice =
+        this.datastoreTemplate.queryKeysSlice(query, TestEntity.class, pageable);
+    assertThat(resultsSlice.getContent()).containsExactly(this.key1);
+    assertThat(resultsSlice.hasNext()).isFalse();
+    verify(this.datastore, times(1)).run(query);
+  }
 
-    KeyQuery nextPageQuery =
-        query.toBuilder().setStartCursor(cursor).setOffset(0).setLimit(1).build();
+  @Test
+  void queryStreamTest() {
+    QueryResults<Entity> queryResults = mock(QueryResults.class);
+    when(queryResults.hasNext()).thenReturn(true, true, false);
+    when(queryResults.next()).thenReturn(this.e1, this.e2);
+    GqlQuery<Entity> query =
+        GqlQuery.newGqlQueryBuilder(ResultType.ENTITY, "streamed query").build();
+    when(this.datastore.run(query)).thenReturn(queryResults);
 
-    when(this.datastore.run(nextPageQuery)).thenReturn(nextPageQueryResults);
+    verifyBeforeAndAfterEvents(
+        null,
+        new AfterQueryEvent(Collections.emptyList(), query),
+        () ->
+            assertThat(this.datastoreTemplate.queryStream(query, TestEntity.class))
+                .containsExactly(this.ob1, this.ob2),
+        x -> x.verify(this.datastore, times(1)).run(query));
+  }
 
-    Slice<Key> resultsSlice =
-        this.datastoreTemplate.queryKeysSlice(query, TestEntity.class, PageRequest.of(0, 1));
-    return resultsSlice.hasNext();
+  @Test
+  void queryStreamCloseTest() {
+    QueryResults<Entity> queryResults = mock(QueryResults.class);
+    when(queryResults.hasNext()).thenReturn(true);
+    when(queryResults.next()).thenReturn(this.e1);
+    EntityQuery query = Query.newEntityQueryBuilder().setKind("stream_kind").build();
+    when(this.datastore.run(query)).thenReturn(queryResults);
+    ApplicationEventPublisher publisher = mock(ApplicationEventPublisher.class);
+    this.datastoreTemplate.setApplicationEventPublisher(publisher);
+
+    try (Stream<TestEntity> stream = this.datastoreTemplate.queryStream(query, TestEntity.class)) {
+      assertThat(stream.findFirst()).contains(this.ob1);
+      verify(publisher, never()).publishEvent(any());
+    }
+
+    verify(publisher, times(1)).publishEvent(new AfterQueryEvent(Collections.emptyList(), query));
+  }
+
+  @Test
+  void queryStreamResumeTest() {
+    Cursor cursor = Cursor.copyFrom("abc".getBytes());
+    QueryResults<Entity> firstResults = mock(QueryResults.class);
+    when(firstResults.hasNext())
+        .thenReturn(true)
+        .thenThrow(new DatastoreException(14, "unavailable", "UNAVAILABLE"));
+    when(firstResults.next()).thenReturn(this.e1);
+    when(firstResults.getCursorAfter()).thenReturn(cursor);
+    QueryResults<Entity> resumedResults = mock(QueryResults.class);
+    when(resumedResults.hasNext()).thenReturn(true, false);
+    when(resumedResults.next()).thenReturn(this.e2);
+
+    EntityQuery query = Query.newEntityQueryBuilder().setKind("stream_kind").setLimit(5).build();
+    EntityQuery resumedQuery =
+        query.toBuilder().setStartCursor(cursor).setOffset(0).setLimit(4).build();
+    when(this.datastore.run(query)).thenReturn(firstResults);
+    when(this.datastore.run(resumedQuery)).thenReturn(resumedResults);
+
+    assertThat(this.datastoreTemplate.queryStream(query, TestEntity.class))
+        .containsExactly(this.ob1, this.ob2);
+    verify(this.datastore, times(1)).run(resumedQuery);
+  }
+
+  @Test
+  void queryStreamNoResumeTest() {
+    QueryResults<Entity> queryResults = mock(QueryResults.class);
+    when(queryResults.hasNext())
+        .thenThrow(new DatastoreException(14, "unavailable", "UNAVAILABLE"));
+    EntityQuery query = Query.newEntityQueryBuilder().setKind("stream_kind").build();
+    when(this.datastore.run(query)).thenReturn(queryResults);
+    this.datastoreTemplate.setQueryResumeAttempts(0);
+
+    assertThatThrownBy(() -> this.datastoreTemplate.queryStream(query, TestEntity.class).count())
+        .isInstanceOf(DatastoreException.class);
+    verify(this.datastore, times(1)).run(query);
+  }
+
+  @Test
+  void queryStreamAfterTransactionEndedTest() {
+    Cursor cursor = Cursor.copyFrom("abc".getBytes());
+    QueryResults<Entity> transactionResults = mock(QueryResults.class);
+    when(transactionResults.hasNext())
+        .thenReturn(true)
+        .thenThrow(new DatastoreException(3, "transaction expired", "INVALID_ARGUMENT"));
+    when(transactionResults.next()).thenReturn(this.e1);
+    when(transactionResults.getCursorAfter()).thenReturn(cursor);
+    QueryResults<Entity> resumedResults = mock(QueryResults.class);
+    when(resumedResults.hasNext()).thenReturn(true, false);
+    when(resumedResults.next()).thenReturn(this.e2);
+
+    EntityQuery query = Query.newEntityQueryBuilder().setKind("stream_kind").build();
+    EntityQuery resumedQuery = query.toBuilder().setStartCursor(cursor).setOffset(0).build();
+    Transaction transaction = mock(Transaction.class);
+    when(transaction.isActive()).thenReturn(true);
+    when(transaction.run(query)).thenReturn(transactionResults);
+    // references of the converted entities are looked up the same way as outside of it
+    doAnswer(invocation -> this.datastore.fetch((Key) invocation.getArgument(0)))
+        .when(transaction)
+        .fetch((Key[]) any());
+    when(this.datastore.run(resumedQuery)).thenReturn(resumedResults);
+
+    DatastoreTransactionManager.Tx tx = new DatastoreTransactionManager.Tx(this.datastore);
+    tx.setTransaction(transaction);
+    TransactionSynchronizationManager.setActualTransactionActive(true);
+    TransactionSynchronizationManager.bindResource(this.datastore, tx);
+    Iterator<TestEntity> results;
+    try {
+      results = this.datastoreTemplate.queryStream(query, TestEntity.class).iterator();
+      assertThat(results.next()).isEqualTo(this.ob1);
+    } finally {
+      TransactionSynchronizationManager.unbindResource(this.datastore);
+      TransactionSynchronizationManager.setActualTransactionActive(false);
+    }
+    when(transaction.isActive()).thenReturn(false);
+
+    assertThat(results).toIterable().containsExactly(this.ob2);
+    verify(this.datastore, never()).run(query);
+    verify(this.datastore, times(1)).run(resumedQuery);
   }
 
   @Test
@@ -91,6 +91,23 @@ class DatastoreTransactionManagerTests {
     verify(this.datastore, times(1)).newTransaction();
   }
 
+  @Test
+  void testEntityCacheDisabledByDefault() {
+    this.manager.doBegin(this.tx, TransactionDefinition.withDefaults());
+    assertThat(this.tx.getEntityCache()).isNull();
+    this.manager.doCleanupAfterCompletion(this.tx);
+  }
+
+  @Test
+  void testEntityCacheIsScopedToTransaction() {
+    this.manager.setEntityCacheEnabled(true);
+    this.manager.doBegin(this.tx, TransactionDefinition.withDefaults());
+    assertThat(this.tx.getEntityCache()).isEmpty();
+
+    this.manager.doCleanupAfterCompletion(this.tx);
+    assertThat(this.tx.getEntityCache()).isNull();
+  }
+
   @Test
   void testDoCommit() {
     when(this.transaction.isActive()).thenReturn(true);
@@ -21,6 +21,9 @@ import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import com.google.cloud.datastore.Datastore;
@@ -31,7 +34,13 @@ import com.google.cloud.datastore.PathElement;
 import com.google.cloud.spring.data.datastore.core.mapping.DatastoreDataException;
 import com.google.cloud.spring.data.datastore.core.mapping.DatastoreMappingContext;
 import com.google.cloud.spring.data.datastore.core.mapping.DatastorePersistentEntity;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
 import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentMatchers;
 import org.springframework.data.annotation.Id;
 
 /** Tests for the object to key factory. */
@@ -179,6 +188,78 @@ class DatastoreServiceObjectToKeyFactoryTests {
                     + "Cannot allocate for type: class java.lang.String");
   }
 
+  @Test
+  void allocateIdsForObjectsTest() {
+    AtomicLong nextId = new AtomicLong(1);
+    doAnswer(invocation -> allocatedKeys(invocation.getArguments(), nextId))
+        .when(this.datastore)
+        .allocateId(ArgumentMatchers.<IncompleteKey[]>any());
+    when(this.datastore.newKeyFactory()).thenReturn(new KeyFactory("project"));
+
+    List<TestEntityWithId> entities = new ArrayList<>();
+    for (int i = 0; i < 600; i++) {
+      entities.add(new TestEntityWithId());
+    }
+    List<Key> keys =
+        this.datastoreServiceObjectToKeyFactory.allocateKeysForObjects(
+            entities, this.datastoreMappingContext.getPersistentEntity(TestEntityWithId.class));
+
+    assertThat(keys).hasSize(600);
+    assertThat(entities.get(0).id).isEqualTo(1L);
+    assertThat(entities.get(599).id).isEqualTo(600L);
+    assertThat(keys.get(599))
+        .isEqualTo(new KeyFactory("project").setKind("custom_test_kind").newKey(600L));
+    // The keys are allocated in slices of 500.
+    verify(this.datastore, times(2)).allocateId(ArgumentMatchers.<IncompleteKey[]>any());
+    verify(this.datastore, never()).allocateId(any(IncompleteKey.class));
+  }
+
+  @Test
+  void allocateIdsFromPoolTest() {
+    AtomicLong nextId = new AtomicLong(1);
+    doAnswer(invocation -> allocatedKeys(invocation.getArguments(), nextId))
+        .when(this.datastore)
+        .allocateId(ArgumentMatchers.<IncompleteKey[]>any());
+    doAnswer(
+            invocation ->
+                Key.newBuilder((IncompleteKey) invocation.getArgument(0), nextId.getAndIncrement())
+                    .build())
+        .when(this.datastore)
+        .allocateId(any(IncompleteKey.class));
+    when(this.datastore.newKeyFactory()).thenReturn(new KeyFactory("project"));
+    this.datastoreServiceObjectToKeyFactory.setIdPoolSize(10);
+    this.datastoreServiceObjectToKeyFactory.setIdPoolExecutor(Runnable::run);
+    DatastorePersistentEntity<?> persistentEntity =
+        this.datastoreMappingContext.getPersistentEntity(TestEntityWithId.class);
+
+    // The first key is allocated directly, then the pool is filled with 10 keys.
+    TestEntityWithId first = new TestEntityWithId();
+    this.datastoreServiceObjectToKeyFactory.allocateKeyForObject(first, persistentEntity);
+    assertThat(first.id).isEqualTo(1L);
+    verify(this.datastore, times(1)).allocateId(any(IncompleteKey.class));
+    verify(this.datastore, times(1)).allocateId(ArgumentMatchers.<IncompleteKey[]>any());
+
+    // The next 5 keys come from the pool without any call.
+    for (long id = 2; id <= 6; id++) {
+      TestEntityWithId entity = new TestEntityWithId();
+      this.datastoreServiceObjectToKeyFactory.allocateKeyForObject(entity, persistentEntity);
+      assertThat(entity.id).isEqualTo(id);
+    }
+    verify(this.datastore, times(1)).allocateId(ArgumentMatchers.<IncompleteKey[]>any());
+
+    // Once the pool is half empty, it is refilled.
+    this.datastoreServiceObjectToKeyFactory.allocateKeyForObject(
+        new TestEntityWithId(), persistentEntity);
+    verify(this.datastore, times(2)).allocateId(ArgumentMatchers.<IncompleteKey[]>any());
+    verify(this.datastore, times(1)).allocateId(any(IncompleteKey.class));
+  }
+
+  private static List<Key> allocatedKeys(Object[] incompleteKeys, AtomicLong nextId) {
+    return Arrays.stream(incompleteKeys)
+        .map(key -> Key.newBuilder((IncompleteKey) key, nextId.getAndIncrement()).build())
+        .collect(Collectors.toList());
+  }
+
   @com.google.cloud.spring.data.datastore.core.mapping.Entity(name = "custom_test_kind")
   private static class TestEntityWithId {
     @Id Long id;
@@ -16,6 +16,7 @@
 
 package com.google.cloud.spring.data.datastore.core.mapping;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.times;
@@ -25,6 +26,7 @@ import static org.mockito.Mockito.verifyNoMoreInteractions;
 import com.google.cloud.Timestamp;
 import org.junit.jupiter.api.Test;
 import org.springframework.context.ApplicationContext;
+import org.springframework.data.annotation.Id;
 import org.springframework.data.util.ClassTypeInformation;
 import org.springframework.data.util.TypeInformation;
 
@@ -72,6 +74,29 @@ class DatastoreMappingContextTests {
             "Unable to find a DatastorePersistentEntity for: class com.google.cloud.Timestamp");
   }
 
+  @Test
+  void testEntityPlanIsCached() {
+    DatastoreMappingContext context = new DatastoreMappingContext();
+    DatastoreEntityPlan<PlanEntity> plan = context.getEntityPlan(PlanEntity.class);
+
+    assertThat(context.getEntityPlan(PlanEntity.class)).isSameAs(plan);
+    assertThat(plan.getPersistentEntity().getType()).isEqualTo(PlanEntity.class);
+    assertThat(plan.hasConstructorParameters()).isTrue();
+    assertThat(plan.getReadProperties())
+        .extracting(DatastorePersistentProperty::getName)
+        .containsExactlyInAnyOrder("id", "count");
+    assertThat(plan.getWriteProperties())
+        .extracting(DatastorePersistentProperty::getName)
+        .containsExactlyInAnyOrder("name", "count");
+    assertThat(plan.getDiscriminationValues()).isEmpty();
+    assertThat(plan.getDiscriminationCandidates()).isEmpty();
+  }
+
+  @Test
+  void testEntityPlanOfNonEntity() {
+    assertThat(new DatastoreMappingContext().getEntityPlan(Timestamp.class)).isNull();
+  }
+
   private DatastoreMappingContext createDatastoreMappingContextWith(
       DatastorePersistentEntityImpl mockEntity) {
     return new DatastoreMappingContext() {
@@ -83,4 +108,16 @@ class DatastoreMappingContextTests {
       }
     };
   }
+
+  static class PlanEntity {
+    @Id String id;
+
+    final String name;
+
+    long count;
+
+    PlanEntity(String name) {
+      this.name = name;
+    }
+  }
 }
@@ -22,11 +22,16 @@ import static org.assertj.core.api.Assertions.fail;
 
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
 import org.junit.jupiter.api.Test;
 import org.springframework.data.annotation.Id;
 import org.springframework.data.annotation.Reference;
 import org.springframework.data.annotation.Transient;
 import org.springframework.data.mapping.PropertyHandler;
+import org.springframework.data.mapping.model.Property;
+import org.springframework.data.mapping.model.SimpleTypeHolder;
+import org.springframework.data.util.ClassTypeInformation;
+import org.springframework.util.ReflectionUtils;
 
 /** Tests for the Datastore persistent property. */
 class DatastorePersistentPropertyImplTests {
@@ -123,6 +128,30 @@ class DatastorePersistentPropertyImplTests {
 
   }
 
+  @Test
+  void propertyMetadataIsResolvedOnceTest() {
+    AtomicInteger resolutions = new AtomicInteger();
+    DatastorePersistentProperty property =
+        new DatastorePersistentPropertyImpl(
+            Property.of(
+                ClassTypeInformation.from(TestEntity.class),
+                ReflectionUtils.findField(TestEntity.class, "doubleList")),
+            this.datastoreMappingContext.getPersistentEntity(TestEntity.class),
+            SimpleTypeHolder.DEFAULT,
+            p -> {
+              resolutions.incrementAndGet();
+              return "double_list";
+            });
+
+    for (int i = 0; i < 10; i++) {
+      assertThat(property.getFieldName()).isEqualTo("double_list");
+      assertThat(property.getEmbeddedType()).isEqualTo(EmbeddedType.NOT_EMBEDDED);
+      assertThat(property.isUnindexed()).isFalse();
+      assertThat(property.isColumnBacked()).isTrue();
+    }
+    assertThat(resolutions).hasValue(1);
+  }
+
   @Entity(name = "custom_test_kind")
   private static class TestEntity {
     @Id String id;
@@ -0,0 +1,125 @@
+/*
+ * Copyright 2022-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.cloud.spring.data.datastore.it;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.google.cloud.Timestamp;
+import com.google.cloud.datastore.Entity;
+import com.google.cloud.datastore.Key;
+import com.google.cloud.spring.data.datastore.core.convert.DatastoreCustomConversions;
+import com.google.cloud.spring.data.datastore.core.convert.DatastoreEntityConverter;
+import com.google.cloud.spring.data.datastore.core.convert.DefaultDatastoreEntityConverter;
+import com.google.cloud.spring.data.datastore.core.convert.TwoStepsConversions;
+import com.google.cloud.spring.data.datastore.core.mapping.DatastoreMappingContext;
+import com.google.cloud.spring.data.datastore.core.mapping.Field;
+import com.google.cloud.spring.data.datastore.core.mapping.Unindexed;
+import java.lang.management.ManagementFactory;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.annotation.Id;
+
+/**
+ * Measures the throughput and allocations of converting entities to and from Cloud Datastore
+ * entities with {@link DefaultDatastoreEntityConverter}. The conversion runs in memory, so no
+ * Datastore instance is used.
+ */
+@EnabledIfSystemProperty(named = "it.datastore", matches = "true")
+class DatastoreEntityConverterBenchmarkIntegrationTests {
+
+  private static final Logger LOGGER =
+      LoggerFactory.getLogger(DatastoreEntityConverterBenchmarkIntegrationTests.class);
+
+  private static final Key KEY = Key.newBuilder("benchmark", "benchmark_kind", "name").build();
+
+  private final DatastoreMappingContext mappingContext = new DatastoreMappingContext();
+
+  private final DatastoreEntityConverter converter =
+      new DefaultDatastoreEntityConverter(
+          this.mappingContext,
+          new TwoStepsConversions(
+              new DatastoreCustomConversions(Collections.emptyList()), null, this.mappingContext));
+
+  @Test
+  void testConversionThroughput() {
+    BenchmarkEntity entity = new BenchmarkEntity();
+    entity.id = "name";
+    entity.name = "a string field of moderate length";
+    entity.description = "an unindexed string field";
+    entity.count = 42;
+    entity.ratio = 0.5;
+    entity.active = true;
+    entity.tags = Arrays.asList("a", "b", "c");
+    entity.scores = Arrays.asList(1L, 2L, 3L);
+    entity.created = Timestamp.ofTimeSecondsAndNanos(1_600_000_000L, 0);
+
+    // Warm up the conversion path, including the cached entity plans.
+    roundTrips(entity, 100_000);
+
+    com.sun.management.ThreadMXBean threads =
+        (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+    long threadId = Thread.currentThread().getId();
+    int count = 500_000;
+    long allocatedBefore = threads.getThreadAllocatedBytes(threadId);
+    long start = System.nanoTime();
+    roundTrips(entity, count);
+    double seconds = (System.nanoTime() - start) / 1e9;
+    long allocated = threads.getThreadAllocatedBytes(threadId) - allocatedBefore;
+
+    LOGGER.info(
+        "Write+read round trips per second: {}, allocated bytes per round trip: {}",
+        String.format("%.1f", count / seconds),
+        allocated / count);
+  }
+
+  private void roundTrips(BenchmarkEntity entity, int count) {
+    long checksum = 0;
+    for (int i = 0; i < count; i++) {
+      Entity.Builder builder = Entity.newBuilder(KEY);
+      this.converter.write(entity, builder);
+      checksum += this.converter.read(BenchmarkEntity.class, builder.build()).count;
+    }
+    assertThat(checksum).isEqualTo((long) entity.count * count);
+  }
+
+  @com.google.cloud.spring.data.datastore.core.mapping.Entity(name = "benchmark_kind")
+  static class BenchmarkEntity {
+    @Id String id;
+
+    String name;
+
+    @Unindexed String description;
+
+    @Field(name = "item_count")
+    int count;
+
+    double ratio;
+
+    boolean active;
+
+    List<String> tags;
+
+    List<Long> scores;
+
+    Timestamp created;
+  }
+}
@@ -495,20 +495,17 @@ class GqlDatastoreQueryTests {
             invocation -> {
               GqlQuery statement = invocation.getArgument(0);
               assertThat(statement.getQueryString()).isEqualTo("unusedGqlString");
-
-              Cursor cursor = Cursor.copyFrom("abc".getBytes());
-              DatastoreResultsIterable datastoreResultsIterable =
-                  new DatastoreResultsIterable(Arrays.asList(tradeA, tradeB), cursor);
-              return datastoreResultsIterable;
+              return Stream.of(tradeA, tradeB);
             })
         .when(this.datastoreTemplate)
-        .queryKeysOrEntities(any(), eq(Trade.class));
+        .queryStream(any(), eq(Trade.class));
 
     GqlDatastoreQuery gqlDatastoreQuery = createQuery("unusedGqlString", false, false);
 
     Object result = gqlDatastoreQuery.execute(new Parameters[0]);
     assertThat(result).isInstanceOf(Stream.class);
     assertThat((Stream) result).hasSize(2).containsExactly(tradeA, tradeB);
+    verify(this.datastoreTemplate, times(0)).queryKeysOrEntities(any(), any());
   }
 
   private Parameters buildParameters(Object[] params, String[] paramNames) {
@@ -1035,11 +1035,14 @@ class PartTreeDatastoreQueryTests {
             Arrays.asList(tradeA, tradeB),
             getClass().getMethod("findStreamByAction", String.class));
     when(this.queryMethod.isStreamQuery()).thenReturn(true);
+    when(this.datastoreTemplate.queryStream(isA(EntityQuery.class), eq(Trade.class)))
+            .thenReturn(Stream.of(tradeA, tradeB));
     Object[] params =
             new Object[] {"BUY", };
     Object result = this.partTreeDatastoreQuery.execute(params);
     assertThat(result).isInstanceOf(Stream.class);
     assertThat((Stream) result).hasSize(2).contains(tradeA, tradeB);
+    verify(this.datastoreTemplate, times(0)).queryKeysOrEntities(any(), any());
   }
 
   private void queryWithMockResult(
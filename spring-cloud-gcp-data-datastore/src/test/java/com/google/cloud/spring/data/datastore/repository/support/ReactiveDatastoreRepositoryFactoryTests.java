@@ -0,0 +1,79 @@
+/*
+ * Copyright 2022-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.cloud.spring.data.datastore.repository.support;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.google.cloud.spring.data.datastore.core.AsyncDatastoreOperations;
+import com.google.cloud.spring.data.datastore.core.mapping.DatastoreMappingContext;
+import com.google.cloud.spring.data.datastore.core.mapping.Entity;
+import com.google.cloud.spring.data.datastore.repository.ReactiveDatastoreRepository;
+import java.util.concurrent.CompletableFuture;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.annotation.Id;
+import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
+
+/** Tests for the reactive Datastore repository factory. */
+class ReactiveDatastoreRepositoryFactoryTests {
+
+  private final AsyncDatastoreOperations datastoreOperations =
+      mock(AsyncDatastoreOperations.class);
+
+  private final ReactiveDatastoreRepositoryFactory factory =
+      new ReactiveDatastoreRepositoryFactory(
+          new DatastoreMappingContext(), this.datastoreOperations);
+
+  @Test
+  void getRepositoryTest() {
+    TestEntity entity = new TestEntity();
+    when(this.datastoreOperations.findById("a", TestEntity.class))
+        .thenReturn(CompletableFuture.completedFuture(entity));
+
+    TestRepository repository = this.factory.getRepository(TestRepository.class);
+
+    StepVerifier.create(repository.findById("a")).expectNext(entity).verifyComplete();
+  }
+
+  @Test
+  void queryMethodsNotSupportedTest() {
+    assertThatThrownBy(() -> this.factory.getRepository(QueryMethodRepository.class))
+        .isInstanceOf(IllegalStateException.class);
+  }
+
+  @Test
+  void getEntityInformationTest() {
+    assertThat(this.factory.getEntityInformation(TestEntity.class).getJavaType())
+        .isEqualTo(TestEntity.class);
+  }
+
+  interface TestRepository extends ReactiveDatastoreRepository<TestEntity, String> {}
+
+  interface QueryMethodRepository extends ReactiveDatastoreRepository<TestEntity, String> {
+    Flux<TestEntity> findByValue(String value);
+  }
+
+  @Entity
+  private static class TestEntity {
+    @Id String id;
+
+    String value;
+  }
+}
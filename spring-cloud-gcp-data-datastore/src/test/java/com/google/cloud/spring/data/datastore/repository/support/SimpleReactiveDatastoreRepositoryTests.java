@@ -0,0 +1,107 @@
+/*
+ * Copyright 2022-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.cloud.spring.data.datastore.repository.support;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.google.cloud.spring.data.datastore.core.AsyncDatastoreOperations;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+/** Tests for the reactive Datastore repository implementation. */
+class SimpleReactiveDatastoreRepositoryTests {
+
+  private final AsyncDatastoreOperations datastoreOperations =
+      mock(AsyncDatastoreOperations.class);
+
+  private final SimpleReactiveDatastoreRepository<String, Long> repository =
+      new SimpleReactiveDatastoreRepository<>(this.datastoreOperations, String.class);
+
+  @Test
+  void findByIdIsLazyTest() {
+    when(this.datastoreOperations.findById(1L, String.class))
+        .thenReturn(CompletableFuture.completedFuture("a"));
+
+    Mono<String> result = this.repository.findById(1L);
+    verify(this.datastoreOperations, never()).findById(any(), any());
+
+    StepVerifier.create(result).expectNext("a").verifyComplete();
+  }
+
+  @Test
+  void findByIdNotFoundTest() {
+    when(this.datastoreOperations.findById(1L, String.class))
+        .thenReturn(CompletableFuture.completedFuture(null));
+
+    StepVerifier.create(this.repository.findById(Mono.just(1L))).verifyComplete();
+  }
+
+  @Test
+  void findAllTest() {
+    when(this.datastoreOperations.findAll(String.class))
+        .thenReturn(CompletableFuture.completedFuture(Arrays.asList("a", "b")));
+
+    StepVerifier.create(this.repository.findAll()).expectNext("a", "b").verifyComplete();
+  }
+
+  @Test
+  void saveAllPublisherIsBatchedTest() {
+    List<String> entities =
+        IntStream.range(0, 501).mapToObj(Integer::toString).collect(Collectors.toList());
+    when(this.datastoreOperations.saveAll(any()))
+        .thenAnswer(
+            invocation ->
+                CompletableFuture.completedFuture(invocation.<List<String>>getArgument(0)));
+
+    StepVerifier.create(this.repository.saveAll(Flux.fromIterable(entities)))
+        .expectNextSequence(entities)
+        .verifyComplete();
+    verify(this.datastoreOperations, times(2)).saveAll(any());
+  }
+
+  @Test
+  void deleteAllTest() {
+    when(this.datastoreOperations.deleteAll(String.class))
+        .thenReturn(CompletableFuture.completedFuture(2L));
+
+    StepVerifier.create(this.repository.deleteAll()).verifyComplete();
+    verify(this.datastoreOperations).deleteAll(String.class);
+  }
+
+  @Test
+  void deleteFailureTest() {
+    CompletableFuture<Void> failed = new CompletableFuture<>();
+    failed.completeExceptionally(new IllegalStateException("failed"));
+    when(this.datastoreOperations.deleteAll(Collections.singletonList("a"))).thenReturn(failed);
+
+    StepVerifier.create(this.repository.deleteAll(Collections.singletonList("a")))
+        .verifyError(IllegalStateException.class);
+  }
+}
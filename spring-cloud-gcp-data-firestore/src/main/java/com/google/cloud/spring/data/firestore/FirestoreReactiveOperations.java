@@ -18,6 +18,7 @@ package com.google.cloud.spring.data.firestore;
 
 import com.google.cloud.spring.data.firestore.mapping.FirestorePersistentEntity;
 import com.google.firestore.v1.StructuredQuery;
+import java.util.Collection;
 import org.reactivestreams.Publisher;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
@@ -97,6 +98,20 @@ public interface FirestoreReactiveOperations {
    */
   <T> Flux<T> findAllById(Publisher<String> idPublisher, Class<T> entityClass);
 
+  /**
+   * Get entities of the given domain type by id, reading only the fields of the given properties.
+   * The other properties of the returned entities are not set.
+   *
+   * @param <T> the type param of the domain type.
+   * @param idPublisher publisher that provides ids.
+   * @param entityClass the domain type of the entity.
+   * @param propertyNames the names of the properties to read.
+   * @return {@link Flux} emitting the found entities.
+   * @since 3.3.0
+   */
+  <T> Flux<T> findAllById(
+      Publisher<String> idPublisher, Class<T> entityClass, Collection<String> propertyNames);
+
   /**
    * Count entities of the given domain. Note that Firestore doesn't support "count" operation
    * natively, so id query will be executed and all ids will be retrieved so they could be counted.
@@ -149,6 +164,45 @@ public interface FirestoreReactiveOperations {
    */
   <T> Flux<T> execute(StructuredQuery.Builder builder, Class<T> entityClass);
 
+  /**
+   * Executes a query represented as query builder and returns results of the given domain type,
+   * reading only the fields of the given properties. The other properties of the returned entities
+   * are not set.
+   *
+   * @param <T> the type param of the domain type.
+   * @param builder the query builder; a selection set on it is replaced.
+   * @param entityClass the domain type of entities.
+   * @param propertyNames the names of the properties to read.
+   * @return {@link Flux} emitting the found entities.
+   * @since 3.3.0
+   */
+  <T> Flux<T> execute(
+      StructuredQuery.Builder builder, Class<T> entityClass, Collection<String> propertyNames);
+
+  /**
+   * Executes a query represented as query builder over partitions of the entity's collection,
+   * which are queried concurrently. The collection is split into at most {@code partitionCount}
+   * ranges of documents using the Firestore PartitionQuery API, and the results of all partitions
+   * are merged in no particular order. The query builder may contain filters and a selection, but
+   * no limit, offset, cursors or orders other than by ascending document name. Since Firestore
+   * only partitions queries at the root of the database, a template returned by {@code
+   * withParent} only uses the split points under its parent and may query fewer partitions.
+   *
+   * @param <T> the type param of the domain type.
+   * @param builder the query builder, or {@code null} to get all the entities.
+   * @param entityClass the domain type of entities.
+   * @param partitionCount the maximum number of partitions to query.
+   * @param collectionGroup whether to query all the collections with the entity's collection name
+   *     under the parent, at any depth, instead of only the collection directly under it.
+   * @return {@link Flux} emitting the found entities.
+   * @since 3.3.0
+   */
+  <T> Flux<T> executePartitioned(
+      StructuredQuery.Builder builder,
+      Class<T> entityClass,
+      long partitionCount,
+      boolean collectionGroup);
+
   /**
    * Creates FirestoreReactiveOperations object with a specified parent document. The parent doesn't
    * have to exist in Firestore, but should have a non-empty id field. All operations and queries
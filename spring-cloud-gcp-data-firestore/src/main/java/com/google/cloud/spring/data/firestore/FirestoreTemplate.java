@@ -29,10 +29,13 @@ import com.google.cloud.spring.data.firestore.util.ObservableReactiveUtil;
 import com.google.cloud.spring.data.firestore.util.Util;
 import com.google.firestore.v1.CommitRequest;
 import com.google.firestore.v1.CommitResponse;
+import com.google.firestore.v1.Cursor;
 import com.google.firestore.v1.Document;
 import com.google.firestore.v1.DocumentMask;
 import com.google.firestore.v1.FirestoreGrpc.FirestoreStub;
 import com.google.firestore.v1.GetDocumentRequest;
+import com.google.firestore.v1.PartitionQueryRequest;
+import com.google.firestore.v1.PartitionQueryResponse;
 import com.google.firestore.v1.Precondition;
 import com.google.firestore.v1.RunQueryRequest;
 import com.google.firestore.v1.RunQueryResponse;
@@ -40,9 +43,15 @@ import com.google.firestore.v1.StructuredQuery;
 import com.google.firestore.v1.Write;
 import com.google.firestore.v1.Write.Builder;
 import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
 import java.util.function.Consumer;
 import java.util.function.Function;
 import org.reactivestreams.Publisher;
@@ -70,6 +79,12 @@ public class FirestoreTemplate implements FirestoreReactiveOperations {
           .addFields(StructuredQuery.FieldReference.newBuilder().setFieldPath(NAME_FIELD).build())
           .build();
 
+  private static final StructuredQuery.Order NAME_ORDER =
+      StructuredQuery.Order.newBuilder()
+          .setField(StructuredQuery.FieldReference.newBuilder().setFieldPath(NAME_FIELD).build())
+          .setDirection(StructuredQuery.Direction.ASCENDING)
+          .build();
+
   private static final DocumentMask NAME_ONLY_MASK =
       DocumentMask.newBuilder().addFieldPaths(NAME_FIELD).build();
 
@@ -87,6 +102,10 @@ public class FirestoreTemplate implements FirestoreReactiveOperations {
 
   private int writeBufferSize = FIRESTORE_WRITE_MAX_SIZE;
 
+  private int partitionParallelism = 4;
+
+  private int partitionPrefetch = 32;
+
   /**
    * Constructor for FirestoreTemplate.
    *
@@ -141,6 +160,39 @@ public class FirestoreTemplate implements FirestoreReactiveOperations {
     return this.writeBufferSize;
   }
 
+  /**
+   * Sets how many partitions of a {@link #executePartitioned partitioned query} are queried
+   * concurrently.
+   *
+   * @param partitionParallelism the maximum number of concurrent partition queries (default = 4)
+   * @since 3.3.0
+   */
+  public void setPartitionParallelism(int partitionParallelism) {
+    Assert.isTrue(partitionParallelism > 0, "The partition parallelism must be positive.");
+    this.partitionParallelism = partitionParallelism;
+  }
+
+  public int getPartitionParallelism() {
+    return this.partitionParallelism;
+  }
+
+  /**
+   * Sets how many documents are requested ahead from each partition of a {@link
+   * #executePartitioned partitioned query} that is being queried. This bounds the number of
+   * documents buffered in memory when the subscriber is slower than Firestore.
+   *
+   * @param partitionPrefetch the number of documents requested ahead per partition (default = 32)
+   * @since 3.3.0
+   */
+  public void setPartitionPrefetch(int partitionPrefetch) {
+    Assert.isTrue(partitionPrefetch > 0, "The partition prefetch must be positive.");
+    this.partitionPrefetch = partitionPrefetch;
+  }
+
+  public int getPartitionPrefetch() {
+    return this.partitionPrefetch;
+  }
+
   @Override
   public <T> Mono<Boolean> existsById(Publisher<String> idPublisher, Class<T> entityClass) {
     return Flux.from(idPublisher)
@@ -160,8 +212,26 @@ public class FirestoreTemplate implements FirestoreReactiveOperations {
 
   @Override
   public <T> Flux<T> findAllById(Publisher<String> idPublisher, Class<T> entityClass) {
+    return findAllById(idPublisher, entityClass, (DocumentMask) null);
+  }
+
+  @Override
+  public <T> Flux<T> findAllById(
+      Publisher<String> idPublisher, Class<T> entityClass, Collection<String> propertyNames) {
+    return Flux.defer(
+        () ->
+            findAllById(
+                idPublisher,
+                entityClass,
+                DocumentMask.newBuilder()
+                    .addAllFieldPaths(getFieldNames(entityClass, propertyNames))
+                    .build()));
+  }
+
+  private <T> Flux<T> findAllById(
+      Publisher<String> idPublisher, Class<T> entityClass, DocumentMask documentMask) {
     return Flux.from(idPublisher)
-        .flatMap(id -> getDocument(id, entityClass, null))
+        .flatMap(id -> getDocument(id, entityClass, documentMask))
         .onErrorMap(
             throwable -> new FirestoreDataException("Error while reading entries by id", throwable))
         .map(document -> getClassMapper().documentToEntity(document, entityClass));
@@ -269,6 +339,64 @@ public class FirestoreTemplate implements FirestoreReactiveOperations {
                 .map(document -> getClassMapper().documentToEntity(document, entityType)));
   }
 
+  @Override
+  public <T> Flux<T> execute(
+      StructuredQuery.Builder builder, Class<T> entityClass, Collection<String> propertyNames) {
+    return Flux.defer(
+        () -> {
+          StructuredQuery.Projection.Builder projection = StructuredQuery.Projection.newBuilder();
+          getFieldNames(entityClass, propertyNames)
+              .forEach(
+                  fieldName ->
+                      projection.addFields(
+                          StructuredQuery.FieldReference.newBuilder().setFieldPath(fieldName)));
+          return findAllDocuments(entityClass, projection.build(), builder)
+              .map(document -> getClassMapper().documentToEntity(document, entityClass));
+        });
+  }
+
+  @Override
+  public <T> Flux<T> executePartitioned(
+      StructuredQuery.Builder builder,
+      Class<T> entityClass,
+      long partitionCount,
+      boolean collectionGroup) {
+    Assert.isTrue(partitionCount > 0, "The partition count must be positive.");
+    return Flux.defer(
+        () -> {
+          FirestorePersistentEntity<?> persistentEntity =
+              this.mappingContext.getPersistentEntity(entityClass);
+          StructuredQuery.Builder queryBuilder =
+              builder != null ? builder.clone() : StructuredQuery.newBuilder();
+          checkPartitionable(queryBuilder);
+
+          // partitions are only supported for collection group queries ordered by document name
+          queryBuilder
+              .clearFrom()
+              .addFrom(
+                  StructuredQuery.CollectionSelector.newBuilder()
+                      .setCollectionId(persistentEntity.collectionName())
+                      .setAllDescendants(true)
+                      .build())
+              .clearOrderBy()
+              .addOrderBy(NAME_ORDER);
+          StructuredQuery partitionedQuery =
+              StructuredQuery.newBuilder()
+                  .addFrom(queryBuilder.getFrom(0))
+                  .addOrderBy(NAME_ORDER)
+                  .build();
+          String collectionPrefix = buildResourceName(persistentEntity, "");
+
+          return findPartitionCursors(partitionedQuery, partitionCount)
+              .flatMapIterable(cursors -> buildPartitionQueries(queryBuilder, cursors))
+              .flatMap(this::runQuery, this.partitionParallelism, this.partitionPrefetch)
+              .filter(
+                  document ->
+                      collectionGroup || isInCollection(document.getName(), collectionPrefix))
+              .map(document -> getClassMapper().documentToEntity(document, entityClass));
+        });
+  }
+
   @Override
   public FirestoreReactiveOperations withParent(String id, Class<?> entityClass) {
     return withParent(buildResourceName(id, entityClass));
@@ -290,6 +418,8 @@ public class FirestoreTemplate implements FirestoreReactiveOperations {
             this.firestoreStub, resourceName, this.classMapper, this.mappingContext);
     firestoreTemplate.setWriteBufferSize(this.writeBufferSize);
     firestoreTemplate.setWriteBufferTimeout(this.writeBufferTimeout);
+    firestoreTemplate.setPartitionParallelism(this.partitionParallelism);
+    firestoreTemplate.setPartitionPrefetch(this.partitionPrefetch);
 
     return firestoreTemplate;
   }
@@ -354,25 +484,30 @@ public class FirestoreTemplate implements FirestoreReactiveOperations {
 
   private <T> Flux<Document> findAllDocuments(
       Class<T> clazz, StructuredQuery.Projection projection, StructuredQuery.Builder queryBuilder) {
+    return Flux.defer(
+        () -> {
+          FirestorePersistentEntity<?> persistentEntity =
+              this.mappingContext.getPersistentEntity(clazz);
+
+          StructuredQuery.Builder builder =
+              queryBuilder != null ? queryBuilder.clone() : StructuredQuery.newBuilder();
+          builder.addFrom(
+              StructuredQuery.CollectionSelector.newBuilder()
+                  .setCollectionId(persistentEntity.collectionName())
+                  .build());
+          if (projection != null) {
+            builder.setSelect(projection);
+          }
+          return runQuery(builder.build());
+        });
+  }
+
+  private Flux<Document> runQuery(StructuredQuery query) {
     return Mono.subscriberContext()
         .flatMapMany(
             ctx -> {
-              FirestorePersistentEntity<?> persistentEntity =
-                  this.mappingContext.getPersistentEntity(clazz);
-
-              StructuredQuery.Builder builder =
-                  queryBuilder != null ? queryBuilder.clone() : StructuredQuery.newBuilder();
-              builder.addFrom(
-                  StructuredQuery.CollectionSelector.newBuilder()
-                      .setCollectionId(persistentEntity.collectionName())
-                      .build());
-              if (projection != null) {
-                builder.setSelect(projection);
-              }
               RunQueryRequest.Builder requestBuilder =
-                  RunQueryRequest.newBuilder()
-                      .setParent(this.parent)
-                      .setStructuredQuery(builder.build());
+                  RunQueryRequest.newBuilder().setParent(this.parent).setStructuredQuery(query);
 
               doIfTransaction(
                   ctx,
@@ -386,6 +521,119 @@ public class FirestoreTemplate implements FirestoreReactiveOperations {
             });
   }
 
+  private List<String> getFieldNames(Class<?> entityClass, Collection<String> propertyNames) {
+    FirestorePersistentEntity<?> persistentEntity =
+        this.mappingContext.getPersistentEntity(entityClass);
+    Set<String> fieldNames = new LinkedHashSet<>();
+    for (String propertyName : propertyNames) {
+      FirestorePersistentProperty property = persistentEntity.getPersistentProperty(propertyName);
+      Assert.notNull(
+          property,
+          "Property '"
+              + propertyName
+              + "' must exist in entity '"
+              + persistentEntity.getName()
+              + "'.");
+      fieldNames.add(property.getFieldName());
+    }
+    if (fieldNames.isEmpty()) {
+      // an empty selection would return whole documents
+      fieldNames.add(NAME_FIELD);
+    }
+    return new ArrayList<>(fieldNames);
+  }
+
+  private void checkPartitionable(StructuredQuery.Builder queryBuilder) {
+    Assert.isTrue(
+        !queryBuilder.hasLimit()
+            && queryBuilder.getOffset() == 0
+            && !queryBuilder.hasStartAt()
+            && !queryBuilder.hasEndAt(),
+        "A partitioned query cannot have a limit, an offset or cursors.");
+    for (StructuredQuery.Order order : queryBuilder.getOrderByList()) {
+      Assert.isTrue(
+          order.equals(NAME_ORDER),
+          "A partitioned query can only be ordered by ascending document name.");
+    }
+  }
+
+  private Mono<List<Cursor>> findPartitionCursors(StructuredQuery query, long partitionCount) {
+    if (partitionCount == 1) {
+      return Mono.just(Collections.emptyList());
+    }
+    // the partition count of the request is the number of split points between partitions
+    return partitionQuery(query, partitionCount - 1, "")
+        .expand(
+            response ->
+                response.getNextPageToken().isEmpty()
+                    ? Mono.empty()
+                    : partitionQuery(query, partitionCount - 1, response.getNextPageToken()))
+        .flatMapIterable(PartitionQueryResponse::getPartitionsList)
+        // the database is partitioned as a whole, so only the split points under the parent are used
+        .filter(cursor -> cursor.getValues(0).getReferenceValue().startsWith(this.parent + "/"))
+        // split points returned on different pages are not ordered relative to each other
+        .collectSortedList(
+            Comparator.comparing(
+                cursor -> cursor.getValues(0).getReferenceValue(),
+                FirestoreTemplate::compareDocumentNames));
+  }
+
+  private Mono<PartitionQueryResponse> partitionQuery(
+      StructuredQuery query, long splitPointCount, String pageToken) {
+    // partition queries are only supported at the root of the database
+    PartitionQueryRequest request =
+        PartitionQueryRequest.newBuilder()
+            .setParent(this.databasePath + "/documents")
+            .setStructuredQuery(query)
+            .setPartitionCount(splitPointCount)
+            .setPageToken(pageToken)
+            .build();
+    return ObservableReactiveUtil.unaryCall(
+        obs -> this.firestoreStub.partitionQuery(request, obs));
+  }
+
+  private static List<StructuredQuery> buildPartitionQueries(
+      StructuredQuery.Builder queryBuilder, List<Cursor> splitPoints) {
+    List<StructuredQuery> queries = new ArrayList<>(splitPoints.size() + 1);
+    Cursor start = null;
+    for (Cursor splitPoint : splitPoints) {
+      Cursor end = splitPoint.toBuilder().setBefore(true).build();
+      queries.add(buildPartitionQuery(queryBuilder, start, end));
+      start = end;
+    }
+    queries.add(buildPartitionQuery(queryBuilder, start, null));
+    return queries;
+  }
+
+  private static StructuredQuery buildPartitionQuery(
+      StructuredQuery.Builder queryBuilder, Cursor start, Cursor end) {
+    StructuredQuery.Builder builder = queryBuilder.clone();
+    if (start != null) {
+      builder.setStartAt(start);
+    }
+    if (end != null) {
+      builder.setEndAt(end);
+    }
+    return builder.build();
+  }
+
+  private static boolean isInCollection(String documentName, String collectionPrefix) {
+    return documentName.startsWith(collectionPrefix)
+        && documentName.indexOf('/', collectionPrefix.length()) < 0;
+  }
+
+  private static int compareDocumentNames(String name1, String name2) {
+    String[] segments1 = name1.split("/");
+    String[] segments2 = name2.split("/");
+    for (int i = 0; i < Math.min(segments1.length, segments2.length); i++) {
+      int result = segments1[i].compareTo(segments2[i]);
+      if (result != 0) {
+        return result;
+      }
+    }
+    return Integer.compare(segments1.length, segments2.length);
+  }
+
   private Mono<Document> getDocument(String id, Class clazz, DocumentMask documentMask) {
     return Mono.subscriberContext()
         .flatMap(
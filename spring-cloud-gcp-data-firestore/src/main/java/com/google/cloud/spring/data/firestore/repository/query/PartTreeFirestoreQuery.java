@@ -45,18 +45,23 @@ import java.util.List;
 import java.util.Map;
 import java.util.stream.Collectors;
 import java.util.stream.StreamSupport;
+import org.springframework.beans.BeanUtils;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.domain.Sort.Direction;
 import org.springframework.data.domain.Sort.Order;
+import org.springframework.data.mapping.PersistentPropertyAccessor;
 import org.springframework.data.mapping.PropertyPath;
+import org.springframework.data.mapping.model.PreferredConstructorDiscoverer;
 import org.springframework.data.repository.query.ParameterAccessor;
 import org.springframework.data.repository.query.ParametersParameterAccessor;
 import org.springframework.data.repository.query.QueryMethod;
 import org.springframework.data.repository.query.RepositoryQuery;
+import org.springframework.data.repository.query.ResultProcessor;
 import org.springframework.data.repository.query.ReturnedType;
 import org.springframework.data.repository.query.parser.Part;
 import org.springframework.data.repository.query.parser.PartTree;
+import reactor.core.publisher.Flux;
 
 /**
  * @since 1.2
@@ -165,9 +170,36 @@ public class PartTreeFirestoreQuery implements RepositoryQuery {
 
     if (this.tree.isCountProjection()) {
       return this.reactiveOperations.count(this.persistentEntity.getType(), builder);
-    } else {
-      return this.reactiveOperations.execute(builder, this.persistentEntity.getType());
     }
+
+    ResultProcessor resultProcessor = this.queryMethod.getResultProcessor();
+    ReturnedType returnedType = resultProcessor.getReturnedType();
+    if (returnedType.isProjecting() && !returnedType.getInputProperties().isEmpty()) {
+      // closed interface projections and DTOs only need the fields of their input properties
+      List<String> properties = returnedType.getInputProperties();
+      Flux<?> entities =
+          this.reactiveOperations.execute(builder, this.persistentEntity.getType(), properties);
+      Class<?> projectionType = returnedType.getReturnedType();
+      return projectionType.isInterface()
+          ? entities.map(resultProcessor::processResult)
+          : entities.map(entity -> createDto(entity, projectionType, properties));
+    }
+    return this.reactiveOperations.execute(builder, this.persistentEntity.getType());
+  }
+
+  /**
+   * Creates a DTO from an entity by passing the values of the given properties to the DTO's
+   * preferred constructor, whose parameters have the same names.
+   */
+  private Object createDto(Object entity, Class<?> dtoType, List<String> properties) {
+    PersistentPropertyAccessor<?> accessor = this.persistentEntity.getPropertyAccessor(entity);
+    Object[] arguments =
+        properties.stream()
+            .map(this.persistentEntity::getRequiredPersistentProperty)
+            .map(accessor::getProperty)
+            .toArray();
+    return BeanUtils.instantiateClass(
+        PreferredConstructorDiscoverer.discover(dtoType).getConstructor(), arguments);
   }
 
   /**
@@ -16,6 +16,7 @@
 
 package com.google.cloud.spring.data.firestore;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.doAnswer;
@@ -30,22 +31,29 @@ import com.google.cloud.spring.data.firestore.mapping.FirestoreMappingContext;
 import com.google.cloud.spring.data.firestore.mapping.UpdateTime;
 import com.google.firestore.v1.CommitRequest;
 import com.google.firestore.v1.CommitResponse;
+import com.google.firestore.v1.Cursor;
 import com.google.firestore.v1.Document.Builder;
 import com.google.firestore.v1.DocumentMask;
 import com.google.firestore.v1.FirestoreGrpc.FirestoreStub;
 import com.google.firestore.v1.GetDocumentRequest;
+import com.google.firestore.v1.PartitionQueryRequest;
+import com.google.firestore.v1.PartitionQueryResponse;
 import com.google.firestore.v1.Precondition;
 import com.google.firestore.v1.RunQueryRequest;
 import com.google.firestore.v1.RunQueryResponse;
 import com.google.firestore.v1.StructuredQuery;
 import com.google.firestore.v1.Value;
 import com.google.firestore.v1.Write;
+import com.google.protobuf.Int32Value;
 import io.grpc.stub.StreamObserver;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Objects;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 import reactor.test.StepVerifier;
@@ -454,6 +462,257 @@ public class FirestoreTemplateTests {
     verify(this.firestoreStub, times(1)).runQuery(any(), any());
   }
 
+  @Test
+  void findAllByIdWithPropertiesTest() {
+    doAnswer(
+            invocation -> {
+              StreamObserver<com.google.firestore.v1.Document> streamObserver =
+                  invocation.getArgument(1);
+              streamObserver.onNext(buildDocument("e1", 100L));
+              streamObserver.onCompleted();
+              return null;
+            })
+        .when(this.firestoreStub)
+        .getDocument(any(), any());
+
+    StepVerifier.create(
+            this.firestoreTemplate.findAllById(
+                Flux.just("e1"), TestEntity.class, Arrays.asList("idField", "longField")))
+        .expectNext(new TestEntity("e1", 100L))
+        .verifyComplete();
+
+    GetDocumentRequest request =
+        GetDocumentRequest.newBuilder()
+            .setName(this.parent + "/testEntities/e1")
+            .setMask(
+                DocumentMask.newBuilder().addFieldPaths("__name__").addFieldPaths("longField"))
+            .build();
+    verify(this.firestoreStub, times(1)).getDocument(eq(request), any());
+  }
+
+  @Test
+  void executeWithPropertiesTest() {
+    mockRunQueryMethod();
+
+    StructuredQuery.Builder builder = StructuredQuery.newBuilder();
+    addWhere(builder);
+
+    StepVerifier.create(
+            this.firestoreTemplate.execute(
+                builder, TestEntity.class, Collections.singletonList("longField")))
+        .expectNext(new TestEntity("e1", 100L), new TestEntity("e2", 200L))
+        .verifyComplete();
+
+    StructuredQuery.Builder expectedBuilder =
+        StructuredQuery.newBuilder()
+            .addFrom(
+                StructuredQuery.CollectionSelector.newBuilder()
+                    .setCollectionId("testEntities")
+                    .build())
+            .setSelect(
+                StructuredQuery.Projection.newBuilder()
+                    .addFields(
+                        StructuredQuery.FieldReference.newBuilder()
+                            .setFieldPath("longField")
+                            .build())
+                    .build());
+    addWhere(expectedBuilder);
+
+    RunQueryRequest request =
+        RunQueryRequest.newBuilder()
+            .setParent(this.parent)
+            .setStructuredQuery(expectedBuilder)
+            .build();
+    verify(this.firestoreStub, times(1)).runQuery(eq(request), any());
+  }
+
+  @Test
+  void executeWithUnknownPropertyTest() {
+    StepVerifier.create(
+            this.firestoreTemplate.execute(
+                null, TestEntity.class, Collections.singletonList("unknown")))
+        .expectError(IllegalArgumentException.class)
+        .verify();
+  }
+
+  @Test
+  void executePartitionedTest() {
+    Cursor e2 = nameCursor("e2").toBuilder().setBefore(true).build();
+    Cursor e3 = nameCursor("e3").toBuilder().setBefore(true).build();
+
+    // split points on different pages are not ordered relative to each other
+    doAnswer(
+            invocation -> {
+              PartitionQueryRequest request = invocation.getArgument(0);
+              StreamObserver<PartitionQueryResponse> streamObserver = invocation.getArgument(1);
+              PartitionQueryResponse.Builder response = PartitionQueryResponse.newBuilder();
+              if (request.getPageToken().isEmpty()) {
+                response.addPartitions(nameCursor("e3")).setNextPageToken("page2");
+              } else {
+                response.addPartitions(nameCursor("e2"));
+              }
+              streamObserver.onNext(response.build());
+              streamObserver.onCompleted();
+              return null;
+            })
+        .when(this.firestoreStub)
+        .partitionQuery(any(), any());
+
+    doAnswer(
+            invocation -> {
+              RunQueryRequest request = invocation.getArgument(0);
+              StreamObserver<RunQueryResponse> streamObserver = invocation.getArgument(1);
+              StructuredQuery query = request.getStructuredQuery();
+              if (!query.hasStartAt()) {
+                streamObserver.onNext(
+                    RunQueryResponse.newBuilder().setDocument(buildDocument("e1", 100L)).build());
+              } else if (query.getStartAt().equals(e2)) {
+                streamObserver.onNext(
+                    RunQueryResponse.newBuilder().setDocument(buildDocument("e2", 200L)).build());
+                // a document of a nested collection with the same name
+                streamObserver.onNext(
+                    RunQueryResponse.newBuilder()
+                        .setDocument(buildDocument("e2/testEntities/n1", 250L))
+                        .build());
+              } else {
+                streamObserver.onNext(
+                    RunQueryResponse.newBuilder().setDocument(buildDocument("e3", 300L)).build());
+              }
+              streamObserver.onCompleted();
+              return null;
+            })
+        .when(this.firestoreStub)
+        .runQuery(any(), any());
+
+    StepVerifier.create(
+            this.firestoreTemplate
+                .executePartitioned(null, TestEntity.class, 3, false)
+                .collectList())
+        .assertNext(
+            entities ->
+                assertThat(entities)
+                    .containsExactlyInAnyOrder(
+                        new TestEntity("e1", 100L),
+                        new TestEntity("e2", 200L),
+                        new TestEntity("e3", 300L)))
+        .verifyComplete();
+
+    StructuredQuery.Builder expectedQuery =
+        StructuredQuery.newBuilder()
+            .addFrom(
+                StructuredQuery.CollectionSelector.newBuilder()
+                    .setCollectionId("testEntities")
+                    .setAllDescendants(true)
+                    .build())
+            .addOrderBy(
+                StructuredQuery.Order.newBuilder()
+                    .setField(
+                        StructuredQuery.FieldReference.newBuilder().setFieldPath("__name__"))
+                    .setDirection(StructuredQuery.Direction.ASCENDING));
+    verify(this.firestoreStub, times(1))
+        .partitionQuery(
+            eq(
+                PartitionQueryRequest.newBuilder()
+                    .setParent(this.parent)
+                    .setStructuredQuery(expectedQuery)
+                    .setPartitionCount(2)
+                    .build()),
+            any());
+    verify(this.firestoreStub, times(1))
+        .runQuery(eq(partitionRequest(expectedQuery.clone().setEndAt(e2))), any());
+    verify(this.firestoreStub, times(1))
+        .runQuery(eq(partitionRequest(expectedQuery.clone().setStartAt(e2).setEndAt(e3))), any());
+    verify(this.firestoreStub, times(1))
+        .runQuery(eq(partitionRequest(expectedQuery.clone().setStartAt(e3))), any());
+    verify(this.firestoreStub, times(3)).runQuery(any(), any());
+  }
+
+  @Test
+  void executePartitionedWithParentTest() {
+    String childParent = this.parent + "/testEntities/p";
+    Cursor c2 =
+        Cursor.newBuilder()
+            .addValues(
+                Value.newBuilder().setReferenceValue(childParent + "/testEntities/c2"))
+            .build();
+
+    // the whole database is partitioned, so split points outside the parent are returned too
+    doAnswer(
+            invocation -> {
+              StreamObserver<PartitionQueryResponse> streamObserver = invocation.getArgument(1);
+              streamObserver.onNext(
+                  PartitionQueryResponse.newBuilder()
+                      .addPartitions(nameCursor("a"))
+                      .addPartitions(c2)
+                      .addPartitions(nameCursor("z"))
+                      .build());
+              streamObserver.onCompleted();
+              return null;
+            })
+        .when(this.firestoreStub)
+        .partitionQuery(any(), any());
+
+    doAnswer(
+            invocation -> {
+              RunQueryRequest request = invocation.getArgument(0);
+              StreamObserver<RunQueryResponse> streamObserver = invocation.getArgument(1);
+              String id = request.getStructuredQuery().hasStartAt() ? "c2" : "c1";
+              streamObserver.onNext(
+                  RunQueryResponse.newBuilder()
+                      .setDocument(buildDocument("p/testEntities/" + id, 100L))
+                      .build());
+              streamObserver.onCompleted();
+              return null;
+            })
+        .when(this.firestoreStub)
+        .runQuery(any(), any());
+
+    StepVerifier.create(
+            this.firestoreTemplate
+                .withParent("p", TestEntity.class)
+                .executePartitioned(null, TestEntity.class, 4, false)
+                .collectList())
+        .assertNext(
+            entities ->
+                assertThat(entities)
+                    .containsExactlyInAnyOrder(
+                        new TestEntity("c1", 100L), new TestEntity("c2", 100L)))
+        .verifyComplete();
+
+    ArgumentCaptor<PartitionQueryRequest> partitionRequest =
+        ArgumentCaptor.forClass(PartitionQueryRequest.class);
+    verify(this.firestoreStub, times(1)).partitionQuery(partitionRequest.capture(), any());
+    assertThat(partitionRequest.getValue().getParent()).isEqualTo(this.parent);
+    ArgumentCaptor<RunQueryRequest> runQueryRequests =
+        ArgumentCaptor.forClass(RunQueryRequest.class);
+    verify(this.firestoreStub, times(2)).runQuery(runQueryRequests.capture(), any());
+    assertThat(runQueryRequests.getAllValues())
+        .allMatch(request -> request.getParent().equals(childParent));
+    assertThat(runQueryRequests.getAllValues())
+        .extracting(request -> request.getStructuredQuery().getEndAt())
+        .contains(c2.toBuilder().setBefore(true).build());
+  }
+
+  @Test
+  void executePartitionedWithLimitTest() {
+    StructuredQuery.Builder builder = StructuredQuery.newBuilder().setLimit(Int32Value.of(10));
+
+    StepVerifier.create(
+            this.firestoreTemplate.executePartitioned(builder, TestEntity.class, 3, false))
+        .expectError(IllegalArgumentException.class)
+        .verify();
+  }
+
+  private static Cursor nameCursor(String id) {
+    return Cursor.newBuilder()
+        .addValues(Value.newBuilder().setReferenceValue(parent + "/testEntities/" + id))
+        .build();
+  }
+
+  private static RunQueryRequest partitionRequest(StructuredQuery.Builder query) {
+    return RunQueryRequest.newBuilder().setParent(parent).setStructuredQuery(query).build();
+  }
+
   private void addWhere(StructuredQuery.Builder builder) {
     StructuredQuery.CompositeFilter.Builder compositeFilter =
         StructuredQuery.CompositeFilter.newBuilder();
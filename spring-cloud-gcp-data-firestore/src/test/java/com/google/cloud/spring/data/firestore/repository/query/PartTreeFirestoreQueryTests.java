@@ -19,7 +19,10 @@ package com.google.cloud.spring.data.firestore.repository.query;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import com.google.cloud.firestore.FieldPath;
@@ -31,6 +34,8 @@ import com.google.cloud.spring.data.firestore.mapping.FirestoreDefaultClassMappe
 import com.google.cloud.spring.data.firestore.mapping.FirestoreMappingContext;
 import com.google.firestore.v1.StructuredQuery;
 import com.google.firestore.v1.Value;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.function.Consumer;
 import org.junit.jupiter.api.Test;
 import org.mockito.invocation.InvocationOnMock;
@@ -39,6 +44,7 @@ import org.springframework.data.repository.query.ResultProcessor;
 import org.springframework.data.repository.query.ReturnedType;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
 
 class PartTreeFirestoreQueryTests {
   private FirestoreClassMapper classMapper =
@@ -227,6 +233,45 @@ class PartTreeFirestoreQueryTests {
     return createPartTreeQuery(methodName, NOOP);
   }
 
+  @Test
+  void testPartTreeQuery_interfaceProjection() {
+    PartTreeFirestoreQuery partTreeFirestoreQuery = setUpPartTreeFirestoreQuery("findByAge");
+    ResultProcessor resultProcessor = this.queryMethod.getResultProcessor();
+    ReturnedType returnedType = resultProcessor.getReturnedType();
+    when(returnedType.isProjecting()).thenReturn(true);
+    when(returnedType.getReturnedType()).thenAnswer(invocation -> UserAge.class);
+    when(returnedType.getInputProperties()).thenReturn(Collections.singletonList("age"));
+    UserAge projection = () -> 23;
+    when(resultProcessor.processResult(TEST_USER)).thenReturn(projection);
+    when(this.firestoreTemplate.execute(
+            any(), eq(User.class), eq(Collections.singletonList("age"))))
+        .thenReturn(Flux.just(TEST_USER));
+
+    StepVerifier.create((Flux<Object>) partTreeFirestoreQuery.execute(new Object[] {23}))
+        .expectNext(projection)
+        .verifyComplete();
+    verify(this.firestoreTemplate, never()).execute(any(), any());
+  }
+
+  @Test
+  void testPartTreeQuery_dtoProjection() {
+    PartTreeFirestoreQuery partTreeFirestoreQuery = setUpPartTreeFirestoreQuery("findByAge");
+    ReturnedType returnedType = this.queryMethod.getResultProcessor().getReturnedType();
+    when(returnedType.isProjecting()).thenReturn(true);
+    when(returnedType.getReturnedType()).thenAnswer(invocation -> UserDto.class);
+    when(returnedType.getInputProperties()).thenReturn(Arrays.asList("name", "age"));
+    when(this.firestoreTemplate.execute(any(), eq(User.class), eq(Arrays.asList("name", "age"))))
+        .thenReturn(Flux.just(TEST_USER));
+
+    StepVerifier.create((Flux<Object>) partTreeFirestoreQuery.execute(new Object[] {23}))
+        .assertNext(
+            dto -> {
+              assertThat(((UserDto) dto).name).isEqualTo("Hello");
+              assertThat(((UserDto) dto).age).isEqualTo(23);
+            })
+        .verifyComplete();
+  }
+
   private PartTreeFirestoreQuery createPartTreeQuery(
       String methodName, Consumer<InvocationOnMock> validator) {
     when(this.firestoreTemplate.execute(any(), any()))
@@ -254,4 +299,19 @@ class PartTreeFirestoreQueryTests {
     return new PartTreeFirestoreQuery(
         this.queryMethod, this.firestoreTemplate, new FirestoreMappingContext(), this.classMapper);
   }
+
+  interface UserAge {
+    Integer getAge();
+  }
+
+  static class UserDto {
+    final String name;
+
+    final Integer age;
+
+    UserDto(String name, Integer age) {
+      this.name = name;
+      this.age = age;
+    }
+  }
 }
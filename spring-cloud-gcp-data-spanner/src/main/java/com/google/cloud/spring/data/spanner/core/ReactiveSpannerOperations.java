@@ -0,0 +1,199 @@
+/*
+ * Copyright 2022-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.cloud.spring.data.spanner.core;
+
+import com.google.cloud.Timestamp;
+import com.google.cloud.spanner.AsyncRunner.AsyncWork;
+import com.google.cloud.spanner.Key;
+import com.google.cloud.spanner.KeySet;
+import com.google.cloud.spanner.Statement;
+import com.google.cloud.spanner.Struct;
+import java.util.function.Function;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Defines non-blocking operations available to use with Spanner. Nothing is sent to Cloud Spanner
+ * until the returned publishers are subscribed to.
+ *
+ * @since 3.3.0
+ */
+public interface ReactiveSpannerOperations {
+
+  /**
+   * Finds objects by running an SQL statement.
+   *
+   * @param entityClass the type of object to retrieve.
+   * @param statement the SQL statement used to select the objects.
+   * @param options the Cloud Spanner query options with which to run this query.
+   * @param <T> the type of object to retrieve.
+   * @return a {@link Flux} emitting the objects found.
+   */
+  <T> Flux<T> query(Class<T> entityClass, Statement statement, SpannerQueryOptions options);
+
+  /**
+   * Runs an SQL statement and maps every row with the given function.
+   *
+   * @param rowFunc the function to apply to each row.
+   * @param statement the SQL statement.
+   * @param options the Cloud Spanner query options with which to run this query.
+   * @param <A> the type of the mapped rows.
+   * @return a {@link Flux} emitting the mapped rows.
+   */
+  <A> Flux<A> query(Function<Struct, A> rowFunc, Statement statement, SpannerQueryOptions options);
+
+  /**
+   * Finds all objects of the given type.
+   *
+   * @param entityClass the type of the object to retrieve.
+   * @param <T> the type of the object to retrieve.
+   * @return a {@link Flux} emitting all objects of the given type.
+   */
+  <T> Flux<T> readAll(Class<T> entityClass);
+
+  /**
+   * Finds objects stored from their keys.
+   *
+   * @param entityClass the type of the object to retrieve.
+   * @param keys the keys of the objects to retrieve.
+   * @param options the Cloud Spanner read options with which to conduct the read operation.
+   * @param <T> the type of the object to retrieve.
+   * @return a {@link Flux} emitting the objects found.
+   */
+  <T> Flux<T> read(Class<T> entityClass, KeySet keys, SpannerReadOptions options);
+
+  /**
+   * Finds a single stored object using a key.
+   *
+   * @param entityClass the type of the object to retrieve.
+   * @param key the key of the object.
+   * @param <T> the type of the object to retrieve.
+   * @return a {@link Mono} emitting the object, or empty if it was not found.
+   */
+  <T> Mono<T> read(Class<T> entityClass, Key key);
+
+  /**
+   * Tests whether an object of the given type with the given key exists.
+   *
+   * @param entityClass the type of the object.
+   * @param key the key of the object.
+   * @param <T> the type of the object.
+   * @return a {@link Mono} emitting {@code true} if the object exists.
+   */
+  <T> Mono<Boolean> existsById(Class<T> entityClass, Key key);
+
+  /**
+   * Counts the number of rows in the table of the given type.
+   *
+   * @param entityClass the type of the objects to count.
+   * @param <T> the type of the objects to count.
+   * @return a {@link Mono} emitting the number of rows.
+   */
+  <T> Mono<Long> count(Class<T> entityClass);
+
+  /**
+   * Runs a DML statement in a read-write transaction.
+   *
+   * @param statement the DML statement.
+   * @return a {@link Mono} emitting the number of rows affected.
+   */
+  Mono<Long> executeDmlStatement(Statement statement);
+
+  /**
+   * Inserts an object into the table for its type.
+   *
+   * @param object the object to insert.
+   * @return a {@link Mono} emitting the commit timestamp.
+   */
+  Mono<Timestamp> insert(Object object);
+
+  /**
+   * Inserts objects into the tables for their types in one transaction.
+   *
+   * @param objects the objects to insert.
+   * @return a {@link Mono} emitting the commit timestamp.
+   */
+  Mono<Timestamp> insertAll(Iterable<?> objects);
+
+  /**
+   * Updates an object in the table for its type.
+   *
+   * @param object the object to update.
+   * @return a {@link Mono} emitting the commit timestamp.
+   */
+  Mono<Timestamp> update(Object object);
+
+  /**
+   * Updates objects in the tables for their types in one transaction.
+   *
+   * @param objects the objects to update.
+   * @return a {@link Mono} emitting the commit timestamp.
+   */
+  Mono<Timestamp> updateAll(Iterable<?> objects);
+
+  /**
+   * Inserts or updates an object in the table for its type.
+   *
+   * @param object the object to upsert.
+   * @return a {@link Mono} emitting the commit timestamp.
+   */
+  Mono<Timestamp> upsert(Object object);
+
+  /**
+   * Inserts or updates objects in the tables for their types in one transaction.
+   *
+   * @param objects the objects to upsert.
+   * @return a {@link Mono} emitting the commit timestamp.
+   */
+  Mono<Timestamp> upsertAll(Iterable<?> objects);
+
+  /**
+   * Deletes an object from the table for its type.
+   *
+   * @param entity the object to delete.
+   * @return a {@link Mono} emitting the commit timestamp.
+   */
+  Mono<Timestamp> delete(Object entity);
+
+  /**
+   * Deletes objects from the tables for their types in one transaction.
+   *
+   * @param entities the objects to delete.
+   * @return a {@link Mono} emitting the commit timestamp.
+   */
+  Mono<Timestamp> deleteAll(Iterable<?> entities);
+
+  /**
+   * Deletes the objects with the given keys.
+   *
+   * @param entityClass the type of the objects to delete.
+   * @param keys the keys of the objects to delete.
+   * @return a {@link Mono} emitting the commit timestamp.
+   */
+  Mono<Timestamp> delete(Class<?> entityClass, KeySet keys);
+
+  /**
+   * Runs the given work in a read-write transaction, which is retried as a whole if Cloud Spanner
+   * aborts it. The work must not block; it should use the asynchronous methods of the transaction
+   * context and return a future of its result.
+   *
+   * @param work the work to perform in the transaction.
+   * @param <T> the type of the result of the work.
+   * @return a {@link Mono} emitting the result of the work once the transaction is committed.
+   */
+  <T> Mono<T> performReadWriteTransaction(AsyncWork<T> work);
+}
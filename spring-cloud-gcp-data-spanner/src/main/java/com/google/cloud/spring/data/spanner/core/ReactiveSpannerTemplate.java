@@ -0,0 +1,542 @@
+/*
+ * Copyright 2022-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.cloud.spring.data.spanner.core;
+
+import com.google.api.core.ApiFuture;
+import com.google.api.core.ApiFutureCallback;
+import com.google.api.core.ApiFutures;
+import com.google.cloud.Timestamp;
+import com.google.cloud.spanner.AsyncResultSet;
+import com.google.cloud.spanner.AsyncResultSet.CallbackResponse;
+import com.google.cloud.spanner.AsyncResultSet.ReadyCallback;
+import com.google.cloud.spanner.AsyncRunner;
+import com.google.cloud.spanner.AsyncRunner.AsyncWork;
+import com.google.cloud.spanner.DatabaseClient;
+import com.google.cloud.spanner.Key;
+import com.google.cloud.spanner.KeySet;
+import com.google.cloud.spanner.Mutation;
+import com.google.cloud.spanner.ReadContext;
+import com.google.cloud.spanner.Statement;
+import com.google.cloud.spanner.Struct;
+import com.google.cloud.spanner.TimestampBound;
+import com.google.cloud.spring.data.spanner.core.convert.SpannerEntityProcessor;
+import com.google.cloud.spring.data.spanner.core.mapping.SpannerMappingContext;
+import com.google.cloud.spring.data.spanner.core.mapping.SpannerPersistentEntity;
+import com.google.cloud.spring.data.spanner.core.mapping.event.AfterDeleteEvent;
+import com.google.cloud.spring.data.spanner.core.mapping.event.AfterSaveEvent;
+import com.google.cloud.spring.data.spanner.core.mapping.event.BeforeDeleteEvent;
+import com.google.cloud.spring.data.spanner.core.mapping.event.BeforeSaveEvent;
+import com.google.cloud.spring.data.spanner.repository.query.SpannerStatementQueryExecutor;
+import com.google.common.util.concurrent.MoreExecutors;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import javax.annotation.Nullable;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.context.ApplicationEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.ApplicationEventPublisherAware;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.util.Assert;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.FluxSink;
+import reactor.core.publisher.Mono;
+
+/**
+ * An implementation of {@link ReactiveSpannerOperations} on the asynchronous API of the Cloud
+ * Spanner client. Rows are pushed to subscribers from result set callbacks and writes complete
+ * from commit callbacks, so no thread waits for Cloud Spanner.
+ *
+ * <p>Rows are mapped with the same {@link SpannerEntityProcessor} as in {@link SpannerTemplate}.
+ * Eagerly-loaded interleaved properties are fetched with their parents; lazily-loaded ones are
+ * left empty. Save and delete events are published as with {@link SpannerTemplate}.
+ *
+ * <p>Callbacks run on a pool of daemon threads owned by the template, one per available
+ * processor, which is shut down when the template is {@link #destroy() destroyed}.
+ *
+ * @since 3.3.0
+ */
+public class ReactiveSpannerTemplate
+    implements ReactiveSpannerOperations, ApplicationEventPublisherAware, DisposableBean {
+
+  private final Supplier<DatabaseClient> databaseClientProvider;
+
+  private final SpannerMappingContext mappingContext;
+
+  private final SpannerEntityProcessor spannerEntityProcessor;
+
+  private final SpannerMutationFactory mutationFactory;
+
+  private Executor callbackExecutor = defaultCallbackExecutor();
+
+  private boolean ownsCallbackExecutor = true;
+
+  private @Nullable ApplicationEventPublisher eventPublisher;
+
+  public ReactiveSpannerTemplate(
+      Supplier<DatabaseClient> databaseClientProvider,
+      SpannerMappingContext mappingContext,
+      SpannerEntityProcessor spannerEntityProcessor,
+      SpannerMutationFactory spannerMutationFactory) {
+    Assert.notNull(databaseClientProvider, "A valid database client for Spanner is required.");
+    Assert.notNull(mappingContext, "A valid mapping context for Spanner is required.");
+    Assert.notNull(spannerEntityProcessor, "A valid entity processor for Spanner is required.");
+    Assert.notNull(spannerMutationFactory, "A valid Spanner mutation factory is required.");
+    this.databaseClientProvider = databaseClientProvider;
+    this.mappingContext = mappingContext;
+    this.spannerEntityProcessor = spannerEntityProcessor;
+    this.mutationFactory = spannerMutationFactory;
+  }
+
+  public SpannerMappingContext getMappingContext() {
+    return this.mappingContext;
+  }
+
+  public SpannerEntityProcessor getSpannerEntityProcessor() {
+    return this.spannerEntityProcessor;
+  }
+
+  @Override
+  public void setApplicationEventPublisher(ApplicationEventPublisher applicationEventPublisher) {
+    this.eventPublisher = applicationEventPublisher;
+  }
+
+  /**
+   * Sets the executor that runs result set and transaction callbacks, in which rows are mapped and
+   * emitted. Subscribers that block must publish on another scheduler. The default executor of the
+   * template is shut down; the given executor is not shut down by the template.
+   *
+   * @param callbackExecutor the executor.
+   */
+  public void setCallbackExecutor(Executor callbackExecutor) {
+    Assert.notNull(callbackExecutor, "A valid executor is required.");
+    if (this.ownsCallbackExecutor) {
+      ((ExecutorService) this.callbackExecutor).shutdown();
+      this.ownsCallbackExecutor = false;
+    }
+    this.callbackExecutor = callbackExecutor;
+  }
+
+  /** Shuts down the callback executor if it was created by this template. */
+  @Override
+  public void destroy() {
+    if (this.ownsCallbackExecutor) {
+      ((ExecutorService) this.callbackExecutor).shutdown();
+    }
+  }
+
+  @Override
+  public <T> Flux<T> query(Class<T> entityClass, Statement statement, SpannerQueryOptions options) {
+    return query(
+        struct ->
+            this.spannerEntityProcessor.read(
+                entityClass,
+                struct,
+                options != null ? options.getIncludeProperties() : null,
+                options != null && options.isAllowPartialRead()),
+        statement,
+        options);
+  }
+
+  @Override
+  public <A> Flux<A> query(
+      Function<Struct, A> rowFunc, Statement statement, SpannerQueryOptions options) {
+    Assert.notNull(statement, "A valid statement is required.");
+    return resultSetFlux(
+        () -> {
+          ReadContext readContext =
+              getReadContext(options != null ? options.getTimestampBound() : null);
+          return options == null
+              ? readContext.executeQueryAsync(statement)
+              : readContext.executeQueryAsync(statement, options.getOptions());
+        },
+        rowFunc);
+  }
+
+  @Override
+  public <T> Flux<T> readAll(Class<T> entityClass) {
+    return read(entityClass, KeySet.all(), null);
+  }
+
+  @Override
+  public <T> Flux<T> read(Class<T> entityClass, KeySet keys, SpannerReadOptions options) {
+    Assert.notNull(keys, "A valid key set is required.");
+    SpannerPersistentEntity<T> persistentEntity =
+        (SpannerPersistentEntity<T>) this.mappingContext.getPersistentEntityOrFail(entityClass);
+
+    // Reads cannot fetch interleaved children or apply @Where, so these go through a query.
+    if (persistentEntity.hasEagerlyLoadedProperties() || persistentEntity.hasWhere()) {
+      if (keys.getRanges().iterator().hasNext()) {
+        return Flux.error(new IllegalArgumentException(String.format("KeySet %s has ranges", keys)));
+      }
+      Statement statement =
+          SpannerStatementQueryExecutor.buildQuery(
+              keys,
+              persistentEntity,
+              this.spannerEntityProcessor.getWriteConverter(),
+              this.mappingContext,
+              persistentEntity.getWhere(),
+              options != null ? options.getIndex() : null);
+      return query(entityClass, statement, options != null ? options.toQueryOptions() : null);
+    }
+
+    return resultSetFlux(
+        () -> {
+          ReadContext readContext =
+              getReadContext(options != null ? options.getTimestampBound() : null);
+          if (options == null) {
+            return readContext.readAsync(
+                persistentEntity.tableName(), keys, persistentEntity.columns());
+          }
+          return options.getIndex() == null
+              ? readContext.readAsync(
+                  persistentEntity.tableName(),
+                  keys,
+                  persistentEntity.columns(),
+                  options.getOptions())
+              : readContext.readUsingIndexAsync(
+                  persistentEntity.tableName(),
+                  options.getIndex(),
+                  keys,
+                  persistentEntity.columns(),
+                  options.getOptions());
+        },
+        struct ->
+            this.spannerEntityProcessor.read(
+                entityClass,
+                struct,
+                options != null ? options.getIncludeProperties() : null,
+                options != null && options.isAllowPartialRead()));
+  }
+
+  @Override
+  public <T> Mono<T> read(Class<T> entityClass, Key key) {
+    Assert.notNull(key, "A non-null key is required.");
+    return read(entityClass, KeySet.singleKey(key), null).next();
+  }
+
+  @Override
+  public <T> Mono<Boolean> existsById(Class<T> entityClass, Key key) {
+    Assert.notNull(key, "A non-null key is required.");
+    SpannerPersistentEntity<?> persistentEntity =
+        this.mappingContext.getPersistentEntityOrFail(entityClass);
+    return resultSetFlux(
+            () ->
+                getReadContext(null)
+                    .readAsync(
+                        persistentEntity.tableName(),
+                        KeySet.singleKey(key),
+                        Collections.singleton(persistentEntity.getPrimaryKeyColumnName())),
+            struct -> Boolean.TRUE)
+        .hasElements();
+  }
+
+  @Override
+  public <T> Mono<Long> count(Class<T> entityClass) {
+    SpannerPersistentEntity<?> persistentEntity =
+        this.mappingContext.getPersistentEntityOrFail(entityClass);
+    Statement statement =
+        Statement.of(String.format("SELECT COUNT(*) FROM %s", persistentEntity.tableName()));
+    return query(struct -> struct.getLong(0), statement, null).single();
+  }
+
+  @Override
+  public Mono<Long> executeDmlStatement(Statement statement) {
+    Assert.notNull(statement, "A valid statement is required.");
+    return performReadWriteTransaction(transaction -> transaction.executeUpdateAsync(statement));
+  }
+
+  @Override
+  public Mono<Timestamp> insert(Object object) {
+    return applySaveMutations(
+        () -> this.mutationFactory.insert(object), Collections.singletonList(object));
+  }
+
+  @Override
+  public Mono<Timestamp> insertAll(Iterable<?> objects) {
+    return applySaveMutations(
+        () -> getMutationsForMultipleObjects(objects, this.mutationFactory::insert), objects);
+  }
+
+  @Override
+  public Mono<Timestamp> update(Object object) {
+    return applySaveMutations(
+        () -> this.mutationFactory.update(object, null), Collections.singletonList(object));
+  }
+
+  @Override
+  public Mono<Timestamp> updateAll(Iterable<?> objects) {
+    return applySaveMutations(
+        () -> getMutationsForMultipleObjects(objects, x -> this.mutationFactory.update(x, null)),
+        objects);
+  }
+
+  @Override
+  public Mono<Timestamp> upsert(Object object) {
+    return applySaveMutations(
+        () -> this.mutationFactory.upsert(object, null), Collections.singletonList(object));
+  }
+
+  @Override
+  public Mono<Timestamp> upsertAll(Iterable<?> objects) {
+    return applySaveMutations(
+        () -> getMutationsForMultipleObjects(objects, x -> this.mutationFactory.upsert(x, null)),
+        objects);
+  }
+
+  @Override
+  public Mono<Timestamp> delete(Object entity) {
+    return Mono.defer(
+        () -> {
+          List<Mutation> mutations = Collections.singletonList(this.mutationFactory.delete(entity));
+          List<Object> entities = Collections.singletonList(entity);
+          maybeEmitEvent(new BeforeDeleteEvent(mutations, entities, null, null));
+          return applyMutations(mutations)
+              .doOnSuccess(
+                  timestamp ->
+                      maybeEmitEvent(new AfterDeleteEvent(mutations, entities, null, null)));
+        });
+  }
+
+  @Override
+  public Mono<Timestamp> deleteAll(Iterable<?> entities) {
+    return Mono.defer(
+        () -> {
+          List<Mutation> mutations = new ArrayList<>();
+          entities.forEach(entity -> mutations.add(this.mutationFactory.delete(entity)));
+          maybeEmitEvent(new BeforeDeleteEvent(mutations, entities, null, null));
+          return applyMutations(mutations)
+              .doOnSuccess(
+                  timestamp ->
+                      maybeEmitEvent(new AfterDeleteEvent(mutations, entities, null, null)));
+        });
+  }
+
+  @Override
+  public Mono<Timestamp> delete(Class<?> entityClass, KeySet keys) {
+    return Mono.defer(
+        () -> {
+          List<Mutation> mutations =
+              Collections.singletonList(this.mutationFactory.delete(entityClass, keys));
+          maybeEmitEvent(new BeforeDeleteEvent(mutations, null, keys, entityClass));
+          return applyMutations(mutations)
+              .doOnSuccess(
+                  timestamp ->
+                      maybeEmitEvent(new AfterDeleteEvent(mutations, null, keys, entityClass)));
+        });
+  }
+
+  @Override
+  public <T> Mono<T> performReadWriteTransaction(AsyncWork<T> work) {
+    Assert.notNull(work, "The transaction work is required.");
+    return toMono(
+        () -> this.databaseClientProvider.get().runAsync().runAsync(work, this.callbackExecutor));
+  }
+
+  private Mono<Timestamp> applySaveMutations(
+      Supplier<List<Mutation>> mutationsSupplier, Iterable<?> entities) {
+    return Mono.defer(
+        () -> {
+          maybeEmitEvent(new BeforeSaveEvent(entities, null));
+          List<Mutation> mutations = mutationsSupplier.get();
+          return applyMutations(mutations)
+              .doOnSuccess(
+                  timestamp -> maybeEmitEvent(new AfterSaveEvent(mutations, entities, null)));
+        });
+  }
+
+  private Mono<Timestamp> applyMutations(List<Mutation> mutations) {
+    return toMono(
+        () -> {
+          AsyncRunner runner = this.databaseClientProvider.get().runAsync();
+          ApiFuture<Void> result =
+              runner.runAsync(
+                  transaction -> {
+                    transaction.buffer(mutations);
+                    return ApiFutures.immediateFuture(null);
+                  },
+                  this.callbackExecutor);
+          return ApiFutures.transformAsync(
+              result, ignored -> runner.getCommitTimestamp(), MoreExecutors.directExecutor());
+        });
+  }
+
+  private static List<Mutation> getMutationsForMultipleObjects(
+      Iterable<?> objects, Function<Object, List<Mutation>> mutationsFunction) {
+    List<Mutation> mutations = new ArrayList<>();
+    objects.forEach(object -> mutations.addAll(mutationsFunction.apply(object)));
+    return mutations;
+  }
+
+  private ReadContext getReadContext(TimestampBound timestampBound) {
+    DatabaseClient databaseClient = this.databaseClientProvider.get();
+    return timestampBound != null
+        ? databaseClient.singleUse(timestampBound)
+        : databaseClient.singleUse();
+  }
+
+  private <A> Flux<A> resultSetFlux(
+      Supplier<AsyncResultSet> resultSetSupplier, Function<Struct, A> rowFunc) {
+    return Flux.create(
+        sink -> {
+          AsyncResultSet resultSet = resultSetSupplier.get();
+          RowEmitter<A> emitter = new RowEmitter<>(sink, resultSet, rowFunc, this.callbackExecutor);
+          resultSet.setCallback(emitter::executeCallback, emitter);
+          sink.onRequest(n -> emitter.resumeIfPaused());
+          sink.onCancel(resultSet::cancel);
+        });
+  }
+
+  private static <T> Mono<T> toMono(Supplier<ApiFuture<T>> futureSupplier) {
+    return Mono.create(
+        sink -> {
+          ApiFuture<T> future = futureSupplier.get();
+          sink.onCancel(() -> future.cancel(false));
+          ApiFutures.addCallback(
+              future,
+              new ApiFutureCallback<T>() {
+                @Override
+                public void onFailure(Throwable throwable) {
+                  sink.error(throwable);
+                }
+
+                @Override
+                public void onSuccess(T result) {
+                  sink.success(result);
+                }
+              },
+              MoreExecutors.directExecutor());
+        });
+  }
+
+  private void maybeEmitEvent(ApplicationEvent event) {
+    if (this.eventPublisher != null) {
+      this.eventPublisher.publishEvent(event);
+    }
+  }
+
+  /**
+   * Emits the rows of a result set as they arrive, pausing the result set while there is no demand
+   * so that rows are not buffered beyond what the result set prefetches.
+   *
+   * <p>The result set only enters the paused state once the callback task that returned PAUSE has
+   * finished, and a resume before that has no effect. So the emitter learns that the result set is
+   * paused when that task completes on the callback executor, and from then on exactly one of that
+   * task and a demand signal resumes it.
+   */
+  private static final class RowEmitter<A> implements ReadyCallback {
+
+    private static final int RUNNING = 0;
+
+    private static final int PAUSING = 1;
+
+    private static final int PAUSED = 2;
+
+    private final FluxSink<A> sink;
+
+    private final AsyncResultSet resultSet;
+
+    private final Function<Struct, A> rowFunc;
+
+    private final Executor executor;
+
+    private final AtomicInteger state = new AtomicInteger(RUNNING);
+
+    /** The thread of the callback that returned PAUSE, until the result set is paused. */
+    private volatile Thread pausingThread;
+
+    RowEmitter(
+        FluxSink<A> sink, AsyncResultSet resultSet, Function<Struct, A> rowFunc, Executor executor) {
+      this.sink = sink;
+      this.resultSet = resultSet;
+      this.rowFunc = rowFunc;
+      this.executor = executor;
+    }
+
+    @Override
+    public CallbackResponse cursorReady(AsyncResultSet resultSet) {
+      this.state.set(RUNNING);
+      try {
+        while (true) {
+          if (this.sink.isCancelled()) {
+            return CallbackResponse.DONE;
+          }
+          if (this.sink.requestedFromDownstream() <= 0) {
+            this.pausingThread = Thread.currentThread();
+            this.state.set(PAUSING);
+            return CallbackResponse.PAUSE;
+          }
+          switch (resultSet.tryNext()) {
+            case DONE:
+              this.sink.complete();
+              return CallbackResponse.DONE;
+            case NOT_READY:
+              return CallbackResponse.CONTINUE;
+            default:
+              this.sink.next(this.rowFunc.apply(resultSet.getCurrentRowAsStruct()));
+          }
+        }
+      } catch (Throwable ex) {
+        this.sink.error(ex);
+        return CallbackResponse.DONE;
+      }
+    }
+
+    /** Runs a callback task of the result set and resumes it if it paused despite demand. */
+    void executeCallback(Runnable task) {
+      this.executor.execute(
+          () -> {
+            try {
+              task.run();
+            } finally {
+              if (this.pausingThread == Thread.currentThread()) {
+                this.pausingThread = null;
+                if (this.state.compareAndSet(PAUSING, PAUSED)
+                    && this.sink.requestedFromDownstream() > 0) {
+                  resumeIfPaused();
+                }
+              }
+            }
+          });
+    }
+
+    void resumeIfPaused() {
+      if (!this.sink.isCancelled() && this.state.compareAndSet(PAUSED, RUNNING)) {
+        this.resultSet.resume();
+      }
+    }
+  }
+
+  private static ExecutorService defaultCallbackExecutor() {
+    int threads = Runtime.getRuntime().availableProcessors();
+    CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("spanner-reactive-");
+    threadFactory.setDaemon(true);
+    ThreadPoolExecutor executor =
+        new ThreadPoolExecutor(
+            threads, threads, 60L, TimeUnit.SECONDS, new LinkedBlockingQueue<>(), threadFactory);
+    executor.allowCoreThreadTimeOut(true);
+    return executor;
+  }
+}
@@ -27,6 +27,7 @@ import com.google.cloud.spring.data.spanner.core.convert.SpannerEntityProcessor;
 import com.google.cloud.spring.data.spanner.core.mapping.SpannerDataException;
 import com.google.cloud.spring.data.spanner.core.mapping.SpannerMappingContext;
 import java.util.Collection;
+import java.util.function.Consumer;
 import java.util.function.Function;
 import java.util.function.Supplier;
 
@@ -71,6 +72,16 @@ class ReadWriteTransactionSpannerTemplate extends SpannerTemplate {
     return this.transactionContext.executeUpdate(statement);
   }
 
+  @Override
+  public long[] executeDmlStatements(Iterable<Statement> statements) {
+    return this.transactionContext.batchUpdate(statements);
+  }
+
+  @Override
+  public void bufferDmlStatement(Statement statement) {
+    this.transactionContext.executeUpdate(statement);
+  }
+
   @Override
   public long executePartitionedDmlStatement(Statement statement) {
     throw new SpannerDataException(
@@ -84,6 +95,23 @@ class ReadWriteTransactionSpannerTemplate extends SpannerTemplate {
             + " in read-write transaction templates.");
   }
 
+  @Override
+  public <T> void queryPartitioned(
+      Class<T> entityClass,
+      Statement statement,
+      SpannerPartitionedReadOptions options,
+      Consumer<? super T> rowConsumer) {
+    throw new SpannerDataException(
+        "A read-write transaction template cannot execute partitioned queries.");
+  }
+
+  @Override
+  public <T> void readAllPartitioned(
+      Class<T> entityClass, SpannerPartitionedReadOptions options, Consumer<? super T> rowConsumer) {
+    throw new SpannerDataException(
+        "A read-write transaction template cannot execute partitioned reads.");
+  }
+
   @Override
   public <T> T performReadWriteTransaction(Function<SpannerTemplate, T> operations) {
     throw new SpannerDataException(
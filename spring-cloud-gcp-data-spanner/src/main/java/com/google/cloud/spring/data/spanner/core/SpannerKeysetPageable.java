@@ -0,0 +1,196 @@
+/*
+ * Copyright 2022-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.cloud.spring.data.spanner.core;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.util.Assert;
+
+/**
+ * A {@link Pageable} that addresses a page by the sort and primary key values of the last row of
+ * the previous page, instead of by an offset. Cloud Spanner reads such a page by seeking past that
+ * row, so later pages are as cheap to read as the first one.
+ *
+ * <p>Obtain the first page with {@link #of(int, Sort)} and each following page from {@link
+ * org.springframework.data.domain.Slice#nextPageable()} of the previous result. The pageables
+ * returned by {@link #next()}, {@link #previousOrFirst()} and {@link #withPage(int)} carry no
+ * last row, so pages other than the first one addressed through them are read by skipping {@link
+ * #getOffset()} rows instead.
+ *
+ * @since 3.3.0
+ */
+public final class SpannerKeysetPageable implements Pageable, Serializable {
+
+  private static final long serialVersionUID = 1L;
+
+  private final int pageNumber;
+
+  private final int pageSize;
+
+  private final Sort sort;
+
+  private final List<Object> lastValues;
+
+  private SpannerKeysetPageable(
+      int pageNumber, int pageSize, Sort sort, List<Object> lastValues) {
+    Assert.isTrue(pageNumber >= 0, "The page number must not be negative.");
+    Assert.isTrue(pageSize > 0, "The page size must be greater than 0.");
+    Assert.notNull(sort, "A valid sort is required.");
+    this.pageNumber = pageNumber;
+    this.pageSize = pageSize;
+    this.sort = sort;
+    this.lastValues = lastValues;
+  }
+
+  /**
+   * Creates a pageable for the first page of rows in primary key order.
+   *
+   * @param pageSize the maximum number of rows in a page.
+   * @return the pageable for the first page.
+   */
+  public static SpannerKeysetPageable of(int pageSize) {
+    return of(pageSize, Sort.unsorted());
+  }
+
+  /**
+   * Creates a pageable for the first page of rows. Rows are ordered by the given sort and then by
+   * primary key, so that the position of every row is unique.
+   *
+   * @param pageSize the maximum number of rows in a page.
+   * @param sort the sort, which must not ignore case.
+   * @return the pageable for the first page.
+   */
+  public static SpannerKeysetPageable of(int pageSize, Sort sort) {
+    return new SpannerKeysetPageable(0, pageSize, sort, null);
+  }
+
+  /**
+   * Creates the pageable for the page following the row with the given values.
+   *
+   * @param lastValues the values of the last row of this page, one for each sort property followed
+   *     by one for each primary key column not already sorted on.
+   * @return the pageable for the next page.
+   */
+  public SpannerKeysetPageable after(List<Object> lastValues) {
+    Assert.notNull(lastValues, "The values of the last row are required.");
+    return new SpannerKeysetPageable(
+        this.pageNumber + 1,
+        this.pageSize,
+        this.sort,
+        Collections.unmodifiableList(new ArrayList<>(lastValues)));
+  }
+
+  /**
+   * Gets the values of the last row of the previous page.
+   *
+   * @return the values, or {@code null} for the first page and for pages addressed by number.
+   */
+  public List<Object> getLastValues() {
+    return this.lastValues;
+  }
+
+  @Override
+  public int getPageNumber() {
+    return this.pageNumber;
+  }
+
+  @Override
+  public int getPageSize() {
+    return this.pageSize;
+  }
+
+  @Override
+  public long getOffset() {
+    return (long) this.pageNumber * this.pageSize;
+  }
+
+  @Override
+  public Sort getSort() {
+    return this.sort;
+  }
+
+  /**
+   * Gets the pageable for the next page by number. Since the last row of this page is not known
+   * here, that page is read by offset; {@link
+   * org.springframework.data.domain.Slice#nextPageable()} continues after the last row instead.
+   *
+   * @return the pageable for the next page.
+   */
+  @Override
+  public SpannerKeysetPageable next() {
+    return withPage(this.pageNumber + 1);
+  }
+
+  @Override
+  public SpannerKeysetPageable previousOrFirst() {
+    return hasPrevious() ? withPage(this.pageNumber - 1) : first();
+  }
+
+  @Override
+  public SpannerKeysetPageable first() {
+    return withPage(0);
+  }
+
+  @Override
+  public SpannerKeysetPageable withPage(int pageNumber) {
+    return new SpannerKeysetPageable(pageNumber, this.pageSize, this.sort, null);
+  }
+
+  @Override
+  public boolean hasPrevious() {
+    return this.pageNumber > 0;
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) {
+      return true;
+    }
+    if (o == null || getClass() != o.getClass()) {
+      return false;
+    }
+    SpannerKeysetPageable that = (SpannerKeysetPageable) o;
+    return this.pageNumber == that.pageNumber
+        && this.pageSize == that.pageSize
+        && this.sort.equals(that.sort)
+        && Objects.equals(this.lastValues, that.lastValues);
+  }
+
+  @Override
+  public int hashCode() {
+    return Objects.hash(this.pageNumber, this.pageSize, this.sort, this.lastValues);
+  }
+
+  @Override
+  public String toString() {
+    return "SpannerKeysetPageable{"
+        + "pageNumber="
+        + this.pageNumber
+        + ", pageSize="
+        + this.pageSize
+        + ", sort="
+        + this.sort
+        + ", lastValues="
+        + this.lastValues
+        + '}';
+  }
+}
@@ -0,0 +1,46 @@
+/*
+ * Copyright 2022-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.cloud.spring.data.spanner.core;
+
+import java.util.List;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.SliceImpl;
+
+/**
+ * A slice read with a {@link SpannerKeysetPageable}, whose next pageable continues after its last
+ * row.
+ *
+ * @param <T> the type of the rows.
+ * @since 3.3.0
+ */
+public class SpannerKeysetSlice<T> extends SliceImpl<T> {
+
+  private static final long serialVersionUID = 1L;
+
+  private final SpannerKeysetPageable nextPageable;
+
+  SpannerKeysetSlice(
+      List<T> content, SpannerKeysetPageable pageable, SpannerKeysetPageable nextPageable) {
+    super(content, pageable, nextPageable != null);
+    this.nextPageable = nextPageable;
+  }
+
+  @Override
+  public Pageable nextPageable() {
+    return this.nextPageable != null ? this.nextPageable : Pageable.unpaged();
+  }
+}
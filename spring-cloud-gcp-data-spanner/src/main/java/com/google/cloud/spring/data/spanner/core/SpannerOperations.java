@@ -21,8 +21,10 @@ import com.google.cloud.spanner.KeySet;
 import com.google.cloud.spanner.ReadContext;
 import com.google.cloud.spanner.Statement;
 import com.google.cloud.spanner.Struct;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Set;
+import java.util.function.Consumer;
 import java.util.function.Function;
 
 /**
@@ -50,6 +52,39 @@ public interface SpannerOperations {
    */
   long executePartitionedDmlStatement(Statement statement);
 
+  /**
+   * Execute DML statements on Cloud Spanner in a single {@code batchUpdate} call, in order. Like
+   * {@link #executeDmlStatement(Statement)}, this is always done in a transaction and one will be
+   * started if needed. Execution stops at the first statement that fails.
+   *
+   * <p>The default implementation executes the statements one by one with {@link
+   * #executeDmlStatement(Statement)}.
+   *
+   * @param statements the DML statements to execute.
+   * @return the number of rows affected by each statement.
+   * @since 3.3.0
+   */
+  default long[] executeDmlStatements(Iterable<Statement> statements) {
+    List<Long> rowsAffected = new ArrayList<>();
+    statements.forEach(statement -> rowsAffected.add(executeDmlStatement(statement)));
+    return rowsAffected.stream().mapToLong(Long::longValue).toArray();
+  }
+
+  /**
+   * Execute a DML statement whose number of affected rows is not needed. Inside a transaction of
+   * a {@link SpannerTransactionManager} with a DML batch size set, the statement is buffered and
+   * sent with the other buffered statements in one {@code batchUpdate} call before the next
+   * operation of the transaction or before it commits, so errors may only be raised then.
+   * Otherwise, it is executed immediately as with {@link #executeDmlStatement(Statement)}, which
+   * is all the default implementation does.
+   *
+   * @param statement the DML statement to execute.
+   * @since 3.3.0
+   */
+  default void bufferDmlStatement(Statement statement) {
+    executeDmlStatement(statement);
+  }
+
   /**
    * Finds a single stored object using a key.
    *
@@ -175,6 +210,82 @@ public interface SpannerOperations {
    */
   <T> List<T> queryAll(Class<T> entityClass, SpannerPageableQueryOptions options);
 
+  /**
+   * Finds a page of objects of the given type using keyset pagination. Rows are ordered by the
+   * sort of the pageable and then by primary key, and a page is read by seeking past the last row
+   * of the previous page rather than by skipping rows, so reading a page costs the same no matter
+   * how far into the table it is. No count query is run.
+   *
+   * @param entityClass the type of the object to retrieve.
+   * @param pageable the page to read; the first page from {@link SpannerKeysetPageable#of(int,
+   *     org.springframework.data.domain.Sort)}, following pages from {@link
+   *     SpannerKeysetSlice#nextPageable()}.
+   * @param <T> the type of the object to retrieve.
+   * @return the slice of objects, which knows whether a next page exists.
+   * @since 3.3.0
+   */
+  default <T> SpannerKeysetSlice<T> queryKeysetSlice(
+      Class<T> entityClass, SpannerKeysetPageable pageable) {
+    // Without keyset support the page is read by offset, and so is the next one.
+    List<T> rows =
+        queryAll(
+            entityClass,
+            new SpannerPageableQueryOptions()
+                .setLimit(pageable.getPageSize() + 1)
+                .setOffset(pageable.getOffset())
+                .setSort(pageable.getSort()));
+    if (rows.size() <= pageable.getPageSize()) {
+      return new SpannerKeysetSlice<>(rows, pageable, null);
+    }
+    return new SpannerKeysetSlice<>(
+        rows.subList(0, pageable.getPageSize()), pageable, pageable.next());
+  }
+
+  /**
+   * Runs a query as a partitioned query, reading the partitions in parallel. All partitions are
+   * read in the same read-only transaction, and each row is mapped to an object and passed to the
+   * consumer on the thread that read its partition. This is meant for exporting large result sets;
+   * the query must be root-partitionable, and interleaved children are not resolved.
+   *
+   * <p>The default implementation runs the query without partitioning and passes the objects to
+   * the consumer on the calling thread.
+   *
+   * @param entityClass the type of the objects to map rows to.
+   * @param statement the root-partitionable query.
+   * @param options the partitioning options; if {@code null} the defaults are used.
+   * @param rowConsumer the consumer of the objects, which may be called concurrently from several
+   *     threads.
+   * @param <T> the type of the objects.
+   * @since 3.3.0
+   */
+  default <T> void queryPartitioned(
+      Class<T> entityClass,
+      Statement statement,
+      SpannerPartitionedReadOptions options,
+      Consumer<? super T> rowConsumer) {
+    query(entityClass, statement, null).forEach(rowConsumer);
+  }
+
+  /**
+   * Reads all rows of the table of the given type with a partitioned read, reading the partitions
+   * in parallel. Each row is mapped to an object and passed to the consumer on the thread that
+   * read its partition; interleaved children are not resolved.
+   *
+   * <p>The default implementation reads all rows with {@link #readAll(Class)} and passes the
+   * objects to the consumer on the calling thread.
+   *
+   * @param entityClass the type of the objects to read.
+   * @param options the partitioning options; if {@code null} the defaults are used.
+   * @param rowConsumer the consumer of the objects, which may be called concurrently from several
+   *     threads.
+   * @param <T> the type of the objects.
+   * @since 3.3.0
+   */
+  default <T> void readAllPartitioned(
+      Class<T> entityClass, SpannerPartitionedReadOptions options, Consumer<? super T> rowConsumer) {
+    readAll(entityClass).forEach(rowConsumer);
+  }
+
   /**
    * Deletes an object based on a key.
    *
@@ -0,0 +1,89 @@
+/*
+ * Copyright 2022-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.cloud.spring.data.spanner.core;
+
+import com.google.cloud.spanner.PartitionOptions;
+import com.google.cloud.spanner.TimestampBound;
+import java.io.Serializable;
+import org.springframework.util.Assert;
+
+/**
+ * Encapsulates the settings of a partitioned read or query, which is split by Cloud Spanner into
+ * partitions that are read in parallel.
+ *
+ * @since 3.3.0
+ */
+public class SpannerPartitionedReadOptions implements Serializable {
+
+  private static final long serialVersionUID = 1L;
+
+  private PartitionOptions partitionOptions = PartitionOptions.getDefaultInstance();
+
+  private int parallelism = Runtime.getRuntime().availableProcessors();
+
+  private TimestampBound timestampBound = TimestampBound.strong();
+
+  public PartitionOptions getPartitionOptions() {
+    return this.partitionOptions;
+  }
+
+  /**
+   * Sets the hints for the number and size of the partitions Cloud Spanner creates.
+   *
+   * @param partitionOptions the partition options.
+   * @return this options object.
+   */
+  public SpannerPartitionedReadOptions setPartitionOptions(PartitionOptions partitionOptions) {
+    Assert.notNull(partitionOptions, "Valid partition options are required.");
+    this.partitionOptions = partitionOptions;
+    return this;
+  }
+
+  public int getParallelism() {
+    return this.parallelism;
+  }
+
+  /**
+   * Sets the maximum number of partitions that are read at the same time. Defaults to the number
+   * of available processors.
+   *
+   * @param parallelism the maximum number of partitions read at once.
+   * @return this options object.
+   */
+  public SpannerPartitionedReadOptions setParallelism(int parallelism) {
+    Assert.isTrue(parallelism > 0, "The parallelism must be greater than 0.");
+    this.parallelism = parallelism;
+    return this;
+  }
+
+  public TimestampBound getTimestampBound() {
+    return this.timestampBound;
+  }
+
+  /**
+   * Sets the timestamp bound of the read-only transaction all partitions are read in. Defaults to
+   * a strong read.
+   *
+   * @param timestampBound the timestamp bound.
+   * @return this options object.
+   */
+  public SpannerPartitionedReadOptions setTimestampBound(TimestampBound timestampBound) {
+    Assert.notNull(timestampBound, "A valid timestamp bound is required.");
+    this.timestampBound = timestampBound;
+    return this;
+  }
+}
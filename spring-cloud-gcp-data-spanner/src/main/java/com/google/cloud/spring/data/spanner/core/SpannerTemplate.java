@@ -16,12 +16,16 @@
 
 package com.google.cloud.spring.data.spanner.core;
 
+import com.google.cloud.spanner.BatchClient;
+import com.google.cloud.spanner.BatchReadOnlyTransaction;
 import com.google.cloud.spanner.DatabaseClient;
 import com.google.cloud.spanner.Key;
 import com.google.cloud.spanner.KeySet;
 import com.google.cloud.spanner.Mutation;
 import com.google.cloud.spanner.Options.QueryOption;
 import com.google.cloud.spanner.Options.ReadOption;
+import com.google.cloud.spanner.Partition;
+import com.google.cloud.spanner.PartitionOptions;
 import com.google.cloud.spanner.ReadContext;
 import com.google.cloud.spanner.ReadOnlyTransaction;
 import com.google.cloud.spanner.ResultSet;
@@ -36,6 +40,7 @@ import com.google.cloud.spring.data.spanner.core.convert.SpannerEntityProcessor;
 import com.google.cloud.spring.data.spanner.core.mapping.SpannerDataException;
 import com.google.cloud.spring.data.spanner.core.mapping.SpannerMappingContext;
 import com.google.cloud.spring.data.spanner.core.mapping.SpannerPersistentEntity;
+import com.google.cloud.spring.data.spanner.core.mapping.SpannerPersistentProperty;
 import com.google.cloud.spring.data.spanner.core.mapping.event.AfterDeleteEvent;
 import com.google.cloud.spring.data.spanner.core.mapping.event.AfterExecuteDmlEvent;
 import com.google.cloud.spring.data.spanner.core.mapping.event.AfterQueryEvent;
@@ -51,8 +56,19 @@ import java.util.Collection;
 import java.util.Collections;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Queue;
 import java.util.Set;
 import java.util.StringJoiner;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BiFunction;
+import java.util.function.Consumer;
 import java.util.function.Function;
 import java.util.function.Supplier;
 import java.util.stream.Collectors;
@@ -63,7 +79,9 @@ import org.apache.commons.logging.LogFactory;
 import org.springframework.context.ApplicationEvent;
 import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.context.ApplicationEventPublisherAware;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.mapping.PersistentPropertyAccessor;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
 import org.springframework.transaction.support.TransactionSynchronizationManager;
 import org.springframework.util.Assert;
 
@@ -88,6 +106,16 @@ public class SpannerTemplate implements SpannerOperations, ApplicationEventPubli
 
   private @Nullable ApplicationEventPublisher eventPublisher;
 
+  private @Nullable Supplier<BatchClient> batchClientProvider;
+
+  private @Nullable Executor partitionExecutor;
+
+  private @Nullable TimestampBound defaultTimestampBound;
+
+  private final LongAdder strongReadCount = new LongAdder();
+
+  private final LongAdder staleReadCount = new LongAdder();
+
   public SpannerTemplate(
       Supplier<DatabaseClient> databaseClientProvider,
       SpannerMappingContext mappingContext,
@@ -111,13 +139,87 @@ public class SpannerTemplate implements SpannerOperations, ApplicationEventPubli
     this.eventPublisher = applicationEventPublisher;
   }
 
+  /**
+   * Sets the provider of the batch client used for partitioned reads and queries.
+   *
+   * @param batchClientProvider the provider of the batch client of the database.
+   * @since 3.3.0
+   */
+  public void setBatchClientProvider(Supplier<BatchClient> batchClientProvider) {
+    this.batchClientProvider = batchClientProvider;
+  }
+
+  /**
+   * Sets the executor partitions of partitioned reads and queries are read on. By default, each
+   * partitioned read uses its own pool of daemon threads, one for each partition read at once,
+   * which is shut down when the read completes.
+   *
+   * @param partitionExecutor the executor.
+   * @since 3.3.0
+   */
+  public void setPartitionExecutor(Executor partitionExecutor) {
+    Assert.notNull(partitionExecutor, "A valid executor is required.");
+    this.partitionExecutor = partitionExecutor;
+  }
+
+  /**
+   * Sets the timestamp bound of single-use reads and queries that neither set one in their options
+   * nor run with one bound by {@link SpannerTimestampBoundHolder}. By default, these are strong
+   * reads.
+   *
+   * @param defaultTimestampBound the timestamp bound, or null for strong reads.
+   * @since 3.3.0
+   */
+  public void setDefaultTimestampBound(@Nullable TimestampBound defaultTimestampBound) {
+    this.defaultTimestampBound = defaultTimestampBound;
+  }
+
+  /**
+   * Returns the number of single-use reads and queries run as strong reads. Reads in transactions
+   * are not counted.
+   *
+   * @return the number of strong reads.
+   * @since 3.3.0
+   */
+  public long getStrongReadCount() {
+    return this.strongReadCount.sum();
+  }
+
+  /**
+   * Returns the number of single-use reads and queries run with a stale timestamp bound. Reads in
+   * transactions are not counted.
+   *
+   * @return the number of stale reads.
+   * @since 3.3.0
+   */
+  public long getStaleReadCount() {
+    return this.staleReadCount.sum();
+  }
+
   protected ReadContext getReadContext() {
-    return doWithOrWithoutTransactionContext(x -> x, this.databaseClientProvider.get()::singleUse);
+    return doWithOrWithoutTransactionContext(x -> x, () -> singleUse(null));
   }
 
   protected ReadContext getReadContext(TimestampBound timestampBound) {
-    return doWithOrWithoutTransactionContext(
-        x -> x, () -> this.databaseClientProvider.get().singleUse(timestampBound));
+    return doWithOrWithoutTransactionContext(x -> x, () -> singleUse(timestampBound));
+  }
+
+  private ReadContext singleUse(@Nullable TimestampBound timestampBound) {
+    TimestampBound bound = timestampBound;
+    if (bound == null) {
+      bound = SpannerTimestampBoundHolder.getTimestampBound();
+    }
+    if (bound == null) {
+      bound = this.defaultTimestampBound;
+    }
+    if (bound == null || bound.getMode() == TimestampBound.Mode.STRONG) {
+      this.strongReadCount.increment();
+      return timestampBound != null
+          ? this.databaseClientProvider.get().singleUse(timestampBound)
+          : this.databaseClientProvider.get().singleUse();
+    }
+    this.staleReadCount.increment();
+    return this.databaseClientProvider.get().singleUse(bound);
   }
 
   public SpannerMappingContext getMappingContext() {
@@ -158,6 +260,42 @@ public class SpannerTemplate implements SpannerOperations, ApplicationEventPubli
     return rowsAffected;
   }
 
+  @Override
+  public long[] executeDmlStatements(Iterable<Statement> statements) {
+    Assert.notNull(statements, "A non-null iterable of statements is required.");
+    List<Statement> statementList = new ArrayList<>();
+    statements.forEach(statementList::add);
+    if (statementList.isEmpty()) {
+      return new long[0];
+    }
+    statementList.forEach(statement -> maybeEmitEvent(new BeforeExecuteDmlEvent(statement)));
+    long[] rowsAffected =
+        doWithOrWithoutTransactionContext(
+            x -> x.batchUpdate(statementList),
+            () ->
+                this.databaseClientProvider
+                    .get()
+                    .readWriteTransaction()
+                    .run(transactionContext -> transactionContext.batchUpdate(statementList)));
+    for (int i = 0; i < rowsAffected.length; i++) {
+      maybeEmitEvent(new AfterExecuteDmlEvent(statementList.get(i), rowsAffected[i]));
+    }
+    return rowsAffected;
+  }
+
+  @Override
+  public void bufferDmlStatement(Statement statement) {
+    Assert.notNull(statement, "A non-null statement is required.");
+    SpannerTransactionManager.Tx tx = getTransaction();
+    if (tx != null && tx.isDmlBatchingEnabled()) {
+      // The AfterExecuteDmlEvent is published once the batch is sent.
+      maybeEmitEvent(new BeforeExecuteDmlEvent(statement));
+      tx.bufferDmlStatement(statement, this.eventPublisher);
+    } else {
+      executeDmlStatement(statement);
+    }
+  }
+
   @Override
   public <T> T read(Class<T> entityClass, Key key) {
     return read(entityClass, key, null);
@@ -294,6 +432,92 @@ public class SpannerTemplate implements SpannerOperations, ApplicationEventPubli
         options);
   }
 
+  @Override
+  public <T> SpannerKeysetSlice<T> queryKeysetSlice(
+      Class<T> entityClass, SpannerKeysetPageable pageable) {
+    Assert.notNull(pageable, "A valid pageable is required.");
+    SpannerPersistentEntity<?> entity = this.mappingContext.getPersistentEntityOrFail(entityClass);
+    List<KeysetColumn> keyset = getKeysetColumns(entity, pageable.getSort());
+
+    List<String> tags = new ArrayList<>();
+    List<Object> params = new ArrayList<>();
+    String where = entity.hasWhere() ? entity.getWhere() : "";
+    if (pageable.getLastValues() != null) {
+      Assert.isTrue(
+          pageable.getLastValues().size() == keyset.size(),
+          "The values of the last row do not match the sort and primary key of "
+              + entityClass.getSimpleName()
+              + ".");
+      String condition = buildKeysetCondition(keyset, pageable.getLastValues(), tags, params);
+      where = where.isEmpty() ? condition : "(" + where + ") AND (" + condition + ")";
+    }
+    // Pages addressed by number rather than by the last row of the previous page are skipped to.
+    long offset = pageable.getLastValues() == null ? pageable.getOffset() : 0;
+
+    String sql =
+        "SELECT "
+            + SpannerStatementQueryExecutor.getColumnsStringForSelect(
+                entity, this.mappingContext, true)
+            + " FROM "
+            + entity.tableName()
+            + (where.isEmpty() ? "" : " WHERE " + where)
+            + " ORDER BY "
+            + keyset.stream()
+                .map(column -> column.columnName + (column.ascending ? " ASC" : " DESC"))
+                .collect(Collectors.joining(" , "))
+            + " LIMIT "
+            + (pageable.getPageSize() + 1)
+            + (offset > 0 ? " OFFSET " + offset : "");
+    List<T> rows =
+        query(
+            entityClass,
+            SpannerStatementQueryExecutor.buildStatementFromSqlWithArgs(
+                sql,
+                tags,
+                null,
+                this.spannerEntityProcessor.getWriteConverter(),
+                params.toArray(),
+                null),
+            null);
+
+    // One row more than the page size is read to find out whether there is a next page.
+    if (rows.size() <= pageable.getPageSize()) {
+      return new SpannerKeysetSlice<>(rows, pageable, null);
+    }
+    List<T> content = new ArrayList<>(rows.subList(0, pageable.getPageSize()));
+    return new SpannerKeysetSlice<>(
+        content,
+        pageable,
+        pageable.after(getKeysetValues(entity, keyset, content.get(content.size() - 1))));
+  }
+
+  @Override
+  public <T> void queryPartitioned(
+      Class<T> entityClass,
+      Statement statement,
+      SpannerPartitionedReadOptions options,
+      Consumer<? super T> rowConsumer) {
+    Assert.notNull(statement, "A valid statement is required.");
+    executePartitioned(
+        entityClass,
+        options,
+        rowConsumer,
+        (transaction, partitionOptions) -> transaction.partitionQuery(partitionOptions, statement));
+  }
+
+  @Override
+  public <T> void readAllPartitioned(
+      Class<T> entityClass, SpannerPartitionedReadOptions options, Consumer<? super T> rowConsumer) {
+    SpannerPersistentEntity<?> entity = this.mappingContext.getPersistentEntityOrFail(entityClass);
+    executePartitioned(
+        entityClass,
+        options,
+        rowConsumer,
+        (transaction, partitionOptions) ->
+            transaction.partitionRead(
+                partitionOptions, entity.tableName(), KeySet.all(), entity.columns()));
+  }
+
   @Override
   public void insert(Object object) {
     applySaveMutations(
@@ -631,6 +855,211 @@ public class SpannerTemplate implements SpannerOperations, ApplicationEventPubli
         });
   }
 
+  private <T> void executePartitioned(
+      Class<T> entityClass,
+      SpannerPartitionedReadOptions options,
+      Consumer<? super T> rowConsumer,
+      BiFunction<BatchReadOnlyTransaction, PartitionOptions, List<Partition>> partitioner) {
+    Assert.notNull(rowConsumer, "A valid row consumer is required.");
+    if (this.batchClientProvider == null) {
+      throw new SpannerDataException(
+          "Partitioned reads require a batch client; see setBatchClientProvider.");
+    }
+    SpannerPartitionedReadOptions readOptions =
+        options != null ? options : new SpannerPartitionedReadOptions();
+    BatchReadOnlyTransaction transaction =
+        this.batchClientProvider.get().batchReadOnlyTransaction(readOptions.getTimestampBound());
+    try {
+      Queue<Partition> partitions =
+          new ConcurrentLinkedQueue<>(
+              partitioner.apply(transaction, readOptions.getPartitionOptions()));
+      int readers = Math.min(readOptions.getParallelism(), partitions.size());
+      if (readers == 0) {
+        return;
+      }
+      ExecutorService readerPool =
+          this.partitionExecutor == null ? newPartitionReaderPool(readers) : null;
+      Executor executor = readerPool != null ? readerPool : this.partitionExecutor;
+      try {
+        AtomicBoolean failed = new AtomicBoolean();
+        CompletableFuture<?>[] futures = new CompletableFuture<?>[readers];
+        for (int i = 0; i < readers; i++) {
+          futures[i] =
+              CompletableFuture.runAsync(
+                  () -> readPartitions(transaction, partitions, failed, entityClass, rowConsumer),
+                  executor);
+        }
+        // Waits for every reader to stop before the transaction is cleaned up.
+        CompletableFuture.allOf(futures).join();
+      } finally {
+        if (readerPool != null) {
+          readerPool.shutdown();
+        }
+      }
+    } catch (CompletionException ex) {
+      if (ex.getCause() instanceof RuntimeException) {
+        throw (RuntimeException) ex.getCause();
+      }
+      throw new SpannerDataException("Partitioned read failed.", ex.getCause());
+    } finally {
+      transaction.cleanup();
+    }
+  }
+
+  /** Reads partitions from the queue until it is empty or another reader has failed. */
+  private <T> void readPartitions(
+      BatchReadOnlyTransaction transaction,
+      Queue<Partition> partitions,
+      AtomicBoolean failed,
+      Class<T> entityClass,
+      Consumer<? super T> rowConsumer) {
+    try {
+      Partition partition;
+      while (!failed.get() && (partition = partitions.poll()) != null) {
+        try (ResultSet resultSet = transaction.execute(partition)) {
+          while (!failed.get() && resultSet.next()) {
+            rowConsumer.accept(
+                this.spannerEntityProcessor.read(entityClass, resultSet.getCurrentRowAsStruct()));
+          }
+        }
+      }
+    } catch (RuntimeException | Error ex) {
+      failed.set(true);
+      throw ex;
+    }
+  }
+
+  private static ExecutorService newPartitionReaderPool(int readers) {
+    CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("spanner-partition-");
+    threadFactory.setDaemon(true);
+    return Executors.newFixedThreadPool(readers, threadFactory);
+  }
+
+  /**
+   * Gets the columns that order the rows of a keyset query: the sorted columns followed by the
+   * primary key columns that are not sorted on, so that every row has a unique position.
+   */
+  private static List<KeysetColumn> getKeysetColumns(
+      SpannerPersistentEntity<?> entity, Sort sort) {
+    List<KeysetColumn> keyset = new ArrayList<>();
+    Set<String> sortedColumns = new HashSet<>();
+    for (Sort.Order order : sort) {
+      SpannerPersistentProperty property = entity.getPersistentProperty(order.getProperty());
+      if (property == null || property.isEmbedded() || property.isInterleaved()) {
+        throw new SpannerDataException(
+            "Keyset pagination can only sort on properties stored in a single column: "
+                + order.getProperty());
+      }
+      if (order.isIgnoreCase()) {
+        throw new SpannerDataException(
+            "Keyset pagination does not support case-insensitive sorting: "
+                + order.getProperty());
+      }
+      if (sortedColumns.add(property.getColumnName())) {
+        keyset.add(new KeysetColumn(property, -1, order.isAscending()));
+      }
+    }
+    List<SpannerPersistentProperty> keyProperties = entity.getFlattenedPrimaryKeyProperties();
+    for (int i = 0; i < keyProperties.size(); i++) {
+      if (sortedColumns.add(keyProperties.get(i).getColumnName())) {
+        keyset.add(new KeysetColumn(keyProperties.get(i), i, true));
+      }
+    }
+    return keyset;
+  }
+
+  /**
+   * Builds the condition that selects the rows ordered after the row with the given values. Cloud
+   * Spanner orders NULL values before all others, so they are compared with IS NULL rather than
+   * bound as parameters.
+   */
+  private static String buildKeysetCondition(
+      List<KeysetColumn> keyset, List<Object> lastValues, List<String> tags, List<Object> params) {
+    StringJoiner disjunction = new StringJoiner(" OR ");
+    StringBuilder equalPrefix = new StringBuilder();
+    for (int i = 0; i < keyset.size(); i++) {
+      KeysetColumn column = keyset.get(i);
+      Object value = lastValues.get(i);
+      String tag = null;
+      if (value != null) {
+        tag = "keyset" + i;
+        tags.add(tag);
+        params.add(value);
+      }
+
+      String after;
+      if (column.ascending) {
+        after = tag == null ? column.columnName + " IS NOT NULL" : column.columnName + " > @" + tag;
+      } else {
+        after =
+            tag == null
+                ? null
+                : "(" + column.columnName + " < @" + tag + " OR " + column.columnName + " IS NULL)";
+      }
+      if (after != null) {
+        disjunction.add("(" + equalPrefix + after + ")");
+      }
+      equalPrefix
+          .append(tag == null ? column.columnName + " IS NULL" : column.columnName + " = @" + tag)
+          .append(" AND ");
+    }
+    return disjunction.length() == 0 ? "FALSE" : disjunction.toString();
+  }
+
+  private List<Object> getKeysetValues(
+      SpannerPersistentEntity<?> entity, List<KeysetColumn> keyset, Object row) {
+    PersistentPropertyAccessor<?> accessor = entity.getPropertyAccessor(row);
+    List<Object> keyParts = new ArrayList<>();
+    addPrimaryKeyValues(entity, row, keyParts);
+    List<Object> values = new ArrayList<>(keyset.size());
+    for (KeysetColumn column : keyset) {
+      values.add(
+          column.keyIndex < 0
+              ? accessor.getProperty(column.property)
+              : keyParts.get(column.keyIndex));
+    }
+    return values;
+  }
+
+  /** Adds the primary key values of the object in the order of its flattened primary key. */
+  private void addPrimaryKeyValues(
+      SpannerPersistentEntity<?> entity, Object object, List<Object> values) {
+    if (object == null) {
+      entity.getFlattenedPrimaryKeyProperties().forEach(property -> values.add(null));
+      return;
+    }
+    PersistentPropertyAccessor<?> accessor = entity.getPropertyAccessor(object);
+    for (SpannerPersistentProperty property : entity.getPrimaryKeyProperties()) {
+      Object value = accessor.getProperty(property);
+      if (property.isEmbedded()) {
+        addPrimaryKeyValues(
+            this.mappingContext.getPersistentEntityOrFail(property.getType()), value, values);
+      } else {
+        values.add(value);
+      }
+    }
+  }
+
+  /** A column of the order of a keyset query. */
+  private static final class KeysetColumn {
+
+    private final SpannerPersistentProperty property;
+
+    private final String columnName;
+
+    /** The index of the column in the primary key, or -1 if the column is sorted on. */
+    private final int keyIndex;
+
+    private final boolean ascending;
+
+    KeysetColumn(SpannerPersistentProperty property, int keyIndex, boolean ascending) {
+      this.property = property;
+      this.columnName = property.getColumnName();
+      this.keyIndex = keyIndex;
+      this.ascending = ascending;
+    }
+  }
+
   private <T> List<T> queryAndResolveChildren(
       Class<T> entityClass, Statement statement, SpannerQueryOptions options) {
     return mapToListAndResolveChildren(
@@ -703,18 +1132,28 @@ public class SpannerTemplate implements SpannerOperations, ApplicationEventPubli
         .collect(Collectors.toList());
   }
 
-  private TransactionContext getTransactionContext() {
+  private SpannerTransactionManager.Tx getTransaction() {
     if (TransactionSynchronizationManager.isActualTransactionActive()) {
       SpannerTransactionManager.Tx tx =
           (SpannerTransactionManager.Tx)
               TransactionSynchronizationManager.getResource(this.databaseClientProvider.get());
       if (tx != null && tx.getTransactionContext() != null) {
-        return tx.getTransactionContext();
+        return tx;
       }
     }
     return null;
   }
 
+  private TransactionContext getTransactionContext() {
+    SpannerTransactionManager.Tx tx = getTransaction();
+    if (tx == null) {
+      return null;
+    }
+    // Buffered DML statements are sent first so that the operation sees their effects.
+    tx.flushDmlStatements();
+    return tx.getTransactionContext();
+  }
+
   private <A> A doWithOrWithoutTransactionContext(
       Function<TransactionContext, A> funcWithTransactionContext,
       Supplier<A> funcWithoutTransactionContext) {
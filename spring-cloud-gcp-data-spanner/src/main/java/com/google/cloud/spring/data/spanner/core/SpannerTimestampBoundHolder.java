@@ -0,0 +1,72 @@
+/*
+ * Copyright 2022-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.cloud.spring.data.spanner.core;
+
+import com.google.cloud.spanner.TimestampBound;
+import javax.annotation.Nullable;
+
+/**
+ * Holds the timestamp bound applied to the single-use reads and queries of the current thread
+ * that do not set one in their options. It is bound by repositories for methods annotated with
+ * {@link com.google.cloud.spring.data.spanner.repository.query.StaleRead} and can also be bound
+ * around custom code.
+ *
+ * <pre>
+ * TimestampBound previous =
+ *     SpannerTimestampBoundHolder.setTimestampBound(TimestampBound.ofMaxStaleness(10, SECONDS));
+ * try {
+ *   ...
+ * } finally {
+ *   SpannerTimestampBoundHolder.setTimestampBound(previous);
+ * }
+ * </pre>
+ *
+ * @since 3.3.0
+ */
+public final class SpannerTimestampBoundHolder {
+
+  private static final ThreadLocal<TimestampBound> TIMESTAMP_BOUND = new ThreadLocal<>();
+
+  private SpannerTimestampBoundHolder() {}
+
+  /**
+   * Returns the timestamp bound of the current thread.
+   *
+   * @return the timestamp bound, or null if none is bound.
+   */
+  @Nullable
+  public static TimestampBound getTimestampBound() {
+    return TIMESTAMP_BOUND.get();
+  }
+
+  /**
+   * Binds a timestamp bound to the current thread.
+   *
+   * @param timestampBound the timestamp bound, or null to remove the current one.
+   * @return the previously bound timestamp bound, to be restored once done.
+   */
+  @Nullable
+  public static TimestampBound setTimestampBound(@Nullable TimestampBound timestampBound) {
+    TimestampBound previous = TIMESTAMP_BOUND.get();
+    if (timestampBound == null) {
+      TIMESTAMP_BOUND.remove();
+    } else {
+      TIMESTAMP_BOUND.set(timestampBound);
+    }
+    return previous;
+  }
+}
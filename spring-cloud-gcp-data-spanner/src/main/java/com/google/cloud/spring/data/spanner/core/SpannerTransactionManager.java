@@ -33,10 +33,15 @@ import com.google.cloud.spanner.ResultSet;
 import com.google.cloud.spanner.SpannerException;
 import com.google.cloud.spanner.Statement;
 import com.google.cloud.spanner.Struct;
+import com.google.cloud.spanner.TimestampBound;
 import com.google.cloud.spanner.TransactionContext;
 import com.google.cloud.spanner.TransactionManager;
+import com.google.cloud.spring.data.spanner.core.mapping.event.AfterExecuteDmlEvent;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.function.Supplier;
 import javax.annotation.Nullable;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.dao.DuplicateKeyException;
 import org.springframework.transaction.TransactionDefinition;
 import org.springframework.transaction.TransactionException;
@@ -44,6 +49,7 @@ import org.springframework.transaction.UnexpectedRollbackException;
 import org.springframework.transaction.support.AbstractPlatformTransactionManager;
 import org.springframework.transaction.support.DefaultTransactionStatus;
 import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.util.Assert;
 
 /**
  * Spanner transaction manager.
@@ -53,10 +59,47 @@ import org.springframework.transaction.support.TransactionSynchronizationManager
 public class SpannerTransactionManager extends AbstractPlatformTransactionManager {
   private final Supplier<DatabaseClient> databaseClientProvider;
 
+  private int dmlBatchSize;
+
+  private TimestampBound readOnlyTimestampBound;
+
   public SpannerTransactionManager(final Supplier databaseClientProvider) {
     this.databaseClientProvider = databaseClientProvider;
   }
 
+  /**
+   * Sets the maximum number of DML statements buffered in a read-write transaction before they are
+   * sent together in one {@code batchUpdate} call. Statements are buffered only through {@link
+   * SpannerOperations#bufferDmlStatement(Statement)}; the buffer is also flushed before any other
+   * operation of the template in the transaction and before the transaction commits. The default,
+   * 0, disables buffering.
+   *
+   * @param dmlBatchSize the maximum number of buffered statements, or 0 to disable buffering.
+   * @since 3.3.0
+   */
+  public void setDmlBatchSize(int dmlBatchSize) {
+    Assert.isTrue(dmlBatchSize >= 0, "The DML batch size must not be negative.");
+    this.dmlBatchSize = dmlBatchSize;
+  }
+
+  /**
+   * Sets the timestamp bound of read-only transactions, such as methods annotated with {@code
+   * Transactional(readOnly = true)}. Stale read-only transactions can be served by the nearest
+   * replica. Read-only transactions support only strong, exact staleness and read timestamp
+   * bounds. By default, read-only transactions are strong.
+   *
+   * @param readOnlyTimestampBound the timestamp bound, or null for strong reads.
+   * @since 3.3.0
+   */
+  public void setReadOnlyTimestampBound(TimestampBound readOnlyTimestampBound) {
+    Assert.isTrue(
+        readOnlyTimestampBound == null
+            || readOnlyTimestampBound.getMode() != TimestampBound.Mode.MAX_STALENESS
+                && readOnlyTimestampBound.getMode() != TimestampBound.Mode.MIN_READ_TIMESTAMP,
+        "Bounded staleness is only supported by single-use reads.");
+    this.readOnlyTimestampBound = readOnlyTimestampBound;
+  }
+
   @Override
   protected Object doGetTransaction() throws TransactionException {
     Tx tx = (Tx) TransactionSynchronizationManager.getResource(databaseClientProvider.get());
@@ -88,7 +131,9 @@ public class SpannerTransactionManager extends AbstractPlatformTransactionManage
     Tx tx = (Tx) transactionObject;
     if (transactionDefinition.isReadOnly()) {
       final ReadContext targetTransactionContext =
-          this.databaseClientProvider.get().readOnlyTransaction();
+          this.readOnlyTimestampBound != null
+              ? this.databaseClientProvider.get().readOnlyTransaction(this.readOnlyTimestampBound)
+              : this.databaseClientProvider.get().readOnlyTransaction();
       tx.isReadOnly = true;
       tx.transactionManager = null;
       tx.transactionContext =
@@ -216,6 +261,7 @@ public class SpannerTransactionManager extends AbstractPlatformTransactionManage
       tx.transactionManager = tx.databaseClient.transactionManager();
       tx.transactionContext = tx.getTransactionManager().begin();
       tx.isReadOnly = false;
+      tx.dmlBatchSize = this.dmlBatchSize;
     }
 
     TransactionSynchronizationManager.bindResource(tx.getDatabaseClient(), tx);
@@ -229,6 +275,7 @@ public class SpannerTransactionManager extends AbstractPlatformTransactionManage
       if (tx.getTransactionManager() != null
           && tx.getTransactionManager().getState() == TransactionManager.TransactionState.STARTED) {
 
+        tx.flushDmlStatements();
         tx.getTransactionManager().commit();
       }
       if (tx.isReadOnly()) {
@@ -258,6 +305,8 @@ public class SpannerTransactionManager extends AbstractPlatformTransactionManage
   protected void doRollback(DefaultTransactionStatus defaultTransactionStatus)
       throws TransactionException {
     Tx tx = (Tx) defaultTransactionStatus.getTransaction();
+    tx.pendingDmlStatements.clear();
+    tx.pendingDmlEventPublishers.clear();
     if (tx.getTransactionManager() != null
         && (tx.getTransactionManager().getState() == TransactionManager.TransactionState.STARTED
             || tx.getTransactionManager().getState()
@@ -281,6 +330,9 @@ public class SpannerTransactionManager extends AbstractPlatformTransactionManage
     tx.transactionManager = null;
     tx.transactionContext = null;
     tx.isReadOnly = false;
+    tx.dmlBatchSize = 0;
+    tx.pendingDmlStatements.clear();
+    tx.pendingDmlEventPublishers.clear();
   }
 
   /** A transaction object that holds the transaction context. */
@@ -293,6 +345,13 @@ public class SpannerTransactionManager extends AbstractPlatformTransactionManage
 
     DatabaseClient databaseClient;
 
+    int dmlBatchSize;
+
+    final List<Statement> pendingDmlStatements = new ArrayList<>();
+
+    // The publishers of the events of the pending statements, at the same positions.
+    final List<ApplicationEventPublisher> pendingDmlEventPublishers = new ArrayList<>();
+
     public Tx(DatabaseClient databaseClient) {
       this.databaseClient = databaseClient;
     }
@@ -312,5 +371,71 @@ public class SpannerTransactionManager extends AbstractPlatformTransactionManage
     public DatabaseClient getDatabaseClient() {
       return databaseClient;
     }
+
+    /**
+     * Returns whether DML statements can be buffered in this transaction.
+     *
+     * @return true if this is a read-write transaction with a DML batch size set.
+     * @since 3.3.0
+     */
+    public boolean isDmlBatchingEnabled() {
+      return this.dmlBatchSize > 0 && !this.isReadOnly && this.transactionContext != null;
+    }
+
+    /**
+     * Buffers a DML statement, sending the buffered statements if the DML batch size is reached.
+     *
+     * @param statement the DML statement.
+     * @since 3.3.0
+     */
+    public void bufferDmlStatement(Statement statement) {
+      bufferDmlStatement(statement, null);
+    }
+
+    /**
+     * Buffers a DML statement, sending the buffered statements if the DML batch size is reached.
+     * An {@link AfterExecuteDmlEvent} with the number of rows affected by the statement is
+     * published once it is sent.
+     *
+     * @param statement the DML statement.
+     * @param eventPublisher the publisher of the event, or null to publish no event.
+     * @since 3.3.0
+     */
+    public void bufferDmlStatement(
+        Statement statement, @Nullable ApplicationEventPublisher eventPublisher) {
+      Assert.state(isDmlBatchingEnabled(), "DML batching is not enabled for this transaction.");
+      this.pendingDmlStatements.add(statement);
+      this.pendingDmlEventPublishers.add(eventPublisher);
+      if (this.pendingDmlStatements.size() >= this.dmlBatchSize) {
+        flushDmlStatements();
+      }
+    }
+
+    /**
+     * Sends the buffered DML statements in one {@code batchUpdate} call.
+     *
+     * @return the number of rows affected by each statement sent, or an empty array if no
+     *     statement was buffered.
+     * @since 3.3.0
+     */
+    public long[] flushDmlStatements() {
+      if (this.pendingDmlStatements.isEmpty()) {
+        return new long[0];
+      }
+      List<Statement> statements = new ArrayList<>(this.pendingDmlStatements);
+      List<ApplicationEventPublisher> eventPublishers =
+          new ArrayList<>(this.pendingDmlEventPublishers);
+      this.pendingDmlStatements.clear();
+      this.pendingDmlEventPublishers.clear();
+      long[] rowsAffected = this.transactionContext.batchUpdate(statements);
+      for (int i = 0; i < rowsAffected.length; i++) {
+        if (eventPublishers.get(i) != null) {
+          eventPublishers
+              .get(i)
+              .publishEvent(new AfterExecuteDmlEvent(statements.get(i), rowsAffected[i]));
+        }
+      }
+      return rowsAffected;
+    }
   }
 }
@@ -0,0 +1,31 @@
+/*
+ * Copyright 2022-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.cloud.spring.data.spanner.repository;
+
+import org.springframework.data.repository.NoRepositoryBean;
+import org.springframework.data.repository.reactive.ReactiveCrudRepository;
+
+/**
+ * A {@link ReactiveCrudRepository} for Cloud Spanner entities, backed by {@link
+ * com.google.cloud.spring.data.spanner.core.ReactiveSpannerOperations}.
+ *
+ * @param <T> the type of the domain object
+ * @param <I> the type of the ID property in the domain object
+ * @since 3.3.0
+ */
+@NoRepositoryBean
+public interface ReactiveSpannerRepository<T, I> extends ReactiveCrudRepository<T, I> {}
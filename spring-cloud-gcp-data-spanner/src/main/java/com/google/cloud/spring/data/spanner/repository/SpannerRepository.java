@@ -18,6 +18,8 @@ package com.google.cloud.spring.data.spanner.repository;
 
 import com.google.cloud.spring.data.spanner.core.SpannerOperations;
 import java.util.function.Function;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.repository.PagingAndSortingRepository;
 
 /**
@@ -56,4 +58,19 @@ public interface SpannerRepository<T, I> extends PagingAndSortingRepository<T, I
    * @return the final result of the transaction.
    */
   <A> A performReadOnlyTransaction(Function<SpannerRepository<T, I>, A> operations);
+
+  /**
+   * Returns a slice of entities without counting all of them, unlike {@link #findAll(Pageable)}.
+   * When given a {@link com.google.cloud.spring.data.spanner.core.SpannerKeysetPageable}, the
+   * slice is read with keyset pagination, so reading a page costs the same no matter how far into
+   * the table it is; the following page is then obtained from {@link Slice#nextPageable()}. Other
+   * pageables are read with {@code LIMIT} and {@code OFFSET}.
+   *
+   * @param pageable the page to read.
+   * @return the slice of entities.
+   * @since 3.3.0
+   */
+  default Slice<T> findAllSlice(Pageable pageable) {
+    return findAll(pageable);
+  }
 }
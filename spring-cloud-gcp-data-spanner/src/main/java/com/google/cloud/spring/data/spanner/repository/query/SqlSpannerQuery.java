@@ -84,6 +84,8 @@ public class SqlSpannerQuery<T> extends AbstractSpannerQuery<T> {
 
   private SpelExpressionParser expressionParser;
 
+  private volatile QueryPlan queryPlan;
+
   SqlSpannerQuery(
       Class<T> type,
       SpannerQueryMethod queryMethod,
@@ -153,8 +155,56 @@ public class SqlSpannerQuery<T> extends AbstractSpannerQuery<T> {
     return result;
   }
 
-  private void resolveSpelTags(QueryTagValue queryTagValue) {
-    Expression[] expressions = detectExpressions(queryTagValue.sql);
+  /**
+   * Returns the parts of the query that do not depend on the arguments of an invocation, compiling
+   * them on first use.
+   */
+  private QueryPlan getQueryPlan() {
+    QueryPlan plan = this.queryPlan;
+    if (plan == null) {
+      plan = compileQueryPlan();
+      this.queryPlan = plan;
+    }
+    return plan;
+  }
+
+  private QueryPlan compileQueryPlan() {
+    String resolvedSql = resolveEntityClassNames(this.sql, this.spannerMappingContext);
+    Expression[] expressions = detectExpressions(resolvedSql);
+
+    Map<String, java.lang.reflect.Parameter> paramMetadataMap = new HashMap<>();
+    for (java.lang.reflect.Parameter param : getQueryMethod().getQueryMethod().getParameters()) {
+      Param annotation = param.getAnnotation(Param.class);
+      paramMetadataMap.put(annotation == null ? param.getName() : annotation.value(), param);
+    }
+
+    Class<?> simpleItemType = null;
+    boolean jsonField = false;
+    boolean fetchInterleaved = false;
+    if (!this.isDml) {
+      Class<?> returnedType = getReturnedType();
+      SpannerPersistentEntity<?> entity =
+          returnedType == null ? null : this.spannerMappingContext.getPersistentEntity(returnedType);
+      fetchInterleaved = entity != null && entity.hasEagerlyLoadedProperties();
+      simpleItemType = getReturnedSimpleConvertableItemType();
+      jsonField = isJsonFieldType(returnedType);
+    }
+
+    return new QueryPlan(
+        getParamTags(),
+        resolvedSql,
+        expressions,
+        paramMetadataMap,
+        simpleItemType,
+        jsonField,
+        fetchInterleaved);
+  }
+
+  private void resolveSpelTags(QueryTagValue queryTagValue, QueryPlan plan) {
+    if (!plan.hasSpelExpressions) {
+      return;
+    }
+    Expression[] expressions = plan.expressions;
     StringBuilder sb = new StringBuilder();
     Map<Object, String> valueToTag = new HashMap<>();
     int tagNum = 0;
@@ -195,22 +245,28 @@ public class SqlSpannerQuery<T> extends AbstractSpannerQuery<T> {
         new ParametersParameterAccessor(getQueryMethod().getParameters(), parameters);
     Object[] params = StreamSupport.stream(paramAccessor.spliterator(), false).toArray();
 
+    QueryPlan plan = getQueryPlan();
     QueryTagValue queryTagValue =
-        new QueryTagValue(
-            getParamTags(),
-            parameters,
-            params,
-            resolveEntityClassNames(this.sql, this.spannerMappingContext));
+        new QueryTagValue(plan.paramTags, plan.paramTagSet, parameters, params, plan.resolvedSql);
 
-    resolveSpelTags(queryTagValue);
+    resolveSpelTags(queryTagValue, plan);
 
+    if (this.isDml && getQueryMethod().getReturnedObjectType() == void.class) {
+      // The row count is not returned, so the statement can be batched with others of the
+      // same transaction.
+      this.spannerTemplate.bufferDmlStatement(buildStatementFromQueryAndTags(queryTagValue, plan));
+      return Collections.emptyList();
+    }
     return this.isDml
         ? Collections.singletonList(
-            this.spannerTemplate.executeDmlStatement(buildStatementFromQueryAndTags(queryTagValue)))
-        : executeReadSql(paramAccessor.getPageable(), paramAccessor.getSort(), queryTagValue);
+            this.spannerTemplate.executeDmlStatement(
+                buildStatementFromQueryAndTags(queryTagValue, plan)))
+        : executeReadSql(
+            paramAccessor.getPageable(), paramAccessor.getSort(), queryTagValue, plan);
   }
 
-  private List executeReadSql(Pageable pageable, Sort sort, QueryTagValue queryTagValue) {
+  private List executeReadSql(
+      Pageable pageable, Sort sort, QueryTagValue queryTagValue, QueryPlan plan) {
     SpannerPageableQueryOptions spannerQueryOptions =
         new SpannerPageableQueryOptions().setAllowPartialRead(true);
 
@@ -223,8 +279,6 @@ public class SqlSpannerQuery<T> extends AbstractSpannerQuery<T> {
     }
 
     final Class<?> returnedType = getReturnedType();
-    final SpannerPersistentEntity<?> entity =
-        returnedType == null ? null : this.spannerMappingContext.getPersistentEntity(returnedType);
 
     queryTagValue.sql =
         SpannerStatementQueryExecutor.applySortingPagingQueryOptions(
@@ -232,17 +286,16 @@ public class SqlSpannerQuery<T> extends AbstractSpannerQuery<T> {
             spannerQueryOptions,
             queryTagValue.sql,
             this.spannerMappingContext,
-            entity != null && entity.hasEagerlyLoadedProperties());
+            plan.fetchInterleaved);
 
-    Statement statement = buildStatementFromQueryAndTags(queryTagValue);
+    Statement statement = buildStatementFromQueryAndTags(queryTagValue, plan);
 
-    if (getReturnedSimpleConvertableItemType() != null) {
+    if (plan.simpleItemType != null) {
       return this.spannerTemplate.query(
           struct -> new StructAccessor(struct).getSingleValue(0), statement, spannerQueryOptions);
     }
     // check if returnedType is a field annotated as json
-    boolean isJsonField = isJsonFieldType(returnedType);
-    if (isJsonField) {
+    if (plan.jsonField) {
       return this.spannerTemplate.query(
           struct -> new StructAccessor(struct, this.spannerMappingContext.getGson()).getSingleJsonValue(0, returnedType),
           statement,
@@ -262,19 +315,14 @@ public class SqlSpannerQuery<T> extends AbstractSpannerQuery<T> {
     return persistentEntity.isJsonProperty(returnedType);
   }
 
-  private Statement buildStatementFromQueryAndTags(QueryTagValue queryTagValue) {
-    Map<String, java.lang.reflect.Parameter> paramMetadataMap = new HashMap<>();
-    for (java.lang.reflect.Parameter param : getQueryMethod().getQueryMethod().getParameters()) {
-      Param annotation = param.getAnnotation(Param.class);
-      paramMetadataMap.put(annotation == null ? param.getName() : annotation.value(), param);
-    }
+  private Statement buildStatementFromQueryAndTags(QueryTagValue queryTagValue, QueryPlan plan) {
     return SpannerStatementQueryExecutor.buildStatementFromSqlWithArgs(
         queryTagValue.sql,
         queryTagValue.tags,
         this.paramStructConvertFunc,
         this.spannerTemplate.getSpannerEntityProcessor().getWriteConverter(),
         queryTagValue.params.toArray(),
-        paramMetadataMap);
+        plan.paramMetadataMap);
   }
 
   private Expression[] detectExpressions(String sql) {
@@ -291,6 +339,51 @@ public class SqlSpannerQuery<T> extends AbstractSpannerQuery<T> {
     }
   }
 
+  /**
+   * The invocation-independent parts of a query method: the SQL with entity class names resolved,
+   * its parsed SpEL template, the parameter tags and metadata, and facts about the return type.
+   */
+  private static final class QueryPlan {
+
+    final List<String> paramTags;
+
+    final Set<String> paramTagSet;
+
+    final String resolvedSql;
+
+    final Expression[] expressions;
+
+    final boolean hasSpelExpressions;
+
+    final Map<String, java.lang.reflect.Parameter> paramMetadataMap;
+
+    final Class<?> simpleItemType;
+
+    final boolean jsonField;
+
+    final boolean fetchInterleaved;
+
+    QueryPlan(
+        List<String> paramTags,
+        String resolvedSql,
+        Expression[] expressions,
+        Map<String, java.lang.reflect.Parameter> paramMetadataMap,
+        Class<?> simpleItemType,
+        boolean jsonField,
+        boolean fetchInterleaved) {
+      this.paramTags = Collections.unmodifiableList(paramTags);
+      this.paramTagSet = Collections.unmodifiableSet(new HashSet<>(paramTags));
+      this.resolvedSql = resolvedSql;
+      this.expressions = expressions;
+      this.hasSpelExpressions =
+          Arrays.stream(expressions).anyMatch(SpelExpression.class::isInstance);
+      this.paramMetadataMap = Collections.unmodifiableMap(paramMetadataMap);
+      this.simpleItemType = simpleItemType;
+      this.jsonField = jsonField;
+      this.fetchInterleaved = fetchInterleaved;
+    }
+  }
+
   // Convenience class to hold a grouping of SQL, tags, and parameter values.
   private static class QueryTagValue {
 
@@ -306,11 +399,16 @@ public class SqlSpannerQuery<T> extends AbstractSpannerQuery<T> {
 
     String sql;
 
-    QueryTagValue(List<String> tags, Object[] rawParams, Object[] params, String sql) {
-      this.tags = tags;
+    QueryTagValue(
+        List<String> tags,
+        Set<String> initialTags,
+        Object[] rawParams,
+        Object[] params,
+        String sql) {
+      this.tags = new ArrayList<>(tags);
       this.intialParams = params;
       this.sql = sql;
-      this.initialTags = new HashSet<>(tags);
+      this.initialTags = initialTags;
       this.params = new ArrayList<>(Arrays.asList(params));
       this.rawParams = rawParams;
     }
@@ -0,0 +1,64 @@
+/*
+ * Copyright 2022-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.cloud.spring.data.spanner.repository.query;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Inherited;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Annotation used on repositories or repository methods to read data that may be stale by a given
+ * amount of time. Such reads can be served by the nearest replica without a round trip to the
+ * leader of the data. It applies to reads and queries outside of transactions that do not set a
+ * timestamp bound in their options; an annotation on a method takes precedence over one on the
+ * repository.
+ *
+ * @since 3.3.0
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.METHOD, ElementType.TYPE})
+@Documented
+@Inherited
+public @interface StaleRead {
+
+  /**
+   * The staleness of the data read.
+   *
+   * @return the maximum staleness, or the exact staleness if {@link #exact()} is set.
+   */
+  long value();
+
+  /**
+   * The time unit of the staleness.
+   *
+   * @return the time unit, seconds by default.
+   */
+  TimeUnit unit() default TimeUnit.SECONDS;
+
+  /**
+   * Indicates if data is read exactly at the given staleness instead of at any time within it.
+   * Bounded staleness lets Cloud Spanner pick the newest timestamp available on the nearest
+   * replica, whereas exact staleness gives repeatable timestamps.
+   *
+   * @return {@code true} for exact staleness, {@code false} for bounded staleness.
+   */
+  boolean exact() default false;
+}
@@ -0,0 +1,78 @@
+/*
+ * Copyright 2022-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.cloud.spring.data.spanner.repository.support;
+
+import com.google.cloud.spring.data.spanner.core.ReactiveSpannerTemplate;
+import com.google.cloud.spring.data.spanner.core.mapping.SpannerPersistentEntity;
+import com.google.cloud.spring.data.spanner.core.mapping.SpannerPersistentEntityInformation;
+import com.google.cloud.spring.data.spanner.repository.ReactiveSpannerRepository;
+import org.springframework.data.mapping.MappingException;
+import org.springframework.data.repository.core.EntityInformation;
+import org.springframework.data.repository.core.RepositoryInformation;
+import org.springframework.data.repository.core.RepositoryMetadata;
+import org.springframework.data.repository.core.support.ReactiveRepositoryFactorySupport;
+import org.springframework.util.Assert;
+
+/**
+ * A factory for {@link ReactiveSpannerRepository} interfaces, backed by {@link
+ * SimpleReactiveSpannerRepository}. Query methods are not supported, so the interfaces may only
+ * declare the methods of {@link ReactiveSpannerRepository}. There is no annotation to enable
+ * reactive repositories; create them with {@link #getRepository(Class)}.
+ *
+ * @since 3.3.0
+ */
+public class ReactiveSpannerRepositoryFactory extends ReactiveRepositoryFactorySupport {
+
+  private final ReactiveSpannerTemplate spannerTemplate;
+
+  /**
+   * Constructor.
+   *
+   * @param spannerTemplate the reactive Cloud Spanner operations object used by the repositories.
+   */
+  public ReactiveSpannerRepositoryFactory(ReactiveSpannerTemplate spannerTemplate) {
+    Assert.notNull(spannerTemplate, "A valid ReactiveSpannerTemplate object is required.");
+    this.spannerTemplate = spannerTemplate;
+  }
+
+  @Override
+  @SuppressWarnings("unchecked")
+  public <T, I> EntityInformation<T, I> getEntityInformation(Class<T> domainClass) {
+    SpannerPersistentEntity<T> entity =
+        (SpannerPersistentEntity<T>)
+            this.spannerTemplate.getMappingContext().getPersistentEntity(domainClass);
+
+    if (entity == null) {
+      throw new MappingException(
+          String.format(
+              "Could not lookup mapping metadata for domain class %s!", domainClass.getName()));
+    }
+
+    return (EntityInformation<T, I>) new SpannerPersistentEntityInformation<>(entity);
+  }
+
+  @Override
+  protected Object getTargetRepository(RepositoryInformation metadata) {
+    return getTargetRepositoryViaReflection(
+        metadata, this.spannerTemplate, metadata.getDomainType());
+  }
+
+  @Override
+  protected Class<?> getRepositoryBaseClass(RepositoryMetadata metadata) {
+    return SimpleReactiveSpannerRepository.class;
+  }
+}
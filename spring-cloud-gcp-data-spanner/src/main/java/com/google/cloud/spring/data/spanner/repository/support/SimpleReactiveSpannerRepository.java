@@ -0,0 +1,185 @@
+/*
+ * Copyright 2022-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.cloud.spring.data.spanner.repository.support;
+
+import com.google.cloud.spanner.Key;
+import com.google.cloud.spanner.KeySet;
+import com.google.cloud.spring.data.spanner.core.ReactiveSpannerTemplate;
+import com.google.cloud.spring.data.spanner.repository.ReactiveSpannerRepository;
+import org.reactivestreams.Publisher;
+import org.springframework.util.Assert;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Implementation of {@link ReactiveSpannerRepository} on top of {@link ReactiveSpannerTemplate}.
+ * Operations start when they are subscribed to, and entities or IDs emitted by publishers are
+ * saved, read and deleted in batches.
+ *
+ * @param <T> the type of the entities
+ * @param <I> the id type of the entities
+ * @since 3.3.0
+ */
+public class SimpleReactiveSpannerRepository<T, I> implements ReactiveSpannerRepository<T, I> {
+
+  private static final int BATCH_SIZE = 500;
+
+  private static final String NON_NULL_ID_REQUIRED = "A non-null ID is required.";
+
+  private final ReactiveSpannerTemplate spannerTemplate;
+
+  private final Class<T> entityType;
+
+  public SimpleReactiveSpannerRepository(
+      ReactiveSpannerTemplate spannerTemplate, Class<T> entityType) {
+    Assert.notNull(spannerTemplate, "A valid ReactiveSpannerTemplate object is required.");
+    Assert.notNull(entityType, "A valid entity type is required.");
+    this.spannerTemplate = spannerTemplate;
+    this.entityType = entityType;
+  }
+
+  @Override
+  public <S extends T> Mono<S> save(S entity) {
+    Assert.notNull(entity, "A non-null entity is required for saving.");
+    return this.spannerTemplate.upsert(entity).thenReturn(entity);
+  }
+
+  @Override
+  public <S extends T> Flux<S> saveAll(Iterable<S> entities) {
+    Assert.notNull(entities, "A non-null list of entities is required for saving.");
+    return this.spannerTemplate.upsertAll(entities).thenMany(Flux.fromIterable(entities));
+  }
+
+  @Override
+  public <S extends T> Flux<S> saveAll(Publisher<S> entityStream) {
+    Assert.notNull(entityStream, "A non-null publisher of entities is required for saving.");
+    return Flux.from(entityStream).buffer(BATCH_SIZE).concatMap(batch -> saveAll(batch));
+  }
+
+  @Override
+  public Mono<T> findById(I id) {
+    Assert.notNull(id, NON_NULL_ID_REQUIRED);
+    return Mono.defer(() -> this.spannerTemplate.read(this.entityType, toKey(id)));
+  }
+
+  @Override
+  public Mono<T> findById(Publisher<I> id) {
+    Assert.notNull(id, NON_NULL_ID_REQUIRED);
+    return Mono.from(id).flatMap(value -> findById(value));
+  }
+
+  @Override
+  public Mono<Boolean> existsById(I id) {
+    Assert.notNull(id, NON_NULL_ID_REQUIRED);
+    return Mono.defer(() -> this.spannerTemplate.existsById(this.entityType, toKey(id)));
+  }
+
+  @Override
+  public Mono<Boolean> existsById(Publisher<I> id) {
+    Assert.notNull(id, NON_NULL_ID_REQUIRED);
+    return Mono.from(id).flatMap(value -> existsById(value));
+  }
+
+  @Override
+  public Flux<T> findAll() {
+    return this.spannerTemplate.readAll(this.entityType);
+  }
+
+  @Override
+  public Flux<T> findAllById(Iterable<I> ids) {
+    Assert.notNull(ids, "IDs must not be null");
+    return Flux.defer(
+        () -> {
+          KeySet keys = toKeySet(ids);
+          return keys.getKeys().iterator().hasNext()
+              ? this.spannerTemplate.read(this.entityType, keys, null)
+              : Flux.empty();
+        });
+  }
+
+  @Override
+  public Flux<T> findAllById(Publisher<I> idStream) {
+    Assert.notNull(idStream, "IDs must not be null");
+    return Flux.from(idStream).buffer(BATCH_SIZE).concatMap(batch -> findAllById(batch));
+  }
+
+  @Override
+  public Mono<Long> count() {
+    return this.spannerTemplate.count(this.entityType);
+  }
+
+  @Override
+  public Mono<Void> deleteById(I id) {
+    Assert.notNull(id, NON_NULL_ID_REQUIRED);
+    return Mono.defer(
+            () -> this.spannerTemplate.delete(this.entityType, KeySet.singleKey(toKey(id))))
+        .then();
+  }
+
+  @Override
+  public Mono<Void> deleteById(Publisher<I> id) {
+    Assert.notNull(id, NON_NULL_ID_REQUIRED);
+    return Mono.from(id).flatMap(value -> deleteById(value));
+  }
+
+  @Override
+  public Mono<Void> delete(T entity) {
+    Assert.notNull(entity, "A non-null entity is required.");
+    return this.spannerTemplate.delete(entity).then();
+  }
+
+  @Override
+  public Mono<Void> deleteAllById(Iterable<? extends I> ids) {
+    Assert.notNull(ids, "IDs must not be null");
+    return Mono.defer(
+        () -> {
+          KeySet keys = toKeySet(ids);
+          return keys.getKeys().iterator().hasNext()
+              ? this.spannerTemplate.delete(this.entityType, keys).then()
+              : Mono.empty();
+        });
+  }
+
+  @Override
+  public Mono<Void> deleteAll(Iterable<? extends T> entities) {
+    Assert.notNull(entities, "A non-null list of entities is required.");
+    return this.spannerTemplate.deleteAll(entities).then();
+  }
+
+  @Override
+  public Mono<Void> deleteAll(Publisher<? extends T> entityStream) {
+    Assert.notNull(entityStream, "A non-null publisher of entities is required.");
+    return Flux.from(entityStream).buffer(BATCH_SIZE).concatMap(batch -> deleteAll(batch)).then();
+  }
+
+  @Override
+  public Mono<Void> deleteAll() {
+    return this.spannerTemplate.delete(this.entityType, KeySet.all()).then();
+  }
+
+  private KeySet toKeySet(Iterable<?> ids) {
+    KeySet.Builder builder = KeySet.newBuilder();
+    for (Object id : ids) {
+      builder.addKey(toKey(id));
+    }
+    return builder.build();
+  }
+
+  private Key toKey(Object id) {
+    return this.spannerTemplate.getSpannerEntityProcessor().convertToKey(id);
+  }
+}
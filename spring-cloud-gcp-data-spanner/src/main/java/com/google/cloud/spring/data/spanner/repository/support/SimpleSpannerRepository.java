@@ -18,16 +18,20 @@ package com.google.cloud.spring.data.spanner.repository.support;
 
 import com.google.cloud.spanner.Key;
 import com.google.cloud.spanner.KeySet;
+import com.google.cloud.spring.data.spanner.core.SpannerKeysetPageable;
 import com.google.cloud.spring.data.spanner.core.SpannerOperations;
 import com.google.cloud.spring.data.spanner.core.SpannerPageableQueryOptions;
 import com.google.cloud.spring.data.spanner.core.SpannerTemplate;
 import com.google.cloud.spring.data.spanner.repository.SpannerRepository;
 import java.util.Collections;
+import java.util.List;
 import java.util.Optional;
 import java.util.function.Function;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.data.domain.Sort;
 import org.springframework.util.Assert;
 
@@ -173,6 +177,33 @@ public class SimpleSpannerRepository<T, I> implements SpannerRepository<T, I> {
         this.spannerTemplate.count(this.entityType));
   }
 
+  @Override
+  public Slice<T> findAllSlice(Pageable pageable) {
+    Assert.notNull(pageable, "A valid pageable is required.");
+    if (pageable instanceof SpannerKeysetPageable) {
+      return this.spannerTemplate.queryKeysetSlice(
+          this.entityType, (SpannerKeysetPageable) pageable);
+    }
+    if (pageable.isUnpaged()) {
+      return new SliceImpl<>(
+          this.spannerTemplate.queryAll(
+              this.entityType, new SpannerPageableQueryOptions().setSort(pageable.getSort())),
+          pageable,
+          false);
+    }
+    // One row more than the page size is read to find out whether there is a next page.
+    List<T> rows =
+        this.spannerTemplate.queryAll(
+            this.entityType,
+            new SpannerPageableQueryOptions()
+                .setLimit(pageable.getPageSize() + 1)
+                .setOffset(pageable.getOffset())
+                .setSort(pageable.getSort()));
+    boolean hasNext = rows.size() > pageable.getPageSize();
+    return new SliceImpl<>(
+        hasNext ? rows.subList(0, pageable.getPageSize()) : rows, pageable, hasNext);
+  }
+
   @Override
   public void deleteAllById(Iterable<? extends I> ids) {
     Assert.notNull(ids, "IDs must not be null");
@@ -71,6 +71,7 @@ public class SpannerRepositoryFactory extends RepositoryFactorySupport
     Assert.notNull(spannerTemplate, "A valid SpannerTemplate object is required.");
     this.spannerMappingContext = spannerMappingContext;
     this.spannerTemplate = spannerTemplate;
+    addRepositoryProxyPostProcessor(new StaleReadRepositoryProxyPostProcessor());
   }
 
   @Override
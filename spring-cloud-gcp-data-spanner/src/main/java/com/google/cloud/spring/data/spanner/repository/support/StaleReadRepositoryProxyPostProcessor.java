@@ -0,0 +1,89 @@
+/*
+ * Copyright 2022-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.cloud.spring.data.spanner.repository.support;
+
+import com.google.cloud.spanner.TimestampBound;
+import com.google.cloud.spring.data.spanner.core.SpannerTimestampBoundHolder;
+import com.google.cloud.spring.data.spanner.repository.query.StaleRead;
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.data.repository.core.RepositoryInformation;
+import org.springframework.data.repository.core.support.RepositoryProxyPostProcessor;
+
+/**
+ * Binds the timestamp bound of {@link StaleRead} annotations to the thread calling repository
+ * methods.
+ *
+ * @since 3.3.0
+ */
+class StaleReadRepositoryProxyPostProcessor implements RepositoryProxyPostProcessor {
+
+  @Override
+  public void postProcess(ProxyFactory factory, RepositoryInformation repositoryInformation) {
+    factory.addAdvice(new StaleReadInterceptor(repositoryInformation.getRepositoryInterface()));
+  }
+
+  /** Binds the timestamp bound of the called method, if any, for the duration of the call. */
+  static class StaleReadInterceptor implements MethodInterceptor {
+
+    private final Class<?> repositoryInterface;
+
+    private final Map<Method, Optional<TimestampBound>> timestampBounds =
+        new ConcurrentHashMap<>();
+
+    StaleReadInterceptor(Class<?> repositoryInterface) {
+      this.repositoryInterface = repositoryInterface;
+    }
+
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+      Optional<TimestampBound> timestampBound =
+          this.timestampBounds.computeIfAbsent(invocation.getMethod(), this::findTimestampBound);
+      if (!timestampBound.isPresent()) {
+        return invocation.proceed();
+      }
+      TimestampBound previous =
+          SpannerTimestampBoundHolder.setTimestampBound(timestampBound.get());
+      try {
+        return invocation.proceed();
+      } finally {
+        SpannerTimestampBoundHolder.setTimestampBound(previous);
+      }
+    }
+
+    private Optional<TimestampBound> findTimestampBound(Method method) {
+      StaleRead staleRead = AnnotatedElementUtils.findMergedAnnotation(method, StaleRead.class);
+      if (staleRead == null) {
+        staleRead =
+            AnnotatedElementUtils.findMergedAnnotation(this.repositoryInterface, StaleRead.class);
+      }
+      if (staleRead == null) {
+        return Optional.empty();
+      }
+      return Optional.of(
+          staleRead.exact()
+              ? TimestampBound.ofExactStaleness(staleRead.value(), staleRead.unit())
+              : TimestampBound.ofMaxStaleness(staleRead.value(), staleRead.unit()));
+    }
+  }
+}
@@ -0,0 +1,361 @@
+/*
+ * Copyright 2022-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.cloud.spring.data.spanner.core;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.google.api.core.ApiFutures;
+import com.google.cloud.Timestamp;
+import com.google.cloud.spanner.AsyncResultSet;
+import com.google.cloud.spanner.AsyncResultSet.CallbackResponse;
+import com.google.cloud.spanner.AsyncResultSet.CursorState;
+import com.google.cloud.spanner.AsyncResultSet.ReadyCallback;
+import com.google.cloud.spanner.AsyncRunner;
+import com.google.cloud.spanner.AsyncRunner.AsyncWork;
+import com.google.cloud.spanner.DatabaseClient;
+import com.google.cloud.spanner.ErrorCode;
+import com.google.cloud.spanner.Key;
+import com.google.cloud.spanner.KeySet;
+import com.google.cloud.spanner.Mutation;
+import com.google.cloud.spanner.ReadContext;
+import com.google.cloud.spanner.SpannerException;
+import com.google.cloud.spanner.SpannerExceptionFactory;
+import com.google.cloud.spanner.Statement;
+import com.google.cloud.spanner.Struct;
+import com.google.cloud.spanner.TransactionContext;
+import com.google.cloud.spring.data.spanner.core.convert.SpannerEntityProcessor;
+import com.google.cloud.spring.data.spanner.core.mapping.PrimaryKey;
+import com.google.cloud.spring.data.spanner.core.mapping.SpannerMappingContext;
+import com.google.cloud.spring.data.spanner.core.mapping.Table;
+import com.google.cloud.spring.data.spanner.core.mapping.event.AfterSaveEvent;
+import com.google.cloud.spring.data.spanner.core.mapping.event.BeforeSaveEvent;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.reactivestreams.Subscription;
+import org.springframework.context.ApplicationEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import reactor.core.publisher.BaseSubscriber;
+import reactor.test.StepVerifier;
+
+/** Tests for the reactive Spanner template. */
+class ReactiveSpannerTemplateTests {
+
+  private static final Statement QUERY = Statement.of("SELECT id FROM reactive_test_table");
+
+  private DatabaseClient databaseClient;
+
+  private ReadContext readContext;
+
+  private SpannerEntityProcessor entityProcessor;
+
+  private SpannerMutationFactory mutationFactory;
+
+  private ReactiveSpannerTemplate template;
+
+  /** Runs after a callback returned PAUSE, before the result set is paused. */
+  private Runnable beforePause = () -> {};
+
+  @BeforeEach
+  void setUp() {
+    this.databaseClient = mock(DatabaseClient.class);
+    this.readContext = mock(ReadContext.class);
+    this.entityProcessor = mock(SpannerEntityProcessor.class);
+    this.mutationFactory = mock(SpannerMutationFactory.class);
+    when(this.databaseClient.singleUse()).thenReturn(this.readContext);
+    this.template =
+        new ReactiveSpannerTemplate(
+            () -> this.databaseClient,
+            new SpannerMappingContext(),
+            this.entityProcessor,
+            this.mutationFactory);
+    this.template.setCallbackExecutor(Runnable::run);
+  }
+
+  @Test
+  void defaultCallbackExecutorTest() throws InterruptedException {
+    ReactiveSpannerTemplate defaultTemplate =
+        new ReactiveSpannerTemplate(
+            () -> this.databaseClient,
+            new SpannerMappingContext(),
+            this.entityProcessor,
+            this.mutationFactory);
+    AsyncResultSet resultSet = asyncResultSet(new TestEntity("a"));
+    when(this.readContext.executeQueryAsync(QUERY)).thenReturn(resultSet);
+
+    Thread callbackThread =
+        defaultTemplate
+            .query(TestEntity.class, QUERY, null)
+            .map(x -> Thread.currentThread())
+            .blockFirst();
+    assertThat(callbackThread.getName()).startsWith("spanner-reactive-");
+    assertThat(callbackThread.isDaemon()).isTrue();
+
+    defaultTemplate.destroy();
+    callbackThread.join(5000);
+    assertThat(callbackThread.isAlive()).isFalse();
+  }
+
+  @Test
+  void givenCallbackExecutorIsNotShutDownTest() {
+    ExecutorService executor = Executors.newSingleThreadExecutor();
+    try {
+      this.template.setCallbackExecutor(executor);
+      this.template.destroy();
+      assertThat(executor.isShutdown()).isFalse();
+    } finally {
+      executor.shutdown();
+    }
+  }
+
+  @Test
+  void queryTest() {
+    TestEntity first = new TestEntity("a");
+    TestEntity second = new TestEntity("b");
+    AsyncResultSet resultSet = asyncResultSet(first, second);
+    when(this.readContext.executeQueryAsync(QUERY)).thenReturn(resultSet);
+
+    StepVerifier.create(this.template.query(TestEntity.class, QUERY, null))
+        .expectNext(first, second)
+        .verifyComplete();
+  }
+
+  @Test
+  void queryIsLazyTest() {
+    this.template.query(TestEntity.class, QUERY, null);
+
+    verify(this.readContext, never()).executeQueryAsync(any());
+  }
+
+  @Test
+  void queryPausesWithoutDemandTest() {
+    TestEntity first = new TestEntity("a");
+    TestEntity second = new TestEntity("b");
+    AsyncResultSet resultSet = asyncResultSet(first, second);
+    when(this.readContext.executeQueryAsync(QUERY)).thenReturn(resultSet);
+
+    StepVerifier.create(this.template.query(TestEntity.class, QUERY, null), 1)
+        .expectNext(first)
+        .then(() -> verify(resultSet, times(1)).tryNext())
+        .thenRequest(1)
+        .expectNext(second)
+        .thenRequest(1)
+        .verifyComplete();
+  }
+
+  @Test
+  void queryResumesOnDemandWhilePausingTest() {
+    TestEntity first = new TestEntity("a");
+    TestEntity second = new TestEntity("b");
+    AsyncResultSet resultSet = asyncResultSet(first, second);
+    when(this.readContext.executeQueryAsync(QUERY)).thenReturn(resultSet);
+    List<TestEntity> received = new ArrayList<>();
+    AtomicBoolean completed = new AtomicBoolean();
+    BaseSubscriber<TestEntity> subscriber =
+        new BaseSubscriber<TestEntity>() {
+          @Override
+          protected void hookOnSubscribe(Subscription subscription) {
+            request(1);
+          }
+
+          @Override
+          protected void hookOnNext(TestEntity value) {
+            received.add(value);
+          }
+
+          @Override
+          protected void hookOnComplete() {
+            completed.set(true);
+          }
+        };
+    // demand arrives after the callback returned PAUSE, but before the result set is paused
+    this.beforePause =
+        () -> {
+          if (received.size() == 1) {
+            subscriber.request(1);
+          }
+        };
+
+    this.template.query(TestEntity.class, QUERY, null).subscribe(subscriber);
+
+    assertThat(received).containsExactly(first, second);
+    verify(resultSet, times(1)).resume();
+    subscriber.request(1);
+    assertThat(completed).isTrue();
+    verify(resultSet, times(2)).resume();
+  }
+
+  @Test
+  void queryCancelTest() {
+    AsyncResultSet resultSet = asyncResultSet(new TestEntity("a"), new TestEntity("b"));
+    when(this.readContext.executeQueryAsync(QUERY)).thenReturn(resultSet);
+
+    StepVerifier.create(this.template.query(TestEntity.class, QUERY, null).take(1))
+        .expectNextCount(1)
+        .verifyComplete();
+    verify(resultSet).cancel();
+  }
+
+  @Test
+  void queryErrorTest() {
+    AsyncResultSet resultSet = asyncResultSet();
+    SpannerException error = SpannerExceptionFactory.newSpannerException(ErrorCode.INTERNAL, "x");
+    when(resultSet.tryNext()).thenThrow(error);
+    when(this.readContext.executeQueryAsync(QUERY)).thenReturn(resultSet);
+
+    StepVerifier.create(this.template.query(TestEntity.class, QUERY, null))
+        .verifyErrorSatisfies(ex -> assertThat(ex).isSameAs(error));
+  }
+
+  @Test
+  void readTest() {
+    TestEntity entity = new TestEntity("a");
+    AsyncResultSet resultSet = asyncResultSet(entity);
+    when(this.readContext.readAsync(
+            eq("reactive_test_table"), eq(KeySet.singleKey(Key.of("a"))), any()))
+        .thenReturn(resultSet);
+
+    StepVerifier.create(this.template.read(TestEntity.class, Key.of("a")))
+        .expectNext(entity)
+        .verifyComplete();
+  }
+
+  @Test
+  void insertTest() {
+    TestEntity entity = new TestEntity("a");
+    List<Mutation> mutations =
+        Collections.singletonList(
+            Mutation.newInsertBuilder("reactive_test_table").set("id").to("a").build());
+    when(this.mutationFactory.insert(entity)).thenReturn(mutations);
+    TransactionContext transactionContext = mock(TransactionContext.class);
+    Timestamp commitTimestamp = Timestamp.ofTimeMicroseconds(1000L);
+    mockRunner(transactionContext, commitTimestamp);
+    ApplicationEventPublisher publisher = mock(ApplicationEventPublisher.class);
+    this.template.setApplicationEventPublisher(publisher);
+
+    StepVerifier.create(this.template.insert(entity))
+        .expectNext(commitTimestamp)
+        .verifyComplete();
+
+    verify(transactionContext).buffer(mutations);
+    ArgumentCaptor<ApplicationEvent> events = ArgumentCaptor.forClass(ApplicationEvent.class);
+    verify(publisher, times(2)).publishEvent(events.capture());
+    assertThat(events.getAllValues().get(0)).isInstanceOf(BeforeSaveEvent.class);
+    assertThat(events.getAllValues().get(1)).isInstanceOf(AfterSaveEvent.class);
+  }
+
+  @Test
+  void executeDmlStatementTest() {
+    TransactionContext transactionContext = mock(TransactionContext.class);
+    Statement dml = Statement.of("DELETE FROM reactive_test_table WHERE true");
+    when(transactionContext.executeUpdateAsync(dml)).thenReturn(ApiFutures.immediateFuture(3L));
+    mockRunner(transactionContext, Timestamp.now());
+
+    StepVerifier.create(this.template.executeDmlStatement(dml)).expectNext(3L).verifyComplete();
+  }
+
+  @SuppressWarnings("unchecked")
+  private void mockRunner(TransactionContext transactionContext, Timestamp commitTimestamp) {
+    AsyncRunner runner = mock(AsyncRunner.class);
+    when(this.databaseClient.runAsync()).thenReturn(runner);
+    when(runner.runAsync(any(), any()))
+        .thenAnswer(
+            invocation ->
+                ((AsyncWork<Object>) invocation.getArgument(0)).doWorkAsync(transactionContext));
+    when(runner.getCommitTimestamp()).thenReturn(ApiFutures.immediateFuture(commitTimestamp));
+  }
+
+  /**
+   * Creates a result set that invokes its callback on the callback executor, and honors PAUSE and
+   * resume like the client does: a resume only has an effect once the callback task that returned
+   * PAUSE has paused the result set.
+   */
+  private AsyncResultSet asyncResultSet(TestEntity... entities) {
+    AsyncResultSet resultSet = mock(AsyncResultSet.class);
+    AtomicInteger position = new AtomicInteger(-1);
+    AtomicReference<ReadyCallback> callback = new AtomicReference<>();
+    AtomicReference<Executor> executor = new AtomicReference<>();
+    AtomicBoolean paused = new AtomicBoolean();
+    Struct[] rows = new Struct[entities.length];
+    for (int i = 0; i < entities.length; i++) {
+      rows[i] = Struct.newBuilder().set("id").to(entities[i].id).build();
+      when(this.entityProcessor.read(TestEntity.class, rows[i], null, false))
+          .thenReturn(entities[i]);
+    }
+    when(resultSet.tryNext())
+        .thenAnswer(
+            invocation ->
+                position.incrementAndGet() < rows.length ? CursorState.OK : CursorState.DONE);
+    when(resultSet.getCurrentRowAsStruct()).thenAnswer(invocation -> rows[position.get()]);
+    Runnable drive =
+        () -> {
+          CallbackResponse response;
+          do {
+            response = callback.get().cursorReady(resultSet);
+          } while (response == CallbackResponse.CONTINUE);
+          if (response == CallbackResponse.PAUSE) {
+            this.beforePause.run();
+            paused.set(true);
+          }
+        };
+    doAnswer(
+            invocation -> {
+              executor.set(invocation.getArgument(0));
+              callback.set(invocation.getArgument(1));
+              executor.get().execute(drive);
+              return ApiFutures.immediateFuture(null);
+            })
+        .when(resultSet)
+        .setCallback(any(), any());
+    doAnswer(
+            invocation -> {
+              if (paused.compareAndSet(true, false)) {
+                executor.get().execute(drive);
+              }
+              return null;
+            })
+        .when(resultSet)
+        .resume();
+    return resultSet;
+  }
+
+  @Table(name = "reactive_test_table")
+  private static class TestEntity {
+    @PrimaryKey String id;
+
+    TestEntity(String id) {
+      this.id = id;
+    }
+  }
+}
@@ -25,6 +25,7 @@ import static org.mockito.ArgumentMatchers.same;
 import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.doReturn;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.spy;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
@@ -32,15 +33,20 @@ import static org.mockito.Mockito.when;
 
 import com.google.cloud.ByteArray;
 import com.google.cloud.Timestamp;
+import com.google.cloud.spanner.BatchClient;
+import com.google.cloud.spanner.BatchReadOnlyTransaction;
 import com.google.cloud.spanner.DatabaseClient;
 import com.google.cloud.spanner.Key;
 import com.google.cloud.spanner.KeySet;
 import com.google.cloud.spanner.Mutation;
 import com.google.cloud.spanner.Options.ReadOption;
+import com.google.cloud.spanner.Partition;
+import com.google.cloud.spanner.PartitionOptions;
 import com.google.cloud.spanner.ReadContext;
 import com.google.cloud.spanner.ReadOnlyTransaction;
 import com.google.cloud.spanner.ResultSet;
 import com.google.cloud.spanner.Statement;
+import com.google.cloud.spanner.Struct;
 import com.google.cloud.spanner.TimestampBound;
 import com.google.cloud.spanner.TransactionContext;
 import com.google.cloud.spanner.TransactionRunner;
@@ -53,6 +59,7 @@ import com.google.cloud.spring.data.spanner.core.mapping.Column;
 import com.google.cloud.spring.data.spanner.core.mapping.Embedded;
 import com.google.cloud.spring.data.spanner.core.mapping.Interleaved;
 import com.google.cloud.spring.data.spanner.core.mapping.PrimaryKey;
+import com.google.cloud.spring.data.spanner.core.mapping.SpannerDataException;
 import com.google.cloud.spring.data.spanner.core.mapping.SpannerMappingContext;
 import com.google.cloud.spring.data.spanner.core.mapping.Table;
 import com.google.cloud.spring.data.spanner.core.mapping.Where;
@@ -69,7 +76,10 @@ import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Queue;
 import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Consumer;
 import java.util.function.Function;
@@ -185,6 +195,37 @@ class SpannerTemplateTests {
     verify(context, times(1)).executeUpdate(DML);
   }
 
+  @Test
+  void executeDmlStatementsTest() {
+    TransactionContext context = mock(TransactionContext.class);
+    TransactionRunner transactionRunner = mock(TransactionRunner.class);
+    when(this.databaseClient.readWriteTransaction()).thenReturn(transactionRunner);
+    when(transactionRunner.run(any()))
+        .thenAnswer(
+            invocation -> {
+              TransactionCallable transactionCallable = invocation.getArgument(0);
+              return transactionCallable.run(context);
+            });
+    Statement other = Statement.of("update other statement here");
+    when(context.batchUpdate(Arrays.asList(DML, other))).thenReturn(new long[] {3L, 4L});
+    ApplicationEventPublisher publisher = mock(ApplicationEventPublisher.class);
+    this.spannerTemplate.setApplicationEventPublisher(publisher);
+
+    assertThat(this.spannerTemplate.executeDmlStatements(Arrays.asList(DML, other)))
+        .containsExactly(3L, 4L);
+
+    verify(context, times(1)).batchUpdate(Arrays.asList(DML, other));
+    verify(context, never()).executeUpdate(any());
+    verify(publisher, times(1)).publishEvent(new BeforeExecuteDmlEvent(other));
+    verify(publisher, times(1)).publishEvent(new AfterExecuteDmlEvent(other, 4L));
+  }
+
+  @Test
+  void executeNoDmlStatementsTest() {
+    assertThat(this.spannerTemplate.executeDmlStatements(Collections.emptyList())).isEmpty();
+    verify(this.databaseClient, never()).readWriteTransaction();
+  }
+
   @Test
   void executePartitionedDmlTest() {
     when(this.databaseClient.executePartitionedUpdate(DML)).thenReturn(333L);
@@ -759,6 +800,311 @@ class SpannerTemplateTests {
     verify(results, times(1)).close();
   }
 
+  @Test
+  void defaultTimestampBoundTest() {
+    TimestampBound timestampBound = TimestampBound.ofMaxStaleness(15, TimeUnit.SECONDS);
+    ReadContext staleReadContext = mock(ReadContext.class);
+    ResultSet results = mock(ResultSet.class);
+    when(this.databaseClient.singleUse(timestampBound)).thenReturn(staleReadContext);
+    when(staleReadContext.executeQuery(any())).thenReturn(results);
+    this.spannerTemplate.setDefaultTimestampBound(timestampBound);
+
+    this.spannerTemplate.count(TestEntity.class);
+
+    verify(this.databaseClient, never()).singleUse();
+    verify(staleReadContext, times(1))
+        .executeQuery(Statement.of("SELECT COUNT(*) FROM custom_test_table"));
+    assertThat(this.spannerTemplate.getStaleReadCount()).isEqualTo(1);
+    assertThat(this.spannerTemplate.getStrongReadCount()).isZero();
+  }
+
+  @Test
+  void boundTimestampBoundTest() {
+    TimestampBound boundTimestampBound = TimestampBound.ofExactStaleness(5, TimeUnit.SECONDS);
+    TimestampBound optionsTimestampBound = TimestampBound.strong();
+    ReadContext staleReadContext = mock(ReadContext.class);
+    ResultSet results = mock(ResultSet.class);
+    when(this.databaseClient.singleUse(boundTimestampBound)).thenReturn(staleReadContext);
+    when(this.databaseClient.singleUse(optionsTimestampBound)).thenReturn(this.readContext);
+    when(staleReadContext.executeQuery(any())).thenReturn(results);
+    when(this.readContext.executeQuery(any(), any())).thenReturn(results);
+    this.spannerTemplate.setDefaultTimestampBound(
+        TimestampBound.ofMaxStaleness(15, TimeUnit.SECONDS));
+
+    TimestampBound previous = SpannerTimestampBoundHolder.setTimestampBound(boundTimestampBound);
+    try {
+      this.spannerTemplate.count(TestEntity.class);
+      // A timestamp bound set in the options takes precedence.
+      this.spannerTemplate.executeQuery(
+          DML, new SpannerQueryOptions().setTimestampBound(optionsTimestampBound));
+    } finally {
+      SpannerTimestampBoundHolder.setTimestampBound(previous);
+    }
+
+    assertThat(SpannerTimestampBoundHolder.getTimestampBound()).isNull();
+    verify(staleReadContext, times(1)).executeQuery(any());
+    verify(this.readContext, times(1)).executeQuery(eq(DML), any());
+    assertThat(this.spannerTemplate.getStaleReadCount()).isEqualTo(1);
+    assertThat(this.spannerTemplate.getStrongReadCount()).isEqualTo(1);
+  }
+
+  @Test
+  void queryPartitionedTest() {
+    BatchClient batchClient = mock(BatchClient.class);
+    BatchReadOnlyTransaction transaction = mock(BatchReadOnlyTransaction.class);
+    TimestampBound timestampBound = TimestampBound.ofExactStaleness(10, TimeUnit.SECONDS);
+    when(batchClient.batchReadOnlyTransaction(timestampBound)).thenReturn(transaction);
+    PartitionOptions partitionOptions = PartitionOptions.newBuilder().setMaxPartitions(2).build();
+    Statement statement = Statement.of("SELECT * FROM custom_test_table");
+    Partition partition1 = mock(Partition.class);
+    Partition partition2 = mock(Partition.class);
+    when(transaction.partitionQuery(partitionOptions, statement))
+        .thenReturn(Arrays.asList(partition1, partition2));
+    TestEntity t1 = keysetTestEntity("a", 1L, "x");
+    TestEntity t2 = keysetTestEntity("b", 2L, "y");
+    TestEntity t3 = keysetTestEntity("c", 3L, "z");
+    ResultSet resultSet1 = partitionResultSet(t1, t2);
+    ResultSet resultSet2 = partitionResultSet(t3);
+    when(transaction.execute(partition1)).thenReturn(resultSet1);
+    when(transaction.execute(partition2)).thenReturn(resultSet2);
+    this.spannerTemplate.setBatchClientProvider(() -> batchClient);
+
+    Queue<TestEntity> rows = new ConcurrentLinkedQueue<>();
+    Queue<String> threadNames = new ConcurrentLinkedQueue<>();
+    this.spannerTemplate.queryPartitioned(
+        TestEntity.class,
+        statement,
+        new SpannerPartitionedReadOptions()
+            .setPartitionOptions(partitionOptions)
+            .setParallelism(2)
+            .setTimestampBound(timestampBound),
+        row -> {
+          rows.add(row);
+          threadNames.add(Thread.currentThread().getName());
+        });
+
+    assertThat(rows).containsExactlyInAnyOrder(t1, t2, t3);
+    assertThat(threadNames)
+        .allMatch(name -> name.startsWith("spanner-partition-"))
+        .containsAnyOf("spanner-partition-1", "spanner-partition-2")
+        .doesNotContain("spanner-partition-3");
+    verify(resultSet1).close();
+    verify(resultSet2).close();
+    verify(transaction).cleanup();
+  }
+
+  @Test
+  void readAllPartitionedTest() {
+    BatchClient batchClient = mock(BatchClient.class);
+    BatchReadOnlyTransaction transaction = mock(BatchReadOnlyTransaction.class);
+    when(batchClient.batchReadOnlyTransaction(TimestampBound.strong())).thenReturn(transaction);
+    Partition partition = mock(Partition.class);
+    when(transaction.partitionRead(
+            eq(PartitionOptions.getDefaultInstance()),
+            eq("custom_test_table"),
+            eq(KeySet.all()),
+            eq(this.mappingContext.getPersistentEntityOrFail(TestEntity.class).columns())))
+        .thenReturn(Collections.singletonList(partition));
+    TestEntity t1 = keysetTestEntity("a", 1L, "x");
+    ResultSet resultSet = partitionResultSet(t1);
+    when(transaction.execute(partition)).thenReturn(resultSet);
+    this.spannerTemplate.setBatchClientProvider(() -> batchClient);
+    this.spannerTemplate.setPartitionExecutor(Runnable::run);
+
+    List<TestEntity> rows = new ArrayList<>();
+    this.spannerTemplate.readAllPartitioned(TestEntity.class, null, rows::add);
+
+    assertThat(rows).containsExactly(t1);
+    verify(transaction).cleanup();
+  }
+
+  @Test
+  void queryPartitionedFailureTest() {
+    BatchClient batchClient = mock(BatchClient.class);
+    BatchReadOnlyTransaction transaction = mock(BatchReadOnlyTransaction.class);
+    when(batchClient.batchReadOnlyTransaction(any(TimestampBound.class))).thenReturn(transaction);
+    Partition partition1 = mock(Partition.class);
+    Partition partition2 = mock(Partition.class);
+    when(transaction.partitionQuery(any(), any()))
+        .thenReturn(Arrays.asList(partition1, partition2));
+    when(transaction.execute(partition1)).thenThrow(new IllegalStateException("partition failed"));
+    this.spannerTemplate.setBatchClientProvider(() -> batchClient);
+    this.spannerTemplate.setPartitionExecutor(Runnable::run);
+
+    Statement statement = Statement.of("SELECT * FROM custom_test_table");
+    SpannerPartitionedReadOptions options = new SpannerPartitionedReadOptions().setParallelism(1);
+    assertThatThrownBy(
+            () ->
+                this.spannerTemplate.queryPartitioned(
+                    TestEntity.class, statement, options, row -> {}))
+        .isInstanceOf(IllegalStateException.class)
+        .hasMessage("partition failed");
+    verify(transaction, never()).execute(partition2);
+    verify(transaction).cleanup();
+  }
+
+  @Test
+  void queryPartitionedWithoutBatchClientTest() {
+    Statement statement = Statement.of("SELECT * FROM custom_test_table");
+    assertThatThrownBy(
+            () ->
+                this.spannerTemplate.queryPartitioned(
+                    TestEntity.class, statement, null, row -> {}))
+        .isInstanceOf(SpannerDataException.class)
+        .hasMessage("Partitioned reads require a batch client; see setBatchClientProvider.");
+  }
+
+  @Test
+  void queryKeysetSliceFirstPageTest() {
+    SpannerTemplate spyTemplate = spy(this.spannerTemplate);
+    List<Statement> statements = new ArrayList<>();
+    List<TestEntity> rows =
+        Arrays.asList(
+            keysetTestEntity("a", 1L, "z"),
+            keysetTestEntity("b", 2L, "y"),
+            keysetTestEntity("c", 3L, "x"));
+    doAnswer(
+            invocation -> {
+              statements.add(invocation.getArgument(1));
+              return rows;
+            })
+        .when(spyTemplate)
+        .query(eq(TestEntity.class), any(Statement.class), any());
+
+    SpannerKeysetSlice<TestEntity> slice =
+        spyTemplate.queryKeysetSlice(
+            TestEntity.class, SpannerKeysetPageable.of(2, Sort.by(Sort.Order.desc("something"))));
+
+    assertThat(statements.get(0).getSql())
+        .startsWith("SELECT ")
+        .endsWith(
+            " FROM custom_test_table ORDER BY custom_col DESC , id ASC , id2 ASC LIMIT 3");
+    assertThat(statements.get(0).getParameters()).isEmpty();
+    assertThat(slice.getContent()).containsExactly(rows.get(0), rows.get(1));
+    assertThat(slice.hasNext()).isTrue();
+    assertThat(((SpannerKeysetPageable) slice.nextPageable()).getLastValues())
+        .containsExactly("y", "b", 2L);
+    assertThat(slice.nextPageable().getPageNumber()).isEqualTo(1);
+  }
+
+  @Test
+  void queryKeysetSliceNextPageTest() {
+    SpannerTemplate spyTemplate = spy(this.spannerTemplate);
+    List<Statement> statements = new ArrayList<>();
+    List<TestEntity> rows = Collections.singletonList(keysetTestEntity("c", 3L, "x"));
+    doAnswer(
+            invocation -> {
+              statements.add(invocation.getArgument(1));
+              return rows;
+            })
+        .when(spyTemplate)
+        .query(eq(TestEntity.class), any(Statement.class), any());
+
+    SpannerKeysetSlice<TestEntity> slice =
+        spyTemplate.queryKeysetSlice(
+            TestEntity.class,
+            SpannerKeysetPageable.of(2, Sort.by(Sort.Order.desc("something")))
+                .after(Arrays.asList("y", "b", 2L)));
+
+    Statement statement = statements.get(0);
+    assertThat(statement.getSql())
+        .contains(
+            " FROM custom_test_table WHERE ((custom_col < @keyset0 OR custom_col IS NULL))"
+                + " OR (custom_col = @keyset0 AND id > @keyset1)"
+                + " OR (custom_col = @keyset0 AND id = @keyset1 AND id2 > @keyset2)"
+                + " ORDER BY custom_col DESC , id ASC , id2 ASC LIMIT 3");
+    assertThat(statement.getParameters().get("keyset0").getString()).isEqualTo("y");
+    assertThat(statement.getParameters().get("keyset1").getString()).isEqualTo("b");
+    assertThat(statement.getParameters().get("keyset2").getInt64()).isEqualTo(2L);
+    assertThat(slice.getContent()).containsExactlyElementsOf(rows);
+    assertThat(slice.hasNext()).isFalse();
+  }
+
+  @Test
+  void queryKeysetSliceByPageNumberTest() {
+    SpannerTemplate spyTemplate = spy(this.spannerTemplate);
+    List<Statement> statements = new ArrayList<>();
+    List<TestEntity> rows =
+        Arrays.asList(
+            keysetTestEntity("e", 5L, "v"),
+            keysetTestEntity("f", 6L, "u"),
+            keysetTestEntity("g", 7L, "t"));
+    doAnswer(
+            invocation -> {
+              statements.add(invocation.getArgument(1));
+              return rows;
+            })
+        .when(spyTemplate)
+        .query(eq(TestEntity.class), any(Statement.class), any());
+    SpannerKeysetPageable pageable =
+        SpannerKeysetPageable.of(2, Sort.by(Sort.Order.desc("something")))
+            .after(Arrays.asList("y", "b", 2L))
+            .next();
+
+    SpannerKeysetSlice<TestEntity> slice = spyTemplate.queryKeysetSlice(TestEntity.class, pageable);
+
+    assertThat(pageable.getPageNumber()).isEqualTo(2);
+    assertThat(pageable.getLastValues()).isNull();
+    assertThat(statements.get(0).getSql())
+        .endsWith(
+            " FROM custom_test_table ORDER BY custom_col DESC , id ASC , id2 ASC LIMIT 3 OFFSET 4");
+    assertThat(slice.getContent()).containsExactly(rows.get(0), rows.get(1));
+    assertThat(((SpannerKeysetPageable) slice.nextPageable()).getLastValues())
+        .containsExactly("u", "f", 6L);
+    assertThat(slice.nextPageable().getPageNumber()).isEqualTo(3);
+  }
+
+  @Test
+  void keysetPageableNavigationTest() {
+    SpannerKeysetPageable first = SpannerKeysetPageable.of(2, Sort.by("something"));
+    SpannerKeysetPageable second = first.after(Arrays.asList("y", "b", 2L));
+
+    assertThat(first.hasPrevious()).isFalse();
+    assertThat(first.previousOrFirst()).isEqualTo(first);
+    assertThat(second.hasPrevious()).isTrue();
+    assertThat(second.previousOrFirst()).isEqualTo(first);
+    assertThat(second.first()).isEqualTo(first);
+    assertThat(first.next().getOffset()).isEqualTo(2L);
+    assertThat(first.next().getLastValues()).isNull();
+    assertThat(second.withPage(5).getOffset()).isEqualTo(10L);
+    assertThat(second.withPage(5).getSort()).isEqualTo(Sort.by("something"));
+  }
+
+  @Test
+  void queryKeysetSliceNullValueTest() {
+    SpannerTemplate spyTemplate = spy(this.spannerTemplate);
+    List<Statement> statements = new ArrayList<>();
+    doAnswer(
+            invocation -> {
+              statements.add(invocation.getArgument(1));
+              return Collections.emptyList();
+            })
+        .when(spyTemplate)
+        .query(eq(TestEntity.class), any(Statement.class), any());
+
+    spyTemplate.queryKeysetSlice(
+        TestEntity.class,
+        SpannerKeysetPageable.of(2, Sort.by("something")).after(Arrays.asList(null, "b", 2L)));
+
+    Statement statement = statements.get(0);
+    assertThat(statement.getSql())
+        .contains(
+            " WHERE (custom_col IS NOT NULL)"
+                + " OR (custom_col IS NULL AND id > @keyset1)"
+                + " OR (custom_col IS NULL AND id = @keyset1 AND id2 > @keyset2) ORDER BY");
+    assertThat(statement.getParameters()).containsOnlyKeys("keyset1", "keyset2");
+  }
+
+  @Test
+  void queryKeysetSliceIgnoreCaseTest() {
+    SpannerKeysetPageable pageable =
+        SpannerKeysetPageable.of(2, Sort.by(Sort.Order.asc("something").ignoreCase()));
+
+    assertThatThrownBy(() -> this.spannerTemplate.queryKeysetSlice(TestEntity.class, pageable))
+        .isInstanceOf(SpannerDataException.class)
+        .hasMessage("Keyset pagination does not support case-insensitive sorting: something");
+  }
+
   @Test
   void findAllPageableTest() {
     SpannerTemplate spyTemplate = spy(this.spannerTemplate);
@@ -924,6 +1270,30 @@ class SpannerTemplateTests {
     verifyEvents(null, expectedAfter, operation, verifyOperation);
   }
 
+  private ResultSet partitionResultSet(TestEntity... entities) {
+    ResultSet resultSet = mock(ResultSet.class);
+    Boolean[] hasNext = new Boolean[entities.length];
+    Arrays.fill(hasNext, true);
+    hasNext[hasNext.length - 1] = false;
+    when(resultSet.next()).thenReturn(true, hasNext);
+    Struct[] structs = new Struct[entities.length];
+    for (int i = 0; i < entities.length; i++) {
+      structs[i] = Struct.newBuilder().set("id").to(entities[i].id).build();
+      when(this.objectMapper.read(TestEntity.class, structs[i])).thenReturn(entities[i]);
+    }
+    when(resultSet.getCurrentRowAsStruct())
+        .thenReturn(structs[0], Arrays.copyOfRange(structs, 1, structs.length));
+    return resultSet;
+  }
+
+  private static TestEntity keysetTestEntity(String id, long id2, String something) {
+    TestEntity entity = new TestEntity();
+    entity.id = id;
+    entity.id2 = id2;
+    entity.something = something;
+    return entity;
+  }
+
   @Table(name = "test_table_embedded_pk")
   private static class TestEntityEmbeddedPrimaryKey {
     @Embedded @PrimaryKey
@@ -33,22 +33,28 @@ import com.google.cloud.spanner.ReadOnlyTransaction;
 import com.google.cloud.spanner.Statement;
 import com.google.cloud.spanner.TransactionContext;
 import com.google.cloud.spanner.TransactionManager;
+import com.google.cloud.spanner.TransactionRunner;
 import com.google.cloud.spring.data.spanner.core.admin.SpannerSchemaUtils;
 import com.google.cloud.spring.data.spanner.core.convert.SpannerEntityProcessor;
 import com.google.cloud.spring.data.spanner.core.mapping.Column;
 import com.google.cloud.spring.data.spanner.core.mapping.PrimaryKey;
 import com.google.cloud.spring.data.spanner.core.mapping.SpannerMappingContext;
 import com.google.cloud.spring.data.spanner.core.mapping.Table;
+import com.google.cloud.spring.data.spanner.core.mapping.event.AfterExecuteDmlEvent;
+import com.google.cloud.spring.data.spanner.core.mapping.event.BeforeExecuteDmlEvent;
 import java.util.Arrays;
 import java.util.List;
 import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Collectors;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
 import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.test.context.ContextConfiguration;
@@ -81,6 +87,8 @@ class SpannerTemplateTransactionManagerTests {
 
   @Autowired TransactionalService transactionalService;
 
+  @Autowired SpannerTemplate spannerTemplate;
+
   TransactionManager transactionManager;
 
   @Mock ReadOnlyTransaction readOnlyTransaction;
@@ -88,6 +96,8 @@ class SpannerTemplateTransactionManagerTests {
   @BeforeEach
   void setUp() {
     when(this.databaseClient.singleUse()).thenReturn(this.readContext);
+    when(this.transactionContext.batchUpdate(Mockito.any()))
+        .thenAnswer(invocation -> new long[((List<?>) invocation.getArgument(0)).size()]);
     this.transactionManager = Mockito.spy(TransactionManager.class);
     Mockito.doAnswer(
             invocation -> {
@@ -205,6 +215,66 @@ class SpannerTemplateTransactionManagerTests {
             Mockito.any());
   }
 
+  @Test
+  void bufferedDmlTransaction() {
+    this.transactionalService.bufferDmlInTransaction();
+
+    InOrder inOrder = Mockito.inOrder(this.transactionContext, this.transactionManager);
+    inOrder.verify(this.transactionContext).batchUpdate(dmlStatements("a", "b", "c"));
+    inOrder.verify(this.transactionContext).batchUpdate(dmlStatements("d"));
+    inOrder
+        .verify(this.transactionContext)
+        .read(
+            eq("custom_test_table"),
+            eq(KeySet.singleKey(Key.of("abc"))),
+            Mockito.any(Iterable.class),
+            Mockito.any());
+    inOrder.verify(this.transactionContext).batchUpdate(dmlStatements("e"));
+    inOrder.verify(this.transactionManager).commit();
+    verify(this.transactionContext, Mockito.never()).executeUpdate(Mockito.any());
+  }
+
+  @Test
+  void bufferedDmlPublishesAfterExecuteDmlEvents() {
+    ApplicationEventPublisher eventPublisher = Mockito.mock(ApplicationEventPublisher.class);
+    this.spannerTemplate.setApplicationEventPublisher(eventPublisher);
+    Mockito.doReturn(new long[] {1, 2, 3}, new long[] {4}, new long[] {5})
+        .when(this.transactionContext)
+        .batchUpdate(Mockito.any());
+
+    this.transactionalService.bufferDmlInTransaction();
+
+    InOrder inOrder = Mockito.inOrder(eventPublisher);
+    for (String sql : Arrays.asList("a", "b", "c", "d", "e")) {
+      inOrder.verify(eventPublisher).publishEvent(new BeforeExecuteDmlEvent(Statement.of(sql)));
+    }
+    verify(eventPublisher).publishEvent(new AfterExecuteDmlEvent(Statement.of("a"), 1L));
+    verify(eventPublisher).publishEvent(new AfterExecuteDmlEvent(Statement.of("c"), 3L));
+    verify(eventPublisher).publishEvent(new AfterExecuteDmlEvent(Statement.of("d"), 4L));
+    verify(eventPublisher).publishEvent(new AfterExecuteDmlEvent(Statement.of("e"), 5L));
+  }
+
+  @Test
+  void bufferedDmlIsDiscardedOnRollback() {
+    assertThatThrownBy(() -> this.transactionalService.bufferDmlInTransactionWithException())
+        .hasMessage("oops");
+
+    verify(this.transactionManager, times(1)).rollback();
+    verify(this.transactionContext, Mockito.never()).batchUpdate(Mockito.any());
+  }
+
+  @Test
+  void bufferedDmlWithoutTransaction() {
+    TransactionRunner transactionRunner = Mockito.mock(TransactionRunner.class);
+    when(this.databaseClient.readWriteTransaction()).thenReturn(transactionRunner);
+    when(transactionRunner.run(Mockito.any())).thenReturn(1L);
+
+    this.transactionalService.bufferDmlWithoutTransaction();
+
+    verify(transactionRunner, times(1)).run(Mockito.any());
+    verify(this.transactionManager, Mockito.never()).begin();
+  }
+
   @Test
   void readOnlySaveTest() {
     assertThatThrownBy(() -> this.transactionalService.writingInReadOnly(new TestEntity()))
@@ -251,7 +321,10 @@ class SpannerTemplateTransactionManagerTests {
 
     @Bean
     public SpannerTransactionManager spannerTransactionManager(DatabaseClient databaseClient) {
-      return new SpannerTransactionManager(() -> databaseClient);
+      SpannerTransactionManager transactionManager =
+          new SpannerTransactionManager(() -> databaseClient);
+      transactionManager.setDmlBatchSize(3);
+      return transactionManager;
     }
 
     @Bean
@@ -292,6 +365,25 @@ class SpannerTemplateTransactionManagerTests {
       this.spannerTemplate.upsert(entity2);
     }
 
+    @Transactional
+    public void bufferDmlInTransaction() {
+      for (Statement statement : dmlStatements("a", "b", "c", "d")) {
+        this.spannerTemplate.bufferDmlStatement(statement);
+      }
+      this.spannerTemplate.read(TestEntity.class, Key.of("abc"));
+      this.spannerTemplate.bufferDmlStatement(Statement.of("e"));
+    }
+
+    @Transactional
+    public void bufferDmlInTransactionWithException() {
+      this.spannerTemplate.bufferDmlStatement(Statement.of("a"));
+      throw new RuntimeException("oops");
+    }
+
+    public void bufferDmlWithoutTransaction() {
+      this.spannerTemplate.bufferDmlStatement(DML_STATEMENT);
+    }
+
     @Transactional(readOnly = true)
     public void readOnlyOperation() {
       this.spannerTemplate.read(TestEntity.class, Key.of("abc"));
@@ -319,6 +411,10 @@ class SpannerTemplateTransactionManagerTests {
     }
   }
 
+  private static List<Statement> dmlStatements(String... sql) {
+    return Arrays.stream(sql).map(Statement::of).collect(Collectors.toList());
+  }
+
   @Table(name = "custom_test_table")
   private static class TestEntity {
     @PrimaryKey(keyOrder = 1)
@@ -27,11 +27,15 @@ import static org.mockito.Mockito.when;
 import com.google.cloud.spanner.AbortedException;
 import com.google.cloud.spanner.DatabaseClient;
 import com.google.cloud.spanner.ErrorCode;
+import com.google.cloud.spanner.ReadOnlyTransaction;
 import com.google.cloud.spanner.SpannerException;
 import com.google.cloud.spanner.SpannerExceptionFactory;
+import com.google.cloud.spanner.Statement;
+import com.google.cloud.spanner.TimestampBound;
 import com.google.cloud.spanner.TransactionContext;
 import com.google.cloud.spanner.TransactionManager;
 import com.google.cloud.spanner.TransactionManager.TransactionState;
+import java.util.concurrent.TimeUnit;
 import org.junit.Assert;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -150,6 +154,35 @@ class SpannerTransactionManagerTests {
     verify(transactionManager, times(0)).getState();
   }
 
+  @Test
+  void testDoBeginReadOnlyWithTimestampBound() {
+    TimestampBound timestampBound = TimestampBound.ofExactStaleness(10, TimeUnit.SECONDS);
+    ReadOnlyTransaction readOnlyTransaction = mock(ReadOnlyTransaction.class);
+    when(this.databaseClient.readOnlyTransaction(timestampBound)).thenReturn(readOnlyTransaction);
+    manager.setReadOnlyTimestampBound(timestampBound);
+
+    DefaultTransactionDefinition definition = new DefaultTransactionDefinition();
+    definition.setReadOnly(true);
+
+    TransactionSynchronizationManager.unbindResource(this.databaseClient);
+
+    manager.doBegin(tx, definition);
+    tx.getTransactionContext().executeQuery(Statement.of("SELECT 1"));
+
+    verify(readOnlyTransaction, times(1)).executeQuery(Statement.of("SELECT 1"));
+    verify(this.databaseClient, never()).readOnlyTransaction();
+  }
+
+  @Test
+  void testReadOnlyTimestampBoundMustNotBeBounded() {
+    assertThatThrownBy(
+            () ->
+                manager.setReadOnlyTimestampBound(
+                    TimestampBound.ofMaxStaleness(10, TimeUnit.SECONDS)))
+        .isInstanceOf(IllegalArgumentException.class)
+        .hasMessage("Bounded staleness is only supported by single-use reads.");
+  }
+
   @Test
   void testDoCommit() {
     when(transactionManager.getState()).thenReturn(TransactionState.STARTED);
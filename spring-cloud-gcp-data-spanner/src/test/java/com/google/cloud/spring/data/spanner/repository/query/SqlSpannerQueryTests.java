@@ -20,8 +20,10 @@ import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.same;
 import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doNothing;
 import static org.mockito.Mockito.doReturn;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.spy;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
@@ -51,6 +53,7 @@ import com.google.cloud.spring.data.spanner.core.mapping.Where;
 import com.google.gson.Gson;
 import com.google.spanner.v1.TypeCode;
 import java.lang.reflect.Method;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
@@ -533,6 +536,93 @@ class SqlSpannerQueryTests {
     verify(this.spannerTemplate, times(1)).executeDmlStatement(any());
   }
 
+  @Test
+  void voidDmlIsBufferedTest() throws NoSuchMethodException {
+    Method method = QueryHolder.class.getMethod("noParamMethod");
+
+    Mockito.<Parameters>when(this.queryMethod.getParameters())
+        .thenReturn(new DefaultParameters(method));
+    Mockito.<Class<?>>when(this.queryMethod.getReturnedObjectType()).thenReturn(void.class);
+    doNothing().when(this.spannerTemplate).bufferDmlStatement(any());
+
+    SqlSpannerQuery sqlSpannerQuery = createQuery("dml statement here", Trade.class, true);
+
+    assertThat(sqlSpannerQuery.execute(new Object[] {})).isNull();
+
+    verify(this.spannerTemplate, times(1))
+        .bufferDmlStatement(Statement.of("dml statement here"));
+    verify(this.spannerTemplate, never()).executeDmlStatement(any());
+  }
+
+  @Test
+  void queryPlanIsCompiledOnceTest() throws NoSuchMethodException {
+    String sql =
+        "SELECT * FROM"
+            + " :com.google.cloud.spring.data.spanner.repository.query.SqlSpannerQueryTests$Trade:"
+            + " WHERE id = @id AND trader_id = #{#traderId}";
+
+    when(queryMethod.isCollectionQuery()).thenReturn(false);
+    when(queryMethod.getReturnedObjectType()).thenReturn((Class) Trade.class);
+    Method method = QueryHolder.class.getMethod("dummyMethod3", String.class, String.class);
+    when(this.queryMethod.getQueryMethod()).thenReturn(method);
+    Mockito.<Parameters>when(this.queryMethod.getParameters())
+        .thenReturn(new DefaultParameters(method));
+
+    StandardEvaluationContext firstContext = new StandardEvaluationContext();
+    firstContext.setVariable("traderId", "trader1");
+    StandardEvaluationContext secondContext = new StandardEvaluationContext();
+    secondContext.setVariable("traderId", "trader2");
+    when(this.evaluationContextProvider.getEvaluationContext(any(), any()))
+        .thenReturn(firstContext, secondContext);
+
+    List<Statement> statements = new ArrayList<>();
+    doAnswer(
+            invocation -> {
+              statements.add(invocation.getArgument(0));
+              return null;
+            })
+        .when(this.spannerTemplate)
+        .executeQuery(any(), any());
+
+    SpelExpressionParser parser = spy(this.expressionParser);
+    this.expressionParser = parser;
+    SqlSpannerQuery<Trade> sqlSpannerQuery = createQuery(sql, Trade.class, false);
+
+    sqlSpannerQuery.execute(new Object[] {"id1", "ignored"});
+    sqlSpannerQuery.execute(new Object[] {"id2", "ignored"});
+
+    verify(parser, times(1)).parseExpression(any(), any());
+    assertThat(statements).hasSize(2);
+    assertThat(statements.get(0).getSql()).isEqualTo(statements.get(1).getSql());
+    assertThat(statements.get(0).getParameters().get("id").getString()).isEqualTo("id1");
+    assertThat(statements.get(0).getParameters().get("SpELtag1").getString()).isEqualTo("trader1");
+    assertThat(statements.get(1).getParameters().get("id").getString()).isEqualTo("id2");
+    assertThat(statements.get(1).getParameters().get("SpELtag1").getString()).isEqualTo("trader2");
+  }
+
+  @Test
+  void literalQuerySkipsSpelEvaluationTest() throws NoSuchMethodException {
+    String sql =
+        "SELECT * FROM"
+            + " :com.google.cloud.spring.data.spanner.repository.query.SqlSpannerQueryTests$Trade:"
+            + " WHERE id = @id AND trader_id = @traderId";
+
+    when(queryMethod.isCollectionQuery()).thenReturn(false);
+    when(queryMethod.getReturnedObjectType()).thenReturn((Class) Trade.class);
+    Method method = QueryHolder.class.getMethod("dummyMethod3", String.class, String.class);
+    when(this.queryMethod.getQueryMethod()).thenReturn(method);
+    Mockito.<Parameters>when(this.queryMethod.getParameters())
+        .thenReturn(new DefaultParameters(method));
+    doReturn(null).when(this.spannerTemplate).executeQuery(any(), any());
+
+    SqlSpannerQuery<Trade> sqlSpannerQuery = createQuery(sql, Trade.class, false);
+    sqlSpannerQuery.execute(new Object[] {"id1", "trader1"});
+    sqlSpannerQuery.execute(new Object[] {"id2", "trader2"});
+
+    verify(this.evaluationContextProvider, never()).getEvaluationContext(any(), any());
+    verify(this.spannerTemplate, times(2)).executeQuery(any(), any());
+  }
+
   @Test
   void sqlCountWithWhereTest() throws NoSuchMethodException {
     String sql =
@@ -0,0 +1,88 @@
+/*
+ * Copyright 2022-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.cloud.spring.data.spanner.repository.support;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.google.cloud.spanner.Key;
+import com.google.cloud.spring.data.spanner.core.ReactiveSpannerTemplate;
+import com.google.cloud.spring.data.spanner.core.convert.SpannerEntityProcessor;
+import com.google.cloud.spring.data.spanner.core.mapping.PrimaryKey;
+import com.google.cloud.spring.data.spanner.core.mapping.SpannerMappingContext;
+import com.google.cloud.spring.data.spanner.core.mapping.Table;
+import com.google.cloud.spring.data.spanner.repository.ReactiveSpannerRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+/** Tests for the reactive Spanner repository factory. */
+class ReactiveSpannerRepositoryFactoryTests {
+
+  private final ReactiveSpannerTemplate spannerTemplate = mock(ReactiveSpannerTemplate.class);
+
+  private final SpannerEntityProcessor entityProcessor = mock(SpannerEntityProcessor.class);
+
+  private ReactiveSpannerRepositoryFactory factory;
+
+  @BeforeEach
+  void setUp() {
+    when(this.spannerTemplate.getMappingContext()).thenReturn(new SpannerMappingContext());
+    when(this.spannerTemplate.getSpannerEntityProcessor()).thenReturn(this.entityProcessor);
+    this.factory = new ReactiveSpannerRepositoryFactory(this.spannerTemplate);
+  }
+
+  @Test
+  void getRepositoryTest() {
+    TestEntity entity = new TestEntity();
+    when(this.entityProcessor.convertToKey("a")).thenReturn(Key.of("a"));
+    when(this.spannerTemplate.read(TestEntity.class, Key.of("a"))).thenReturn(Mono.just(entity));
+
+    TestRepository repository = this.factory.getRepository(TestRepository.class);
+
+    StepVerifier.create(repository.findById("a")).expectNext(entity).verifyComplete();
+  }
+
+  @Test
+  void queryMethodsNotSupportedTest() {
+    assertThatThrownBy(() -> this.factory.getRepository(QueryMethodRepository.class))
+        .isInstanceOf(IllegalStateException.class);
+  }
+
+  @Test
+  void getEntityInformationTest() {
+    assertThat(this.factory.getEntityInformation(TestEntity.class).getJavaType())
+        .isEqualTo(TestEntity.class);
+  }
+
+  interface TestRepository extends ReactiveSpannerRepository<TestEntity, String> {}
+
+  interface QueryMethodRepository extends ReactiveSpannerRepository<TestEntity, String> {
+    Flux<TestEntity> findByValue(String value);
+  }
+
+  @Table(name = "reactive_test_table")
+  private static class TestEntity {
+    @PrimaryKey String id;
+
+    String value;
+  }
+}
@@ -0,0 +1,114 @@
+/*
+ * Copyright 2022-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.cloud.spring.data.spanner.repository.support;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.google.cloud.Timestamp;
+import com.google.cloud.spanner.Key;
+import com.google.cloud.spanner.KeySet;
+import com.google.cloud.spring.data.spanner.core.ReactiveSpannerTemplate;
+import com.google.cloud.spring.data.spanner.core.convert.SpannerEntityProcessor;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+/** Tests for the reactive Spanner repository implementation. */
+class SimpleReactiveSpannerRepositoryTests {
+
+  private final ReactiveSpannerTemplate template = mock(ReactiveSpannerTemplate.class);
+
+  private final SpannerEntityProcessor entityProcessor = mock(SpannerEntityProcessor.class);
+
+  private final SimpleReactiveSpannerRepository<String, Long> repository =
+      new SimpleReactiveSpannerRepository<>(this.template, String.class);
+
+  @BeforeEach
+  void setUp() {
+    when(this.template.getSpannerEntityProcessor()).thenReturn(this.entityProcessor);
+    when(this.entityProcessor.convertToKey(any()))
+        .thenAnswer(invocation -> Key.of(invocation.<Object>getArgument(0)));
+  }
+
+  @Test
+  void findByIdIsLazyTest() {
+    when(this.template.read(String.class, Key.of(1L))).thenReturn(Mono.just("a"));
+
+    Mono<String> result = this.repository.findById(1L);
+    verify(this.template, never()).read(any(), any(Key.class));
+
+    StepVerifier.create(result).expectNext("a").verifyComplete();
+  }
+
+  @Test
+  void findAllByIdTest() {
+    KeySet keys = KeySet.newBuilder().addKey(Key.of(1L)).addKey(Key.of(2L)).build();
+    when(this.template.read(eq(String.class), eq(keys), any())).thenReturn(Flux.just("a", "b"));
+
+    StepVerifier.create(this.repository.findAllById(Arrays.asList(1L, 2L)))
+        .expectNext("a", "b")
+        .verifyComplete();
+  }
+
+  @Test
+  void findAllByNoIdsTest() {
+    StepVerifier.create(this.repository.findAllById(Collections.emptyList())).verifyComplete();
+    verify(this.template, never()).read(any(), any(KeySet.class), any());
+  }
+
+  @Test
+  void saveAllPublisherIsBatchedTest() {
+    List<String> entities =
+        IntStream.range(0, 501).mapToObj(Integer::toString).collect(Collectors.toList());
+    when(this.template.upsertAll(any())).thenReturn(Mono.just(Timestamp.now()));
+
+    StepVerifier.create(this.repository.saveAll(Flux.fromIterable(entities)))
+        .expectNextSequence(entities)
+        .verifyComplete();
+    verify(this.template, times(2)).upsertAll(any());
+  }
+
+  @Test
+  void deleteAllTest() {
+    when(this.template.delete(String.class, KeySet.all())).thenReturn(Mono.just(Timestamp.now()));
+
+    StepVerifier.create(this.repository.deleteAll()).verifyComplete();
+    verify(this.template).delete(String.class, KeySet.all());
+  }
+
+  @Test
+  void deleteFailureTest() {
+    when(this.template.deleteAll(Collections.singletonList("a")))
+        .thenReturn(Mono.error(new IllegalStateException("failed")));
+
+    StepVerifier.create(this.repository.deleteAll(Collections.singletonList("a")))
+        .verifyError(IllegalStateException.class);
+  }
+}
@@ -21,6 +21,7 @@ import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoInteractions;
@@ -28,6 +29,8 @@ import static org.mockito.Mockito.when;
 
 import com.google.cloud.spanner.Key;
 import com.google.cloud.spanner.KeySet;
+import com.google.cloud.spring.data.spanner.core.SpannerKeysetPageable;
+import com.google.cloud.spring.data.spanner.core.SpannerKeysetSlice;
 import com.google.cloud.spring.data.spanner.core.SpannerPageableQueryOptions;
 import com.google.cloud.spring.data.spanner.core.SpannerTemplate;
 import com.google.cloud.spring.data.spanner.core.convert.SpannerEntityProcessor;
@@ -39,7 +42,9 @@ import java.util.function.Function;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.ArgumentCaptor;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.domain.Sort;
 
 /** Tests for the standard Spanner repository implementation. */
@@ -253,6 +258,39 @@ class SimpleSpannerRepositoryTests {
     verify(this.template, times(1)).queryAll(eq(Object.class), any());
   }
 
+  @Test
+  void findAllSliceTest() {
+    Sort sort = Sort.by("id");
+    when(this.template.queryAll(eq(Object.class), any()))
+        .thenAnswer(
+            invocation -> {
+              SpannerPageableQueryOptions spannerQueryOptions = invocation.getArgument(1);
+              assertThat(spannerQueryOptions.getSort()).isSameAs(sort);
+              assertThat(spannerQueryOptions.getOffset()).isEqualTo(4);
+              assertThat(spannerQueryOptions.getLimit()).isEqualTo(3);
+              return new ArrayList<>(Arrays.asList("a", "b", "c"));
+            });
+    Slice<Object> slice =
+        new SimpleSpannerRepository<Object, Key>(this.template, Object.class)
+            .findAllSlice(PageRequest.of(2, 2, sort));
+    assertThat(slice.getContent()).containsExactly("a", "b");
+    assertThat(slice.hasNext()).isTrue();
+    verify(this.template, times(1)).queryAll(eq(Object.class), any());
+    verify(this.template, never()).count(any());
+  }
+
+  @Test
+  void findAllSliceKeysetTest() {
+    SpannerKeysetPageable pageable = SpannerKeysetPageable.of(2);
+    SpannerKeysetSlice<Object> slice = mock(SpannerKeysetSlice.class);
+    when(this.template.queryKeysetSlice(Object.class, pageable)).thenReturn(slice);
+    assertThat(
+            new SimpleSpannerRepository<Object, Key>(this.template, Object.class)
+                .findAllSlice(pageable))
+        .isSameAs(slice);
+    verify(this.template, never()).queryAll(any(), any());
+  }
+
   @Test
   void findAllByIdTest() {
     List<Key> unconvertedKey = Arrays.asList(Key.of("key1"), Key.of("key2"));
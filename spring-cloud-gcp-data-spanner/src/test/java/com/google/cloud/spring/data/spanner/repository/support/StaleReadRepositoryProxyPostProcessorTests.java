@@ -0,0 +1,90 @@
+/*
+ * Copyright 2022-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.cloud.spring.data.spanner.repository.support;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.google.cloud.spanner.TimestampBound;
+import com.google.cloud.spring.data.spanner.core.SpannerTimestampBoundHolder;
+import com.google.cloud.spring.data.spanner.repository.query.StaleRead;
+import com.google.cloud.spring.data.spanner.repository.support.StaleReadRepositoryProxyPostProcessor.StaleReadInterceptor;
+import java.util.concurrent.TimeUnit;
+import org.aopalliance.intercept.MethodInvocation;
+import org.junit.jupiter.api.Test;
+
+/** Tests for binding the timestamp bounds of stale read annotations. */
+class StaleReadRepositoryProxyPostProcessorTests {
+
+  private final StaleReadInterceptor interceptor =
+      new StaleReadInterceptor(StaleRepository.class);
+
+  @Test
+  void repositoryStaleReadTest() throws Throwable {
+    assertThat(invoke("findAll"))
+        .isEqualTo(TimestampBound.ofMaxStaleness(15, TimeUnit.SECONDS));
+    assertThat(SpannerTimestampBoundHolder.getTimestampBound()).isNull();
+  }
+
+  @Test
+  void methodStaleReadTest() throws Throwable {
+    assertThat(invoke("findExact"))
+        .isEqualTo(TimestampBound.ofExactStaleness(500, TimeUnit.MILLISECONDS));
+  }
+
+  @Test
+  void noStaleReadTest() throws Throwable {
+    StaleReadInterceptor strongInterceptor = new StaleReadInterceptor(StrongRepository.class);
+    MethodInvocation invocation = mock(MethodInvocation.class);
+    when(invocation.getMethod()).thenReturn(StrongRepository.class.getMethod("findAll"));
+    when(invocation.proceed()).thenAnswer(x -> SpannerTimestampBoundHolder.getTimestampBound());
+
+    assertThat(strongInterceptor.invoke(invocation)).isNull();
+  }
+
+  @Test
+  void previousTimestampBoundIsRestoredTest() throws Throwable {
+    TimestampBound outer = TimestampBound.ofExactStaleness(1, TimeUnit.MINUTES);
+    SpannerTimestampBoundHolder.setTimestampBound(outer);
+    try {
+      invoke("findAll");
+      assertThat(SpannerTimestampBoundHolder.getTimestampBound()).isEqualTo(outer);
+    } finally {
+      SpannerTimestampBoundHolder.setTimestampBound(null);
+    }
+  }
+
+  private Object invoke(String methodName) throws Throwable {
+    MethodInvocation invocation = mock(MethodInvocation.class);
+    when(invocation.getMethod()).thenReturn(StaleRepository.class.getMethod(methodName));
+    when(invocation.proceed()).thenAnswer(x -> SpannerTimestampBoundHolder.getTimestampBound());
+    return this.interceptor.invoke(invocation);
+  }
+
+  @StaleRead(15)
+  private interface StaleRepository {
+    Object findAll();
+
+    @StaleRead(value = 500, unit = TimeUnit.MILLISECONDS, exact = true)
+    Object findExact();
+  }
+
+  private interface StrongRepository {
+    Object findAll();
+  }
+}
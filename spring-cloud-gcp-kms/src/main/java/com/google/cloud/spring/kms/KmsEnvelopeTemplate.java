@@ -0,0 +1,368 @@
+/*
+ * Copyright 2022-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.cloud.spring.kms;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import javax.crypto.AEADBadTagException;
+import javax.crypto.Cipher;
+import javax.crypto.SecretKey;
+import javax.crypto.spec.GCMParameterSpec;
+import javax.crypto.spec.SecretKeySpec;
+import org.springframework.util.Assert;
+
+/**
+ * {@link KmsOperations} implementation using envelope encryption: Cloud KMS only wraps a randomly
+ * generated AES-256 data encryption key (DEK), and the payload itself is encrypted locally with
+ * AES-GCM.
+ *
+ * <p>A DEK is reused for encryption with the same KMS key until it reaches its time-to-live or its
+ * maximum number of uses, so a KMS encrypt request is only issued when a DEK is rotated. Unwrapped
+ * DEKs are kept in a bounded cache for decryption, so a KMS decrypt request is only issued for DEKs
+ * that have not been seen recently.
+ *
+ * <p>The ciphertext produced by this class is not compatible with {@link KmsTemplate}. It has the
+ * following layout, where the header is authenticated as additional data:
+ *
+ * <pre>
+ * [version: 1 byte][wrapped DEK length: 2 bytes][wrapped DEK][IV: 12 bytes][AES-GCM ciphertext]
+ * </pre>
+ *
+ * @since 3.3.0
+ */
+public class KmsEnvelopeTemplate implements KmsOperations {
+
+  static final byte FORMAT_VERSION = 1;
+
+  static final int IV_LENGTH = 12;
+
+  static final int TAG_LENGTH_BITS = 128;
+
+  private static final int DATA_KEY_LENGTH = 32;
+
+  private static final String DATA_KEY_ALGORITHM = "AES";
+
+  private static final String CIPHER_TRANSFORMATION = "AES/GCM/NoPadding";
+
+  private final KmsOperations kmsOperations;
+
+  private final SecureRandom secureRandom = new SecureRandom();
+
+  private final Map<String, DataKey> encryptionKeys = new ConcurrentHashMap<>();
+
+  private final Map<String, Object> rotationLocks = new ConcurrentHashMap<>();
+
+  private final Map<String, DataKey> decryptionKeys =
+      new LinkedHashMap<String, DataKey>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, DataKey> eldest) {
+          return size() > KmsEnvelopeTemplate.this.maxCachedDataKeys;
+        }
+      };
+
+  private final AtomicLong wrapRequests = new AtomicLong();
+
+  private final AtomicLong unwrapRequests = new AtomicLong();
+
+  private Duration dataKeyTimeToLive = Duration.ofMinutes(10);
+
+  // Random 96-bit IVs must not be used more than 2^32 times with the same key.
+  private long dataKeyMaxUsages = 1_000_000L;
+
+  private int maxCachedDataKeys = 1000;
+
+  /**
+   * Creates the template.
+   *
+   * @param kmsOperations the operations used to wrap and unwrap data encryption keys, typically a
+   *     {@link KmsTemplate}
+   */
+  public KmsEnvelopeTemplate(KmsOperations kmsOperations) {
+    Assert.notNull(kmsOperations, "KmsOperations can't be null.");
+    this.kmsOperations = kmsOperations;
+  }
+
+  /**
+   * Sets how long a data encryption key is used for encryption and kept for decryption.
+   *
+   * @param dataKeyTimeToLive the time-to-live of a data encryption key
+   */
+  public void setDataKeyTimeToLive(Duration dataKeyTimeToLive) {
+    Assert.notNull(dataKeyTimeToLive, "Data key time-to-live can't be null.");
+    Assert.isTrue(!dataKeyTimeToLive.isNegative(), "Data key time-to-live can't be negative.");
+    this.dataKeyTimeToLive = dataKeyTimeToLive;
+  }
+
+  /**
+   * Sets the number of encryptions after which a new data encryption key is generated.
+   *
+   * @param dataKeyMaxUsages the maximum number of encryptions per data encryption key
+   */
+  public void setDataKeyMaxUsages(long dataKeyMaxUsages) {
+    Assert.isTrue(dataKeyMaxUsages > 0, "Data key max usages must be positive.");
+    this.dataKeyMaxUsages = dataKeyMaxUsages;
+  }
+
+  /**
+   * Sets the maximum number of unwrapped data encryption keys cached for decryption.
+   *
+   * @param maxCachedDataKeys the maximum number of cached data encryption keys
+   */
+  public void setMaxCachedDataKeys(int maxCachedDataKeys) {
+    Assert.isTrue(maxCachedDataKeys >= 0, "Max cached data keys can't be negative.");
+    this.maxCachedDataKeys = maxCachedDataKeys;
+  }
+
+  /**
+   * Returns the number of KMS encrypt requests issued to wrap data encryption keys.
+   *
+   * @return the number of wrap requests
+   */
+  public long getWrapRequestCount() {
+    return this.wrapRequests.get();
+  }
+
+  /**
+   * Returns the number of KMS decrypt requests issued to unwrap data encryption keys.
+   *
+   * @return the number of unwrap requests
+   */
+  public long getUnwrapRequestCount() {
+    return this.unwrapRequests.get();
+  }
+
+  @Override
+  public byte[] encryptText(String cryptoKey, String text) {
+    return encryptBytes(cryptoKey, text.getBytes(StandardCharsets.UTF_8));
+  }
+
+  @Override
+  public byte[] encryptBytes(String cryptoKey, byte[] bytes) {
+    return toArray(encrypt(cryptoKey, ByteBuffer.wrap(bytes)));
+  }
+
+  @Override
+  public String decryptText(String cryptoKey, byte[] cipherText) {
+    return new String(decryptBytes(cryptoKey, cipherText), StandardCharsets.UTF_8);
+  }
+
+  @Override
+  public byte[] decryptBytes(String cryptoKey, byte[] cipherText) {
+    return toArray(decrypt(cryptoKey, ByteBuffer.wrap(cipherText)));
+  }
+
+  /**
+   * Encrypts the remaining bytes of {@code plaintext} with a data encryption key wrapped by the
+   * specified KMS resource string {@code cryptoKey}.
+   *
+   * <p>A KMS encryption request is only issued when a new data encryption key is needed.
+   *
+   * @param cryptoKey the KMS resource string
+   * @param plaintext the bytes to encrypt; consumed by this method
+   * @return a heap buffer backed by an array containing exactly the encrypted message
+   */
+  public ByteBuffer encrypt(String cryptoKey, ByteBuffer plaintext) {
+    DataKey dataKey = currentDataKey(cryptoKey);
+    byte[] header = header(dataKey.wrappedKey);
+    byte[] iv = new byte[IV_LENGTH];
+    this.secureRandom.nextBytes(iv);
+
+    Cipher cipher = cipher(Cipher.ENCRYPT_MODE, dataKey.key, iv, header);
+    ByteBuffer output =
+        ByteBuffer.allocate(header.length + IV_LENGTH + cipher.getOutputSize(plaintext.remaining()));
+    output.put(header).put(iv);
+    try {
+      cipher.doFinal(plaintext, output);
+    } catch (GeneralSecurityException ex) {
+      throw new KmsException("Encryption: could not encrypt payload", ex);
+    }
+    output.flip();
+    return output;
+  }
+
+  /**
+   * Decrypts a message produced by {@link #encrypt(String, ByteBuffer)} using the specified KMS
+   * resource string {@code cryptoKey}.
+   *
+   * <p>A KMS decryption request is only issued when the data encryption key of the message is not
+   * cached.
+   *
+   * @param cryptoKey the KMS resource string
+   * @param cipherText the encrypted message; consumed by this method
+   * @return a heap buffer backed by an array containing exactly the decrypted bytes
+   */
+  public ByteBuffer decrypt(String cryptoKey, ByteBuffer cipherText) {
+    byte[] wrappedKey = readHeader(cipherText);
+    if (cipherText.remaining() < IV_LENGTH + TAG_LENGTH_BITS / 8) {
+      throw new KmsException("Decryption: ciphertext is truncated");
+    }
+    byte[] iv = new byte[IV_LENGTH];
+    cipherText.get(iv);
+
+    SecretKey key = unwrap(cryptoKey, wrappedKey);
+    Cipher cipher = cipher(Cipher.DECRYPT_MODE, key, iv, header(wrappedKey));
+    ByteBuffer output = ByteBuffer.allocate(cipher.getOutputSize(cipherText.remaining()));
+    try {
+      cipher.doFinal(cipherText, output);
+    } catch (AEADBadTagException ex) {
+      throw new KmsException("Decryption: ciphertext failed authentication", ex);
+    } catch (GeneralSecurityException ex) {
+      throw new KmsException("Decryption: could not decrypt payload", ex);
+    }
+    output.flip();
+    return output;
+  }
+
+  /**
+   * Returns a data encryption key for the given KMS key, generating and wrapping a new one when the
+   * current key has expired or has been used up. Rotations are serialized per KMS key, so a slow
+   * wrap request only holds up callers that need a data key for the same KMS key.
+   */
+  DataKey currentDataKey(String cryptoKey) {
+    long now = System.currentTimeMillis();
+    DataKey dataKey = this.encryptionKeys.get(cryptoKey);
+    if (dataKey != null && dataKey.tryUse(now, this.dataKeyMaxUsages)) {
+      return dataKey;
+    }
+    synchronized (this.rotationLocks.computeIfAbsent(cryptoKey, key -> new Object())) {
+      dataKey = this.encryptionKeys.get(cryptoKey);
+      if (dataKey != null && dataKey.tryUse(now, this.dataKeyMaxUsages)) {
+        return dataKey;
+      }
+      byte[] rawKey = new byte[DATA_KEY_LENGTH];
+      this.secureRandom.nextBytes(rawKey);
+      byte[] wrappedKey = this.kmsOperations.encryptBytes(cryptoKey, rawKey);
+      this.wrapRequests.incrementAndGet();
+      Assert.state(wrappedKey.length <= 0xFFFF, "Wrapped data key is too large");
+      dataKey = new DataKey(new SecretKeySpec(rawKey, DATA_KEY_ALGORITHM), wrappedKey, expiry());
+      dataKey.tryUse(now, this.dataKeyMaxUsages);
+      this.encryptionKeys.put(cryptoKey, dataKey);
+      cacheForDecryption(cryptoKey, dataKey);
+      return dataKey;
+    }
+  }
+
+  /**
+   * Returns the unwrapped data encryption key, issuing a KMS decrypt request on a cache miss.
+   */
+  SecretKey unwrap(String cryptoKey, byte[] wrappedKey) {
+    String cacheKey = decryptionCacheKey(cryptoKey, wrappedKey);
+    long now = System.currentTimeMillis();
+    synchronized (this.decryptionKeys) {
+      DataKey cached = this.decryptionKeys.get(cacheKey);
+      if (cached != null && now < cached.expiresAt) {
+        return cached.key;
+      }
+    }
+    byte[] rawKey = this.kmsOperations.decryptBytes(cryptoKey, wrappedKey);
+    this.unwrapRequests.incrementAndGet();
+    DataKey dataKey =
+        new DataKey(new SecretKeySpec(rawKey, DATA_KEY_ALGORITHM), wrappedKey, expiry());
+    cacheForDecryption(cryptoKey, dataKey);
+    return dataKey.key;
+  }
+
+  static byte[] header(byte[] wrappedKey) {
+    return ByteBuffer.allocate(3 + wrappedKey.length)
+        .put(FORMAT_VERSION)
+        .putShort((short) wrappedKey.length)
+        .put(wrappedKey)
+        .array();
+  }
+
+  static byte[] readHeader(ByteBuffer cipherText) {
+    if (cipherText.remaining() < 3) {
+      throw new KmsException("Decryption: ciphertext is truncated");
+    }
+    byte version = cipherText.get();
+    if (version != FORMAT_VERSION) {
+      throw new KmsException("Decryption: unsupported envelope format version " + version);
+    }
+    int wrappedKeyLength = Short.toUnsignedInt(cipherText.getShort());
+    if (cipherText.remaining() < wrappedKeyLength) {
+      throw new KmsException("Decryption: ciphertext is truncated");
+    }
+    byte[] wrappedKey = new byte[wrappedKeyLength];
+    cipherText.get(wrappedKey);
+    return wrappedKey;
+  }
+
+  static Cipher cipher(int mode, SecretKey key, byte[] iv, byte[] associatedData) {
+    try {
+      Cipher cipher = Cipher.getInstance(CIPHER_TRANSFORMATION);
+      cipher.init(mode, key, new GCMParameterSpec(TAG_LENGTH_BITS, iv));
+      cipher.updateAAD(associatedData);
+      return cipher;
+    } catch (GeneralSecurityException ex) {
+      throw new KmsException("Could not initialize AES-GCM cipher", ex);
+    }
+  }
+
+  private void cacheForDecryption(String cryptoKey, DataKey dataKey) {
+    synchronized (this.decryptionKeys) {
+      this.decryptionKeys.put(decryptionCacheKey(cryptoKey, dataKey.wrappedKey), dataKey);
+    }
+  }
+
+  private long expiry() {
+    return System.currentTimeMillis() + this.dataKeyTimeToLive.toMillis();
+  }
+
+  private static byte[] toArray(ByteBuffer buffer) {
+    if (buffer.arrayOffset() == 0 && buffer.remaining() == buffer.array().length) {
+      return buffer.array();
+    }
+    byte[] bytes = new byte[buffer.remaining()];
+    buffer.get(bytes);
+    return bytes;
+  }
+
+  private static String decryptionCacheKey(String cryptoKey, byte[] wrappedKey) {
+    // Include the KMS key so that a cached DEK is never used with a key that could not unwrap it.
+    return cryptoKey + "|" + Base64.getEncoder().encodeToString(wrappedKey);
+  }
+
+  /** A data encryption key together with its wrapped form and usage bookkeeping. */
+  static final class DataKey {
+
+    final SecretKey key;
+
+    final byte[] wrappedKey;
+
+    final long expiresAt;
+
+    private final AtomicLong usages = new AtomicLong();
+
+    DataKey(SecretKey key, byte[] wrappedKey, long expiresAt) {
+      this.key = key;
+      this.wrappedKey = wrappedKey;
+      this.expiresAt = expiresAt;
+    }
+
+    boolean tryUse(long now, long maxUsages) {
+      return now < this.expiresAt && this.usages.incrementAndGet() <= maxUsages;
+    }
+  }
+}
@@ -17,6 +17,14 @@
 package com.google.cloud.spring.kms;
 
 import com.google.cloud.spring.core.GcpProjectIdProvider;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.WritableResource;
 
 /**
  * Describes supported operations that one can perform on the KMS API.
@@ -81,4 +89,112 @@ public interface KmsOperations {
    * @return The decrypted bytes UTF-8 encoded
    */
   String decryptText(String cryptoKey, byte[] cipherText);
+
+  /**
+   * Encrypt the {@code plaintext} stream into {@code cipherText} using a data encryption key
+   * wrapped by the specified KMS resource string {@code cryptoKey}.
+   *
+   * <p>The data encryption key is wrapped with {@link #encryptBytes(String, byte[])}, and the
+   * stream is encrypted locally in authenticated chunks of 64 KiB, so memory use does not depend
+   * on the size of the stream and the payload is not limited by the KMS plaintext size limit.
+   * Neither stream is closed by this method.
+   *
+   * @param cryptoKey The KMS resource string
+   * @param plaintext The stream to encrypt
+   * @param cipherText The stream receiving the encrypted bytes
+   * @since 3.3.0
+   */
+  default void encrypt(String cryptoKey, InputStream plaintext, OutputStream cipherText) {
+    encrypt(cryptoKey, Channels.newChannel(plaintext), Channels.newChannel(cipherText));
+  }
+
+  /**
+   * Decrypt the {@code cipherText} stream produced by {@link #encrypt(String, InputStream,
+   * OutputStream)} into {@code plaintext} using the specified KMS resource string {@code
+   * cryptoKey}. Decrypted bytes are only written once their chunk has been authenticated.
+   * Neither stream is closed by this method.
+   *
+   * @param cryptoKey The KMS resource string
+   * @param cipherText The encrypted stream
+   * @param plaintext The stream receiving the decrypted bytes
+   * @since 3.3.0
+   */
+  default void decrypt(String cryptoKey, InputStream cipherText, OutputStream plaintext) {
+    decrypt(cryptoKey, Channels.newChannel(cipherText), Channels.newChannel(plaintext));
+  }
+
+  /**
+   * Encrypt the {@code plaintext} channel into {@code cipherText}; see {@link #encrypt(String,
+   * InputStream, OutputStream)}. Neither channel is closed by this method.
+   *
+   * @param cryptoKey The KMS resource string
+   * @param plaintext The channel to encrypt
+   * @param cipherText The channel receiving the encrypted bytes
+   * @since 3.3.0
+   */
+  default void encrypt(
+      String cryptoKey, ReadableByteChannel plaintext, WritableByteChannel cipherText) {
+    try {
+      KmsStreamingCipher.encrypt(
+          this, cryptoKey, plaintext, cipherText, KmsStreamingCipher.DEFAULT_SEGMENT_SIZE);
+    } catch (IOException ex) {
+      throw new KmsException("Encryption: failed to process stream", ex);
+    }
+  }
+
+  /**
+   * Decrypt the {@code cipherText} channel into {@code plaintext}; see {@link #decrypt(String,
+   * InputStream, OutputStream)}. Neither channel is closed by this method.
+   *
+   * @param cryptoKey The KMS resource string
+   * @param cipherText The encrypted channel
+   * @param plaintext The channel receiving the decrypted bytes
+   * @since 3.3.0
+   */
+  default void decrypt(
+      String cryptoKey, ReadableByteChannel cipherText, WritableByteChannel plaintext) {
+    try {
+      KmsStreamingCipher.decrypt(this, cryptoKey, cipherText, plaintext);
+    } catch (IOException ex) {
+      throw new KmsException("Decryption: failed to process stream", ex);
+    }
+  }
+
+  /**
+   * Encrypt the contents of the {@code plaintext} resource into the {@code cipherText} resource,
+   * for example between two {@code GoogleStorageResource}s, without loading the contents into
+   * memory.
+   *
+   * @param cryptoKey The KMS resource string
+   * @param plaintext The resource to encrypt
+   * @param cipherText The resource receiving the encrypted contents
+   * @since 3.3.0
+   */
+  default void encrypt(String cryptoKey, Resource plaintext, WritableResource cipherText) {
+    try (ReadableByteChannel in = plaintext.readableChannel();
+        WritableByteChannel out = cipherText.writableChannel()) {
+      encrypt(cryptoKey, in, out);
+    } catch (IOException ex) {
+      throw new KmsException("Encryption: failed to access resource", ex);
+    }
+  }
+
+  /**
+   * Decrypt the contents of the {@code cipherText} resource into the {@code plaintext} resource,
+   * for example between two {@code GoogleStorageResource}s, without loading the contents into
+   * memory.
+   *
+   * @param cryptoKey The KMS resource string
+   * @param cipherText The encrypted resource
+   * @param plaintext The resource receiving the decrypted contents
+   * @since 3.3.0
+   */
+  default void decrypt(String cryptoKey, Resource cipherText, WritableResource plaintext) {
+    try (ReadableByteChannel in = cipherText.readableChannel();
+        WritableByteChannel out = plaintext.writableChannel()) {
+      decrypt(cryptoKey, in, out);
+    } catch (IOException ex) {
+      throw new KmsException("Decryption: failed to access resource", ex);
+    }
+  }
 }
@@ -0,0 +1,236 @@
+/*
+ * Copyright 2022-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.cloud.spring.kms;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.security.GeneralSecurityException;
+import java.security.SecureRandom;
+import javax.crypto.AEADBadTagException;
+import javax.crypto.Cipher;
+import javax.crypto.SecretKey;
+import javax.crypto.spec.SecretKeySpec;
+
+/**
+ * Chunked authenticated encryption of streams with a KMS-wrapped data encryption key.
+ *
+ * <p>The plaintext is split into segments of a fixed size that are encrypted independently with
+ * AES-GCM, so memory use is bounded by two segments regardless of the stream size. Each segment's
+ * IV combines a random per-stream prefix, the segment index and a flag marking the last segment,
+ * which detects reordered, dropped or truncated segments. The encrypted stream has the following
+ * layout, where the header is authenticated as additional data of every segment:
+ *
+ * <pre>
+ * header:   [version: 1 byte][wrapped DEK length: 2 bytes][wrapped DEK]
+ *           [nonce prefix: 7 bytes][segment size: 4 bytes]
+ * segments: [AES-GCM ciphertext of up to segment size bytes + 16 byte tag]...
+ * </pre>
+ *
+ * <p>Decrypted bytes are only written once their segment has been authenticated.
+ *
+ * @since 3.3.0
+ */
+final class KmsStreamingCipher {
+
+  static final int DEFAULT_SEGMENT_SIZE = 64 * 1024;
+
+  static final int MAX_SEGMENT_SIZE = 16 * 1024 * 1024;
+
+  private static final byte FORMAT_VERSION = 1;
+
+  private static final int NONCE_PREFIX_LENGTH = 7;
+
+  private static final int TAG_LENGTH = KmsEnvelopeTemplate.TAG_LENGTH_BITS / 8;
+
+  private static final int DATA_KEY_LENGTH = 32;
+
+  private static final SecureRandom SECURE_RANDOM = new SecureRandom();
+
+  private KmsStreamingCipher() {
+  }
+
+  static void encrypt(
+      KmsOperations kmsOperations,
+      String cryptoKey,
+      ReadableByteChannel plaintext,
+      WritableByteChannel cipherText,
+      int segmentSize)
+      throws IOException {
+    if (segmentSize <= 0 || segmentSize > MAX_SEGMENT_SIZE) {
+      throw new IllegalArgumentException(
+          "Segment size must be between 1 and " + MAX_SEGMENT_SIZE + " bytes.");
+    }
+    byte[] rawKey = new byte[DATA_KEY_LENGTH];
+    SECURE_RANDOM.nextBytes(rawKey);
+    byte[] wrappedKey = kmsOperations.encryptBytes(cryptoKey, rawKey);
+    if (wrappedKey.length > 0xFFFF) {
+      throw new KmsException("Encryption: wrapped data key is too large");
+    }
+    byte[] noncePrefix = new byte[NONCE_PREFIX_LENGTH];
+    SECURE_RANDOM.nextBytes(noncePrefix);
+
+    ByteBuffer header =
+        ByteBuffer.allocate(3 + wrappedKey.length + NONCE_PREFIX_LENGTH + 4)
+            .put(FORMAT_VERSION)
+            .putShort((short) wrappedKey.length)
+            .put(wrappedKey)
+            .put(noncePrefix)
+            .putInt(segmentSize);
+    byte[] associatedData = header.array();
+    header.flip();
+    writeFully(cipherText, header);
+
+    SecretKey key = new SecretKeySpec(rawKey, "AES");
+    new SegmentProcessor(Cipher.ENCRYPT_MODE, key, noncePrefix, associatedData)
+        .process(plaintext, cipherText, segmentSize, segmentSize + TAG_LENGTH);
+  }
+
+  static void decrypt(
+      KmsOperations kmsOperations,
+      String cryptoKey,
+      ReadableByteChannel cipherText,
+      WritableByteChannel plaintext)
+      throws IOException {
+    ByteBuffer prefix = readExactly(cipherText, 3);
+    byte version = prefix.get();
+    if (version != FORMAT_VERSION) {
+      throw new KmsException("Decryption: unsupported stream format version " + version);
+    }
+    int wrappedKeyLength = Short.toUnsignedInt(prefix.getShort());
+    ByteBuffer rest = readExactly(cipherText, wrappedKeyLength + NONCE_PREFIX_LENGTH + 4);
+    byte[] wrappedKey = new byte[wrappedKeyLength];
+    byte[] noncePrefix = new byte[NONCE_PREFIX_LENGTH];
+    rest.get(wrappedKey).get(noncePrefix);
+    int segmentSize = rest.getInt();
+    if (segmentSize <= 0 || segmentSize > MAX_SEGMENT_SIZE) {
+      throw new KmsException("Decryption: invalid segment size " + segmentSize);
+    }
+    byte[] associatedData =
+        ByteBuffer.allocate(prefix.capacity() + rest.capacity())
+            .put(prefix.array())
+            .put(rest.array())
+            .array();
+
+    SecretKey key = new SecretKeySpec(kmsOperations.decryptBytes(cryptoKey, wrappedKey), "AES");
+    new SegmentProcessor(Cipher.DECRYPT_MODE, key, noncePrefix, associatedData)
+        .process(cipherText, plaintext, segmentSize + TAG_LENGTH, segmentSize);
+  }
+
+  private static ByteBuffer readExactly(ReadableByteChannel channel, int length)
+      throws IOException {
+    ByteBuffer buffer = ByteBuffer.allocate(length);
+    if (fill(channel, buffer) && buffer.hasRemaining()) {
+      throw new KmsException("Decryption: encrypted stream is truncated");
+    }
+    buffer.flip();
+    return buffer;
+  }
+
+  /**
+   * Reads from the channel until the buffer is full or the end of the stream is reached.
+   *
+   * @return whether the end of the stream was reached
+   */
+  private static boolean fill(ReadableByteChannel channel, ByteBuffer buffer) throws IOException {
+    while (buffer.hasRemaining()) {
+      if (channel.read(buffer) < 0) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private static void writeFully(WritableByteChannel channel, ByteBuffer buffer)
+      throws IOException {
+    while (buffer.hasRemaining()) {
+      channel.write(buffer);
+    }
+  }
+
+  /** Encrypts or decrypts consecutive segments, looking ahead one segment to find the last. */
+  private static final class SegmentProcessor {
+
+    private final int mode;
+
+    private final SecretKey key;
+
+    private final byte[] noncePrefix;
+
+    private final byte[] associatedData;
+
+    private int segmentIndex;
+
+    SegmentProcessor(int mode, SecretKey key, byte[] noncePrefix, byte[] associatedData) {
+      this.mode = mode;
+      this.key = key;
+      this.noncePrefix = noncePrefix;
+      this.associatedData = associatedData;
+    }
+
+    void process(
+        ReadableByteChannel input, WritableByteChannel output, int inputSize, int outputSize)
+        throws IOException {
+      ByteBuffer current = ByteBuffer.allocate(inputSize);
+      ByteBuffer next = ByteBuffer.allocate(inputSize);
+      ByteBuffer result = ByteBuffer.allocate(outputSize);
+      boolean endOfStream = fill(input, current);
+      while (true) {
+        boolean last = endOfStream;
+        boolean nextEndOfStream = false;
+        if (!last) {
+          nextEndOfStream = fill(input, next);
+          last = nextEndOfStream && next.position() == 0;
+        }
+        processSegment(current, result, last);
+        writeFully(output, result);
+        if (last) {
+          return;
+        }
+        ByteBuffer processed = current;
+        current = next;
+        next = processed;
+        next.clear();
+        endOfStream = nextEndOfStream;
+      }
+    }
+
+    private void processSegment(ByteBuffer segment, ByteBuffer result, boolean last) {
+      if (this.segmentIndex == Integer.MAX_VALUE) {
+        throw new KmsException("Too many segments in encrypted stream");
+      }
+      byte[] iv =
+          ByteBuffer.allocate(KmsEnvelopeTemplate.IV_LENGTH)
+              .put(this.noncePrefix)
+              .putInt(this.segmentIndex++)
+              .put((byte) (last ? 1 : 0))
+              .array();
+      segment.flip();
+      result.clear();
+      Cipher cipher = KmsEnvelopeTemplate.cipher(this.mode, this.key, iv, this.associatedData);
+      try {
+        cipher.doFinal(segment, result);
+      } catch (AEADBadTagException ex) {
+        throw new KmsException("Decryption: encrypted stream failed authentication", ex);
+      } catch (GeneralSecurityException ex) {
+        throw new KmsException("Could not process encrypted stream segment", ex);
+      }
+      result.flip();
+    }
+  }
+}
@@ -26,6 +26,7 @@ import com.google.cloud.spring.core.GcpProjectIdProvider;
 import com.google.common.hash.Hashing;
 import com.google.protobuf.ByteString;
 import com.google.protobuf.Int64Value;
+import com.google.protobuf.UnsafeByteOperations;
 import java.nio.charset.StandardCharsets;
 
 /**
@@ -60,7 +61,7 @@ public class KmsTemplate implements KmsOperations {
     EncryptRequest request =
         EncryptRequest.newBuilder()
             .setName(cryptoKeyName.toString())
-            .setPlaintext(ByteString.copyFrom(bytes))
+            .setPlaintext(UnsafeByteOperations.unsafeWrap(bytes))
             .setPlaintextCrc32C(Int64Value.newBuilder().setValue(crc32c).build())
             .build();
 
@@ -79,8 +80,9 @@ public class KmsTemplate implements KmsOperations {
   public byte[] decryptBytes(String cryptoKey, byte[] cipherText) {
     CryptoKeyName cryptoKeyName = KmsPropertyUtils.getCryptoKeyName(cryptoKey, projectIdProvider);
 
-    ByteString encryptedByteString = ByteString.copyFrom(cipherText);
-    long crc32c = longCrc32c(encryptedByteString);
+    long crc32c = longCrc32c(cipherText);
+    // The request is only read while the RPC is in flight, so wrapping avoids a defensive copy.
+    ByteString encryptedByteString = UnsafeByteOperations.unsafeWrap(cipherText);
 
     DecryptRequest request =
         DecryptRequest.newBuilder()
@@ -94,8 +96,9 @@ public class KmsTemplate implements KmsOperations {
     return response.getPlaintext().toByteArray();
   }
 
-  private long longCrc32c(ByteString plaintextByteString) {
-    return longCrc32c(plaintextByteString.toByteArray());
+  private long longCrc32c(ByteString byteString) {
+    // Hash the read-only view to avoid copying the response payload.
+    return Hashing.crc32c().hashBytes(byteString.asReadOnlyByteBuffer()).padToLong();
   }
 
   private long longCrc32c(byte[] bytes) {
@@ -0,0 +1,220 @@
+/*
+ * Copyright 2022-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.cloud.spring.kms;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/** Tests for {@link KmsEnvelopeTemplate}. */
+class KmsEnvelopeTemplateTests {
+
+  private static final String CRYPTO_KEY = "test-project/europe-west2/key-ring-id/key-id";
+
+  private FakeKmsOperations kmsOperations;
+
+  private KmsEnvelopeTemplate envelopeTemplate;
+
+  @BeforeEach
+  void setUp() {
+    this.kmsOperations = new FakeKmsOperations();
+    this.envelopeTemplate = new KmsEnvelopeTemplate(this.kmsOperations);
+  }
+
+  @Test
+  void testEncryptDecryptText() {
+    byte[] encrypted = this.envelopeTemplate.encryptText(CRYPTO_KEY, "1234");
+    assertThat(this.envelopeTemplate.decryptText(CRYPTO_KEY, encrypted)).isEqualTo("1234");
+  }
+
+  @Test
+  void testEncryptDecryptByteBuffer() {
+    ByteBuffer plaintext = ByteBuffer.allocateDirect(1024);
+    for (int i = 0; i < 1024; i++) {
+      plaintext.put((byte) i);
+    }
+    plaintext.flip();
+
+    ByteBuffer encrypted = this.envelopeTemplate.encrypt(CRYPTO_KEY, plaintext.duplicate());
+    ByteBuffer decrypted = this.envelopeTemplate.decrypt(CRYPTO_KEY, encrypted);
+
+    assertThat(decrypted).isEqualTo(plaintext);
+  }
+
+  @Test
+  void testDataKeyIsReusedAcrossOperations() {
+    for (int i = 0; i < 100; i++) {
+      byte[] encrypted = this.envelopeTemplate.encryptText(CRYPTO_KEY, "value-" + i);
+      assertThat(this.envelopeTemplate.decryptText(CRYPTO_KEY, encrypted)).isEqualTo("value-" + i);
+    }
+
+    assertThat(this.kmsOperations.encryptCalls).isEqualTo(1);
+    assertThat(this.kmsOperations.decryptCalls).isZero();
+    assertThat(this.envelopeTemplate.getWrapRequestCount()).isEqualTo(1L);
+    assertThat(this.envelopeTemplate.getUnwrapRequestCount()).isZero();
+  }
+
+  @Test
+  void testDataKeyIsRotatedAfterMaxUsages() {
+    this.envelopeTemplate.setDataKeyMaxUsages(2);
+
+    byte[] first = this.envelopeTemplate.encryptText(CRYPTO_KEY, "1");
+    byte[] second = this.envelopeTemplate.encryptText(CRYPTO_KEY, "2");
+    byte[] third = this.envelopeTemplate.encryptText(CRYPTO_KEY, "3");
+
+    assertThat(this.kmsOperations.encryptCalls).isEqualTo(2);
+    assertThat(wrappedKey(first)).isEqualTo(wrappedKey(second));
+    assertThat(wrappedKey(third)).isNotEqualTo(wrappedKey(first));
+    assertThat(this.envelopeTemplate.decryptText(CRYPTO_KEY, first)).isEqualTo("1");
+    assertThat(this.envelopeTemplate.decryptText(CRYPTO_KEY, third)).isEqualTo("3");
+  }
+
+  @Test
+  void testDataKeyIsRotatedAfterTimeToLive() {
+    this.envelopeTemplate.setDataKeyTimeToLive(Duration.ZERO);
+
+    this.envelopeTemplate.encryptText(CRYPTO_KEY, "1");
+    this.envelopeTemplate.encryptText(CRYPTO_KEY, "2");
+
+    assertThat(this.kmsOperations.encryptCalls).isEqualTo(2);
+  }
+
+  @Test
+  void testSlowWrapDoesNotBlockOtherKeys() throws Exception {
+    String slowKey = "test-project/europe-west2/key-ring-id/slow-key-id";
+    CountDownLatch wrapping = new CountDownLatch(1);
+    CountDownLatch release = new CountDownLatch(1);
+    KmsEnvelopeTemplate template =
+        new KmsEnvelopeTemplate(
+            new FakeKmsOperations() {
+              @Override
+              public byte[] encryptBytes(String cryptoKey, byte[] bytes) {
+                if (cryptoKey.equals(slowKey)) {
+                  wrapping.countDown();
+                  try {
+                    release.await();
+                  } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                  }
+                }
+                return super.encryptBytes(cryptoKey, bytes);
+              }
+            });
+
+    CompletableFuture<byte[]> slow =
+        CompletableFuture.supplyAsync(() -> template.encryptText(slowKey, "slow"));
+    assertThat(wrapping.await(5, TimeUnit.SECONDS)).isTrue();
+    try {
+      CompletableFuture<byte[]> fast =
+          CompletableFuture.supplyAsync(() -> template.encryptText(CRYPTO_KEY, "fast"));
+      assertThat(template.decryptText(CRYPTO_KEY, fast.get(5, TimeUnit.SECONDS)))
+          .isEqualTo("fast");
+    } finally {
+      release.countDown();
+    }
+    assertThat(template.decryptText(slowKey, slow.get(5, TimeUnit.SECONDS))).isEqualTo("slow");
+  }
+
+  @Test
+  void testUnknownDataKeyIsUnwrappedOnceThenCached() {
+    byte[] encrypted = this.envelopeTemplate.encryptText(CRYPTO_KEY, "1234");
+
+    KmsEnvelopeTemplate otherTemplate = new KmsEnvelopeTemplate(this.kmsOperations);
+    assertThat(otherTemplate.decryptText(CRYPTO_KEY, encrypted)).isEqualTo("1234");
+    assertThat(otherTemplate.decryptText(CRYPTO_KEY, encrypted)).isEqualTo("1234");
+
+    assertThat(this.kmsOperations.decryptCalls).isEqualTo(1);
+    assertThat(otherTemplate.getUnwrapRequestCount()).isEqualTo(1L);
+  }
+
+  @Test
+  void testTamperedCiphertextIsRejected() {
+    byte[] encrypted = this.envelopeTemplate.encryptText(CRYPTO_KEY, "1234");
+    encrypted[encrypted.length - 1] ^= 1;
+
+    assertThatThrownBy(() -> this.envelopeTemplate.decryptText(CRYPTO_KEY, encrypted))
+        .isInstanceOf(KmsException.class)
+        .hasMessageContaining("failed authentication");
+  }
+
+  @Test
+  void testUnsupportedVersionIsRejected() {
+    byte[] encrypted = this.envelopeTemplate.encryptText(CRYPTO_KEY, "1234");
+    encrypted[0] = 42;
+
+    assertThatThrownBy(() -> this.envelopeTemplate.decryptText(CRYPTO_KEY, encrypted))
+        .isInstanceOf(KmsException.class)
+        .hasMessageContaining("unsupported envelope format version");
+  }
+
+  @Test
+  void testTruncatedCiphertextIsRejected() {
+    byte[] encrypted = this.envelopeTemplate.encryptText(CRYPTO_KEY, "1234");
+
+    assertThatThrownBy(
+            () -> this.envelopeTemplate.decryptText(CRYPTO_KEY, Arrays.copyOf(encrypted, 10)))
+        .isInstanceOf(KmsException.class)
+        .hasMessageContaining("truncated");
+  }
+
+  private static byte[] wrappedKey(byte[] encrypted) {
+    return KmsEnvelopeTemplate.readHeader(ByteBuffer.wrap(encrypted));
+  }
+
+  /** Wraps keys by prefixing them with a marker instead of calling Cloud KMS. */
+  static class FakeKmsOperations implements KmsOperations {
+
+    private static final byte[] MARKER = "wrapped:".getBytes(StandardCharsets.UTF_8);
+
+    int encryptCalls;
+
+    int decryptCalls;
+
+    @Override
+    public byte[] encryptText(String cryptoKey, String text) {
+      return encryptBytes(cryptoKey, text.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Override
+    public synchronized byte[] encryptBytes(String cryptoKey, byte[] bytes) {
+      this.encryptCalls++;
+      byte[] wrapped = Arrays.copyOf(MARKER, MARKER.length + bytes.length);
+      System.arraycopy(bytes, 0, wrapped, MARKER.length, bytes.length);
+      return wrapped;
+    }
+
+    @Override
+    public synchronized byte[] decryptBytes(String cryptoKey, byte[] cipherText) {
+      this.decryptCalls++;
+      return Arrays.copyOfRange(cipherText, MARKER.length, cipherText.length);
+    }
+
+    @Override
+    public String decryptText(String cryptoKey, byte[] cipherText) {
+      return new String(decryptBytes(cryptoKey, cipherText), StandardCharsets.UTF_8);
+    }
+  }
+}
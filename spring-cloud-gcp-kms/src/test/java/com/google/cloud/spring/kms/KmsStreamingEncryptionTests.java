@@ -0,0 +1,121 @@
+/*
+ * Copyright 2022-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.cloud.spring.kms;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.google.cloud.spring.kms.KmsEnvelopeTemplateTests.FakeKmsOperations;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.core.io.FileSystemResource;
+
+/** Tests for the streaming encryption methods of {@link KmsOperations}. */
+class KmsStreamingEncryptionTests {
+
+  private static final String CRYPTO_KEY = "test-project/europe-west2/key-ring-id/key-id";
+
+  private static final int SEGMENT_SIZE = KmsStreamingCipher.DEFAULT_SEGMENT_SIZE;
+
+  private final FakeKmsOperations kmsOperations = new FakeKmsOperations();
+
+  @ParameterizedTest
+  @ValueSource(
+      ints = {0, 1, SEGMENT_SIZE - 1, SEGMENT_SIZE, SEGMENT_SIZE + 1, 3 * SEGMENT_SIZE + 5})
+  void testStreamRoundTrip(int size) {
+    byte[] plaintext = randomBytes(size);
+
+    byte[] encrypted = encrypt(plaintext);
+    byte[] decrypted = decrypt(encrypted);
+
+    assertThat(decrypted).isEqualTo(plaintext);
+    assertThat(this.kmsOperations.encryptCalls).isEqualTo(1);
+    assertThat(this.kmsOperations.decryptCalls).isEqualTo(1);
+  }
+
+  @Test
+  void testTruncatedStreamIsRejected() {
+    byte[] encrypted = encrypt(randomBytes(2 * SEGMENT_SIZE + 10));
+    // Drop the last segment entirely, leaving only complete segments.
+    byte[] truncated = Arrays.copyOf(encrypted, encrypted.length - (10 + 16));
+
+    assertThatThrownBy(() -> decrypt(truncated))
+        .isInstanceOf(KmsException.class)
+        .hasMessageContaining("failed authentication");
+  }
+
+  @Test
+  void testTamperedStreamIsRejected() {
+    byte[] encrypted = encrypt(randomBytes(SEGMENT_SIZE + 10));
+    encrypted[encrypted.length / 2] ^= 1;
+
+    assertThatThrownBy(() -> decrypt(encrypted))
+        .isInstanceOf(KmsException.class)
+        .hasMessageContaining("failed authentication");
+  }
+
+  @Test
+  void testTruncatedHeaderIsRejected() {
+    byte[] encrypted = encrypt(randomBytes(10));
+
+    assertThatThrownBy(() -> decrypt(Arrays.copyOf(encrypted, 5)))
+        .isInstanceOf(KmsException.class)
+        .hasMessageContaining("truncated");
+  }
+
+  @Test
+  void testResourceRoundTrip(@TempDir Path tempDir) throws Exception {
+    byte[] plaintext = randomBytes(2 * SEGMENT_SIZE + 123);
+    Path source = Files.write(tempDir.resolve("plain"), plaintext);
+    FileSystemResource encrypted =
+        new FileSystemResource(Files.createFile(tempDir.resolve("encrypted")));
+    FileSystemResource decrypted =
+        new FileSystemResource(Files.createFile(tempDir.resolve("decrypted")));
+
+    this.kmsOperations.encrypt(CRYPTO_KEY, new FileSystemResource(source), encrypted);
+    this.kmsOperations.decrypt(CRYPTO_KEY, encrypted, decrypted);
+
+    assertThat(Files.readAllBytes(tempDir.resolve("decrypted"))).isEqualTo(plaintext);
+    assertThat(encrypted.contentLength()).isGreaterThan(plaintext.length);
+  }
+
+  private byte[] encrypt(byte[] plaintext) {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    this.kmsOperations.encrypt(CRYPTO_KEY, new ByteArrayInputStream(plaintext), out);
+    return out.toByteArray();
+  }
+
+  private byte[] decrypt(byte[] cipherText) {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    this.kmsOperations.decrypt(CRYPTO_KEY, new ByteArrayInputStream(cipherText), out);
+    return out.toByteArray();
+  }
+
+  private static byte[] randomBytes(int size) {
+    byte[] bytes = new byte[size];
+    new Random(size).nextBytes(bytes);
+    return bytes;
+  }
+}
@@ -0,0 +1,79 @@
+/*
+ * Copyright 2022-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.cloud.spring.kms.it;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.google.cloud.spring.kms.KmsEnvelopeTemplate;
+import com.google.cloud.spring.kms.KmsOperations;
+import com.google.cloud.spring.kms.KmsTemplate;
+import java.nio.charset.StandardCharsets;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+/**
+ * Compares the throughput of {@link KmsEnvelopeTemplate} with one KMS RPC per operation through
+ * {@link KmsTemplate}. Uses the same keys as {@link KmsTemplateIntegrationTests}.
+ */
+@EnabledIfSystemProperty(named = "it.kms", matches = "true")
+@ExtendWith(SpringExtension.class)
+@ContextConfiguration(classes = {KmsTestConfiguration.class})
+class KmsEnvelopeTemplateBenchmarkIntegrationTests {
+
+  private static final Logger LOGGER =
+      LoggerFactory.getLogger(KmsEnvelopeTemplateBenchmarkIntegrationTests.class);
+
+  private static final String KMS_KEY = "us-east1/integration-test-key-ring/test-key";
+
+  private static final byte[] PAYLOAD =
+      "a per-record field value of moderate length".getBytes(StandardCharsets.UTF_8);
+
+  @Autowired KmsTemplate kmsTemplate;
+
+  @Autowired KmsEnvelopeTemplate kmsEnvelopeTemplate;
+
+  @Test
+  void testEnvelopeEncryptionOutperformsDirectRpc() {
+    // Warm up both paths, including the first data key wrap.
+    roundTrips(this.kmsTemplate, 5);
+    roundTrips(this.kmsEnvelopeTemplate, 1000);
+
+    double directOpsPerSecond = roundTrips(this.kmsTemplate, 50);
+    double envelopeOpsPerSecond = roundTrips(this.kmsEnvelopeTemplate, 50_000);
+
+    LOGGER.info(
+        "Encrypt+decrypt round trips per second: direct RPC {}, envelope {}",
+        String.format("%.1f", directOpsPerSecond),
+        String.format("%.1f", envelopeOpsPerSecond));
+    assertThat(envelopeOpsPerSecond).isGreaterThan(directOpsPerSecond);
+  }
+
+  private static double roundTrips(KmsOperations operations, int count) {
+    long start = System.nanoTime();
+    for (int i = 0; i < count; i++) {
+      byte[] encrypted = operations.encryptBytes(KMS_KEY, PAYLOAD);
+      assertThat(operations.decryptBytes(KMS_KEY, encrypted)).isEqualTo(PAYLOAD);
+    }
+    return count / ((System.nanoTime() - start) / 1e9);
+  }
+}
@@ -20,7 +20,10 @@ import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
 import com.google.cloud.spring.kms.KmsTemplate;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.nio.charset.StandardCharsets;
+import java.util.Random;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -56,6 +59,20 @@ class KmsTemplateIntegrationTests {
     assertThat(resultText).isEqualTo(originalText);
   }
 
+  @Test
+  void testEncryptDecryptStream() {
+    String kmsStr = "us-east1/integration-test-key-ring/test-key";
+    byte[] original = new byte[200_000];
+    new Random().nextBytes(original);
+
+    ByteArrayOutputStream encrypted = new ByteArrayOutputStream();
+    kmsTemplate.encrypt(kmsStr, new ByteArrayInputStream(original), encrypted);
+    ByteArrayOutputStream decrypted = new ByteArrayOutputStream();
+    kmsTemplate.decrypt(kmsStr, new ByteArrayInputStream(encrypted.toByteArray()), decrypted);
+
+    assertThat(decrypted.toByteArray()).isEqualTo(original);
+  }
+
   @Test
   void testEncryptDecryptMissMatch() {
     String kmsStr = "us-east1/integration-test-key-ring/test-key";
@@ -23,6 +23,7 @@ import com.google.cloud.spring.core.Credentials;
 import com.google.cloud.spring.core.DefaultCredentialsProvider;
 import com.google.cloud.spring.core.DefaultGcpProjectIdProvider;
 import com.google.cloud.spring.core.GcpProjectIdProvider;
+import com.google.cloud.spring.kms.KmsEnvelopeTemplate;
 import com.google.cloud.spring.kms.KmsTemplate;
 import java.io.IOException;
 import org.springframework.context.annotation.Bean;
@@ -59,4 +60,9 @@ public class KmsTestConfiguration {
   public KmsTemplate kmsTemplate(KeyManagementServiceClient client) {
     return new KmsTemplate(client, this.projectIdProvider);
   }
+
+  @Bean
+  public KmsEnvelopeTemplate kmsEnvelopeTemplate(KmsTemplate kmsTemplate) {
+    return new KmsEnvelopeTemplate(kmsTemplate);
+  }
 }
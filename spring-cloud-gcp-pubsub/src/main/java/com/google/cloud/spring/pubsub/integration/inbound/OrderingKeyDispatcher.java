@@ -0,0 +1,174 @@
+/*
+ * Copyright 2022-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.cloud.spring.pubsub.integration.inbound;
+
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.util.Assert;
+
+/**
+ * Runs tasks on a pool of worker threads, sequentially for tasks of the same ordering key and in
+ * parallel across ordering keys. Tasks without an ordering key are run in any order.
+ *
+ * <p>Each ordering key has a queue of at most {@code queueCapacity} pending tasks; {@link
+ * #dispatch(String, Runnable)} blocks while the queue of the key is full. A worker runs one task of
+ * a key before handing the key back to the pool, so busy keys do not starve the others. The tasks
+ * queued before {@link #shutdown()} are still run.
+ */
+final class OrderingKeyDispatcher {
+
+  private static final Log LOGGER = LogFactory.getLog(OrderingKeyDispatcher.class);
+
+  private final ExecutorService executor;
+
+  private final int queueCapacity;
+
+  private final Map<String, KeyQueue> queues = new ConcurrentHashMap<>();
+
+  private final AtomicInteger maxQueueDepth = new AtomicInteger();
+
+  OrderingKeyDispatcher(int parallelism, int queueCapacity, String threadNamePrefix) {
+    Assert.isTrue(parallelism > 0, "The parallelism must be positive.");
+    Assert.isTrue(queueCapacity > 0, "The queue capacity must be positive.");
+    CustomizableThreadFactory threadFactory = new CustomizableThreadFactory(threadNamePrefix);
+    threadFactory.setDaemon(true);
+    this.executor = Executors.newFixedThreadPool(parallelism, threadFactory);
+    this.queueCapacity = queueCapacity;
+  }
+
+  /**
+   * Queues a task to run after the previously dispatched tasks of the same ordering key.
+   *
+   * @param orderingKey the ordering key; tasks with an empty key are not ordered
+   * @param task the task to run
+   * @throws InterruptedException if interrupted while waiting for room in the queue of the key
+   */
+  void dispatch(String orderingKey, Runnable task) throws InterruptedException {
+    if (orderingKey.isEmpty()) {
+      this.executor.execute(task);
+      return;
+    }
+    while (true) {
+      KeyQueue queue = this.queues.computeIfAbsent(orderingKey, KeyQueue::new);
+      synchronized (queue) {
+        while (!queue.removed && queue.tasks.size() >= this.queueCapacity) {
+          queue.wait();
+        }
+        if (queue.removed) {
+          // The queue was drained and removed after being looked up, so use a new one.
+          continue;
+        }
+        if (!queue.scheduled) {
+          this.executor.execute(() -> runTasks(queue));
+          queue.scheduled = true;
+        }
+        queue.tasks.add(task);
+        this.maxQueueDepth.accumulateAndGet(queue.tasks.size(), Math::max);
+        return;
+      }
+    }
+  }
+
+  private void runTasks(KeyQueue queue) {
+    while (true) {
+      Runnable task;
+      synchronized (queue) {
+        task = queue.tasks.poll();
+        if (task == null) {
+          queue.scheduled = false;
+          queue.removed = true;
+          this.queues.remove(queue.orderingKey, queue);
+          queue.notifyAll();
+          return;
+        }
+        queue.notifyAll();
+      }
+      try {
+        task.run();
+      } catch (RuntimeException ex) {
+        LOGGER.warn(
+            "Failed to process a message with ordering key [" + queue.orderingKey + "].", ex);
+      }
+      synchronized (queue) {
+        if (!queue.tasks.isEmpty() && resubmit(queue)) {
+          return;
+        }
+      }
+    }
+  }
+
+  /** Hands the key back to the pool, or returns false to keep running it once shut down. */
+  private boolean resubmit(KeyQueue queue) {
+    try {
+      this.executor.execute(() -> runTasks(queue));
+      return true;
+    } catch (RejectedExecutionException ex) {
+      return false;
+    }
+  }
+
+  /**
+   * Returns the number of pending tasks of each ordering key with pending or running tasks.
+   *
+   * @return a snapshot of the queue depth per ordering key
+   */
+  Map<String, Integer> getQueueDepths() {
+    Map<String, Integer> depths = new HashMap<>();
+    this.queues.forEach(
+        (orderingKey, queue) -> {
+          synchronized (queue) {
+            depths.put(orderingKey, queue.tasks.size());
+          }
+        });
+    return Collections.unmodifiableMap(depths);
+  }
+
+  int getMaxQueueDepth() {
+    return this.maxQueueDepth.get();
+  }
+
+  /** Stops accepting tasks with new ordering keys. */
+  void shutdown() {
+    this.executor.shutdown();
+  }
+
+  private static final class KeyQueue {
+
+    private final String orderingKey;
+
+    private final Queue<Runnable> tasks = new ArrayDeque<>();
+
+    private boolean scheduled;
+
+    private boolean removed;
+
+    KeyQueue(String orderingKey) {
+      this.orderingKey = orderingKey;
+    }
+  }
+}
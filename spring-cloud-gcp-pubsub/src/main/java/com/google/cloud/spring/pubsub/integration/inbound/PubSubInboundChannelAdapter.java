@@ -24,7 +24,9 @@ import com.google.cloud.spring.pubsub.integration.PubSubHeaderMapper;
 import com.google.cloud.spring.pubsub.support.GcpPubSubHeaders;
 import com.google.cloud.spring.pubsub.support.converter.ConvertedBasicAcknowledgeablePubsubMessage;
 import com.google.pubsub.v1.ProjectSubscriptionName;
+import java.util.Collections;
 import java.util.Map;
+import java.util.concurrent.RejectedExecutionException;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 import org.springframework.integration.endpoint.MessageProducerSupport;
@@ -53,6 +55,12 @@ public class PubSubInboundChannelAdapter extends MessageProducerSupport {
 
   private HealthTrackerRegistry healthTrackerRegistry;
 
+  private int orderingKeyDispatchParallelism;
+
+  private int orderingKeyQueueCapacity = 100;
+
+  private volatile OrderingKeyDispatcher orderingKeyDispatcher;
+
   /**
    * Instantiates a streaming Pub/Sub subscirtion adapter.
    *
@@ -110,15 +118,80 @@ public class PubSubInboundChannelAdapter extends MessageProducerSupport {
     this.headerMapper = headerMapper;
   }
 
+  /**
+   * Set the number of threads that send messages to the output channel. By default, messages are
+   * sent on the subscriber thread that received them, so the throughput of an ordered
+   * subscription is bounded by how the client library serializes deliveries.
+   *
+   * <p>When positive, messages are handed over to a pool of this many threads instead. Messages
+   * with the same ordering key are sent one at a time in the order they were received, while
+   * messages with different ordering keys, or without one, are sent in parallel. Messages are still
+   * acked or nacked according to the {@link AckMode} once they have been sent.
+   *
+   * @param orderingKeyDispatchParallelism the number of dispatching threads, or 0 to send messages
+   *     on the subscriber threads
+   * @since 3.3.0
+   */
+  public void setOrderingKeyDispatchParallelism(int orderingKeyDispatchParallelism) {
+    Assert.isTrue(
+        orderingKeyDispatchParallelism >= 0, "The dispatch parallelism can't be negative.");
+    this.orderingKeyDispatchParallelism = orderingKeyDispatchParallelism;
+  }
+
+  /**
+   * Set the maximum number of messages of the same ordering key waiting to be sent when the
+   * {@link #setOrderingKeyDispatchParallelism(int) dispatch parallelism} is set. The subscriber
+   * thread delivering a message blocks while the queue of its ordering key is full. Defaults to
+   * 100.
+   *
+   * @param orderingKeyQueueCapacity the capacity of the queue of each ordering key
+   * @since 3.3.0
+   */
+  public void setOrderingKeyQueueCapacity(int orderingKeyQueueCapacity) {
+    Assert.isTrue(orderingKeyQueueCapacity > 0, "The queue capacity must be positive.");
+    this.orderingKeyQueueCapacity = orderingKeyQueueCapacity;
+  }
+
+  /**
+   * Return the number of messages waiting to be sent for each ordering key that has messages
+   * waiting or being sent.
+   *
+   * @return a snapshot of the queue depth per ordering key, empty unless dispatching in parallel
+   * @since 3.3.0
+   */
+  public Map<String, Integer> getOrderingKeyQueueDepths() {
+    OrderingKeyDispatcher dispatcher = this.orderingKeyDispatcher;
+    return dispatcher != null ? dispatcher.getQueueDepths() : Collections.emptyMap();
+  }
+
+  /**
+   * Return the largest number of messages that waited to be sent for a single ordering key.
+   *
+   * @return the high-water mark of the queue depths since the adapter was started
+   * @since 3.3.0
+   */
+  public int getMaxOrderingKeyQueueDepth() {
+    OrderingKeyDispatcher dispatcher = this.orderingKeyDispatcher;
+    return dispatcher != null ? dispatcher.getMaxQueueDepth() : 0;
+  }
+
   @Override
   protected void doStart() {
     super.doStart();
 
     addToHealthRegistry();
 
+    if (this.orderingKeyDispatchParallelism > 0) {
+      this.orderingKeyDispatcher =
+          new OrderingKeyDispatcher(
+              this.orderingKeyDispatchParallelism,
+              this.orderingKeyQueueCapacity,
+              getComponentName() != null ? getComponentName() + "-" : "pubsub-dispatcher-");
+    }
+
     this.subscriber =
         this.pubSubSubscriberOperations.subscribeAndConvert(
-            this.subscriptionName, this::consumeMessage, this.payloadType);
+            this.subscriptionName, this::receiveMessage, this.payloadType);
 
     addListeners();
   }
@@ -129,9 +202,48 @@ public class PubSubInboundChannelAdapter extends MessageProducerSupport {
       this.subscriber.stopAsync();
     }
 
+    if (this.orderingKeyDispatcher != null) {
+      this.orderingKeyDispatcher.shutdown();
+    }
+
     super.doStop();
   }
 
+  private void receiveMessage(ConvertedBasicAcknowledgeablePubsubMessage<?> message) {
+    OrderingKeyDispatcher dispatcher = this.orderingKeyDispatcher;
+    if (dispatcher == null) {
+      consumeMessage(message);
+      return;
+    }
+    try {
+      dispatcher.dispatch(
+          message.getPubsubMessage().getOrderingKey(), () -> consumeMessage(message));
+    } catch (InterruptedException ex) {
+      Thread.currentThread().interrupt();
+      rejectMessage(message, ex);
+    } catch (RejectedExecutionException ex) {
+      rejectMessage(message, ex);
+    }
+  }
+
+  private void rejectMessage(
+      ConvertedBasicAcknowledgeablePubsubMessage<?> message, Exception cause) {
+    if (this.ackMode == AckMode.AUTO) {
+      message.nack();
+      LOGGER.warn(
+          "Dispatching Spring message ["
+              + message.getPubsubMessage().getMessageId()
+              + "] failed; message nacked automatically.",
+          cause);
+    } else {
+      LOGGER.warn(
+          "Dispatching Spring message ["
+              + message.getPubsubMessage().getMessageId()
+              + "] failed; message neither acked nor nacked.",
+          cause);
+    }
+  }
+
   private void consumeMessage(ConvertedBasicAcknowledgeablePubsubMessage<?> message) {
     Map<String, Object> messageHeaders =
         this.headerMapper.toHeaders(message.getPubsubMessage().getAttributesMap());
@@ -18,9 +18,11 @@ package com.google.cloud.spring.pubsub.integration.inbound;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.awaitility.Awaitility.await;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.timeout;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -31,6 +33,13 @@ import com.google.cloud.spring.pubsub.integration.AckMode;
 import com.google.cloud.spring.pubsub.support.GcpPubSubHeaders;
 import com.google.cloud.spring.pubsub.support.converter.ConvertedBasicAcknowledgeablePubsubMessage;
 import com.google.pubsub.v1.PubsubMessage;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.Consumer;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
@@ -286,4 +295,137 @@ class PubSubInboundChannelAdapterTests {
     assertThat(headers.get(GcpPubSubHeaders.ORIGINAL_MESSAGE))
         .isEqualTo(mockAcknowledgeableMessage);
   }
+
+  @Test
+  void testOrderingKeyDispatch_sequentialPerKeyAndParallelAcrossKeys() throws Exception {
+    AtomicReference<Consumer<ConvertedBasicAcknowledgeablePubsubMessage<?>>> consumer =
+        captureConsumer();
+    List<String> sent = Collections.synchronizedList(new ArrayList<>());
+    CountDownLatch otherKeySent = new CountDownLatch(1);
+    when(this.mockMessageChannel.send(any()))
+        .then(
+            invocation -> {
+              String payload = (String) invocation.getArgument(0, Message.class).getPayload();
+              if (payload.equals("a1")) {
+                // Only completes if key "b" is dispatched while key "a" is busy.
+                assertThat(otherKeySent.await(10, TimeUnit.SECONDS)).isTrue();
+              }
+              if (payload.startsWith("b")) {
+                otherKeySent.countDown();
+              }
+              sent.add(payload);
+              return true;
+            });
+
+    this.adapter.setOrderingKeyDispatchParallelism(2);
+    this.adapter.start();
+
+    List<ConvertedBasicAcknowledgeablePubsubMessage<?>> messages = new ArrayList<>();
+    for (String payload : new String[] {"a1", "a2", "b1", "a3", "b2"}) {
+      ConvertedBasicAcknowledgeablePubsubMessage<?> message =
+          mockMessage(payload, payload.substring(0, 1));
+      messages.add(message);
+      consumer.get().accept(message);
+    }
+
+    await().atMost(10, TimeUnit.SECONDS).until(() -> sent.size() == 5);
+    assertThat(sent).containsSubsequence("a1", "a2", "a3").containsSubsequence("b1", "b2");
+    assertThat(sent.indexOf("b1")).isLessThan(sent.indexOf("a1"));
+    for (ConvertedBasicAcknowledgeablePubsubMessage<?> message : messages) {
+      verify(message, timeout(10000)).ack();
+    }
+    await()
+        .atMost(10, TimeUnit.SECONDS)
+        .until(() -> this.adapter.getOrderingKeyQueueDepths().isEmpty());
+  }
+
+  @Test
+  void testOrderingKeyDispatch_queueDepthMetrics() throws Exception {
+    AtomicReference<Consumer<ConvertedBasicAcknowledgeablePubsubMessage<?>>> consumer =
+        captureConsumer();
+    CountDownLatch release = new CountDownLatch(1);
+    when(this.mockMessageChannel.send(any()))
+        .then(
+            invocation -> {
+              assertThat(release.await(10, TimeUnit.SECONDS)).isTrue();
+              return true;
+            });
+
+    this.adapter.setOrderingKeyDispatchParallelism(1);
+    this.adapter.setOrderingKeyQueueCapacity(5);
+    this.adapter.start();
+    assertThat(this.adapter.getOrderingKeyQueueDepths()).isEmpty();
+
+    ConvertedBasicAcknowledgeablePubsubMessage<?> first = mockMessage("k1", "key");
+    consumer.get().accept(first);
+    await().atMost(10, TimeUnit.SECONDS).until(() -> hasQueueDepth("key", 0));
+    consumer.get().accept(mockMessage("k2", "key"));
+    consumer.get().accept(mockMessage("k3", "key"));
+
+    assertThat(this.adapter.getOrderingKeyQueueDepths()).containsEntry("key", 2);
+    assertThat(this.adapter.getMaxOrderingKeyQueueDepth()).isEqualTo(2);
+
+    release.countDown();
+    await()
+        .atMost(10, TimeUnit.SECONDS)
+        .until(() -> this.adapter.getOrderingKeyQueueDepths().isEmpty());
+    verify(first, timeout(10000)).ack();
+  }
+
+  @Test
+  void testOrderingKeyDispatch_nacksWhenDownstreamProcessingFails() {
+    AtomicReference<Consumer<ConvertedBasicAcknowledgeablePubsubMessage<?>>> consumer =
+        captureConsumer();
+    when(this.mockMessageChannel.send(any())).thenThrow(new RuntimeException(EXCEPTION_MESSAGE));
+
+    this.adapter.setOrderingKeyDispatchParallelism(2);
+    this.adapter.start();
+
+    ConvertedBasicAcknowledgeablePubsubMessage<?> message = mockMessage("payload", "key");
+    consumer.get().accept(message);
+
+    verify(message, timeout(10000)).nack();
+    verify(message, times(0)).ack();
+  }
+
+  @Test
+  void testOrderingKeyDispatch_invalidSettings() {
+    assertThatThrownBy(() -> this.adapter.setOrderingKeyDispatchParallelism(-1))
+        .isInstanceOf(IllegalArgumentException.class)
+        .hasMessage("The dispatch parallelism can't be negative.");
+    assertThatThrownBy(() -> this.adapter.setOrderingKeyQueueCapacity(0))
+        .isInstanceOf(IllegalArgumentException.class)
+        .hasMessage("The queue capacity must be positive.");
+  }
+
+  @SuppressWarnings("unchecked")
+  private AtomicReference<Consumer<ConvertedBasicAcknowledgeablePubsubMessage<?>>>
+      captureConsumer() {
+    AtomicReference<Consumer<ConvertedBasicAcknowledgeablePubsubMessage<?>>> consumer =
+        new AtomicReference<>();
+    when(this.mockPubSubSubscriberOperations.subscribeAndConvert(
+            anyString(), any(Consumer.class), any(Class.class)))
+        .then(
+            invocationOnMock -> {
+              consumer.set(invocationOnMock.getArgument(1));
+              return null;
+            });
+    return consumer;
+  }
+
+  @SuppressWarnings("unchecked")
+  private ConvertedBasicAcknowledgeablePubsubMessage<?> mockMessage(
+      String payload, String orderingKey) {
+    ConvertedBasicAcknowledgeablePubsubMessage<String> message =
+        mock(ConvertedBasicAcknowledgeablePubsubMessage.class);
+    when(message.getPubsubMessage())
+        .thenReturn(PubsubMessage.newBuilder().setOrderingKey(orderingKey).build());
+    when(message.getPayload()).thenReturn(payload);
+    return message;
+  }
+
+  private boolean hasQueueDepth(String orderingKey, int depth) {
+    Map<String, Integer> depths = this.adapter.getOrderingKeyQueueDepths();
+    return depths.containsKey(orderingKey) && depths.get(orderingKey) == depth;
+  }
 }
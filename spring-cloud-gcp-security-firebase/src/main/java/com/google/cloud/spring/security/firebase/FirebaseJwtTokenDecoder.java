@@ -16,20 +16,27 @@
 
 package com.google.cloud.spring.security.firebase;
 
+import com.google.cloud.spring.core.util.VerifiedTokenCache;
 import com.nimbusds.jose.util.X509CertUtils;
 import com.nimbusds.jwt.JWT;
 import com.nimbusds.jwt.JWTParser;
 import com.nimbusds.jwt.SignedJWT;
 import java.security.cert.X509Certificate;
 import java.security.interfaces.RSAPublicKey;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
 import org.springframework.http.ResponseEntity;
@@ -46,8 +53,10 @@ import org.springframework.web.client.RestOperations;
  * Decodes a Firebase token into a {@link Jwt} token. This decoder downloads public keys from
  * https://www.googleapis.com/robot/v1/metadata/x509/securetoken@system.gserviceaccount.com. Keys
  * are rotated often, and expiration date is returned as part of a Cache-Control max-age header. The
- * keys are cached locally and only refreshed when the expiration time is past. Besides using the
- * RSA keys to validate the token signature, this decoder also uses a pre=configured {@link
+ * keys are cached locally and refreshed in the background shortly before the expiration time, while
+ * the current key set keeps serving requests. A blocking refresh only happens when no keys have
+ * been fetched yet or when the cached keys are already past their expiration time. Besides using
+ * the RSA keys to validate the token signature, this decoder also uses a pre=configured {@link
  * org.springframework.security.oauth2.core.DelegatingOAuth2TokenValidator} to validate all the
  * claims. The following validators are used by this class:
  * <ul>
@@ -59,33 +68,98 @@ import org.springframework.web.client.RestOperations;
  *     https://firebase.google.com/docs/auth/admin/verify-id-tokens</li>
  * </ul>
  *
+ * <p>Successfully decoded tokens are kept in a bounded {@link VerifiedTokenCache} until their
+ * {@code exp} claim, so that repeated requests carrying the same token skip parsing and signature
+ * verification. Cache hit and miss counts as well as key refresh latency are exposed through
+ * getters for monitoring.
+ *
  * @since 1.2.2
  */
 public class FirebaseJwtTokenDecoder implements JwtDecoder {
   private static final String DECODING_ERROR_MESSAGE_TEMPLATE =
       "An error occurred while attempting to decode the Jwt: %s";
+
+  /** Default maximum number of verified tokens to keep in the cache. */
+  public static final int DEFAULT_TOKEN_CACHE_SIZE = 1000;
+
+  /** Default time before key expiration at which a background refresh is started. */
+  public static final Duration DEFAULT_REFRESH_AHEAD_TIME = Duration.ofMinutes(5);
+
+  private static final long REFRESH_RETRY_DELAY_MILLIS = 10_000L;
+
   private final RestOperations restClient;
   private final String googlePublicKeysEndpoint;
   private final OAuth2TokenValidator<Jwt> tokenValidator;
   private final Logger logger = LoggerFactory.getLogger(FirebaseJwtTokenDecoder.class);
   private Pattern maxAgePattern = Pattern.compile("max-age=(\\d*)");
   private volatile Long expires = 0L;
-  private Map<String, JwtDecoder> delegates = new ConcurrentHashMap<>();
+  private volatile long refreshAt = 0L;
+  private volatile Map<String, JwtDecoder> delegates = Collections.emptyMap();
+
+  private final Executor refreshExecutor;
+  private final long refreshAheadMillis;
+  private final AtomicBoolean backgroundRefreshInProgress = new AtomicBoolean();
+
+  private final VerifiedTokenCache<Jwt> tokenCache;
+  private final AtomicLong keyRefreshCount = new AtomicLong();
+  private volatile long lastKeyRefreshDurationMillis = -1L;
 
   public FirebaseJwtTokenDecoder(
       RestOperations restClient,
       String googlePublicKeysEndpoint,
       OAuth2TokenValidator<Jwt> tokenValidator) {
+    this(
+        restClient,
+        googlePublicKeysEndpoint,
+        tokenValidator,
+        DEFAULT_TOKEN_CACHE_SIZE,
+        DEFAULT_REFRESH_AHEAD_TIME,
+        defaultRefreshExecutor());
+  }
+
+  /**
+   * Creates a decoder with a custom verified-token cache size and key refresh behavior.
+   *
+   * @param restClient the client used to download the public keys
+   * @param googlePublicKeysEndpoint the endpoint serving the public keys
+   * @param tokenValidator the validator applied to the claims of every decoded token
+   * @param tokenCacheSize the maximum number of verified tokens to cache; 0 disables the cache
+   * @param refreshAheadTime how long before key expiration a background refresh is started; capped
+   *     at half of the max-age returned by the endpoint
+   * @param refreshExecutor the executor running background key refreshes
+   * @since 3.3.0
+   */
+  public FirebaseJwtTokenDecoder(
+      RestOperations restClient,
+      String googlePublicKeysEndpoint,
+      OAuth2TokenValidator<Jwt> tokenValidator,
+      int tokenCacheSize,
+      Duration refreshAheadTime,
+      Executor refreshExecutor) {
+    Assert.isTrue(tokenCacheSize >= 0, "The token cache size must not be negative.");
+    Assert.notNull(refreshAheadTime, "The refresh ahead time must not be null.");
+    Assert.isTrue(!refreshAheadTime.isNegative(), "The refresh ahead time must not be negative.");
+    Assert.notNull(refreshExecutor, "The refresh executor must not be null.");
     this.restClient = restClient;
     this.googlePublicKeysEndpoint = googlePublicKeysEndpoint;
     this.tokenValidator = tokenValidator;
+    this.tokenCache =
+        tokenCacheSize > 0 ? new VerifiedTokenCache<>(tokenCacheSize, Jwt::getExpiresAt) : null;
+    this.refreshAheadMillis = refreshAheadTime.toMillis();
+    this.refreshExecutor = refreshExecutor;
   }
 
   @Override
   public Jwt decode(String token) throws JwtException {
+    return this.tokenCache != null ? this.tokenCache.get(token, this::verify) : verify(token);
+  }
+
+  private Jwt verify(String token) {
     SignedJWT jwt = parse(token);
     if (isExpired()) {
       refresh();
+    } else if (shouldRefreshInBackground()) {
+      refreshInBackground();
     }
     JwtDecoder decoder = delegates.get(jwt.getHeader().getKeyID());
     if (decoder == null) {
@@ -94,10 +168,104 @@ public class FirebaseJwtTokenDecoder implements JwtDecoder {
     return decoder.decode(token);
   }
 
+  /**
+   * Returns the number of tokens served from the verified-token cache.
+   *
+   * @return the cache hit count
+   * @since 3.3.0
+   */
+  public long getTokenCacheHitCount() {
+    return this.tokenCache != null ? this.tokenCache.getHitCount() : 0;
+  }
+
+  /**
+   * Returns the number of tokens that were not found in the verified-token cache.
+   *
+   * @return the cache miss count
+   * @since 3.3.0
+   */
+  public long getTokenCacheMissCount() {
+    return this.tokenCache != null ? this.tokenCache.getMissCount() : 0;
+  }
+
+  /**
+   * Returns the ratio of cache hits to total cache lookups.
+   *
+   * @return the cache hit rate between 0 and 1, or 0 if no lookups have been made
+   * @since 3.3.0
+   */
+  public double getTokenCacheHitRate() {
+    long hits = getTokenCacheHitCount();
+    long total = hits + getTokenCacheMissCount();
+    return total == 0 ? 0.0 : (double) hits / total;
+  }
+
+  /**
+   * Returns the number of verified tokens currently cached.
+   *
+   * @return the cache size
+   * @since 3.3.0
+   */
+  public int getTokenCacheSize() {
+    return this.tokenCache != null ? this.tokenCache.size() : 0;
+  }
+
+  /**
+   * Returns the number of successful public key refreshes.
+   *
+   * @return the key refresh count
+   * @since 3.3.0
+   */
+  public long getKeyRefreshCount() {
+    return this.keyRefreshCount.get();
+  }
+
+  /**
+   * Returns the duration of the most recent successful public key refresh.
+   *
+   * @return the refresh latency in milliseconds, or -1 if keys have not been fetched yet
+   * @since 3.3.0
+   */
+  public long getLastKeyRefreshDurationMillis() {
+    return this.lastKeyRefreshDurationMillis;
+  }
+
+  private boolean shouldRefreshInBackground() {
+    return System.currentTimeMillis() >= this.refreshAt
+        && !this.backgroundRefreshInProgress.get();
+  }
+
+  private void refreshInBackground() {
+    if (!this.backgroundRefreshInProgress.compareAndSet(false, true)) {
+      return;
+    }
+    try {
+      this.refreshExecutor.execute(
+          () -> {
+            try {
+              fetchKeys();
+            } catch (Exception e) {
+              this.refreshAt = System.currentTimeMillis() + REFRESH_RETRY_DELAY_MILLIS;
+              logger.warn("Background refresh of public keys failed; keeping current keys.", e);
+            } finally {
+              this.backgroundRefreshInProgress.set(false);
+            }
+          });
+    } catch (RuntimeException e) {
+      this.backgroundRefreshInProgress.set(false);
+      logger.warn("Could not schedule background refresh of public keys.", e);
+    }
+  }
+
   private synchronized void refresh() {
     if (!isExpired()) {
       return;
     }
+    fetchKeys();
+  }
+
+  private synchronized void fetchKeys() {
+    long start = System.currentTimeMillis();
     try {
       ResponseEntity<Map<String, String>> response =
           restClient.exchange(
@@ -106,11 +274,9 @@ public class FirebaseJwtTokenDecoder implements JwtDecoder {
               null /* requestEntity */,
               new ParameterizedTypeReference<Map<String, String>>() {});
       Long expiresAt = parseCacheControlHeaders(response.getHeaders());
-      this.expires = expiresAt > -1L ? (System.currentTimeMillis() + expiresAt * 1000) : 0L;
       if (!response.getStatusCode().is2xxSuccessful()) {
         throw new JwtException("Error retrieving public certificates from remote endpoint");
       }
-      delegates.clear();
       Map<String, String> body = response.getBody();
       if (body == null) {
         throw new JwtException("Invalid response body (null) received from remote endpoint.");
@@ -118,6 +284,7 @@ public class FirebaseJwtTokenDecoder implements JwtDecoder {
       if (body.isEmpty()) {
         throw new JwtException("Invalid response body (empty) received from remote endpoint.");
       }
+      Map<String, JwtDecoder> newDelegates = new HashMap<>();
       for (Map.Entry<String, String> e : body.entrySet()) {
         try {
           NimbusJwtDecoder nimbusJwtDecoder =
@@ -126,11 +293,23 @@ public class FirebaseJwtTokenDecoder implements JwtDecoder {
                   .signatureAlgorithm(SignatureAlgorithm.from("RS256"))
                   .build();
           nimbusJwtDecoder.setJwtValidator(tokenValidator);
-          delegates.put(e.getKey(), nimbusJwtDecoder);
+          newDelegates.put(e.getKey(), nimbusJwtDecoder);
         } catch (Exception ce) {
           logger.error("Could not read certificate for key {}", e.getKey());
         }
       }
+      this.delegates = Collections.unmodifiableMap(newDelegates);
+      long now = System.currentTimeMillis();
+      if (expiresAt > -1L) {
+        long maxAgeMillis = expiresAt * 1000;
+        this.expires = now + maxAgeMillis;
+        this.refreshAt = this.expires - Math.min(this.refreshAheadMillis, maxAgeMillis / 2);
+      } else {
+        this.expires = 0L;
+        this.refreshAt = 0L;
+      }
+      this.lastKeyRefreshDurationMillis = now - start;
+      this.keyRefreshCount.incrementAndGet();
     } catch (Exception e) {
       throw new JwtException("Error fetching public keys", e);
     }
@@ -152,6 +331,12 @@ public class FirebaseJwtTokenDecoder implements JwtDecoder {
     return System.currentTimeMillis() >= this.expires;
   }
 
+  private static Executor defaultRefreshExecutor() {
+    SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor("firebase-key-refresh-");
+    executor.setDaemon(true);
+    return executor;
+  }
+
   private X509Certificate convertToX509Cert(String certificateString) {
     X509Certificate certificate = X509CertUtils.parse(certificateString);
     Assert.notNull(certificate, "Could not parse certificate String");
@@ -18,6 +18,7 @@ package com.google.cloud.spring.security.firebase;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+import static org.awaitility.Awaitility.await;
 import static org.mockito.Mockito.any;
 import static org.mockito.Mockito.eq;
 import static org.mockito.Mockito.isNull;
@@ -34,6 +35,7 @@ import com.nimbusds.jwt.JWTClaimsSet;
 import com.nimbusds.jwt.PlainJWT;
 import com.nimbusds.jwt.SignedJWT;
 import java.security.PrivateKey;
+import java.time.Duration;
 import java.time.Instant;
 import java.util.ArrayList;
 import java.util.Date;
@@ -117,6 +119,92 @@ class FirebaseJwtTokenDecoderTests {
             eq(new ParameterizedTypeReference<Map<String, String>>() {}));
   }
 
+  @Test
+  void verifiedTokensAreCachedTests() throws Exception {
+    String signedJwt = signedJwt();
+    OAuth2TokenValidator validator = mock(OAuth2TokenValidator.class);
+    when(validator.validate(any())).thenReturn(OAuth2TokenValidatorResult.success());
+    FirebaseJwtTokenDecoder decoder =
+        new FirebaseJwtTokenDecoder(mockRestOperations(), "https://spring.local", validator);
+    Jwt first = decoder.decode(signedJwt);
+    Jwt second = decoder.decode(signedJwt);
+    assertThat(second).isSameAs(first);
+    verify(validator, times(1)).validate(any());
+    assertThat(decoder.getTokenCacheHitCount()).isEqualTo(1L);
+    assertThat(decoder.getTokenCacheMissCount()).isEqualTo(1L);
+    assertThat(decoder.getTokenCacheHitRate()).isEqualTo(0.5);
+    assertThat(decoder.getTokenCacheSize()).isEqualTo(1);
+    assertThat(decoder.getKeyRefreshCount()).isEqualTo(1L);
+    assertThat(decoder.getLastKeyRefreshDurationMillis()).isGreaterThanOrEqualTo(0L);
+  }
+
+  @Test
+  void disabledTokenCacheTests() throws Exception {
+    String signedJwt = signedJwt();
+    OAuth2TokenValidator validator = mock(OAuth2TokenValidator.class);
+    when(validator.validate(any())).thenReturn(OAuth2TokenValidatorResult.success());
+    FirebaseJwtTokenDecoder decoder =
+        new FirebaseJwtTokenDecoder(
+            mockRestOperations(), "https://spring.local", validator, 0, Duration.ZERO, Runnable::run);
+    decoder.decode(signedJwt);
+    decoder.decode(signedJwt);
+    verify(validator, times(2)).validate(any());
+    assertThat(decoder.getTokenCacheHitCount()).isZero();
+    assertThat(decoder.getTokenCacheSize()).isZero();
+  }
+
+  @Test
+  void tokenCacheEvictsLeastRecentlyUsedTests() throws Exception {
+    OAuth2TokenValidator validator = mock(OAuth2TokenValidator.class);
+    when(validator.validate(any())).thenReturn(OAuth2TokenValidatorResult.success());
+    FirebaseJwtTokenDecoder decoder =
+        new FirebaseJwtTokenDecoder(
+            mockRestOperations(), "https://spring.local", validator, 2, Duration.ZERO, Runnable::run);
+    for (int i = 0; i < 3; i++) {
+      decoder.decode(signedJwt("subject-" + i));
+    }
+    assertThat(decoder.getTokenCacheSize()).isEqualTo(2);
+  }
+
+  @Test
+  void backgroundRefreshTests() throws Exception {
+    String signedJwt = signedJwt();
+    OAuth2TokenValidator validator = mock(OAuth2TokenValidator.class);
+    when(validator.validate(any())).thenReturn(OAuth2TokenValidatorResult.success());
+    Map<String, String> payload = new HashMap<>();
+    payload.put("one", keyGeneratorUtils.getPublicKeyCertificate());
+    RestOperations operations = mockRestOperations(payload, 2L);
+    List<Runnable> scheduled = new ArrayList<>();
+    // The refresh ahead time is capped at half of the max-age, so the background refresh becomes
+    // due one second after the keys were fetched, while the keys remain valid for two seconds.
+    FirebaseJwtTokenDecoder decoder =
+        new FirebaseJwtTokenDecoder(
+            operations, "https://spring.local", validator, 0, Duration.ofHours(1), scheduled::add);
+    decoder.decode(signedJwt);
+    assertThat(scheduled).isEmpty();
+
+    await()
+        .atMost(Duration.ofSeconds(2))
+        .pollInterval(Duration.ofMillis(50))
+        .untilAsserted(
+            () -> {
+              assertThat(decoder.decode(signedJwt)).isNotNull();
+              assertThat(scheduled).isNotEmpty();
+            });
+    assertThat(decoder.decode(signedJwt)).isNotNull();
+    assertThat(scheduled).hasSize(1);
+    assertThat(decoder.getKeyRefreshCount()).isEqualTo(1L);
+
+    scheduled.get(0).run();
+    assertThat(decoder.getKeyRefreshCount()).isEqualTo(2L);
+    verify(operations, times(2))
+        .exchange(
+            eq("https://spring.local"),
+            eq(HttpMethod.GET),
+            isNull(),
+            eq(new ParameterizedTypeReference<Map<String, String>>() {}));
+  }
+
   @Test
   void keyNotFoundTests() throws Exception {
     JWSHeader header = new JWSHeader.Builder(JWSAlgorithm.RS256).keyID("two").build();
@@ -355,9 +443,14 @@ class FirebaseJwtTokenDecoderTests {
   }
 
   private RestOperations mockRestOperations(Map<String, String> payload) {
+    return mockRestOperations(payload, 3600L);
+  }
+
+  private RestOperations mockRestOperations(Map<String, String> payload, long maxAgeSeconds) {
     HttpHeaders headers = new HttpHeaders();
     headers.add(
-        HttpHeaders.CACHE_CONTROL, CacheControl.maxAge(3600L, TimeUnit.SECONDS).getHeaderValue());
+        HttpHeaders.CACHE_CONTROL,
+        CacheControl.maxAge(maxAgeSeconds, TimeUnit.SECONDS).getHeaderValue());
     ResponseEntity<Map<String, String>> response =
         new ResponseEntity<>(payload, headers, HttpStatus.OK);
     return mockRestOperations(response);
@@ -375,10 +468,14 @@ class FirebaseJwtTokenDecoderTests {
   }
 
   private String signedJwt() throws Exception {
+    return signedJwt("test-subject");
+  }
+
+  private String signedJwt(String subject) throws Exception {
     JWSHeader header = new JWSHeader.Builder(JWSAlgorithm.RS256).keyID("one").build();
     JWTClaimsSet claimsSet =
         new JWTClaimsSet.Builder()
-            .subject("test-subject")
+            .subject(subject)
             .expirationTime(Date.from(Instant.now().plusSeconds(60)))
             .build();
     return signedJwt(keyGeneratorUtils.getPrivateKey(), header, claimsSet);
@@ -0,0 +1,67 @@
+/*
+ * Copyright 2022-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.cloud.spring.security.iap;
+
+import com.google.cloud.spring.core.util.VerifiedTokenCache;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.JwtException;
+import org.springframework.util.Assert;
+
+/**
+ * {@link JwtDecoder} that remembers successfully decoded tokens so that repeated requests carrying
+ * the same IAP assertion skip signature verification and claim validation.
+ *
+ * <p>Tokens are kept in a bounded {@link VerifiedTokenCache} and are only served from the cache
+ * until their {@code exp} claim. Tokens without an expiration are never cached, and tokens
+ * rejected by the delegate are not remembered.
+ *
+ * @since 3.3.0
+ */
+public class CachingJwtDecoder implements JwtDecoder {
+
+  private final JwtDecoder delegate;
+
+  private final VerifiedTokenCache<Jwt> cache;
+
+  public CachingJwtDecoder(JwtDecoder delegate, int maxSize) {
+    Assert.notNull(delegate, "Delegate JwtDecoder cannot be null.");
+    this.delegate = delegate;
+    this.cache = new VerifiedTokenCache<>(maxSize, Jwt::getExpiresAt);
+  }
+
+  @Override
+  public Jwt decode(String token) throws JwtException {
+    return this.cache.get(token, this.delegate::decode);
+  }
+
+  public JwtDecoder getDelegate() {
+    return this.delegate;
+  }
+
+  public long getHitCount() {
+    return this.cache.getHitCount();
+  }
+
+  public long getMissCount() {
+    return this.cache.getMissCount();
+  }
+
+  public int getSize() {
+    return this.cache.size();
+  }
+}
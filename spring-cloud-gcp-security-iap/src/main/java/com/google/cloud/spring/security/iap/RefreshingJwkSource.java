@@ -0,0 +1,163 @@
+/*
+ * Copyright 2022-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.cloud.spring.security.iap;
+
+import com.nimbusds.jose.KeySourceException;
+import com.nimbusds.jose.jwk.JWK;
+import com.nimbusds.jose.jwk.JWKSelector;
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jose.jwk.source.JWKSource;
+import com.nimbusds.jose.proc.SecurityContext;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.springframework.util.Assert;
+import org.springframework.web.client.RestOperations;
+
+/**
+ * {@link JWKSource} that keeps the IAP public key set in memory and refreshes it in the background.
+ *
+ * <p>The key set is fetched synchronously only on first use, or when a token references a key ID
+ * that is not in the current set. Fetch attempts are at least 30 seconds apart. Once the keys
+ * are older than {@code refreshInterval}, the next lookup schedules a refresh on the given executor
+ * and keeps answering from the current key set, so signature verification never waits for the
+ * key registry in steady state.
+ *
+ * @since 3.3.0
+ */
+public class RefreshingJwkSource implements JWKSource<SecurityContext> {
+
+  private static final Log LOGGER = LogFactory.getLog(RefreshingJwkSource.class);
+
+  private static final Duration MINIMUM_REFRESH_INTERVAL = Duration.ofSeconds(30);
+
+  private final RestOperations restOperations;
+
+  private final String jwkSetUri;
+
+  private final long refreshIntervalMillis;
+
+  private final Executor refreshExecutor;
+
+  private final AtomicBoolean backgroundRefreshInProgress = new AtomicBoolean();
+
+  private volatile JWKSet jwkSet;
+
+  private volatile long lastRefreshTime;
+
+  private volatile long lastAttemptTime;
+
+  private volatile long lastRefreshDurationMillis = -1L;
+
+  public RefreshingJwkSource(
+      RestOperations restOperations,
+      String jwkSetUri,
+      Duration refreshInterval,
+      Executor refreshExecutor) {
+    Assert.notNull(restOperations, "RestOperations cannot be null.");
+    Assert.hasText(jwkSetUri, "JWK Set URI cannot be empty.");
+    Assert.notNull(refreshInterval, "Refresh interval cannot be null.");
+    Assert.isTrue(
+        refreshInterval.compareTo(MINIMUM_REFRESH_INTERVAL) >= 0,
+        "Refresh interval must be at least " + MINIMUM_REFRESH_INTERVAL + ".");
+    Assert.notNull(refreshExecutor, "Refresh executor cannot be null.");
+    this.restOperations = restOperations;
+    this.jwkSetUri = jwkSetUri;
+    this.refreshIntervalMillis = refreshInterval.toMillis();
+    this.refreshExecutor = refreshExecutor;
+  }
+
+  @Override
+  public List<JWK> get(JWKSelector jwkSelector, SecurityContext context)
+      throws KeySourceException {
+    JWKSet current = this.jwkSet;
+    if (current == null) {
+      current = refreshIfOlderThan(0L);
+    } else if (System.currentTimeMillis() - this.lastRefreshTime >= this.refreshIntervalMillis) {
+      refreshInBackground();
+    }
+
+    List<JWK> matches = jwkSelector.select(current);
+    if (matches.isEmpty()) {
+      // The token may have been signed with a newly rotated key.
+      JWKSet refreshed = refreshIfOlderThan(MINIMUM_REFRESH_INTERVAL.toMillis());
+      if (refreshed != current) {
+        matches = jwkSelector.select(refreshed);
+      }
+    }
+    return matches;
+  }
+
+  /**
+   * Returns the duration of the most recent successful key set fetch.
+   *
+   * @return the refresh latency in milliseconds, or -1 if the keys have not been fetched yet
+   */
+  public long getLastRefreshDurationMillis() {
+    return this.lastRefreshDurationMillis;
+  }
+
+  private void refreshInBackground() {
+    if (!this.backgroundRefreshInProgress.compareAndSet(false, true)) {
+      return;
+    }
+    try {
+      this.refreshExecutor.execute(
+          () -> {
+            try {
+              refreshIfOlderThan(this.refreshIntervalMillis);
+            } catch (KeySourceException | RuntimeException ex) {
+              LOGGER.warn("Background refresh of the IAP key set failed.", ex);
+            } finally {
+              this.backgroundRefreshInProgress.set(false);
+            }
+          });
+    } catch (RuntimeException ex) {
+      this.backgroundRefreshInProgress.set(false);
+      LOGGER.warn("Could not schedule background refresh of the IAP key set.", ex);
+    }
+  }
+
+  private synchronized JWKSet refreshIfOlderThan(long maxAgeMillis) throws KeySourceException {
+    long start = System.currentTimeMillis();
+    if (this.jwkSet != null
+        && (start - this.lastRefreshTime < maxAgeMillis
+            || start - this.lastAttemptTime < MINIMUM_REFRESH_INTERVAL.toMillis())) {
+      return this.jwkSet;
+    }
+    this.lastAttemptTime = start;
+    try {
+      String body = this.restOperations.getForObject(this.jwkSetUri, String.class);
+      Assert.hasText(body, "Empty JWK Set received from " + this.jwkSetUri);
+      JWKSet fetched = JWKSet.parse(body);
+      long now = System.currentTimeMillis();
+      this.jwkSet = fetched;
+      this.lastRefreshTime = now;
+      this.lastRefreshDurationMillis = now - start;
+      return fetched;
+    } catch (Exception ex) {
+      if (this.jwkSet != null) {
+        LOGGER.warn("Could not refresh the IAP key set from " + this.jwkSetUri, ex);
+        return this.jwkSet;
+      }
+      throw new KeySourceException("Could not fetch the IAP key set from " + this.jwkSetUri, ex);
+    }
+  }
+}
@@ -0,0 +1,105 @@
+/*
+ * Copyright 2022-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.cloud.spring.security.iap;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Instant;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.oauth2.jwt.BadJwtException;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+
+/** Tests for {@link CachingJwtDecoder}. */
+class CachingJwtDecoderTests {
+
+  private final JwtDecoder delegate = mock(JwtDecoder.class);
+
+  @Test
+  void testRepeatedTokenIsDecodedOnce() {
+    Jwt jwt = jwt("token", Instant.now().plusSeconds(60));
+    when(this.delegate.decode("token")).thenReturn(jwt);
+    CachingJwtDecoder decoder = new CachingJwtDecoder(this.delegate, 10);
+
+    assertThat(decoder.decode("token")).isSameAs(jwt);
+    assertThat(decoder.decode("token")).isSameAs(jwt);
+
+    verify(this.delegate, times(1)).decode("token");
+    assertThat(decoder.getHitCount()).isEqualTo(1L);
+    assertThat(decoder.getMissCount()).isEqualTo(1L);
+  }
+
+  @Test
+  void testExpiredTokenIsDecodedAgain() {
+    Jwt jwt = jwt("token", Instant.now().minusSeconds(1));
+    when(this.delegate.decode("token")).thenReturn(jwt);
+    CachingJwtDecoder decoder = new CachingJwtDecoder(this.delegate, 10);
+
+    decoder.decode("token");
+    decoder.decode("token");
+
+    verify(this.delegate, times(2)).decode("token");
+    assertThat(decoder.getSize()).isZero();
+  }
+
+  @Test
+  void testRejectedTokenIsNotCached() {
+    when(this.delegate.decode(anyString())).thenThrow(new BadJwtException("invalid"));
+    CachingJwtDecoder decoder = new CachingJwtDecoder(this.delegate, 10);
+
+    assertThatThrownBy(() -> decoder.decode("token")).isInstanceOf(BadJwtException.class);
+    assertThatThrownBy(() -> decoder.decode("token")).isInstanceOf(BadJwtException.class);
+
+    verify(this.delegate, times(2)).decode("token");
+    assertThat(decoder.getSize()).isZero();
+  }
+
+  @Test
+  void testLeastRecentlyUsedTokenIsEvicted() {
+    for (int i = 0; i < 3; i++) {
+      when(this.delegate.decode("token" + i))
+          .thenReturn(jwt("token" + i, Instant.now().plusSeconds(60)));
+    }
+    CachingJwtDecoder decoder = new CachingJwtDecoder(this.delegate, 2);
+
+    decoder.decode("token0");
+    decoder.decode("token1");
+    decoder.decode("token0");
+    decoder.decode("token2");
+    decoder.decode("token0");
+    decoder.decode("token1");
+
+    assertThat(decoder.getSize()).isEqualTo(2);
+    verify(this.delegate, times(1)).decode("token0");
+    verify(this.delegate, times(2)).decode("token1");
+  }
+
+  private static Jwt jwt(String token, Instant expiresAt) {
+    return Jwt.withTokenValue(token)
+        .header("alg", "ES256")
+        .subject("user")
+        .issuedAt(expiresAt.minusSeconds(600))
+        .expiresAt(expiresAt)
+        .build();
+  }
+}
@@ -0,0 +1,131 @@
+/*
+ * Copyright 2022-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.cloud.spring.security.iap;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.nimbusds.jose.KeySourceException;
+import com.nimbusds.jose.jwk.Curve;
+import com.nimbusds.jose.jwk.ECKey;
+import com.nimbusds.jose.jwk.JWK;
+import com.nimbusds.jose.jwk.JWKMatcher;
+import com.nimbusds.jose.jwk.JWKSelector;
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jose.jwk.gen.ECKeyGenerator;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.client.RestClientException;
+import org.springframework.web.client.RestOperations;
+
+/** Tests for {@link RefreshingJwkSource}. */
+class RefreshingJwkSourceTests {
+
+  private static final String REGISTRY = "https://iap.local/public_key-jwk";
+
+  private final RestOperations restOperations = mock(RestOperations.class);
+
+  private final List<Runnable> scheduledRefreshes = new ArrayList<>();
+
+  private ECKey key;
+
+  @BeforeEach
+  void setUp() throws Exception {
+    this.key = new ECKeyGenerator(Curve.P_256).keyID("one").generate();
+  }
+
+  @Test
+  void testKeysAreFetchedOnceAndReused() throws Exception {
+    when(this.restOperations.getForObject(REGISTRY, String.class)).thenReturn(jwkSet(this.key));
+    RefreshingJwkSource source = source(Duration.ofMinutes(5));
+
+    assertThat(source.get(selector("one"), null)).hasSize(1);
+    assertThat(source.get(selector("one"), null)).hasSize(1);
+
+    verify(this.restOperations, times(1)).getForObject(REGISTRY, String.class);
+    assertThat(this.scheduledRefreshes).isEmpty();
+    assertThat(source.getLastRefreshDurationMillis()).isGreaterThanOrEqualTo(0L);
+  }
+
+  @Test
+  void testUnknownKeyIsNotRefetchedWithinMinimumInterval() throws Exception {
+    when(this.restOperations.getForObject(REGISTRY, String.class)).thenReturn(jwkSet(this.key));
+    RefreshingJwkSource source = source(Duration.ofMinutes(5));
+
+    assertThat(source.get(selector("one"), null)).hasSize(1);
+    assertThat(source.get(selector("two"), null)).isEmpty();
+
+    verify(this.restOperations, times(1)).getForObject(REGISTRY, String.class);
+  }
+
+  @Test
+  void testStaleKeysAreRefreshedInBackground() throws Exception {
+    when(this.restOperations.getForObject(REGISTRY, String.class)).thenReturn(jwkSet(this.key));
+    RefreshingJwkSource source = source(Duration.ofSeconds(30));
+    source.get(selector("one"), null);
+
+    // Pretend the keys were fetched long ago.
+    ReflectionTestUtils.setField(source, "lastRefreshTime", 0L);
+    ReflectionTestUtils.setField(source, "lastAttemptTime", 0L);
+
+    assertThat(source.get(selector("one"), null)).hasSize(1);
+    assertThat(source.get(selector("one"), null)).hasSize(1);
+    assertThat(this.scheduledRefreshes).hasSize(1);
+    verify(this.restOperations, times(1)).getForObject(REGISTRY, String.class);
+
+    this.scheduledRefreshes.get(0).run();
+    verify(this.restOperations, times(2)).getForObject(REGISTRY, String.class);
+  }
+
+  @Test
+  void testInitialFetchFailurePropagates() {
+    when(this.restOperations.getForObject(REGISTRY, String.class))
+        .thenThrow(new RestClientException("unreachable"));
+    RefreshingJwkSource source = source(Duration.ofMinutes(5));
+
+    assertThatThrownBy(() -> source.get(selector("one"), null))
+        .isInstanceOf(KeySourceException.class)
+        .hasMessageContaining(REGISTRY);
+  }
+
+  @Test
+  void testRefreshIntervalBelowMinimumIsRejected() {
+    assertThatThrownBy(() -> source(Duration.ofSeconds(1)))
+        .isInstanceOf(IllegalArgumentException.class);
+  }
+
+  private RefreshingJwkSource source(Duration refreshInterval) {
+    return new RefreshingJwkSource(
+        this.restOperations, REGISTRY, refreshInterval, this.scheduledRefreshes::add);
+  }
+
+  private static JWKSelector selector(String keyId) {
+    return new JWKSelector(new JWKMatcher.Builder().keyID(keyId).build());
+  }
+
+  private static String jwkSet(JWK key) {
+    return new JWKSet(key.toPublicJWK()).toString();
+  }
+}
@@ -92,6 +92,12 @@ public class GoogleStorageProtocolResolver
     if (!location.startsWith(PROTOCOL)) {
       return null;
     }
-    return new GoogleStorageResource(getStorage(), location, getSettings().isAutoCreateFiles());
+    GoogleStorageProtocolResolverSettings settings = getSettings();
+    GoogleStorageResource resource =
+        new GoogleStorageResource(getStorage(), location, settings.isAutoCreateFiles());
+    resource.setParallelCompositeUploadPartSize(settings.getParallelCompositeUploadPartSize());
+    resource.setParallelCompositeUploadParallelism(
+        settings.getParallelCompositeUploadParallelism());
+    return resource;
   }
 }
@@ -34,4 +34,29 @@ public class GoogleStorageProtocolResolverSettings {
   public void setAutoCreateFiles(boolean autoCreateFiles) {
     this.autoCreateFiles = autoCreateFiles;
   }
+
+  /**
+   * The size in bytes of the parts of parallel composite uploads. Output streams of resources
+   * upload through a single resumable upload if not positive.
+   */
+  private int parallelCompositeUploadPartSize = 0;
+
+  /** The maximum number of parts uploaded at a time by a parallel composite upload. */
+  private int parallelCompositeUploadParallelism = 4;
+
+  public int getParallelCompositeUploadPartSize() {
+    return this.parallelCompositeUploadPartSize;
+  }
+
+  public void setParallelCompositeUploadPartSize(int parallelCompositeUploadPartSize) {
+    this.parallelCompositeUploadPartSize = parallelCompositeUploadPartSize;
+  }
+
+  public int getParallelCompositeUploadParallelism() {
+    return this.parallelCompositeUploadParallelism;
+  }
+
+  public void setParallelCompositeUploadParallelism(int parallelCompositeUploadParallelism) {
+    this.parallelCompositeUploadParallelism = parallelCompositeUploadParallelism;
+  }
 }
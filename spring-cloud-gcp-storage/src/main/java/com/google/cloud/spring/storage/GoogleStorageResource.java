@@ -52,6 +52,10 @@ public class GoogleStorageResource implements WritableResource {
 
   private final boolean autoCreateFiles;
 
+  private int parallelCompositeUploadPartSize;
+
+  private int parallelCompositeUploadParallelism = 4;
+
   /**
    * Constructs the resource representation of a bucket or a blob (file) in Google Cloud Storage.
    *
@@ -101,6 +105,40 @@ public class GoogleStorageResource implements WritableResource {
     return this.autoCreateFiles;
   }
 
+  /**
+   * Sets the part size of parallel composite uploads. When positive, the {@link
+   * #getOutputStream() output stream} uploads parts of this size concurrently as temporary
+   * objects and composes them into the blob when closed, instead of writing through a single
+   * resumable upload. Disabled by default.
+   *
+   * @param parallelCompositeUploadPartSize the part size in bytes, or 0 to disable
+   * @see ParallelCompositeUploadOutputStream
+   * @since 3.3.0
+   */
+  public void setParallelCompositeUploadPartSize(int parallelCompositeUploadPartSize) {
+    this.parallelCompositeUploadPartSize = parallelCompositeUploadPartSize;
+  }
+
+  /**
+   * Sets the maximum number of parts uploaded at a time by a parallel composite upload. Defaults
+   * to 4.
+   *
+   * @param parallelCompositeUploadParallelism the maximum number of concurrent part uploads
+   * @since 3.3.0
+   */
+  public void setParallelCompositeUploadParallelism(int parallelCompositeUploadParallelism) {
+    Assert.isTrue(parallelCompositeUploadParallelism > 0, "The parallelism must be positive.");
+    this.parallelCompositeUploadParallelism = parallelCompositeUploadParallelism;
+  }
+
+  public int getParallelCompositeUploadPartSize() {
+    return this.parallelCompositeUploadPartSize;
+  }
+
+  public int getParallelCompositeUploadParallelism() {
+    return this.parallelCompositeUploadParallelism;
+  }
+
   /**
    * @return Returns true if the bucket or object exists.
    * @throws StorageException if an issue occurs getting the Bucket or Blob.
@@ -260,7 +298,7 @@ public class GoogleStorageResource implements WritableResource {
 
   /**
    * Creates a {@link GoogleStorageResource} handle that is relative to this one. It inherits {@code
-   * autoCreateFiles} from this object. Note that it does not actually create the blob.
+   * autoCreateFiles} and the parallel composite upload settings from this object.
    *
    * <p>Note that this method does not actually create the blob.
    *
@@ -271,8 +309,12 @@ public class GoogleStorageResource implements WritableResource {
   @Override
   @NonNull
   public GoogleStorageResource createRelative(String relativePath) {
-    return new GoogleStorageResource(
-        this.storage, getURI().resolve(relativePath).toString(), this.autoCreateFiles);
+    GoogleStorageResource resource =
+        new GoogleStorageResource(
+            this.storage, getURI().resolve(relativePath).toString(), this.autoCreateFiles);
+    resource.setParallelCompositeUploadPartSize(this.parallelCompositeUploadPartSize);
+    resource.setParallelCompositeUploadParallelism(this.parallelCompositeUploadParallelism);
+    return resource;
   }
 
   @Override
@@ -323,7 +365,15 @@ public class GoogleStorageResource implements WritableResource {
       throw new FileNotFoundException("The blob was not found: " + getURI());
     }
 
-    return Channels.newOutputStream(this.storage.writer(BlobInfo.newBuilder(getBlobId()).build()));
+    BlobInfo blobInfo = BlobInfo.newBuilder(getBlobId()).build();
+    if (this.parallelCompositeUploadPartSize > 0) {
+      return new ParallelCompositeUploadOutputStream(
+          this.storage,
+          blobInfo,
+          this.parallelCompositeUploadPartSize,
+          this.parallelCompositeUploadParallelism);
+    }
+    return Channels.newOutputStream(this.storage.writer(blobInfo));
   }
 
   /**
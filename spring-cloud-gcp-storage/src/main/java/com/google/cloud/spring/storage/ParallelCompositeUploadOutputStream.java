@@ -0,0 +1,305 @@
+/*
+ * Copyright 2022-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.cloud.spring.storage;
+
+import com.google.cloud.storage.BlobId;
+import com.google.cloud.storage.BlobInfo;
+import com.google.cloud.storage.Storage;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.util.Assert;
+
+/**
+ * An {@link OutputStream} that writes a blob with a parallel composite upload. The written bytes
+ * are split into parts of a fixed size, which are uploaded concurrently as temporary objects in
+ * the bucket of the blob and composed into the blob when the stream is closed. The temporary
+ * objects are deleted once the blob is composed, or when the upload fails.
+ *
+ * <p>Content that fits in a single part is uploaded directly, without temporary objects. At most
+ * {@code parallelism} parts are uploaded at a time; writes block while this limit is reached, so
+ * at most {@code parallelism + 1} parts are held in memory. Upload threads are only started for
+ * the first part and stop once idle, so a stream that is abandoned without being closed does not
+ * keep them alive.
+ *
+ * <p>Instances are not thread-safe.
+ *
+ * @since 3.3.0
+ */
+public class ParallelCompositeUploadOutputStream extends OutputStream {
+
+  /** The maximum number of source objects in a single compose request. */
+  static final int MAX_COMPOSE_SOURCES = 32;
+
+  private static final Log LOGGER = LogFactory.getLog(ParallelCompositeUploadOutputStream.class);
+
+  private final Storage storage;
+
+  private final BlobInfo blobInfo;
+
+  private final int partSize;
+
+  private final int parallelism;
+
+  private final Semaphore uploadPermits;
+
+  private ThreadPoolExecutor executor;
+
+  private final String temporaryBlobPrefix;
+
+  private final List<BlobId> temporaryBlobs = Collections.synchronizedList(new ArrayList<>());
+
+  private final AtomicReference<RuntimeException> failure = new AtomicReference<>();
+
+  private byte[] buffer;
+
+  private int position;
+
+  private int partCount;
+
+  private boolean closed;
+
+  /**
+   * Creates an output stream uploading the given blob.
+   *
+   * @param storage the Google Cloud Storage client
+   * @param blobInfo the blob to write, which is created or replaced when the stream is closed
+   * @param partSize the size in bytes of the uploaded parts
+   * @param parallelism the maximum number of parts uploaded at a time
+   */
+  public ParallelCompositeUploadOutputStream(
+      Storage storage, BlobInfo blobInfo, int partSize, int parallelism) {
+    Assert.notNull(storage, "Storage object can not be null");
+    Assert.notNull(blobInfo, "A valid blob is required.");
+    Assert.isTrue(partSize > 0, "The part size must be positive.");
+    Assert.isTrue(parallelism > 0, "The parallelism must be positive.");
+    this.storage = storage;
+    this.blobInfo = blobInfo;
+    this.partSize = partSize;
+    this.parallelism = parallelism;
+    this.uploadPermits = new Semaphore(parallelism);
+    this.temporaryBlobPrefix = blobInfo.getName() + "." + UUID.randomUUID() + ".";
+    this.buffer = new byte[partSize];
+  }
+
+  @Override
+  public void write(int b) throws IOException {
+    ensureOpen();
+    if (this.position == this.buffer.length) {
+      uploadPart();
+    }
+    this.buffer[this.position++] = (byte) b;
+  }
+
+  @Override
+  public void write(byte[] bytes, int offset, int length) throws IOException {
+    ensureOpen();
+    Assert.notNull(bytes, "The bytes to write can not be null");
+    if (offset < 0 || length < 0 || length > bytes.length - offset) {
+      throw new IndexOutOfBoundsException();
+    }
+    int written = 0;
+    while (written < length) {
+      if (this.position == this.buffer.length) {
+        uploadPart();
+      }
+      int count = Math.min(length - written, this.buffer.length - this.position);
+      System.arraycopy(bytes, offset + written, this.buffer, this.position, count);
+      this.position += count;
+      written += count;
+    }
+  }
+
+  /**
+   * Uploads the remaining bytes and composes the blob from the uploaded parts. The temporary
+   * objects are deleted whether or not the upload succeeded.
+   *
+   * @throws IOException if any part could not be uploaded or the blob could not be composed
+   */
+  @Override
+  public void close() throws IOException {
+    if (this.closed) {
+      return;
+    }
+    this.closed = true;
+    try {
+      if (this.partCount == 0) {
+        this.storage.create(this.blobInfo, this.buffer, 0, this.position);
+        return;
+      }
+      if (this.position > 0) {
+        uploadPart();
+      }
+      awaitUploads();
+      checkFailure();
+      compose();
+    } catch (RuntimeException ex) {
+      throw new IOException("Failed to upload " + getDescription(), ex);
+    } finally {
+      this.buffer = null;
+      awaitUploads();
+      if (this.executor != null) {
+        this.executor.shutdown();
+      }
+      deleteTemporaryBlobs();
+    }
+  }
+
+  private void uploadPart() throws IOException {
+    checkFailure();
+    try {
+      this.uploadPermits.acquire();
+    } catch (InterruptedException ex) {
+      Thread.currentThread().interrupt();
+      throw new InterruptedIOException("Interrupted while uploading " + getDescription());
+    }
+    byte[] part = this.buffer;
+    int length = this.position;
+    BlobInfo partInfo = temporaryBlob(Integer.toString(this.partCount));
+    try {
+      getExecutor().execute(() -> uploadPart(partInfo, part, length));
+    } catch (RejectedExecutionException ex) {
+      this.uploadPermits.release();
+      throw new IOException("Failed to upload " + getDescription(), ex);
+    }
+    this.partCount++;
+    this.buffer = new byte[this.partSize];
+    this.position = 0;
+  }
+
+  private void uploadPart(BlobInfo partInfo, byte[] part, int length) {
+    try {
+      if (this.failure.get() == null) {
+        this.storage.create(partInfo, part, 0, length);
+        this.temporaryBlobs.add(partInfo.getBlobId());
+      }
+    } catch (RuntimeException ex) {
+      this.failure.compareAndSet(null, ex);
+    } finally {
+      this.uploadPermits.release();
+    }
+  }
+
+  private ThreadPoolExecutor getExecutor() {
+    if (this.executor == null) {
+      CustomizableThreadFactory threadFactory =
+          new CustomizableThreadFactory("gcs-composite-upload-");
+      threadFactory.setDaemon(true);
+      this.executor =
+          new ThreadPoolExecutor(
+              this.parallelism,
+              this.parallelism,
+              60L,
+              TimeUnit.SECONDS,
+              new LinkedBlockingQueue<>(),
+              threadFactory);
+      this.executor.allowCoreThreadTimeOut(true);
+    }
+    return this.executor;
+  }
+
+  /** Waits for the parts being uploaded, so that no temporary object is created after cleanup. */
+  private void awaitUploads() {
+    this.uploadPermits.acquireUninterruptibly(this.parallelism);
+    this.uploadPermits.release(this.parallelism);
+  }
+
+  /**
+   * Composes the parts into the blob. A compose request accepts a limited number of sources, so
+   * larger uploads are first composed into intermediate temporary objects.
+   */
+  private void compose() {
+    List<String> sources = new ArrayList<>(this.partCount);
+    for (int i = 0; i < this.partCount; i++) {
+      sources.add(temporaryBlob(Integer.toString(i)).getName());
+    }
+    for (int level = 0; sources.size() > MAX_COMPOSE_SOURCES; level++) {
+      List<String> composed = new ArrayList<>();
+      for (int from = 0; from < sources.size(); from += MAX_COMPOSE_SOURCES) {
+        List<String> group =
+            sources.subList(from, Math.min(from + MAX_COMPOSE_SOURCES, sources.size()));
+        if (group.size() == 1) {
+          composed.add(group.get(0));
+          continue;
+        }
+        BlobInfo target = temporaryBlob("c" + level + "-" + composed.size());
+        compose(group, target);
+        this.temporaryBlobs.add(target.getBlobId());
+        composed.add(target.getName());
+      }
+      sources = composed;
+    }
+    compose(sources, this.blobInfo);
+  }
+
+  private void compose(List<String> sources, BlobInfo target) {
+    this.storage.compose(
+        Storage.ComposeRequest.newBuilder().addSource(sources).setTarget(target).build());
+  }
+
+  private void deleteTemporaryBlobs() {
+    List<BlobId> blobIds;
+    synchronized (this.temporaryBlobs) {
+      blobIds = new ArrayList<>(this.temporaryBlobs);
+      this.temporaryBlobs.clear();
+    }
+    if (blobIds.isEmpty()) {
+      return;
+    }
+    try {
+      this.storage.delete(blobIds);
+    } catch (RuntimeException ex) {
+      LOGGER.warn(
+          "Failed to delete the temporary objects of the upload of " + getDescription(), ex);
+    }
+  }
+
+  private BlobInfo temporaryBlob(String suffix) {
+    return BlobInfo.newBuilder(this.blobInfo.getBucket(), this.temporaryBlobPrefix + suffix)
+        .build();
+  }
+
+  private void checkFailure() throws IOException {
+    RuntimeException ex = this.failure.get();
+    if (ex != null) {
+      throw new IOException("Failed to upload " + getDescription(), ex);
+    }
+  }
+
+  private void ensureOpen() throws IOException {
+    if (this.closed) {
+      throw new IOException("The output stream of " + getDescription() + " is closed.");
+    }
+  }
+
+  private String getDescription() {
+    return "gs://" + this.blobInfo.getBucket() + "/" + this.blobInfo.getName();
+  }
+}
@@ -17,6 +17,7 @@
 package com.google.cloud.spring.storage.integration;
 
 import com.google.cloud.WriteChannel;
+import com.google.cloud.spring.storage.ParallelCompositeUploadOutputStream;
 import com.google.cloud.storage.Blob;
 import com.google.cloud.storage.BlobId;
 import com.google.cloud.storage.BlobInfo;
@@ -48,11 +49,39 @@ public class GcsSession implements Session<BlobInfo> {
 
   private static final String SEPARATOR = "/";
 
+  private int parallelCompositeUploadPartSize;
+
+  private int parallelCompositeUploadParallelism = 4;
+
   public GcsSession(Storage gcs) {
     Assert.notNull(gcs, "The GCS client can't be null.");
     this.gcs = gcs;
   }
 
+  /**
+   * Sets the part size of parallel composite uploads used by {@link #write(InputStream, String)}.
+   * Files are written with a single request if not positive, which is the default.
+   *
+   * @param parallelCompositeUploadPartSize the part size in bytes, or 0 to disable
+   * @see ParallelCompositeUploadOutputStream
+   * @since 3.3.0
+   */
+  public void setParallelCompositeUploadPartSize(int parallelCompositeUploadPartSize) {
+    this.parallelCompositeUploadPartSize = parallelCompositeUploadPartSize;
+  }
+
+  /**
+   * Sets the maximum number of parts uploaded at a time by a parallel composite upload. Defaults
+   * to 4.
+   *
+   * @param parallelCompositeUploadParallelism the maximum number of concurrent part uploads
+   * @since 3.3.0
+   */
+  public void setParallelCompositeUploadParallelism(int parallelCompositeUploadParallelism) {
+    Assert.isTrue(parallelCompositeUploadParallelism > 0, "The parallelism must be positive.");
+    this.parallelCompositeUploadParallelism = parallelCompositeUploadParallelism;
+  }
+
   @Override
   public boolean remove(String path) throws IOException {
     String[] tokens = getBucketAndObjectFromPath(path);
@@ -100,6 +129,19 @@ public class GcsSession implements Session<BlobInfo> {
 
     BlobInfo gcsBlobInfo = BlobInfo.newBuilder(BlobId.of(tokens[0], tokens[1])).build();
 
+    if (this.parallelCompositeUploadPartSize > 0) {
+      try (InputStream is = inputStream;
+          OutputStream os =
+              new ParallelCompositeUploadOutputStream(
+                  this.gcs,
+                  gcsBlobInfo,
+                  this.parallelCompositeUploadPartSize,
+                  this.parallelCompositeUploadParallelism)) {
+        StreamUtils.copy(is, os);
+      }
+      return;
+    }
+
     try (InputStream is = inputStream) {
       try (WriteChannel channel = this.gcs.writer(gcsBlobInfo)) {
         channel.write(ByteBuffer.wrap(StreamUtils.copyToByteArray(is)));
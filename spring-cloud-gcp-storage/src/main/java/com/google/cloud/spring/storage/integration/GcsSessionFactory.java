@@ -28,14 +28,46 @@ public class GcsSessionFactory implements SessionFactory<BlobInfo>, SharedSessio
 
   private Storage gcs;
 
+  private int parallelCompositeUploadPartSize;
+
+  private int parallelCompositeUploadParallelism = 4;
+
   public GcsSessionFactory(Storage gcs) {
     Assert.notNull(gcs, "The GCS client can't be null.");
     this.gcs = gcs;
   }
 
+  /**
+   * Sets the part size of the parallel composite uploads of the created sessions, which is used
+   * when writing files, for example by a {@code GcsMessageHandler}. Disabled by default.
+   *
+   * @param parallelCompositeUploadPartSize the part size in bytes, or 0 to disable
+   * @see GcsSession#setParallelCompositeUploadPartSize(int)
+   * @since 3.3.0
+   */
+  public void setParallelCompositeUploadPartSize(int parallelCompositeUploadPartSize) {
+    this.parallelCompositeUploadPartSize = parallelCompositeUploadPartSize;
+  }
+
+  /**
+   * Sets the maximum number of parts uploaded at a time by the parallel composite uploads of the
+   * created sessions. Defaults to 4.
+   *
+   * @param parallelCompositeUploadParallelism the maximum number of concurrent part uploads
+   * @see GcsSession#setParallelCompositeUploadParallelism(int)
+   * @since 3.3.0
+   */
+  public void setParallelCompositeUploadParallelism(int parallelCompositeUploadParallelism) {
+    Assert.isTrue(parallelCompositeUploadParallelism > 0, "The parallelism must be positive.");
+    this.parallelCompositeUploadParallelism = parallelCompositeUploadParallelism;
+  }
+
   @Override
   public Session<BlobInfo> getSession() {
-    return new GcsSession(this.gcs);
+    GcsSession session = new GcsSession(this.gcs);
+    session.setParallelCompositeUploadPartSize(this.parallelCompositeUploadPartSize);
+    session.setParallelCompositeUploadParallelism(this.parallelCompositeUploadParallelism);
+    return session;
   }
 
   @Override
@@ -0,0 +1,184 @@
+/*
+ * Copyright 2022-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.cloud.spring.storage;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyIterable;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.google.cloud.storage.BlobId;
+import com.google.cloud.storage.BlobInfo;
+import com.google.cloud.storage.Storage;
+import com.google.cloud.storage.StorageException;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/** Tests for the parallel composite upload output stream, against an in-memory fake storage. */
+class ParallelCompositeUploadOutputStreamTests {
+
+  private static final BlobInfo BLOB_INFO = BlobInfo.newBuilder("my-bucket", "my-object").build();
+
+  private final Map<String, byte[]> objects = new ConcurrentHashMap<>();
+
+  private Storage storage;
+
+  @BeforeEach
+  void setUp() {
+    this.storage = mock(Storage.class);
+    when(this.storage.create(any(BlobInfo.class), any(byte[].class), anyInt(), anyInt()))
+        .thenAnswer(
+            invocation -> {
+              BlobInfo blobInfo = invocation.getArgument(0);
+              byte[] content = invocation.getArgument(1);
+              int offset = invocation.getArgument(2);
+              int length = invocation.getArgument(3);
+              this.objects.put(
+                  blobInfo.getName(), Arrays.copyOfRange(content, offset, offset + length));
+              return null;
+            });
+    when(this.storage.compose(any()))
+        .thenAnswer(
+            invocation -> {
+              Storage.ComposeRequest request = invocation.getArgument(0);
+              assertThat(request.getSourceBlobs())
+                  .hasSizeLessThanOrEqualTo(ParallelCompositeUploadOutputStream.MAX_COMPOSE_SOURCES);
+              ByteArrayOutputStream composed = new ByteArrayOutputStream();
+              for (Storage.ComposeRequest.SourceBlob source : request.getSourceBlobs()) {
+                composed.write(this.objects.get(source.getName()));
+              }
+              this.objects.put(request.getTarget().getName(), composed.toByteArray());
+              return null;
+            });
+    when(this.storage.delete(anyIterable()))
+        .thenAnswer(
+            invocation -> {
+              Iterable<BlobId> blobIds = invocation.getArgument(0);
+              blobIds.forEach(blobId -> this.objects.remove(blobId.getName()));
+              return null;
+            });
+  }
+
+  @Test
+  void testSinglePartIsUploadedDirectly() throws IOException {
+    byte[] content = content(10);
+    try (OutputStream os = new ParallelCompositeUploadOutputStream(this.storage, BLOB_INFO, 10, 2)) {
+      os.write(content);
+    }
+
+    assertThat(this.objects).containsOnlyKeys("my-object");
+    assertThat(this.objects.get("my-object")).isEqualTo(content);
+    verify(this.storage).create(BLOB_INFO, content, 0, 10);
+    verify(this.storage, never()).compose(any());
+  }
+
+  @Test
+  void testSinglePartStartsNoUploadThreads() throws IOException {
+    long threads = countUploadThreads();
+
+    OutputStream os = new ParallelCompositeUploadOutputStream(this.storage, BLOB_INFO, 10, 2);
+    os.write(content(10));
+
+    assertThat(countUploadThreads()).isLessThanOrEqualTo(threads);
+  }
+
+  @Test
+  void testPartsAreComposed() throws IOException {
+    byte[] content = content(50);
+    try (OutputStream os = new ParallelCompositeUploadOutputStream(this.storage, BLOB_INFO, 8, 3)) {
+      os.write(content, 0, 5);
+      os.write(content[5]);
+      os.write(content, 6, 44);
+    }
+
+    assertThat(this.objects).containsOnlyKeys("my-object");
+    assertThat(this.objects.get("my-object")).isEqualTo(content);
+    verify(this.storage).compose(any());
+  }
+
+  @Test
+  void testManyPartsAreComposedInSteps() throws IOException {
+    byte[] content = content(2000);
+    try (OutputStream os = new ParallelCompositeUploadOutputStream(this.storage, BLOB_INFO, 1, 4)) {
+      os.write(content);
+    }
+
+    assertThat(this.objects).containsOnlyKeys("my-object");
+    assertThat(this.objects.get("my-object")).isEqualTo(content);
+  }
+
+  @Test
+  void testFailedPartUploadDeletesTemporaryObjects() throws IOException {
+    doThrow(new StorageException(503, "Unavailable"))
+        .when(this.storage)
+        .create(any(BlobInfo.class), any(byte[].class), eq(0), eq(3));
+
+    OutputStream os = new ParallelCompositeUploadOutputStream(this.storage, BLOB_INFO, 4, 2);
+    os.write(content(11));
+
+    assertThatExceptionOfType(IOException.class)
+        .isThrownBy(os::close)
+        .withMessage("Failed to upload gs://my-bucket/my-object")
+        .withCauseInstanceOf(StorageException.class);
+    assertThat(this.objects).isEmpty();
+    verify(this.storage, never()).compose(any());
+    assertThatExceptionOfType(IOException.class).isThrownBy(() -> os.write(1));
+  }
+
+  @Test
+  void testFailedComposeDeletesTemporaryObjects() {
+    doThrow(new StorageException(403, "Forbidden")).when(this.storage).compose(any());
+
+    assertThatExceptionOfType(IOException.class)
+        .isThrownBy(
+            () -> {
+              try (OutputStream os =
+                  new ParallelCompositeUploadOutputStream(this.storage, BLOB_INFO, 4, 2)) {
+                os.write(content(16));
+              }
+            })
+        .withCauseInstanceOf(StorageException.class);
+    assertThat(this.objects).isEmpty();
+  }
+
+  private static long countUploadThreads() {
+    return Thread.getAllStackTraces().keySet().stream()
+        .filter(thread -> thread.getName().startsWith("gcs-composite-upload-"))
+        .count();
+  }
+
+  private static byte[] content(int length) {
+    byte[] content = new byte[length];
+    for (int i = 0; i < length; i++) {
+      content[i] = (byte) i;
+    }
+    return content;
+  }
+}
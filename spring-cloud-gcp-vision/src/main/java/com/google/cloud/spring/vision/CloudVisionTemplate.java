@@ -33,18 +33,32 @@ import com.google.cloud.vision.v1.InputConfig;
 import com.google.protobuf.ByteString;
 import com.google.rpc.Code;
 import java.io.IOException;
+import java.io.InputStream;
+import java.time.Duration;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
 import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
+import org.springframework.beans.factory.DisposableBean;
 import org.springframework.core.io.Resource;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
 import org.springframework.util.Assert;
+import org.springframework.util.concurrent.ListenableFuture;
+import org.springframework.util.concurrent.SettableListenableFuture;
 
 /**
  * Spring Template offering convenience methods for interacting with the Cloud Vision APIs.
  *
  * @since 1.1
  */
-public class CloudVisionTemplate {
+public class CloudVisionTemplate implements DisposableBean {
 
   public static final String READ_BYTES_ERROR_MESSAGE =
       "Failed to read bytes from provided resource.";
@@ -53,9 +67,91 @@ public class CloudVisionTemplate {
 
   private final ImageAnnotatorClient imageAnnotatorClient;
 
+  private final Executor executor;
+
+  private final boolean ownsExecutor;
+
+  private final ImageAnnotationBatcher imageAnnotationBatcher;
+
+  /**
+   * Creates the template. The asynchronous methods of this template run on a pool of 4 daemon
+   * threads, which is shut down when the template is {@link #destroy() destroyed}.
+   *
+   * @param imageAnnotatorClient the client used to call the Cloud Vision APIs
+   */
   public CloudVisionTemplate(ImageAnnotatorClient imageAnnotatorClient) {
+    this(imageAnnotatorClient, defaultExecutor(), true);
+  }
+
+  /**
+   * Creates the template.
+   *
+   * @param imageAnnotatorClient the client used to call the Cloud Vision APIs
+   * @param executor the executor on which images are read and batched annotation requests are
+   *     sent by the asynchronous methods of this template
+   * @since 3.3.0
+   */
+  public CloudVisionTemplate(ImageAnnotatorClient imageAnnotatorClient, Executor executor) {
+    this(imageAnnotatorClient, executor, false);
+  }
+
+  private CloudVisionTemplate(
+      ImageAnnotatorClient imageAnnotatorClient, Executor executor, boolean ownsExecutor) {
     Assert.notNull(imageAnnotatorClient, "imageAnnotatorClient must not be null.");
+    Assert.notNull(executor, "executor must not be null.");
     this.imageAnnotatorClient = imageAnnotatorClient;
+    this.executor = executor;
+    this.ownsExecutor = ownsExecutor;
+    this.imageAnnotationBatcher = new ImageAnnotationBatcher(imageAnnotatorClient, executor);
+  }
+
+  /**
+   * Sets the maximum number of images sent in a single batch annotation request by {@link
+   * #analyzeImageAsync} and {@link #analyzeImages}. Defaults to 16, which is the maximum the Cloud
+   * Vision API accepts.
+   *
+   * @param maxBatchSize the maximum number of images per request, between 1 and 16
+   * @since 3.3.0
+   */
+  public void setMaxBatchSize(int maxBatchSize) {
+    this.imageAnnotationBatcher.setMaxBatchSize(maxBatchSize);
+  }
+
+  /**
+   * Sets how long an image submitted through {@link #analyzeImageAsync} or {@link #analyzeImages}
+   * may wait for other images to share its batch annotation request. Defaults to 10 milliseconds;
+   * {@link Duration#ZERO} sends each image as soon as it is read.
+   *
+   * @param maxBatchDelay the maximum time a request waits before its batch is sent
+   * @since 3.3.0
+   */
+  public void setMaxBatchDelay(Duration maxBatchDelay) {
+    this.imageAnnotationBatcher.setMaxBatchDelay(maxBatchDelay);
+  }
+
+  /**
+   * Sets the maximum size in bytes of the image requests sent in a single batch annotation request
+   * by {@link #analyzeImageAsync} and {@link #analyzeImages}. A batch is sent before an image would
+   * make it larger; an image larger than this is sent on its own. Defaults to 8 MiB, which keeps
+   * batch requests below the request size limit of the Cloud Vision API.
+   *
+   * @param maxBatchBytes the maximum serialized size of the image requests per batch request
+   * @since 3.3.0
+   */
+  public void setMaxBatchBytes(long maxBatchBytes) {
+    this.imageAnnotationBatcher.setMaxBatchBytes(maxBatchBytes);
+  }
+
+  /**
+   * Sends the pending batched image requests and stops the batching timer. The executor is shut
+   * down as well if it was created by this template.
+   */
+  @Override
+  public void destroy() {
+    this.imageAnnotationBatcher.shutdown();
+    if (this.ownsExecutor) {
+      ((ExecutorService) this.executor).shutdown();
+    }
   }
 
   /**
@@ -163,27 +259,9 @@ public class CloudVisionTemplate {
    */
   public AnnotateImageResponse analyzeImage(
       Resource imageResource, ImageContext imageContext, Feature.Type... featureTypes) {
-    ByteString imgBytes;
-    try {
-      imgBytes = ByteString.readFrom(imageResource.getInputStream());
-    } catch (IOException ex) {
-      throw new CloudVisionException(READ_BYTES_ERROR_MESSAGE, ex);
-    }
-
-    Image image = Image.newBuilder().setContent(imgBytes).build();
-
-    List<Feature> featureList =
-        Arrays.stream(featureTypes)
-            .map(featureType -> Feature.newBuilder().setType(featureType).build())
-            .collect(Collectors.toList());
-
     BatchAnnotateImagesRequest request =
         BatchAnnotateImagesRequest.newBuilder()
-            .addRequests(
-                AnnotateImageRequest.newBuilder()
-                    .addAllFeatures(featureList)
-                    .setImageContext(imageContext)
-                    .setImage(image))
+            .addRequests(buildImageRequest(imageResource, imageContext, featureTypes))
             .build();
 
     BatchAnnotateImagesResponse batchResponse =
@@ -197,6 +275,104 @@ public class CloudVisionTemplate {
     }
   }
 
+  /**
+   * Asynchronously analyze an image and extract the features of the image specified by {@code
+   * featureTypes}.
+   *
+   * <p>The image is read on this template's executor and its annotation request is coalesced with
+   * other concurrently submitted images into batch requests of up to {@link #setMaxBatchSize max
+   * batch size} images, which are sent at the latest after the {@link #setMaxBatchDelay max batch
+   * delay}.
+   *
+   * @param imageResource the image one wishes to analyze
+   * @param featureTypes the types of image analysis to perform on the image
+   * @return a {@link ListenableFuture} completed with the results of image analyses, or with a
+   *     {@link CloudVisionException} if the image could not be read or no response was received
+   * @since 3.3.0
+   */
+  public ListenableFuture<AnnotateImageResponse> analyzeImageAsync(
+      Resource imageResource, Feature.Type... featureTypes) {
+    return analyzeImageAsync(imageResource, ImageContext.getDefaultInstance(), featureTypes);
+  }
+
+  /**
+   * Asynchronously analyze an image and extract the features of the image specified by {@code
+   * featureTypes}. See {@link #analyzeImageAsync(Resource, Feature.Type...)}.
+   *
+   * @param imageResource the image one wishes to analyze
+   * @param imageContext the image context used to customize the Vision API request
+   * @param featureTypes the types of image analysis to perform on the image
+   * @return a {@link ListenableFuture} completed with the results of image analyses, or with a
+   *     {@link CloudVisionException} if the image could not be read or no response was received
+   * @since 3.3.0
+   */
+  public ListenableFuture<AnnotateImageResponse> analyzeImageAsync(
+      Resource imageResource, ImageContext imageContext, Feature.Type... featureTypes) {
+    SettableListenableFuture<AnnotateImageResponse> result = new SettableListenableFuture<>();
+    this.executor.execute(
+        () -> {
+          try {
+            AnnotateImageRequest request =
+                buildImageRequest(imageResource, imageContext, featureTypes);
+            this.imageAnnotationBatcher
+                .submit(request)
+                .addCallback(result::set, result::setException);
+          } catch (RuntimeException ex) {
+            result.setException(ex);
+          }
+        });
+    return result;
+  }
+
+  /**
+   * Analyze a collection of images and extract the features specified by {@code featureTypes}
+   * from each of them.
+   *
+   * <p>The images are read in parallel on this template's executor and sent in batch requests of
+   * up to {@link #setMaxBatchSize max batch size} images.
+   *
+   * @param imageResources the images one wishes to analyze
+   * @param featureTypes the types of image analysis to perform on each image
+   * @return the results of image analyses, in the iteration order of {@code imageResources}
+   * @throws CloudVisionException if an image could not be read or if a malformed response is
+   *     received from the Cloud Vision APIs
+   * @since 3.3.0
+   */
+  public List<AnnotateImageResponse> analyzeImages(
+      Collection<? extends Resource> imageResources, Feature.Type... featureTypes) {
+    return analyzeImages(imageResources, ImageContext.getDefaultInstance(), featureTypes);
+  }
+
+  /**
+   * Analyze a collection of images and extract the features specified by {@code featureTypes}
+   * from each of them. See {@link #analyzeImages(Collection, Feature.Type...)}.
+   *
+   * @param imageResources the images one wishes to analyze
+   * @param imageContext the image context used to customize the Vision API requests
+   * @param featureTypes the types of image analysis to perform on each image
+   * @return the results of image analyses, in the iteration order of {@code imageResources}
+   * @throws CloudVisionException if an image could not be read or if a malformed response is
+   *     received from the Cloud Vision APIs
+   * @since 3.3.0
+   */
+  public List<AnnotateImageResponse> analyzeImages(
+      Collection<? extends Resource> imageResources,
+      ImageContext imageContext,
+      Feature.Type... featureTypes) {
+    Assert.notNull(imageResources, "imageResources must not be null.");
+
+    List<ListenableFuture<AnnotateImageResponse>> futures =
+        imageResources.stream()
+            .map(imageResource -> analyzeImageAsync(imageResource, imageContext, featureTypes))
+            .collect(Collectors.toList());
+
+    List<AnnotateImageResponse> responses = new ArrayList<>(futures.size());
+    for (ListenableFuture<AnnotateImageResponse> future : futures) {
+      responses.add(awaitResponse(future));
+    }
+    return responses;
+  }
+
   /**
    * Analyze a file and extract the features of the image specified by {@code featureTypes}.
    *
@@ -249,4 +425,53 @@ public class CloudVisionTemplate {
       throw new CloudVisionException(EMPTY_RESPONSE_ERROR_MESSAGE);
     }
   }
+
+  private static AnnotateImageRequest buildImageRequest(
+      Resource imageResource, ImageContext imageContext, Feature.Type... featureTypes) {
+    ByteString imgBytes;
+    try (InputStream inputStream = imageResource.getInputStream()) {
+      imgBytes = ByteString.readFrom(inputStream);
+    } catch (IOException ex) {
+      throw new CloudVisionException(READ_BYTES_ERROR_MESSAGE, ex);
+    }
+
+    Image image = Image.newBuilder().setContent(imgBytes).build();
+
+    List<Feature> featureList =
+        Arrays.stream(featureTypes)
+            .map(featureType -> Feature.newBuilder().setType(featureType).build())
+            .collect(Collectors.toList());
+
+    return AnnotateImageRequest.newBuilder()
+        .addAllFeatures(featureList)
+        .setImageContext(imageContext)
+        .setImage(image)
+        .build();
+  }
+
+  private static AnnotateImageResponse awaitResponse(
+      ListenableFuture<AnnotateImageResponse> future) {
+    try {
+      return future.get();
+    } catch (InterruptedException ex) {
+      Thread.currentThread().interrupt();
+      throw new CloudVisionException("Interrupted while waiting for image annotations.", ex);
+    } catch (ExecutionException ex) {
+      Throwable cause = ex.getCause();
+      if (cause instanceof RuntimeException) {
+        throw (RuntimeException) cause;
+      }
+      throw new CloudVisionException("Failed to annotate image.", ex);
+    }
+  }
+
+  private static ExecutorService defaultExecutor() {
+    CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("cloud-vision-");
+    threadFactory.setDaemon(true);
+    ThreadPoolExecutor executor =
+        new ThreadPoolExecutor(
+            4, 4, 60L, TimeUnit.SECONDS, new LinkedBlockingQueue<>(), threadFactory);
+    executor.allowCoreThreadTimeOut(true);
+    return executor;
+  }
 }
@@ -19,12 +19,22 @@ package com.google.cloud.spring.vision;
 import com.google.cloud.storage.Blob;
 import com.google.cloud.vision.v1.TextAnnotation;
 import com.google.protobuf.InvalidProtocolBufferException;
+import java.util.ArrayDeque;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.Deque;
 import java.util.Iterator;
 import java.util.List;
 import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
 import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+import org.springframework.util.Assert;
 
 /** Represents the parsed OCR content for an document in the provided range of pages. */
 public class DocumentOcrResultSet {
@@ -131,4 +141,106 @@ public class DocumentOcrResultSet {
       }
     };
   }
+
+  /**
+   * Returns a sequential {@link Stream} over all the OCR pages of the document, in page order.
+   *
+   * <p>Unlike {@link #getAllPages()}, the JSON output files are downloaded and parsed on the given
+   * {@code executor}: while the caller consumes the pages of one file, up to {@code prefetchCount}
+   * following files are fetched and parsed concurrently. Parsed files are not retained once their
+   * pages have been consumed, so at most {@code prefetchCount + 1} files are held in memory at a
+   * time. Closing the stream cancels pending prefetches.
+   *
+   * @param executor the executor used to download and parse the output files
+   * @param prefetchCount the maximum number of output files read ahead of the consumer
+   * @return stream of {@link TextAnnotation} describing OCR content of each page in the document.
+   */
+  public Stream<TextAnnotation> streamAllPages(Executor executor, int prefetchCount) {
+    Assert.notNull(executor, "Executor must not be null.");
+    Assert.isTrue(prefetchCount > 0, "Prefetch count must be positive.");
+
+    PrefetchingPageIterator iterator =
+        new PrefetchingPageIterator(ocrPageRanges.values().iterator(), executor, prefetchCount);
+    return StreamSupport.stream(
+            Spliterators.spliteratorUnknownSize(
+                iterator, Spliterator.ORDERED | Spliterator.NONNULL),
+            false)
+        .onClose(iterator::cancel);
+  }
+
+  /** Iterates pages while keeping a bounded window of output files being parsed ahead. */
+  private static final class PrefetchingPageIterator implements Iterator<TextAnnotation> {
+
+    private final Iterator<OcrPageRange> pageRangeIterator;
+
+    private final Executor executor;
+
+    private final int prefetchCount;
+
+    private final Deque<CompletableFuture<List<TextAnnotation>>> prefetched = new ArrayDeque<>();
+
+    private Iterator<TextAnnotation> currentPages = Collections.emptyIterator();
+
+    PrefetchingPageIterator(
+        Iterator<OcrPageRange> pageRangeIterator, Executor executor, int prefetchCount) {
+      this.pageRangeIterator = pageRangeIterator;
+      this.executor = executor;
+      this.prefetchCount = prefetchCount;
+      fillWindow();
+    }
+
+    @Override
+    public boolean hasNext() {
+      while (!currentPages.hasNext()) {
+        CompletableFuture<List<TextAnnotation>> nextRange = prefetched.poll();
+        if (nextRange == null) {
+          return false;
+        }
+        fillWindow();
+        currentPages = awaitPages(nextRange).iterator();
+      }
+      return true;
+    }
+
+    @Override
+    public TextAnnotation next() {
+      if (!hasNext()) {
+        throw new NoSuchElementException("No more pages left in DocumentOcrResultSet.");
+      }
+      return currentPages.next();
+    }
+
+    void cancel() {
+      prefetched.forEach(future -> future.cancel(false));
+      prefetched.clear();
+    }
+
+    private void fillWindow() {
+      while (prefetched.size() < prefetchCount && pageRangeIterator.hasNext()) {
+        OcrPageRange pageRange = pageRangeIterator.next();
+        prefetched.add(CompletableFuture.supplyAsync(() -> parse(pageRange), executor));
+      }
+    }
+
+    private static List<TextAnnotation> parse(OcrPageRange pageRange) {
+      try {
+        return pageRange.parsePages();
+      } catch (InvalidProtocolBufferException e) {
+        throw new RuntimeException(
+            "Failed to parse OCR output from JSON output file " + pageRange.getBlob().getName(), e);
+      }
+    }
+
+    private List<TextAnnotation> awaitPages(CompletableFuture<List<TextAnnotation>> future) {
+      try {
+        return future.join();
+      } catch (CompletionException e) {
+        cancel();
+        if (e.getCause() instanceof RuntimeException) {
+          throw (RuntimeException) e.getCause();
+        }
+        throw e;
+      }
+    }
+  }
 }
@@ -40,6 +40,7 @@ import java.util.Collections;
 import java.util.List;
 import java.util.concurrent.Executor;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 import java.util.stream.StreamSupport;
 import org.springframework.util.Assert;
 import org.springframework.util.concurrent.ListenableFuture;
@@ -160,6 +161,23 @@ public class DocumentOcrTemplate {
     return new DocumentOcrResultSet(blobPages);
   }
 
+  /**
+   * Streams the pages of the OCR output files who have the specified {@code
+   * jsonOutputFilePathPrefix}, downloading and parsing up to {@code prefetchCount} output files
+   * concurrently on this template's executor while the caller consumes pages. See {@link
+   * DocumentOcrResultSet#streamAllPages(Executor, int)}.
+   *
+   * @param jsonOutputFilePathPrefix the folder location containing all of the JSON files of OCR
+   *     output
+   * @param prefetchCount the maximum number of output files read ahead of the consumer
+   * @return a {@link Stream} of {@link TextAnnotation} for each page of the document, in order
+   */
+  public Stream<TextAnnotation> streamOcrOutputFileSet(
+      GoogleStorageLocation jsonOutputFilePathPrefix, int prefetchCount) {
+    return readOcrOutputFileSet(jsonOutputFilePathPrefix)
+        .streamAllPages(this.executor, prefetchCount);
+  }
+
   /**
    * Parses a single JSON output file and returns the list of pages stored in the file.
    *
@@ -0,0 +1,239 @@
+/*
+ * Copyright 2022-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.cloud.spring.vision;
+
+import com.google.cloud.vision.v1.AnnotateImageRequest;
+import com.google.cloud.vision.v1.AnnotateImageResponse;
+import com.google.cloud.vision.v1.BatchAnnotateImagesRequest;
+import com.google.cloud.vision.v1.BatchAnnotateImagesResponse;
+import com.google.cloud.vision.v1.ImageAnnotatorClient;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import org.springframework.util.Assert;
+import org.springframework.util.concurrent.ListenableFuture;
+import org.springframework.util.concurrent.SettableListenableFuture;
+
+/**
+ * Coalesces individually submitted {@link AnnotateImageRequest}s into {@link
+ * BatchAnnotateImagesRequest}s. A batch is sent as soon as it holds {@code maxBatchSize} requests,
+ * or {@code maxBatchDelay} after its first request was submitted, whichever comes first. A batch
+ * is also sent before a request would grow it beyond {@code maxBatchBytes}.
+ */
+final class ImageAnnotationBatcher {
+
+  /** The maximum number of images the Cloud Vision API accepts in one batch request. */
+  static final int MAX_BATCH_SIZE = 16;
+
+  /** The default size of a batch, which keeps requests below the Cloud Vision API size limit. */
+  static final long DEFAULT_MAX_BATCH_BYTES = 8L * 1024 * 1024;
+
+  private final ImageAnnotatorClient imageAnnotatorClient;
+
+  private final Executor executor;
+
+  private ScheduledExecutorService timer;
+
+  private volatile boolean shutdown;
+
+  private volatile int maxBatchSize = MAX_BATCH_SIZE;
+
+  private volatile long maxBatchBytes = DEFAULT_MAX_BATCH_BYTES;
+
+  private volatile Duration maxBatchDelay = Duration.ofMillis(10);
+
+  private List<PendingRequest> pending = new ArrayList<>();
+
+  private long pendingBytes;
+
+  private ScheduledFuture<?> pendingFlush;
+
+  ImageAnnotationBatcher(ImageAnnotatorClient imageAnnotatorClient, Executor executor) {
+    this.imageAnnotatorClient = imageAnnotatorClient;
+    this.executor = executor;
+  }
+
+  void setMaxBatchSize(int maxBatchSize) {
+    Assert.isTrue(
+        maxBatchSize > 0 && maxBatchSize <= MAX_BATCH_SIZE,
+        "maxBatchSize must be between 1 and " + MAX_BATCH_SIZE + ".");
+    this.maxBatchSize = maxBatchSize;
+  }
+
+  void setMaxBatchDelay(Duration maxBatchDelay) {
+    Assert.isTrue(
+        maxBatchDelay != null && !maxBatchDelay.isNegative(),
+        "maxBatchDelay must not be null or negative.");
+    this.maxBatchDelay = maxBatchDelay;
+  }
+
+  void setMaxBatchBytes(long maxBatchBytes) {
+    Assert.isTrue(maxBatchBytes > 0, "maxBatchBytes must be positive.");
+    this.maxBatchBytes = maxBatchBytes;
+  }
+
+  /**
+   * Sends the pending requests and stops the timer. Requests submitted afterwards are sent
+   * without waiting for others.
+   */
+  void shutdown() {
+    List<PendingRequest> batch;
+    synchronized (this) {
+      this.shutdown = true;
+      batch = takePending();
+      if (this.timer != null) {
+        this.timer.shutdownNow();
+      }
+    }
+    if (!batch.isEmpty()) {
+      dispatch(batch);
+    }
+  }
+
+  ListenableFuture<AnnotateImageResponse> submit(AnnotateImageRequest request) {
+    SettableListenableFuture<AnnotateImageResponse> result = new SettableListenableFuture<>();
+    int requestBytes = request.getSerializedSize();
+    List<PendingRequest> previousBatch = null;
+    List<PendingRequest> fullBatch = null;
+
+    synchronized (this) {
+      if (!this.pending.isEmpty() && this.pendingBytes + requestBytes > this.maxBatchBytes) {
+        previousBatch = takePending();
+      }
+      this.pending.add(new PendingRequest(request, result));
+      this.pendingBytes += requestBytes;
+      if (this.pending.size() >= this.maxBatchSize
+          || this.pendingBytes >= this.maxBatchBytes
+          || this.maxBatchDelay.isZero()
+          || this.shutdown) {
+        fullBatch = takePending();
+      } else if (this.pendingFlush == null) {
+        this.pendingFlush =
+            getTimer().schedule(
+                this::flushPending, this.maxBatchDelay.toNanos(), TimeUnit.NANOSECONDS);
+      }
+    }
+
+    if (previousBatch != null) {
+      dispatch(previousBatch);
+    }
+    if (fullBatch != null) {
+      dispatch(fullBatch);
+    }
+    return result;
+  }
+
+  private ScheduledExecutorService getTimer() {
+    if (this.timer == null) {
+      ScheduledThreadPoolExecutor scheduler =
+          new ScheduledThreadPoolExecutor(
+              1,
+              runnable -> {
+                Thread thread = new Thread(runnable, "cloud-vision-batch-timer");
+                thread.setDaemon(true);
+                return thread;
+              });
+      scheduler.setRemoveOnCancelPolicy(true);
+      this.timer = scheduler;
+    }
+    return this.timer;
+  }
+
+  private void flushPending() {
+    List<PendingRequest> batch;
+    synchronized (this) {
+      this.pendingFlush = null;
+      if (this.pending.isEmpty()) {
+        return;
+      }
+      batch = takePending();
+    }
+    dispatch(batch);
+  }
+
+  private List<PendingRequest> takePending() {
+    List<PendingRequest> batch = this.pending;
+    this.pending = new ArrayList<>();
+    this.pendingBytes = 0;
+    if (this.pendingFlush != null) {
+      this.pendingFlush.cancel(false);
+      this.pendingFlush = null;
+    }
+    return batch;
+  }
+
+  private void dispatch(List<PendingRequest> batch) {
+    try {
+      this.executor.execute(() -> annotate(batch));
+    } catch (RejectedExecutionException ex) {
+      if (this.shutdown) {
+        // requests of images that were still being read when the executor was shut down
+        annotate(batch);
+      } else {
+        batch.forEach(pendingRequest -> pendingRequest.result.setException(ex));
+      }
+    } catch (RuntimeException ex) {
+      batch.forEach(pendingRequest -> pendingRequest.result.setException(ex));
+    }
+  }
+
+  private void annotate(List<PendingRequest> batch) {
+    BatchAnnotateImagesRequest.Builder batchRequest = BatchAnnotateImagesRequest.newBuilder();
+    batch.forEach(pendingRequest -> batchRequest.addRequests(pendingRequest.request));
+
+    List<AnnotateImageResponse> responses;
+    try {
+      BatchAnnotateImagesResponse batchResponse =
+          this.imageAnnotatorClient.batchAnnotateImages(batchRequest.build());
+      responses =
+          batchResponse != null ? batchResponse.getResponsesList() : Collections.emptyList();
+    } catch (RuntimeException ex) {
+      batch.forEach(pendingRequest -> pendingRequest.result.setException(ex));
+      return;
+    }
+
+    for (int i = 0; i < batch.size(); i++) {
+      SettableListenableFuture<AnnotateImageResponse> result = batch.get(i).result;
+      if (i < responses.size()) {
+        result.set(responses.get(i));
+      } else {
+        result.setException(
+            new CloudVisionException(CloudVisionTemplate.EMPTY_RESPONSE_ERROR_MESSAGE));
+      }
+    }
+  }
+
+  private static final class PendingRequest {
+
+    private final AnnotateImageRequest request;
+
+    private final SettableListenableFuture<AnnotateImageResponse> result;
+
+    PendingRequest(
+        AnnotateImageRequest request, SettableListenableFuture<AnnotateImageResponse> result) {
+      this.request = request;
+      this.result = result;
+    }
+  }
+}
@@ -80,6 +80,15 @@ final class OcrPageRange {
     return pages;
   }
 
+  /**
+   * Parses the pages of this range without retaining them, so that callers streaming over many
+   * ranges only hold the ranges they are currently reading. Safe to call from any thread.
+   */
+  List<TextAnnotation> parsePages() throws InvalidProtocolBufferException {
+    List<TextAnnotation> cached = pages;
+    return cached != null ? cached : parseJsonBlob(blob);
+  }
+
   public Blob getBlob() {
     return blob;
   }
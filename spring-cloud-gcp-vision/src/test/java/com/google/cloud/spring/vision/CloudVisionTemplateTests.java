@@ -18,6 +18,7 @@ package com.google.cloud.spring.vision;
 
 import static com.google.cloud.spring.vision.CloudVisionTemplate.EMPTY_RESPONSE_ERROR_MESSAGE;
 import static com.google.cloud.spring.vision.CloudVisionTemplate.READ_BYTES_ERROR_MESSAGE;
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.times;
@@ -38,17 +39,26 @@ import com.google.cloud.vision.v1.Image;
 import com.google.cloud.vision.v1.ImageAnnotatorClient;
 import com.google.cloud.vision.v1.ImageContext;
 import com.google.cloud.vision.v1.InputConfig;
+import com.google.cloud.vision.v1.TextAnnotation;
 import com.google.protobuf.ByteString;
 import com.google.rpc.Status;
 import io.grpc.Status.Code;
 import java.io.IOException;
 import java.io.InputStream;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mockito;
 import org.springframework.core.io.AbstractResource;
 import org.springframework.core.io.ByteArrayResource;
 import org.springframework.core.io.Resource;
+import org.springframework.util.concurrent.ListenableFuture;
 
 /**
  * Unit tests for the {@link CloudVisionTemplate}.
@@ -216,6 +226,138 @@ class CloudVisionTemplateTests {
             .hasMessageContaining(READ_BYTES_ERROR_MESSAGE);
   }
 
+  @Test
+  void testAnalyzeImagesCoalescesIntoBatches() {
+    when(this.imageAnnotatorClient.batchAnnotateImages(any(BatchAnnotateImagesRequest.class)))
+        .thenAnswer(
+            invocation -> {
+              BatchAnnotateImagesRequest request = invocation.getArgument(0);
+              BatchAnnotateImagesResponse.Builder response =
+                  BatchAnnotateImagesResponse.newBuilder();
+              for (AnnotateImageRequest imageRequest : request.getRequestsList()) {
+                response.addResponses(
+                    AnnotateImageResponse.newBuilder()
+                        .setFullTextAnnotation(
+                            TextAnnotation.newBuilder()
+                                .setText(imageRequest.getImage().getContent().toStringUtf8())));
+              }
+              return response.build();
+            });
+
+    List<Resource> images = new ArrayList<>();
+    for (int i = 0; i < 20; i++) {
+      images.add(new ByteArrayResource(("image_" + i).getBytes()));
+    }
+
+    this.cloudVisionTemplate.setMaxBatchDelay(Duration.ofSeconds(1));
+    List<AnnotateImageResponse> responses =
+        this.cloudVisionTemplate.analyzeImages(images, Type.TEXT_DETECTION);
+
+    assertThat(responses)
+        .extracting(response -> response.getFullTextAnnotation().getText())
+        .containsExactlyElementsOf(
+            images.stream()
+                .map(image -> new String(((ByteArrayResource) image).getByteArray()))
+                .collect(Collectors.toList()));
+
+    ArgumentCaptor<BatchAnnotateImagesRequest> requests =
+        ArgumentCaptor.forClass(BatchAnnotateImagesRequest.class);
+    verify(this.imageAnnotatorClient, times(2)).batchAnnotateImages(requests.capture());
+    assertThat(requests.getAllValues())
+        .extracting(BatchAnnotateImagesRequest::getRequestsCount)
+        .containsExactlyInAnyOrder(16, 4);
+  }
+
+  @Test
+  void testAnalyzeImageAsyncRespectsMaxBatchSize() throws Exception {
+    when(this.imageAnnotatorClient.batchAnnotateImages(any(BatchAnnotateImagesRequest.class)))
+        .thenReturn(DEFAULT_API_RESPONSE);
+
+    this.cloudVisionTemplate.setMaxBatchSize(1);
+    this.cloudVisionTemplate.setMaxBatchDelay(Duration.ofMinutes(1));
+
+    assertThat(this.cloudVisionTemplate.analyzeImageAsync(FAKE_IMAGE, Type.LABEL_DETECTION).get())
+        .isEqualTo(AnnotateImageResponse.getDefaultInstance());
+  }
+
+  @Test
+  void testAnalyzeImagesMissingResponse() {
+    when(this.imageAnnotatorClient.batchAnnotateImages(any(BatchAnnotateImagesRequest.class)))
+        .thenReturn(BatchAnnotateImagesResponse.getDefaultInstance());
+
+    List<Resource> images = Collections.singletonList(FAKE_IMAGE);
+    assertThatThrownBy(() -> this.cloudVisionTemplate.analyzeImages(images, Type.LABEL_DETECTION))
+        .isInstanceOf(CloudVisionException.class)
+        .hasMessageContaining(EMPTY_RESPONSE_ERROR_MESSAGE);
+  }
+
+  @Test
+  void testAnalyzeImagesResourceReadingError() {
+    when(this.imageAnnotatorClient.batchAnnotateImages(any(BatchAnnotateImagesRequest.class)))
+        .thenReturn(DEFAULT_API_RESPONSE);
+
+    List<Resource> images = Arrays.asList(FAKE_IMAGE, new BadResource());
+    assertThatThrownBy(() -> this.cloudVisionTemplate.analyzeImages(images, Type.LABEL_DETECTION))
+        .isInstanceOf(CloudVisionException.class)
+        .hasMessageContaining(READ_BYTES_ERROR_MESSAGE);
+  }
+
+  @Test
+  void testAnalyzeImagesRespectsMaxBatchBytes() {
+    when(this.imageAnnotatorClient.batchAnnotateImages(any(BatchAnnotateImagesRequest.class)))
+        .thenAnswer(
+            invocation -> {
+              BatchAnnotateImagesRequest request = invocation.getArgument(0);
+              BatchAnnotateImagesResponse.Builder response =
+                  BatchAnnotateImagesResponse.newBuilder();
+              request
+                  .getRequestsList()
+                  .forEach(imageRequest -> response.addResponses(AnnotateImageResponse.newBuilder()));
+              return response.build();
+            });
+
+    List<Resource> images = new ArrayList<>();
+    for (int i = 0; i < 6; i++) {
+      images.add(new ByteArrayResource(new byte[100]));
+    }
+
+    // about 110 bytes per image request, so two of them fit in a batch
+    this.cloudVisionTemplate.setMaxBatchBytes(250);
+    this.cloudVisionTemplate.setMaxBatchDelay(Duration.ofMillis(100));
+    assertThat(this.cloudVisionTemplate.analyzeImages(images, Type.TEXT_DETECTION)).hasSize(6);
+
+    ArgumentCaptor<BatchAnnotateImagesRequest> requests =
+        ArgumentCaptor.forClass(BatchAnnotateImagesRequest.class);
+    verify(this.imageAnnotatorClient, times(3)).batchAnnotateImages(requests.capture());
+    assertThat(requests.getAllValues())
+        .extracting(BatchAnnotateImagesRequest::getRequestsCount)
+        .containsOnly(2);
+  }
+
+  @Test
+  void testDestroySendsPendingRequests() throws Exception {
+    when(this.imageAnnotatorClient.batchAnnotateImages(any(BatchAnnotateImagesRequest.class)))
+        .thenReturn(DEFAULT_API_RESPONSE);
+    CloudVisionTemplate template = new CloudVisionTemplate(this.imageAnnotatorClient, Runnable::run);
+    template.setMaxBatchDelay(Duration.ofMinutes(1));
+
+    ListenableFuture<AnnotateImageResponse> response =
+        template.analyzeImageAsync(FAKE_IMAGE, Type.LABEL_DETECTION);
+    assertThat(response).isNotDone();
+    template.destroy();
+
+    assertThat(response.get()).isEqualTo(AnnotateImageResponse.getDefaultInstance());
+    // once destroyed, images are sent without waiting for others
+    assertThat(template.analyzeImageAsync(FAKE_IMAGE, Type.LABEL_DETECTION).get())
+        .isEqualTo(AnnotateImageResponse.getDefaultInstance());
+  }
+
+  @Test
+  void testInvalidMaxBatchSize() {
+    assertThatThrownBy(() -> this.cloudVisionTemplate.setMaxBatchSize(17))
+        .isInstanceOf(IllegalArgumentException.class);
+  }
+
   private static final class BadResource extends AbstractResource {
     @Override
     public String getDescription() {
@@ -18,12 +18,21 @@ package com.google.cloud.spring.vision;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import com.google.cloud.storage.Blob;
+import com.google.cloud.vision.v1.TextAnnotation;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
+import java.util.Iterator;
 import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mockito;
 
@@ -65,4 +74,75 @@ class DocumentOcrResultSetTests {
         .hasMessageContaining("Page number out of bounds")
         .isInstanceOf(IndexOutOfBoundsException.class);
   }
+
+  @Test
+  void testStreamAllPagesInOrder() {
+    List<Blob> blobs = new ArrayList<>();
+    for (int i = 1; i <= 5; i++) {
+      blobs.add(pageBlob(i, "page_" + i));
+    }
+    Collections.reverse(blobs);
+
+    DocumentOcrResultSet documentOcrResultSet = new DocumentOcrResultSet(blobs);
+    ExecutorService executor = Executors.newFixedThreadPool(3);
+    try (Stream<TextAnnotation> pages = documentOcrResultSet.streamAllPages(executor, 2)) {
+      assertThat(pages.map(TextAnnotation::getText))
+          .containsExactly("page_1", "page_2", "page_3", "page_4", "page_5");
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  @Test
+  void testStreamAllPagesBoundsPrefetching() {
+    List<Blob> blobs = new ArrayList<>();
+    for (int i = 1; i <= 5; i++) {
+      blobs.add(pageBlob(i, "page_" + i));
+    }
+
+    DocumentOcrResultSet documentOcrResultSet = new DocumentOcrResultSet(blobs);
+    Iterator<TextAnnotation> pages = documentOcrResultSet.streamAllPages(Runnable::run, 2)
+        .iterator();
+
+    assertThat(pages.next().getText()).isEqualTo("page_1");
+    verify(blobs.get(0)).getContent();
+    verify(blobs.get(1)).getContent();
+    verify(blobs.get(2)).getContent();
+    verify(blobs.get(3), never()).getContent();
+    verify(blobs.get(4), never()).getContent();
+  }
+
+  @Test
+  void testStreamAllPagesPropagatesParseFailure() {
+    Blob badBlob = Mockito.mock(Blob.class);
+    when(badBlob.getName()).thenReturn("blob-output-2-to-2.json");
+    when(badBlob.getContent()).thenReturn("not json".getBytes());
+
+    DocumentOcrResultSet documentOcrResultSet =
+        new DocumentOcrResultSet(Arrays.asList(pageBlob(1, "page_1"), badBlob));
+    Stream<TextAnnotation> pages = documentOcrResultSet.streamAllPages(Runnable::run, 1);
+
+    assertThatThrownBy(() -> pages.collect(Collectors.toList()))
+        .hasMessageContaining("blob-output-2-to-2.json");
+  }
+
+  @Test
+  void testStreamAllPagesValidatesArguments() {
+    DocumentOcrResultSet documentOcrResultSet =
+        new DocumentOcrResultSet(Collections.singletonList(pageBlob(1, "page_1")));
+
+    assertThatThrownBy(() -> documentOcrResultSet.streamAllPages(null, 1))
+        .isInstanceOf(IllegalArgumentException.class);
+    assertThatThrownBy(() -> documentOcrResultSet.streamAllPages(Runnable::run, 0))
+        .isInstanceOf(IllegalArgumentException.class);
+  }
+
+  private static Blob pageBlob(int page, String text) {
+    Blob blob = Mockito.mock(Blob.class);
+    when(blob.getName()).thenReturn("blob-output-" + page + "-to-" + page + ".json");
+    when(blob.getContent())
+        .thenReturn(
+            ("{'responses':[{'fullTextAnnotation': {'text': '" + text + "'}}]}").getBytes());
+    return blob;
+  }
 }